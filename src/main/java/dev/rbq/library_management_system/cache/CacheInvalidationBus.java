@@ -0,0 +1,97 @@
+package dev.rbq.library_management_system.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 跨节点缓存失效总线
+ * 通过 Redis 发布订阅在节点之间广播失效消息，消息格式为 "节点ID\n区域\n键"（键为空表示整个区域）
+ * 本节点发出的消息会被忽略；消息丢失时各节点的本地缓存依靠过期时间兜底
+ */
+@Component
+public class CacheInvalidationBus implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+
+    @Value("${library.cache.invalidation.channel:library:cache:invalidation}")
+    private String channel;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * 注册区域的失效处理函数（每个区域只能有一个处理函数）
+     * @param region 区域名称
+     * @param handler 处理函数，参数为失效的键（为null时表示整个区域失效）；
+     *                在所有区域共用的消息线程中执行，不能访问数据库或做其他耗时操作
+     */
+    public void subscribe(String region, Consumer<String> handler) {
+        if (handlers.putIfAbsent(region, handler) != null) {
+            throw new IllegalStateException("Duplicate invalidation region: " + region);
+        }
+    }
+
+    /**
+     * 向其他节点广播失效消息
+     * 发送失败只记录日志，不影响已提交的事务
+     * @param region 区域名称
+     * @param key 失效的键（为null时表示整个区域失效）
+     */
+    public void publish(String region, String key) {
+        String payload = nodeId + '\n' + region + '\n' + (key != null ? key : "");
+        try {
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to publish cache invalidation for {}:{}, peers fall back to expiry", region, key, e);
+        }
+    }
+
+    /**
+     * 处理其他节点发来的失效消息
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length != 3) {
+            logger.warn("Ignoring malformed cache invalidation message");
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+
+        Consumer<String> handler = handlers.get(parts[1]);
+        if (handler == null) {
+            return;
+        }
+        try {
+            handler.accept(parts[2].isEmpty() ? null : parts[2]);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply cache invalidation for {}:{}", parts[1], parts[2], e);
+        }
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,47 @@
+package dev.rbq.library_management_system.cache;
+
+import dev.rbq.library_management_system.dto.admin.CacheStatsResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * 本地缓存注册表，用于统计和按名称失效
+ */
+@Component
+public class CacheRegistry {
+
+    private final Map<String, NamedCache<?, ?>> caches = new ConcurrentSkipListMap<>();
+
+    /**
+     * 注册缓存
+     * @param cache 缓存
+     */
+    public void register(NamedCache<?, ?> cache) {
+        if (caches.putIfAbsent(cache.getName(), cache) != null) {
+            throw new IllegalStateException("Duplicate cache name: " + cache.getName());
+        }
+    }
+
+    /**
+     * 按名称查找缓存
+     * @param name 缓存名称
+     * @return 缓存（不存在时为null）
+     */
+    public NamedCache<?, ?> find(String name) {
+        return caches.get(name);
+    }
+
+    /**
+     * 获取所有缓存的统计
+     * @return 按名称排序的缓存统计
+     */
+    public List<CacheStatsResponse> stats() {
+        return caches.values().stream()
+                .map(NamedCache::stats)
+                .collect(Collectors.toList());
+    }
+}
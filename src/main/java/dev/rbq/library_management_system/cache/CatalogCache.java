@@ -0,0 +1,276 @@
+package dev.rbq.library_management_system.cache;
+
+import dev.rbq.library_management_system.dto.book.BookResponse;
+import dev.rbq.library_management_system.dto.book.PageResponse;
+import dev.rbq.library_management_system.event.BookChangedEvent;
+import dev.rbq.library_management_system.event.BookCopiesChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 图书目录缓存（图书详情和图书列表页）
+ * 列表页只缓存图书ID和分页信息，读取时从详情缓存中取出每本图书（未命中的一次批量加载），
+ * 因此借还等副本计数器变化只需失效对应图书的详情；只有依赖计数器的列表页
+ * （只看可借图书、按副本数排序）会在计数器变化时失效。图书信息变化时失效全部列表页。
+ * 列表页的缓存时间较短，作为漏掉失效时的兜底
+ * 缓存的响应对象会被多个请求共享，调用方不能修改
+ */
+@Component
+public class CatalogCache {
+
+    public static final String BOOK_DETAIL = "book-detail";
+    public static final String BOOK_LIST = "book-list";
+
+    // 跨节点失效区域，键为图书ID（图书信息变化）或 copies:图书ID（副本计数器变化）
+    public static final String INVALIDATION_REGION = "catalog";
+
+    private static final String COPIES_KEY_PREFIX = "copies:";
+
+    @Value("${library.cache.book-detail.max-size:10000}")
+    private long detailMaxSize;
+
+    @Value("${library.cache.book-detail.ttl:10m}")
+    private Duration detailTtl;
+
+    @Value("${library.cache.book-list.max-size:2000}")
+    private long listMaxSize;
+
+    @Value("${library.cache.book-list.ttl:60s}")
+    private Duration listTtl;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    private NamedCache<Integer, BookResponse> details;
+    private NamedCache<BookListKey, BookListPage> lists;
+
+    @PostConstruct
+    void initCaches() {
+        details = new NamedCache<>(BOOK_DETAIL, detailMaxSize, detailTtl);
+        lists = new NamedCache<>(BOOK_LIST, listMaxSize, listTtl);
+        cacheRegistry.register(details);
+        cacheRegistry.register(lists);
+        invalidationBus.subscribe(INVALIDATION_REGION, key -> {
+            if (key == null) {
+                invalidateAll();
+            } else if (key.startsWith(COPIES_KEY_PREFIX)) {
+                List<Integer> bookIds = new ArrayList<>();
+                for (String bookId : key.substring(COPIES_KEY_PREFIX.length()).split(",")) {
+                    bookIds.add(Integer.valueOf(bookId));
+                }
+                invalidateCopies(bookIds);
+            } else {
+                invalidateBook(Integer.valueOf(key));
+            }
+        });
+    }
+
+    /**
+     * 读取图书详情，未命中时从数据库加载
+     * @param bookId 图书ID
+     * @param loader 加载函数
+     * @return 图书详情
+     */
+    public BookResponse getBookDetail(Integer bookId, Supplier<BookResponse> loader) {
+        return details.get(bookId, loader);
+    }
+
+    /**
+     * 读取图书列表页，未命中时从数据库加载
+     * 排序条件会先归一化（统一默认排序字段和方向），等价的查询共用同一个缓存条目
+     * @param loader 列表页加载函数
+     * @param detailLoader 图书详情批量加载函数（列表页命中但详情未命中时使用）
+     * @return 图书分页列表
+     */
+    public PageResponse<BookResponse> getBookList(
+            int page, int size, String title, String author, Integer category,
+            boolean availableOnly, String sortBy, String sortDirection,
+            Supplier<PageResponse<BookResponse>> loader,
+            Function<Collection<Integer>, Map<Integer, BookResponse>> detailLoader) {
+        BookListKey key = new BookListKey(page, size, title, author, category,
+                availableOnly, sortBy != null ? sortBy : "bookId",
+                "asc".equalsIgnoreCase(sortDirection));
+
+        AtomicReference<PageResponse<BookResponse>> loaded = new AtomicReference<>();
+        BookListPage cached = lists.get(key, () -> {
+            PageResponse<BookResponse> response = loader.get();
+            loaded.set(response);
+            return BookListPage.of(response);
+        });
+        if (loaded.get() != null) {
+            return loaded.get();
+        }
+
+        Map<Integer, BookResponse> books = details.getAll(cached.bookIds, detailLoader);
+        if (books.size() < cached.bookIds.size()) {
+            // 页中的图书已被删除（失效消息尚未到达），重新查询
+            lists.invalidate(key);
+            return loader.get();
+        }
+        return cached.toResponse(books);
+    }
+
+    /**
+     * 使单本图书的详情和全部列表页失效（图书信息变化可能改变任意列表页的内容和顺序）
+     * @param bookId 图书ID
+     */
+    public void invalidateBook(Integer bookId) {
+        details.invalidate(bookId);
+        lists.invalidateAll();
+    }
+
+    /**
+     * 副本计数器变化：使图书详情和依赖计数器的列表页失效，其余列表页在读取时使用新的详情
+     * @param bookIds 图书ID
+     */
+    public void invalidateCopies(Collection<Integer> bookIds) {
+        bookIds.forEach(details::invalidate);
+        lists.invalidateIf(BookListKey::dependsOnCopyCounters);
+    }
+
+    /**
+     * 使全部目录缓存失效
+     */
+    public void invalidateAll() {
+        details.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    /**
+     * 图书信息变更的事务提交后失效缓存，并通知其他节点
+     * 排在搜索索引更新之后，避免重新加载的列表页使用旧索引
+     */
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        invalidateBook(event.getBookId());
+        invalidationBus.publish(INVALIDATION_REGION, event.getBookId().toString());
+    }
+
+    /**
+     * 副本计数器变更的事务提交后失效缓存，并通知其他节点
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookCopiesChanged(BookCopiesChangedEvent event) {
+        invalidateCopies(event.getBookIds());
+        invalidationBus.publish(INVALIDATION_REGION, COPIES_KEY_PREFIX + event.getBookIds().stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * 缓存的列表页：图书ID和分页信息
+     */
+    private static final class BookListPage {
+        private final List<Integer> bookIds;
+        private final int pageNumber;
+        private final int pageSize;
+        private final long totalElements;
+        private final int totalPages;
+        private final boolean first;
+        private final boolean last;
+        private final boolean empty;
+
+        private BookListPage(List<Integer> bookIds, int pageNumber, int pageSize, long totalElements,
+                             int totalPages, boolean first, boolean last, boolean empty) {
+            this.bookIds = bookIds;
+            this.pageNumber = pageNumber;
+            this.pageSize = pageSize;
+            this.totalElements = totalElements;
+            this.totalPages = totalPages;
+            this.first = first;
+            this.last = last;
+            this.empty = empty;
+        }
+
+        private static BookListPage of(PageResponse<BookResponse> page) {
+            return new BookListPage(
+                    page.getContent().stream().map(BookResponse::getBookId).toList(),
+                    page.getPageNumber(), page.getPageSize(), page.getTotalElements(),
+                    page.getTotalPages(), page.isFirst(), page.isLast(), page.isEmpty());
+        }
+
+        private PageResponse<BookResponse> toResponse(Map<Integer, BookResponse> books) {
+            List<BookResponse> content = new ArrayList<>(bookIds.size());
+            for (Integer bookId : bookIds) {
+                content.add(books.get(bookId));
+            }
+            return new PageResponse<>(content, pageNumber, pageSize, totalElements, totalPages, first, last, empty);
+        }
+    }
+
+    /**
+     * 图书列表缓存键
+     */
+    private static final class BookListKey {
+        private final int page;
+        private final int size;
+        private final String title;
+        private final String author;
+        private final Integer category;
+        private final boolean availableOnly;
+        private final String sortBy;
+        private final boolean ascending;
+
+        private BookListKey(int page, int size, String title, String author, Integer category,
+                            boolean availableOnly, String sortBy, boolean ascending) {
+            this.page = page;
+            this.size = size;
+            this.title = title;
+            this.author = author;
+            this.category = category;
+            this.availableOnly = availableOnly;
+            this.sortBy = sortBy;
+            this.ascending = ascending;
+        }
+
+        /**
+         * 列表页的成员或顺序是否取决于副本计数器
+         */
+        private boolean dependsOnCopyCounters() {
+            return availableOnly || "availableCopies".equals(sortBy) || "totalCopies".equals(sortBy);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BookListKey other)) {
+                return false;
+            }
+            return page == other.page
+                    && size == other.size
+                    && availableOnly == other.availableOnly
+                    && ascending == other.ascending
+                    && Objects.equals(title, other.title)
+                    && Objects.equals(author, other.author)
+                    && Objects.equals(category, other.category)
+                    && Objects.equals(sortBy, other.sortBy);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(page, size, title, author, category, availableOnly, sortBy, ascending);
+        }
+    }
+}
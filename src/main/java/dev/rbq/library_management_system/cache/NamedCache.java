@@ -0,0 +1,199 @@
+package dev.rbq.library_management_system.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.rbq.library_management_system.dto.admin.CacheStatsResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 有名称、容量和过期时间上限的本地缓存
+ * 读穿时为每个键登记一个加载凭据：加载期间该键被失效时凭据作废，加载结果不写入缓存，
+ * 避免在事务提交前读到的旧数据覆盖刚失效的缓存；其他键的失效不影响这次加载
+ * 读穿加载的次数和耗时单独统计，用于观察未命中时的回源延迟
+ */
+public class NamedCache<K, V> {
+
+    private final String name;
+    private final Cache<K, V> cache;
+    // 正在加载的键 -> 加载凭据（失效时移除）
+    private final ConcurrentHashMap<K, Object> loading = new ConcurrentHashMap<>();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+
+    /**
+     * @param name 缓存名称
+     * @param maximumSize 最大条目数
+     * @param ttl 写入后的存活时间
+     */
+    public NamedCache(String name, long maximumSize, Duration ttl) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 读取缓存，未命中时调用加载函数并写入缓存
+     * @param key 键
+     * @param loader 加载函数（返回null时不缓存）
+     * @return 值
+     */
+    public V get(K key, Supplier<V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Object ticket = new Object();
+        loading.put(key, ticket);
+        V loaded = null;
+        try {
+            long start = System.nanoTime();
+            loaded = loader.get();
+            totalLoadNanos.add(System.nanoTime() - start);
+            loadCount.increment();
+        } finally {
+            complete(key, ticket, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * 批量读取缓存，未命中的键调用一次加载函数并写入缓存
+     * @param keys 键
+     * @param loader 批量加载函数（参数为未命中的键，不存在的键不返回）
+     * @return 键 -> 值（不包含不存在的键）
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        Map<K, V> values = new HashMap<>(cache.getAllPresent(keys));
+        if (values.size() == keys.size()) {
+            return values;
+        }
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            if (!values.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+
+        Object ticket = new Object();
+        for (K key : missing) {
+            loading.put(key, ticket);
+        }
+        Map<K, V> loaded = Map.of();
+        try {
+            long start = System.nanoTime();
+            loaded = loader.apply(missing);
+            totalLoadNanos.add(System.nanoTime() - start);
+            loadCount.increment();
+        } finally {
+            for (K key : missing) {
+                complete(key, ticket, loaded.get(key));
+            }
+        }
+        values.putAll(loaded);
+        return values;
+    }
+
+    /**
+     * 结束一个键的加载：凭据仍有效时写入缓存（值为null时只移除凭据）
+     * 与失效操作在同一个键上互斥，失效之后不会再写入加载开始前读到的值
+     */
+    private void complete(K key, Object ticket, V value) {
+        loading.computeIfPresent(key, (k, current) -> {
+            if (current != ticket) {
+                // 同一个键上有更晚开始的加载，由它写入
+                return current;
+            }
+            if (value != null) {
+                cache.put(k, value);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 读取缓存，不加载
+     * @param key 键
+     * @return 值（未命中时为null）
+     */
+    public V getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 直接写入缓存
+     * @param key 键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * 使单个键失效
+     * @param key 键
+     */
+    public void invalidate(K key) {
+        loading.compute(key, (k, current) -> {
+            cache.invalidate(k);
+            return null;
+        });
+    }
+
+    /**
+     * 使符合条件的键失效
+     * @param predicate 键的条件
+     */
+    public void invalidateIf(Predicate<K> predicate) {
+        // 先作废匹配键的加载凭据，再移除条目：之间完成的加载写入的条目也会被移除
+        loading.keySet().removeIf(predicate);
+        cache.asMap().keySet().removeIf(predicate);
+    }
+
+    /**
+     * 使全部条目失效
+     */
+    public void invalidateAll() {
+        loading.clear();
+        cache.invalidateAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取命中、未命中、淘汰和加载耗时统计
+     * @return 缓存统计
+     */
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        long loads = loadCount.sum();
+        double averageLoadMillis = loads == 0 ? 0.0 : totalLoadNanos.sum() / 1_000_000.0 / loads;
+        return new CacheStatsResponse(
+                name,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                loads,
+                averageLoadMillis
+        );
+    }
+}
@@ -0,0 +1,39 @@
+package dev.rbq.library_management_system.config;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 缓存失效消息订阅配置
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    /**
+     * 订阅缓存失效频道
+     * 消息在单个线程中按到达顺序处理，保证同一节点发出的失效按发送顺序生效；
+     * 处理函数只做内存操作，需要访问数据库的更新（搜索索引、副本索引）交给各自的线程
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory, CacheInvalidationBus invalidationBus) {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        container.addMessageListener(invalidationBus, new ChannelTopic(invalidationBus.getChannel()));
+        return container;
+    }
+}
@@ -1,21 +1,100 @@
 package dev.rbq.library_management_system.config;
 
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import dev.rbq.library_management_system.cache.CacheRegistry;
+import dev.rbq.library_management_system.cache.NamedCache;
+import dev.rbq.library_management_system.security.CompactSessionSerializer;
+import dev.rbq.library_management_system.session.NearCachingSessionRepository;
+import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.web.authentication.session.ConcurrentSessionControlAuthenticationStrategy;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisIndexedHttpSession;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
 import org.springframework.session.web.http.CookieSerializer;
 import org.springframework.session.web.http.DefaultCookieSerializer;
 
+import java.time.Duration;
+
 /**
  * Redis Session 配置
+ * 使用带用户索引的 Session 仓库，以便在用户信息变化时找到该用户的所有 Session
  */
 @Configuration
-@EnableRedisHttpSession(maxInactiveIntervalInSeconds = 365 * 24 * 60 * 60) // 最大1年，实际由代码控制
-public class RedisSessionConfig {
+@EnableRedisIndexedHttpSession(maxInactiveIntervalInSeconds = 365 * 24 * 60 * 60) // 最大1年，实际由代码控制
+public class RedisSessionConfig implements BeanClassLoaderAware {
     @Value("${spring.session.cookie.secure:true}")
     private boolean useSecureCookie;
 
+    private ClassLoader classLoader;
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Session 属性值序列化器
+     * 登录信息和 Session 元数据使用紧凑编码，代替默认的 JDK 序列化
+     */
+    @Bean
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer() {
+        return new CompactSessionSerializer(classLoader);
+    }
+
+
+    /**
+     * Session 近缓存（可选，默认关闭）
+     * 开启后 Session 过滤器使用带本地近缓存的仓库，减少每个请求对 Redis 的读写
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "library.session.near-cache.enabled", havingValue = "true")
+    public NearCachingSessionRepository nearCachingSessionRepository(
+            RedisIndexedSessionRepository sessionRepository,
+            CacheInvalidationBus invalidationBus,
+            CacheRegistry cacheRegistry,
+            @Value("${library.session.near-cache.max-size:10000}") long maxSize,
+            @Value("${library.session.near-cache.ttl:5s}") Duration ttl,
+            @Value("${library.session.near-cache.touch-interval:60s}") Duration touchInterval) {
+        NamedCache<String, NearCachingSessionRepository.CachedSession> cache =
+                new NamedCache<>(NearCachingSessionRepository.CACHE_NAME, maxSize, ttl);
+        cacheRegistry.register(cache);
+        return new NearCachingSessionRepository(sessionRepository, cache, invalidationBus, touchInterval);
+    }
+
+    /**
+     * 基于 Redis 用户索引的 Session 注册表
+     * 按用户UUID直接读取索引集合，不在本地内存中保存 Session 列表，所有节点共享同一份数据；
+     * 过期 Session 的索引由 Session 仓库的定时清理任务按分钟批量删除
+     */
+    @Bean
+    public <S extends Session> SpringSessionBackedSessionRegistry<S> sessionRegistry(
+            FindByIndexNameSessionRepository<S> sessionRepository) {
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
+    }
+
+    /**
+     * 每个用户的并发 Session 数量控制，超出时使最久未使用的 Session 过期
+     */
+    @Bean
+    public ConcurrentSessionControlAuthenticationStrategy sessionControlStrategy(
+            SessionRegistry sessionRegistry,
+            @Value("${library.session.max-per-user:1}") int maxSessionsPerUser) {
+        ConcurrentSessionControlAuthenticationStrategy strategy =
+                new ConcurrentSessionControlAuthenticationStrategy(sessionRegistry);
+        strategy.setMaximumSessions(maxSessionsPerUser);
+        strategy.setExceptionIfMaximumExceeded(false);
+        return strategy;
+    }
 
     /**
      * 配置 Session Cookie
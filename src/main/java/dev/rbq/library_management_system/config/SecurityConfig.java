@@ -1,7 +1,13 @@
 package dev.rbq.library_management_system.config;
 
+import dev.rbq.library_management_system.security.BoundedPasswordEncoder;
+import dev.rbq.library_management_system.security.LegacySessionContextFilter;
+import dev.rbq.library_management_system.security.TokenAuthenticationFilter;
 import dev.rbq.library_management_system.security.UserDetailsServiceImpl;
+import dev.rbq.library_management_system.service.TokenService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,9 +17,12 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.time.Duration;
 
 /**
  * Spring Security 配置
@@ -26,12 +35,48 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private ObjectProvider<TokenService> tokenService;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    // 认证模式：session（Redis Session，默认）或 token（无状态签名令牌）
+    @Value("${library.auth.mode:session}")
+    private String authMode;
+
+    @Value("${library.session.max-per-user:1}")
+    private int maxSessionsPerUser;
+
+    // BCrypt 强度，0 表示启动时按目标耗时校准
+    @Value("${library.password.bcrypt.strength:0}")
+    private int bcryptStrength;
+
+    @Value("${library.password.bcrypt.target-latency:250ms}")
+    private Duration bcryptTargetLatency;
+
+    // 哈希线程数，0 表示 CPU 核数的一半
+    @Value("${library.password.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${library.password.hashing.bulk-threads:0}")
+    private int hashingBulkThreads;
+
+    @Value("${library.password.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${library.password.hashing.timeout:5s}")
+    private Duration hashingTimeout;
+
     /**
-     * 密码编码器 - 使用 BCrypt
+     * 密码编码器 - 使用 BCrypt，在独立的有界线程池中计算
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        int strength = bcryptStrength > 0 ? bcryptStrength : BoundedPasswordEncoder.calibrateStrength(bcryptTargetLatency);
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int bulkThreads = hashingBulkThreads > 0 ? hashingBulkThreads : BoundedPasswordEncoder.defaultBulkThreads(threads);
+        return new BoundedPasswordEncoder(strength, threads, bulkThreads, hashingQueueCapacity, hashingTimeout);
     }
 
     /**
@@ -41,6 +86,8 @@ public class SecurityConfig {
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // 登录成功时，低于当前强度的密码哈希会被重新编码
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -66,12 +113,6 @@ public class SecurityConfig {
                         .anyRequest().permitAll()
                 )
 
-                // Session 管理
-                .sessionManagement(session -> session
-                        .maximumSessions(1)
-                        .maxSessionsPreventsLogin(false)
-                )
-
                 // 认证提供者
                 .authenticationProvider(authenticationProvider())
 
@@ -89,6 +130,27 @@ public class SecurityConfig {
                         })
                 );
 
+        if ("token".equalsIgnoreCase(authMode)) {
+            // 令牌模式：不创建也不读取 Session，每个请求只校验 Authorization 请求头
+            http
+                    .sessionManagement(session -> session
+                            .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                    )
+                    .addFilterBefore(new TokenAuthenticationFilter(tokenService.getObject()),
+                            UsernamePasswordAuthenticationFilter.class);
+        } else if ("session".equalsIgnoreCase(authMode)) {
+            // Session 管理（使用 Redis 中的 Session 注册表，在所有节点上统一限制每个用户的 Session 数量）
+            http
+                    .sessionManagement(session -> session
+                            .maximumSessions(maxSessionsPerUser)
+                            .maxSessionsPreventsLogin(false)
+                            .sessionRegistry(sessionRegistry)
+                    )
+                    .addFilterBefore(new LegacySessionContextFilter(), UsernamePasswordAuthenticationFilter.class);
+        } else {
+            throw new IllegalStateException("Unknown authentication mode: " + authMode);
+        }
+
         return http.build();
     }
 }
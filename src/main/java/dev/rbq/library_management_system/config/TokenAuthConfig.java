@@ -0,0 +1,40 @@
+package dev.rbq.library_management_system.config;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import dev.rbq.library_management_system.security.TokenCodec;
+import dev.rbq.library_management_system.security.TokenRevocationList;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * 令牌认证模式配置（library.auth.mode=token 时生效）
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.auth.mode", havingValue = "token")
+public class TokenAuthConfig {
+
+    /**
+     * 令牌编解码器，密钥来自 JWT_SECRET
+     */
+    @Bean
+    public TokenCodec tokenCodec(@Value("${library.auth.token.secret:}") String secret) {
+        return new TokenCodec(secret);
+    }
+
+    /**
+     * 令牌吊销列表
+     */
+    @Bean(initMethod = "load")
+    public TokenRevocationList tokenRevocationList(
+            StringRedisTemplate redisTemplate,
+            CacheInvalidationBus invalidationBus,
+            @Value("${library.auth.token.revocation-key:library:token:revoked}") String redisKey,
+            @Value("${library.auth.token.refresh-ttl:14d}") Duration refreshTtl) {
+        return new TokenRevocationList(redisTemplate, invalidationBus, redisKey, refreshTtl.toSeconds());
+    }
+}
@@ -1,15 +1,26 @@
 package dev.rbq.library_management_system.controller;
 
+import dev.rbq.library_management_system.cache.CacheRegistry;
 import dev.rbq.library_management_system.dto.ApiResponse;
 import dev.rbq.library_management_system.dto.admin.AdminUserResponse;
+import dev.rbq.library_management_system.dto.admin.CacheStatsResponse;
 import dev.rbq.library_management_system.dto.admin.UpdateAdminRequest;
+import dev.rbq.library_management_system.dto.admin.UserImportJobResponse;
+import dev.rbq.library_management_system.dto.admin.UserSessionResponse;
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
 import dev.rbq.library_management_system.service.AdminService;
+import dev.rbq.library_management_system.service.UserImportService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -22,6 +33,12 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
     /**
      * 获取所有用户列表
      * @return 用户列表
@@ -42,6 +59,126 @@ public class AdminController {
         }
     }
 
+    /**
+     * 游标分页查询用户列表，适合用户数量很大时翻页
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量（默认为20）
+     * @param keyword 用户名或昵称前缀（可选）
+     * @param admin 管理员标识（可选）
+     * @param sortBy 排序字段（默认为username，可按 uuid、name 排序）
+     * @param sortDirection 排序方向（asc/desc，默认为asc）
+     * @param includeTotal 是否统计总数（默认为false）
+     * @return 用户游标分页列表
+     */
+    @GetMapping("/users/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<AdminUserResponse>>> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Boolean admin,
+            @RequestParam(defaultValue = "username") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            CursorPageResponse<AdminUserResponse> users = adminService.getUsersByCursor(
+                    cursor, size, keyword, admin, sortBy, sortDirection, includeTotal);
+            return ResponseEntity.ok(ApiResponse.success("User list retrieved successfully", users));
+        } catch (SecurityException e) {
+            return ResponseEntity
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve user list: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 导出用户列表（JSON 数组，按用户名排序，流式输出）
+     * @param keyword 用户名或昵称前缀（可选）
+     * @param admin 管理员标识（可选）
+     * @return 用户列表文件
+     */
+    @GetMapping("/users/export")
+    public ResponseEntity<?> exportUsers(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Boolean admin) {
+        try {
+            StreamingResponseBody body = adminService.exportUsers(keyword, admin);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.json\"")
+                    .body(body);
+        } catch (SecurityException e) {
+            return ResponseEntity
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to export user list: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 提交批量导入用户任务（均为普通用户）
+     * 请求体为 CSV（text/csv，第一行为 username,name,password 表头）或 NDJSON（application/x-ndjson，每行一个注册请求）；
+     * 导入在后台执行，通过 GET /api/admin/users/import/{jobId} 查询进度和结果
+     * @param contentType 请求体类型
+     * @param body 请求体
+     * @return 排队中的任务
+     */
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<UserImportJobResponse>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        try {
+            UserImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"))
+                    ? UserImportService.Format.CSV
+                    : UserImportService.Format.NDJSON;
+            UserImportJobResponse response = userImportService.startImport(body, format);
+            return ResponseEntity
+                    .status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("User import started", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to import users: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询批量导入用户任务
+     * @param jobId 任务ID
+     * @return 任务状态、进度，完成后包含导入结果（每个出错行的行号和原因）
+     */
+    @GetMapping("/users/import/{jobId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<UserImportJobResponse>> getImportJob(@PathVariable String jobId) {
+        try {
+            UserImportJobResponse response = userImportService.getJob(jobId);
+            return ResponseEntity.ok(ApiResponse.success("Import job retrieved successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve import job: " + e.getMessage()));
+        }
+    }
+
     /**
      * 更新用户的管理员权限
      * @param request 更新请求
@@ -95,4 +232,95 @@ public class AdminController {
                     .body(ApiResponse.error("Failed to delete user: " + e.getMessage()));
         }
     }
+
+    /**
+     * 获取用户的所有 Session
+     * @param userUuid 用户UUID
+     * @return Session 列表
+     */
+    @GetMapping("/users/{userUuid}/sessions")
+    public ResponseEntity<ApiResponse<List<UserSessionResponse>>> getUserSessions(@PathVariable String userUuid) {
+        try {
+            List<UserSessionResponse> sessions = adminService.getUserSessions(userUuid);
+            return ResponseEntity.ok(ApiResponse.success("User sessions retrieved successfully", sessions));
+        } catch (SecurityException e) {
+            return ResponseEntity
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve user sessions: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 吊销用户的指定 Session
+     * @param userUuid 用户UUID
+     * @param handle Session 句柄
+     * @return 吊销结果
+     */
+    @DeleteMapping("/users/{userUuid}/sessions/{handle}")
+    public ResponseEntity<ApiResponse<Void>> revokeUserSession(
+            @PathVariable String userUuid,
+            @PathVariable String handle) {
+        try {
+            adminService.revokeUserSession(userUuid, handle);
+            return ResponseEntity.ok(ApiResponse.success("Session revoked successfully", null));
+        } catch (SecurityException e) {
+            return ResponseEntity
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to revoke session: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 吊销用户的所有 Session
+     * @param userUuid 用户UUID
+     * @return 吊销的 Session 数量
+     */
+    @DeleteMapping("/users/{userUuid}/sessions")
+    public ResponseEntity<ApiResponse<Integer>> revokeAllUserSessions(@PathVariable String userUuid) {
+        try {
+            int revoked = adminService.revokeAllUserSessions(userUuid);
+            return ResponseEntity.ok(ApiResponse.success("Sessions revoked successfully", revoked));
+        } catch (SecurityException e) {
+            return ResponseEntity
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to revoke sessions: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 获取本地缓存统计（命中率、条目数、淘汰数）
+     * @return 缓存统计列表
+     */
+    @GetMapping("/caches")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<List<CacheStatsResponse>>> getCacheStats() {
+        try {
+            List<CacheStatsResponse> stats = cacheRegistry.stats();
+            return ResponseEntity.ok(ApiResponse.success("Cache statistics retrieved successfully", stats));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve cache statistics: " + e.getMessage()));
+        }
+    }
 }
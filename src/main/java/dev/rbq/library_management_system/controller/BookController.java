@@ -3,8 +3,11 @@ package dev.rbq.library_management_system.controller;
 import dev.rbq.library_management_system.dto.ApiResponse;
 import dev.rbq.library_management_system.dto.book.BookRequest;
 import dev.rbq.library_management_system.dto.book.BookResponse;
+import dev.rbq.library_management_system.dto.book.CopyCounterReconcileResponse;
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
 import dev.rbq.library_management_system.dto.book.PageResponse;
 import dev.rbq.library_management_system.service.BookService;
+import dev.rbq.library_management_system.service.CopyCounterService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -22,6 +25,9 @@ public class BookController {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private CopyCounterService copyCounterService;
+
     /**
      * 获取图书详情
      * 所有已登录用户都可以访问
@@ -53,7 +59,8 @@ public class BookController {
      * @param title 书名（可选，模糊查询）
      * @param author 作者（可选，模糊查询）
      * @param category 分类（可选，精确查询）
-     * @param sortBy 排序字段（默认为bookId）
+     * @param availableOnly 是否只查询有可借副本的图书（默认为false）
+     * @param sortBy 排序字段（默认为bookId，可按 availableCopies 排序）
      * @param sortDirection 排序方向（asc/desc，默认为desc）
      * @return 图书分页列表
      */
@@ -65,12 +72,54 @@ public class BookController {
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) Integer category,
+            @RequestParam(defaultValue = "false") boolean availableOnly,
             @RequestParam(defaultValue = "bookId") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDirection) {
         try {
             PageResponse<BookResponse> response = bookService.getBookList(
-                    page, size, title, author, category, sortBy, sortDirection);
+                    page, size, title, author, category, availableOnly, sortBy, sortDirection);
+            return ResponseEntity.ok(ApiResponse.success("Book list retrieved successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve book list:" + e.getMessage()));
+        }
+    }
+
+    /**
+     * 游标分页查询图书列表，适合深度翻页
+     * 所有已登录用户都可以访问
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量（默认为10）
+     * @param title 书名（可选）
+     * @param author 作者（可选，模糊查询）
+     * @param category 分类（可选，精确查询）
+     * @param availableOnly 是否只查询有可借副本的图书（默认为false）
+     * @param sortBy 排序字段（默认为bookId，可按 title、author、totalCopies、availableCopies 排序）
+     * @param sortDirection 排序方向（asc/desc，默认为desc）
+     * @param includeTotal 是否统计总数（默认为false）
+     * @return 图书游标分页列表
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<CursorPageResponse<BookResponse>>> getBookListByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Integer category,
+            @RequestParam(defaultValue = "false") boolean availableOnly,
+            @RequestParam(defaultValue = "bookId") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            CursorPageResponse<BookResponse> response = bookService.getBookListByCursor(
+                    cursor, size, title, author, category, availableOnly, sortBy, sortDirection, includeTotal);
             return ResponseEntity.ok(ApiResponse.success("Book list retrieved successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -78,6 +127,38 @@ public class BookController {
         }
     }
 
+    /**
+     * 全文搜索图书（书名、作者、出版社、简介），按相关度排序
+     * 所有已登录用户都可以访问
+     * @param q 搜索关键词
+     * @param category 分类（可选，精确过滤）
+     * @param author 作者（可选，包含过滤）
+     * @param page 页码（从0开始，默认为0）
+     * @param size 每页数量（默认为10）
+     * @return 图书分页列表
+     */
+    @GetMapping("/search")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<PageResponse<BookResponse>>> searchBooks(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer category,
+            @RequestParam(required = false) String author,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            PageResponse<BookResponse> response = bookService.searchBooks(q, category, author, page, size);
+            return ResponseEntity.ok(ApiResponse.success("Book search completed successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to search books:" + e.getMessage()));
+        }
+    }
+
     /**
      * 添加图书
      * 仅管理员可以访问
@@ -151,4 +232,29 @@ public class BookController {
                     .body(ApiResponse.error("Failed to delete book:" + e.getMessage()));
         }
     }
+
+    /**
+     * 副本计数器对账
+     * 根据 book_items 分块重新统计每本图书的副本数，修正并报告有偏差的计数器
+     * 仅管理员可以访问
+     * @param chunkSize 每块的图书数量（默认为500）
+     * @return 对账结果
+     */
+    @PostMapping("/copy-counters/reconcile")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<CopyCounterReconcileResponse>> reconcileCopyCounters(
+            @RequestParam(defaultValue = "500") int chunkSize) {
+        try {
+            CopyCounterReconcileResponse response = copyCounterService.reconcile(chunkSize);
+            return ResponseEntity.ok(ApiResponse.success("Copy counters reconciled successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to reconcile copy counters:" + e.getMessage()));
+        }
+    }
 }
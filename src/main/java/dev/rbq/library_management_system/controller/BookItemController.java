@@ -1,10 +1,19 @@
 package dev.rbq.library_management_system.controller;
 
 import dev.rbq.library_management_system.dto.ApiResponse;
+import dev.rbq.library_management_system.dto.book.BarcodeLookupRequest;
+import dev.rbq.library_management_system.dto.book.BarcodeLookupResponse;
 import dev.rbq.library_management_system.dto.book.BookItemRequest;
 import dev.rbq.library_management_system.dto.book.BookItemResponse;
+import dev.rbq.library_management_system.dto.book.BulkBookItemRequest;
+import dev.rbq.library_management_system.dto.book.BulkBookItemResponse;
+import dev.rbq.library_management_system.dto.book.BulkStatusChangeRequest;
+import dev.rbq.library_management_system.dto.book.BulkStatusChangeResponse;
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
 import dev.rbq.library_management_system.dto.book.PageResponse;
 import dev.rbq.library_management_system.service.BookItemService;
+import dev.rbq.library_management_system.service.BulkBookItemService;
+import dev.rbq.library_management_system.service.BulkStatusChangeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,6 +21,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 图书副本控制器
  */
@@ -22,6 +33,12 @@ public class BookItemController {
     @Autowired
     private BookItemService bookItemService;
 
+    @Autowired
+    private BulkBookItemService bulkBookItemService;
+
+    @Autowired
+    private BulkStatusChangeService bulkStatusChangeService;
+
     /**
      * 获取图书副本详情
      * 所有已登录用户都可以访问
@@ -45,6 +62,53 @@ public class BookItemController {
         }
     }
 
+    /**
+     * 按条码号查询副本（扫码枪使用）
+     * 所有已登录用户都可以访问
+     * @param barcode 条码号
+     * @return 副本ID、图书ID和状态
+     */
+    @GetMapping("/barcode/{barcode}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<BarcodeLookupResponse>> lookupBarcode(@PathVariable String barcode) {
+        try {
+            BarcodeLookupResponse response = bookItemService.lookupBarcode(barcode);
+            return ResponseEntity.ok(ApiResponse.success("Successfully retrieved book copy", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve book copy:" + e.getMessage()));
+        }
+    }
+
+    /**
+     * 批量按条码号查询副本（一次最多1000个）
+     * 所有已登录用户都可以访问
+     * @param request 条码号列表
+     * @return 每个条码号的查询结果，不存在的条码号 found 为 false
+     */
+    @PostMapping("/barcode/lookup")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<BarcodeLookupResponse>>> lookupBarcodes(
+            @Valid @RequestBody BarcodeLookupRequest request) {
+        try {
+            List<BarcodeLookupResponse> response = bookItemService.lookupBarcodes(request.getBarcodes());
+            return ResponseEntity.ok(ApiResponse.success("Successfully retrieved book copies", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve book copies:" + e.getMessage()));
+        }
+    }
+
     /**
      * 根据图书ID分页查询副本列表
      * 所有已登录用户都可以访问
@@ -80,6 +144,80 @@ public class BookItemController {
         }
     }
 
+    /**
+     * 根据图书ID游标分页查询副本列表，适合深度翻页
+     * 所有已登录用户都可以访问
+     * @param bookId 图书ID
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量（默认为10）
+     * @param status 副本状态（可选）
+     * @param sortBy 排序字段（默认为itemId，可按 barcode 排序）
+     * @param sortDirection 排序方向（asc/desc，默认为desc）
+     * @param includeTotal 是否统计总数（默认为false）
+     * @return 图书副本游标分页列表
+     */
+    @GetMapping("/book/{bookId}/cursor")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<CursorPageResponse<BookItemResponse>>> getBookItemsByBookIdByCursor(
+            @PathVariable Integer bookId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "itemId") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            CursorPageResponse<BookItemResponse> response = bookItemService.getBookItemsByBookIdByCursor(
+                    bookId, cursor, size, status, sortBy, sortDirection, includeTotal);
+            return ResponseEntity.ok(ApiResponse.success("List of book copies successfully retrieved", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve the list of book copies:" + e.getMessage()));
+        }
+    }
+
+    /**
+     * 游标分页查询某个位置节点下的副本
+     * 所有已登录用户都可以访问
+     * @param path 位置节点路径（如 A-2-03，包括 A-2-03 本身及其下级位置）
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量（默认为10）
+     * @param status 副本状态（可选）
+     * @param sortBy 排序字段（默认为location，可按 itemId、barcode 排序）
+     * @param sortDirection 排序方向（asc/desc，默认为asc）
+     * @param includeTotal 是否统计总数（默认为false）
+     * @return 图书副本游标分页列表
+     */
+    @GetMapping("/location/cursor")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<CursorPageResponse<BookItemResponse>>> getBookItemsByLocationByCursor(
+            @RequestParam String path,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "location") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            CursorPageResponse<BookItemResponse> response = bookItemService.getBookItemsByLocationByCursor(
+                    path, cursor, size, status, sortBy, sortDirection, includeTotal);
+            return ResponseEntity.ok(ApiResponse.success("List of book copies successfully retrieved", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve the list of book copies:" + e.getMessage()));
+        }
+    }
+
     /**
      * 添加图书副本
      * 仅管理员可以访问
@@ -105,6 +243,58 @@ public class BookItemController {
         }
     }
 
+    /**
+     * 批量登记图书副本（按条码号列表或范围，一次最多5000个）
+     * 仅管理员可以访问；任何一个条码号已存在时整批不登记
+     * @param request 批量登记请求
+     * @return 条码号 -> 新副本ID
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<BulkBookItemResponse>> addBookItems(@Valid @RequestBody BulkBookItemRequest request) {
+        try {
+            BulkBookItemResponse response = bulkBookItemService.addBookItems(request);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Book copies added", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to add book copies:" + e.getMessage()));
+        }
+    }
+
+    /**
+     * 批量修改副本状态（剔旧、报损、报失、修复）
+     * 仅管理员可以访问；按副本ID列表和/或筛选条件选择副本，已借出的副本不修改
+     * @param request 批量修改请求
+     * @return 各类副本数量
+     */
+    @PostMapping("/bulk/status")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<BulkStatusChangeResponse>> changeStatus(@Valid @RequestBody BulkStatusChangeRequest request) {
+        try {
+            BulkStatusChangeResponse response = bulkStatusChangeService.changeStatus(request);
+            return ResponseEntity.ok(ApiResponse.success("Copy statuses updated", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to update copy statuses:" + e.getMessage()));
+        }
+    }
+
     /**
      * 更新图书副本
      * 仅管理员可以访问
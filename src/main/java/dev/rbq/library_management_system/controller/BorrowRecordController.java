@@ -1,13 +1,19 @@
 package dev.rbq.library_management_system.controller;
 
 import dev.rbq.library_management_system.dto.ApiResponse;
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
 import dev.rbq.library_management_system.dto.book.PageResponse;
+import dev.rbq.library_management_system.dto.borrow.BorrowByBookRequest;
 import dev.rbq.library_management_system.dto.borrow.BorrowRecordResponse;
 import dev.rbq.library_management_system.dto.borrow.BorrowRequest;
+import dev.rbq.library_management_system.dto.borrow.BulkCheckoutRequest;
+import dev.rbq.library_management_system.dto.borrow.BulkCirculationResponse;
+import dev.rbq.library_management_system.dto.borrow.BulkReturnRequest;
 import dev.rbq.library_management_system.dto.borrow.UpdateBorrowRecordRequest;
 import dev.rbq.library_management_system.entity.BorrowRecord.BorrowStatus;
-import dev.rbq.library_management_system.security.UserDetailsImpl;
+import dev.rbq.library_management_system.security.SessionPrincipal;
 import dev.rbq.library_management_system.service.BorrowRecordService;
+import dev.rbq.library_management_system.service.BulkCirculationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -30,6 +36,9 @@ public class BorrowRecordController {
     @Autowired
     private BorrowRecordService borrowRecordService;
 
+    @Autowired
+    private BulkCirculationService bulkCirculationService;
+
     /**
      * 借阅图书
      * 所有已登录用户都可以访问
@@ -62,6 +71,38 @@ public class BorrowRecordController {
         }
     }
 
+    /**
+     * 按图书借阅，由系统分配任一可借副本
+     * 所有已登录用户都可以访问
+     * @param request 按图书借阅请求
+     * @return 借阅记录详情
+     */
+    @PostMapping("/borrow-by-book")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<BorrowRecordResponse>> borrowBookByBook(@Valid @RequestBody BorrowByBookRequest request) {
+        try {
+            // 获取当前登录用户的UUID
+            String userUuid = getCurrentUserUuid();
+
+            BorrowRecordResponse response = borrowRecordService.borrowBookByBook(userUuid, request);
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Borrowing successful", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Borrowing failed:" + e.getMessage()));
+        }
+    }
+
     /**
      * 归还图书
      * 所有已登录用户都可以访问（只能归还自己借的书）
@@ -90,6 +131,52 @@ public class BorrowRecordController {
         }
     }
 
+    /**
+     * 按条码批量借出（仅管理员，为同一读者借出）
+     * 每个条码单独给出结果，部分条码失败不影响其他条码
+     * @param request 批量借出请求
+     * @return 批量处理结果
+     */
+    @PostMapping("/bulk/checkout")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<BulkCirculationResponse>> bulkCheckout(@Valid @RequestBody BulkCheckoutRequest request) {
+        try {
+            BulkCirculationResponse response = bulkCirculationService.checkout(request);
+            return ResponseEntity.ok(ApiResponse.success("Bulk checkout processed", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Bulk checkout failed:" + e.getMessage()));
+        }
+    }
+
+    /**
+     * 按条码批量归还（仅管理员，如还书箱集中处理）
+     * 每个条码单独给出结果，部分条码失败不影响其他条码
+     * @param request 批量归还请求
+     * @return 批量处理结果
+     */
+    @PostMapping("/bulk/return")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<BulkCirculationResponse>> bulkReturn(@Valid @RequestBody BulkReturnRequest request) {
+        try {
+            BulkCirculationResponse response = bulkCirculationService.returnItems(request);
+            return ResponseEntity.ok(ApiResponse.success("Bulk return processed", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Bulk return failed:" + e.getMessage()));
+        }
+    }
+
     /**
      * 查询自己的借阅记录
      * 所有已登录用户都可以访问
@@ -115,6 +202,38 @@ public class BorrowRecordController {
         }
     }
 
+    /**
+     * 游标分页查询自己的借阅记录（按借阅日期倒序）
+     * 所有已登录用户都可以访问
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量（默认为10）
+     * @param status 借阅状态（可选）
+     * @param includeTotal 是否统计总数（默认为false）
+     * @return 借阅记录游标分页列表
+     */
+    @GetMapping("/my-records/cursor")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<CursorPageResponse<BorrowRecordResponse>>> getMyBorrowRecordsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) BorrowStatus status,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            String userUuid = getCurrentUserUuid();
+            CursorPageResponse<BorrowRecordResponse> response = borrowRecordService.getMyBorrowRecordsByCursor(
+                    userUuid, cursor, size, status, includeTotal);
+            return ResponseEntity.ok(ApiResponse.success("Borrowing history retrieved successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve borrowing records:" + e.getMessage()));
+        }
+    }
+
     /**
      * 获取借阅记录详情
      * 所有已登录用户都可以访问（普通用户只能查看自己的记录，管理员可以查看所有记录）
@@ -170,6 +289,42 @@ public class BorrowRecordController {
         }
     }
 
+    /**
+     * 游标分页查询所有借阅记录（仅管理员，按借阅日期倒序）
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量（默认为10）
+     * @param userUuid 用户UUID（可选，用于筛选）
+     * @param status 借阅状态（可选）
+     * @param startDate 开始日期（可选）
+     * @param endDate 结束日期（可选）
+     * @param includeTotal 是否统计总数（默认为false）
+     * @return 借阅记录游标分页列表
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPageResponse<BorrowRecordResponse>>> getAllBorrowRecordsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String userUuid,
+            @RequestParam(required = false) BorrowStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            CursorPageResponse<BorrowRecordResponse> response = borrowRecordService.getAllBorrowRecordsByCursor(
+                    cursor, size, userUuid, status, startDate, endDate, includeTotal);
+            return ResponseEntity.ok(ApiResponse.success("Borrowing history retrieved successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve borrowing records:" + e.getMessage()));
+        }
+    }
+
     /**
      * 更新借阅记录（仅管理员）
      * @param recordId 借阅记录ID
@@ -216,14 +371,40 @@ public class BorrowRecordController {
         }
     }
 
+    /**
+     * 游标分页查询逾期未还的借阅记录（仅管理员，按应还日期正序）
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量（默认为10）
+     * @param includeTotal 是否统计总数（默认为false）
+     * @return 逾期借阅记录游标分页列表
+     */
+    @GetMapping("/overdue/cursor")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPageResponse<BorrowRecordResponse>>> getOverdueRecordsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            CursorPageResponse<BorrowRecordResponse> response =
+                    borrowRecordService.getOverdueRecordsByCursor(cursor, size, includeTotal);
+            return ResponseEntity.ok(ApiResponse.success("Successfully retrieved overdue records", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve overdue records:" + e.getMessage()));
+        }
+    }
+
     /**
      * 获取当前登录用户的UUID
      * @return 用户UUID
      */
     private String getCurrentUserUuid() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        return userDetails.getUser().getUuid();
+        return SessionPrincipal.requireCurrent().getUuid();
     }
 
     /**
@@ -0,0 +1,81 @@
+package dev.rbq.library_management_system.controller;
+
+import dev.rbq.library_management_system.dto.ApiResponse;
+import dev.rbq.library_management_system.dto.inventory.LocationNodeResponse;
+import dev.rbq.library_management_system.service.LocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 馆藏位置浏览控制器
+ * 节点下的副本列表见 /api/book-items/location/cursor
+ */
+@RestController
+@RequestMapping("/api/locations")
+public class LocationController {
+
+    @Autowired
+    private LocationService locationService;
+
+    /**
+     * 查询位置节点及其直接子节点的副本统计
+     * 所有已登录用户都可以访问
+     * @param path 节点路径（可选，为空时为根节点，即 馆舍 列表）
+     * @return 位置节点
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<LocationNodeResponse>> getNode(@RequestParam(required = false) String path) {
+        try {
+            LocationNodeResponse response = locationService.getNode(path);
+            return ResponseEntity.ok(ApiResponse.success("Location retrieved successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve location: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 按路径前缀查找位置节点（输入提示）
+     * 所有已登录用户都可以访问
+     * @param prefix 路径前缀（如 A-2-0 返回 A-2 下以 0 开头的书架排）
+     * @param limit 最大数量（默认为20，最大50）
+     * @return 匹配的位置节点
+     */
+    @GetMapping("/search")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<List<LocationNodeResponse>>> searchNodes(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<LocationNodeResponse> response = locationService.searchNodes(prefix, limit);
+            return ResponseEntity.ok(ApiResponse.success("Locations retrieved successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve locations: " + e.getMessage()));
+        }
+    }
+}
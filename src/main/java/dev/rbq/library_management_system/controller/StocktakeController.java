@@ -0,0 +1,174 @@
+package dev.rbq.library_management_system.controller;
+
+import dev.rbq.library_management_system.dto.ApiResponse;
+import dev.rbq.library_management_system.dto.inventory.StocktakeOpenRequest;
+import dev.rbq.library_management_system.dto.inventory.StocktakeReportResponse;
+import dev.rbq.library_management_system.dto.inventory.StocktakeScanResponse;
+import dev.rbq.library_management_system.dto.inventory.StocktakeSessionResponse;
+import dev.rbq.library_management_system.service.StocktakeService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 馆藏盘点控制器
+ * 仅管理员可以访问
+ */
+@RestController
+@RequestMapping("/api/stocktakes")
+public class StocktakeController {
+
+    @Autowired
+    private StocktakeService stocktakeService;
+
+    /**
+     * 开始盘点
+     * @param request 盘点范围
+     * @return 盘点会话
+     */
+    @PostMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<StocktakeSessionResponse>> open(@Valid @RequestBody StocktakeOpenRequest request) {
+        try {
+            StocktakeSessionResponse response = stocktakeService.open(request.getLocationPrefix());
+            return ResponseEntity.ok(ApiResponse.success("Stocktake started", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (SecurityException e) {
+            return ResponseEntity
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to start stocktake: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询所有进行中的盘点
+     * @return 盘点会话列表
+     */
+    @GetMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<List<StocktakeSessionResponse>>> listSessions() {
+        try {
+            List<StocktakeSessionResponse> response = stocktakeService.listSessions();
+            return ResponseEntity.ok(ApiResponse.success("Stocktakes retrieved successfully", response));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve stocktakes: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询盘点进度
+     * @param sessionId 会话ID
+     * @return 盘点会话
+     */
+    @GetMapping("/{sessionId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<StocktakeSessionResponse>> getSession(@PathVariable String sessionId) {
+        try {
+            StocktakeSessionResponse response = stocktakeService.getSession(sessionId);
+            return ResponseEntity.ok(ApiResponse.success("Stocktake retrieved successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve stocktake: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 上传扫码结果
+     * 请求体为纯文本，每行一个条码号；服务端边读取边处理，扫码枪可以在整个盘点过程中保持连接并持续发送
+     * @param sessionId 会话ID
+     * @param body 请求体
+     * @return 本次上传的处理结果
+     */
+    @PostMapping(value = "/{sessionId}/scans", consumes = MediaType.TEXT_PLAIN_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<StocktakeScanResponse>> scan(@PathVariable String sessionId, InputStream body) {
+        try {
+            StocktakeScanResponse response = stocktakeService.scan(sessionId, body);
+            return ResponseEntity.ok(ApiResponse.success("Scans recorded", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to record scans: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 结束盘点并生成报告
+     * @param sessionId 会话ID
+     * @param markMissingLost 是否把缺失副本标记为丢失
+     * @return 盘点报告
+     */
+    @PostMapping("/{sessionId}/close")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<StocktakeReportResponse>> close(
+            @PathVariable String sessionId,
+            @RequestParam(defaultValue = "false") boolean markMissingLost) {
+        try {
+            StocktakeReportResponse response = stocktakeService.close(sessionId, markMissingLost);
+            return ResponseEntity.ok(ApiResponse.success("Stocktake closed", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to close stocktake: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 放弃盘点
+     * @param sessionId 会话ID
+     * @return 操作结果
+     */
+    @DeleteMapping("/{sessionId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<ApiResponse<Void>> cancel(@PathVariable String sessionId) {
+        try {
+            stocktakeService.cancel(sessionId);
+            return ResponseEntity.ok(ApiResponse.success("Stocktake cancelled", null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to cancel stocktake: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dev.rbq.library_management_system.controller;
+
+import dev.rbq.library_management_system.dto.ApiResponse;
+import dev.rbq.library_management_system.dto.auth.LoginRequest;
+import dev.rbq.library_management_system.dto.auth.RefreshTokenRequest;
+import dev.rbq.library_management_system.dto.auth.TokenResponse;
+import dev.rbq.library_management_system.security.LoginThrottledException;
+import dev.rbq.library_management_system.security.PasswordHashingUnavailableException;
+import dev.rbq.library_management_system.security.TokenAuthenticationFilter;
+import dev.rbq.library_management_system.service.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 令牌认证控制器（library.auth.mode=token 时生效）
+ */
+@RestController
+@RequestMapping("/api/auth/token")
+@ConditionalOnProperty(name = "library.auth.mode", havingValue = "token")
+public class TokenAuthController {
+
+    @Autowired
+    private TokenService tokenService;
+
+    /**
+     * 用户名密码登录，签发访问令牌和刷新令牌
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<TokenResponse>> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        try {
+            TokenResponse response = tokenService.login(request, httpRequest.getRemoteAddr());
+            return ResponseEntity.ok(ApiResponse.success("Login successful", response));
+        } catch (BadCredentialsException e) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (LoginThrottledException e) {
+            return ResponseEntity
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (PasswordHashingUnavailableException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Login failed:" + e.getMessage()));
+        }
+    }
+
+    /**
+     * 使用刷新令牌换取新令牌
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<TokenResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            TokenResponse response = tokenService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(ApiResponse.success("Token refreshed successfully", response));
+        } catch (BadCredentialsException e) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to refresh token:" + e.getMessage()));
+        }
+    }
+
+    /**
+     * 登出：吊销请求头中的访问令牌和请求体中的刷新令牌
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<ApiResponse<Void>> revoke(
+            @RequestBody(required = false) RefreshTokenRequest request,
+            HttpServletRequest httpRequest) {
+        try {
+            tokenService.revoke(
+                    TokenAuthenticationFilter.resolveToken(httpRequest),
+                    request != null ? request.getRefreshToken() : null);
+            return ResponseEntity.ok(ApiResponse.success("Logout successful", null));
+        } catch (Exception e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Logout failed:" + e.getMessage()));
+        }
+    }
+}
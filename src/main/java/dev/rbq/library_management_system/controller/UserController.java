@@ -5,6 +5,7 @@ import dev.rbq.library_management_system.dto.auth.AuthResponse;
 import dev.rbq.library_management_system.dto.user.ChangeDisplayNameRequest;
 import dev.rbq.library_management_system.dto.user.ChangePasswordRequest;
 import dev.rbq.library_management_system.dto.user.ChangeUsernameRequest;
+import dev.rbq.library_management_system.security.PasswordHashingUnavailableException;
 import dev.rbq.library_management_system.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -61,6 +62,10 @@ public class UserController {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (PasswordHashingUnavailableException e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,46 @@
+package dev.rbq.library_management_system.dto.admin;
+
+/**
+ * 批量导入用户中单行的错误 DTO
+ */
+public class UserImportError {
+
+    private long line;
+    private String username;
+    private String message;
+
+    // Constructors
+    public UserImportError() {
+    }
+
+    public UserImportError(long line, String username, String message) {
+        this.line = line;
+        this.username = username;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
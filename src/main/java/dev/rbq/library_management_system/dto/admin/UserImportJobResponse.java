@@ -0,0 +1,88 @@
+package dev.rbq.library_management_system.dto.admin;
+
+/**
+ * 批量导入用户任务状态 DTO
+ * status 为 QUEUED、RUNNING、COMPLETED 或 FAILED；result 在任务完成后才有值，message 为任务失败的原因
+ */
+public class UserImportJobResponse {
+
+    private String jobId;
+    private String status;
+    private long processed;
+    private long created;
+    private long failed;
+    private String message;
+    private UserImportResponse result;
+
+    // Constructors
+    public UserImportJobResponse() {
+    }
+
+    public UserImportJobResponse(String jobId, String status, long processed, long created, long failed,
+                                 String message, UserImportResponse result) {
+        this.jobId = jobId;
+        this.status = status;
+        this.processed = processed;
+        this.created = created;
+        this.failed = failed;
+        this.message = message;
+        this.result = result;
+    }
+
+    // Getters and Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public UserImportResponse getResult() {
+        return result;
+    }
+
+    public void setResult(UserImportResponse result) {
+        this.result = result;
+    }
+}
@@ -0,0 +1,70 @@
+package dev.rbq.library_management_system.dto.admin;
+
+import java.util.List;
+
+/**
+ * 批量导入用户结果 DTO
+ * errors 最多包含前 1000 个错误，errorsTruncated 表示是否还有未列出的错误
+ */
+public class UserImportResponse {
+
+    private long processed;
+    private long created;
+    private long failed;
+    private List<UserImportError> errors;
+    private boolean errorsTruncated;
+
+    // Constructors
+    public UserImportResponse() {
+    }
+
+    public UserImportResponse(long processed, long created, long failed,
+                              List<UserImportError> errors, boolean errorsTruncated) {
+        this.processed = processed;
+        this.created = created;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    // Getters and Setters
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<UserImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<UserImportError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+}
@@ -0,0 +1,70 @@
+package dev.rbq.library_management_system.dto.admin;
+
+import java.time.Instant;
+
+/**
+ * 用户 Session 信息响应 DTO
+ * 不返回真实的 Session ID，只返回由其派生的句柄，用于吊销指定 Session
+ */
+public class UserSessionResponse {
+
+    private String handle;
+    private Instant creationTime;
+    private Instant lastAccessedTime;
+    private Instant expiresAt;
+    private boolean expired;
+
+    // Constructors
+    public UserSessionResponse() {
+    }
+
+    public UserSessionResponse(String handle, Instant creationTime, Instant lastAccessedTime,
+                               Instant expiresAt, boolean expired) {
+        this.handle = handle;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.expiresAt = expiresAt;
+        this.expired = expired;
+    }
+
+    // Getters and Setters
+    public String getHandle() {
+        return handle;
+    }
+
+    public void setHandle(String handle) {
+        this.handle = handle;
+    }
+
+    public Instant getCreationTime() {
+        return creationTime;
+    }
+
+    public void setCreationTime(Instant creationTime) {
+        this.creationTime = creationTime;
+    }
+
+    public Instant getLastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        this.lastAccessedTime = lastAccessedTime;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired() {
+        return expired;
+    }
+
+    public void setExpired(boolean expired) {
+        this.expired = expired;
+    }
+}
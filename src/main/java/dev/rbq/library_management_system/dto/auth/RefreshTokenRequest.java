@@ -0,0 +1,29 @@
+package dev.rbq.library_management_system.dto.auth;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * 刷新令牌请求 DTO
+ */
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token cannot be empty")
+    private String refreshToken;
+
+    // Constructors
+    public RefreshTokenRequest() {
+    }
+
+    public RefreshTokenRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // Getters and Setters
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,65 @@
+package dev.rbq.library_management_system.dto.auth;
+
+/**
+ * 令牌响应 DTO
+ */
+public class TokenResponse {
+
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType = "Bearer";
+    private long expiresIn;
+    private AuthResponse user;
+
+    // Constructors
+    public TokenResponse() {
+    }
+
+    public TokenResponse(String accessToken, String refreshToken, long expiresIn, AuthResponse user) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+        this.user = user;
+    }
+
+    // Getters and Setters
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public void setTokenType(String tokenType) {
+        this.tokenType = tokenType;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
+    public AuthResponse getUser() {
+        return user;
+    }
+
+    public void setUser(AuthResponse user) {
+        this.user = user;
+    }
+}
@@ -0,0 +1,31 @@
+package dev.rbq.library_management_system.dto.book;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * 批量条码查询请求 DTO
+ */
+public class BarcodeLookupRequest {
+
+    @NotEmpty(message = "The barcode list cannot be empty")
+    private List<String> barcodes;
+
+    // Constructors
+    public BarcodeLookupRequest() {
+    }
+
+    public BarcodeLookupRequest(List<String> barcodes) {
+        this.barcodes = barcodes;
+    }
+
+    // Getters and Setters
+    public List<String> getBarcodes() {
+        return barcodes;
+    }
+
+    public void setBarcodes(List<String> barcodes) {
+        this.barcodes = barcodes;
+    }
+}
@@ -0,0 +1,78 @@
+package dev.rbq.library_management_system.dto.book;
+
+/**
+ * 条码查询结果 DTO
+ * 只包含条码索引中的字段，图书信息需要按 bookId 另行查询
+ */
+public class BarcodeLookupResponse {
+
+    private String barcode;
+    private boolean found;
+    private Integer itemId;
+    private Integer bookId;
+    private String status;
+    private String statusDescription;
+
+    // Constructors
+    public BarcodeLookupResponse() {
+    }
+
+    public BarcodeLookupResponse(String barcode, boolean found, Integer itemId, Integer bookId,
+                                 String status, String statusDescription) {
+        this.barcode = barcode;
+        this.found = found;
+        this.itemId = itemId;
+        this.bookId = bookId;
+        this.status = status;
+        this.statusDescription = statusDescription;
+    }
+
+    // Getters and Setters
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getStatusDescription() {
+        return statusDescription;
+    }
+
+    public void setStatusDescription(String statusDescription) {
+        this.statusDescription = statusDescription;
+    }
+}
@@ -0,0 +1,73 @@
+package dev.rbq.library_management_system.dto.book;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+/**
+ * 条码号范围 DTO
+ * 生成 prefix + 序号 的条码号，序号左侧补零到 width 位（默认为 end 的位数），包括 start 和 end
+ */
+public class BarcodeRange {
+
+    @Size(max = 49, message = "The barcode prefix must not exceed 49 characters in length")
+    private String prefix;
+
+    @NotNull(message = "The range start cannot be empty")
+    @PositiveOrZero(message = "The range start cannot be negative")
+    private Long start;
+
+    @NotNull(message = "The range end cannot be empty")
+    @PositiveOrZero(message = "The range end cannot be negative")
+    private Long end;
+
+    @Min(value = 1, message = "The width must be at least 1")
+    @Max(value = 18, message = "The width must not exceed 18")
+    private Integer width;
+
+    // Constructors
+    public BarcodeRange() {
+    }
+
+    public BarcodeRange(String prefix, Long start, Long end, Integer width) {
+        this.prefix = prefix;
+        this.start = start;
+        this.end = end;
+        this.width = width;
+    }
+
+    // Getters and Setters
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public Long getStart() {
+        return start;
+    }
+
+    public void setStart(Long start) {
+        this.start = start;
+    }
+
+    public Long getEnd() {
+        return end;
+    }
+
+    public void setEnd(Long end) {
+        this.end = end;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+}
@@ -0,0 +1,118 @@
+package dev.rbq.library_management_system.dto.book;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 批量登记图书副本请求 DTO
+ * barcodes 和 barcodeRange 二选一，其余字段应用到所有新副本
+ */
+public class BulkBookItemRequest {
+
+    @NotNull(message = "The book ID cannot be empty")
+    private Integer bookId;
+
+    private List<String> barcodes;
+
+    @Valid
+    private BarcodeRange barcodeRange;
+
+    @Size(max = 50, message = "The length of the collection location cannot exceed 50 characters")
+    private String location;
+
+    private String status;
+
+    private LocalDate acquisitionDate;
+
+    private BigDecimal acquisitionPrice;
+
+    @Size(max = 500, message = "The length of the remarks section must not exceed 500 characters")
+    private String notes;
+
+    // Constructors
+    public BulkBookItemRequest() {
+    }
+
+    public BulkBookItemRequest(Integer bookId, List<String> barcodes, BarcodeRange barcodeRange,
+                               String location, String status, LocalDate acquisitionDate,
+                               BigDecimal acquisitionPrice, String notes) {
+        this.bookId = bookId;
+        this.barcodes = barcodes;
+        this.barcodeRange = barcodeRange;
+        this.location = location;
+        this.status = status;
+        this.acquisitionDate = acquisitionDate;
+        this.acquisitionPrice = acquisitionPrice;
+        this.notes = notes;
+    }
+
+    // Getters and Setters
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public List<String> getBarcodes() {
+        return barcodes;
+    }
+
+    public void setBarcodes(List<String> barcodes) {
+        this.barcodes = barcodes;
+    }
+
+    public BarcodeRange getBarcodeRange() {
+        return barcodeRange;
+    }
+
+    public void setBarcodeRange(BarcodeRange barcodeRange) {
+        this.barcodeRange = barcodeRange;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDate getAcquisitionDate() {
+        return acquisitionDate;
+    }
+
+    public void setAcquisitionDate(LocalDate acquisitionDate) {
+        this.acquisitionDate = acquisitionDate;
+    }
+
+    public BigDecimal getAcquisitionPrice() {
+        return acquisitionPrice;
+    }
+
+    public void setAcquisitionPrice(BigDecimal acquisitionPrice) {
+        this.acquisitionPrice = acquisitionPrice;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
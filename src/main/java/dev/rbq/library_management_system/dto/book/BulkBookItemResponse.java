@@ -0,0 +1,49 @@
+package dev.rbq.library_management_system.dto.book;
+
+import java.util.Map;
+
+/**
+ * 批量登记图书副本结果 DTO
+ * itemIds 为 条码号 -> 新副本ID（按请求中的顺序）
+ */
+public class BulkBookItemResponse {
+
+    private Integer bookId;
+    private int created;
+    private Map<String, Integer> itemIds;
+
+    // Constructors
+    public BulkBookItemResponse() {
+    }
+
+    public BulkBookItemResponse(Integer bookId, int created, Map<String, Integer> itemIds) {
+        this.bookId = bookId;
+        this.created = created;
+        this.itemIds = itemIds;
+    }
+
+    // Getters and Setters
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public Map<String, Integer> getItemIds() {
+        return itemIds;
+    }
+
+    public void setItemIds(Map<String, Integer> itemIds) {
+        this.itemIds = itemIds;
+    }
+}
@@ -0,0 +1,102 @@
+package dev.rbq.library_management_system.dto.book;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 批量修改副本状态请求 DTO
+ * 按副本ID列表和/或筛选条件（图书、位置节点、入藏日期范围、当前状态）选择副本，至少需要一个范围条件
+ */
+public class BulkStatusChangeRequest {
+
+    @NotBlank(message = "The target status cannot be empty")
+    private String status;
+
+    private List<Integer> itemIds;
+
+    private Integer bookId;
+
+    @Size(max = 50, message = "The length of the collection location cannot exceed 50 characters")
+    private String location;
+
+    private LocalDate acquiredFrom;
+
+    private LocalDate acquiredTo;
+
+    private String currentStatus;
+
+    // Constructors
+    public BulkStatusChangeRequest() {
+    }
+
+    public BulkStatusChangeRequest(String status, List<Integer> itemIds, Integer bookId, String location,
+                                   LocalDate acquiredFrom, LocalDate acquiredTo, String currentStatus) {
+        this.status = status;
+        this.itemIds = itemIds;
+        this.bookId = bookId;
+        this.location = location;
+        this.acquiredFrom = acquiredFrom;
+        this.acquiredTo = acquiredTo;
+        this.currentStatus = currentStatus;
+    }
+
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public List<Integer> getItemIds() {
+        return itemIds;
+    }
+
+    public void setItemIds(List<Integer> itemIds) {
+        this.itemIds = itemIds;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public LocalDate getAcquiredFrom() {
+        return acquiredFrom;
+    }
+
+    public void setAcquiredFrom(LocalDate acquiredFrom) {
+        this.acquiredFrom = acquiredFrom;
+    }
+
+    public LocalDate getAcquiredTo() {
+        return acquiredTo;
+    }
+
+    public void setAcquiredTo(LocalDate acquiredTo) {
+        this.acquiredTo = acquiredTo;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public void setCurrentStatus(String currentStatus) {
+        this.currentStatus = currentStatus;
+    }
+}
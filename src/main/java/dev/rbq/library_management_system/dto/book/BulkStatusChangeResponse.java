@@ -0,0 +1,71 @@
+package dev.rbq.library_management_system.dto.book;
+
+/**
+ * 批量修改副本状态结果 DTO
+ */
+public class BulkStatusChangeResponse {
+
+    private String status;
+
+    private int matched;
+
+    private int updated;
+
+    private int unchanged;
+
+    private int skippedCheckedOut;
+
+    // Constructors
+    public BulkStatusChangeResponse() {
+    }
+
+    public BulkStatusChangeResponse(String status, int matched, int updated, int unchanged,
+                                    int skippedCheckedOut) {
+        this.status = status;
+        this.matched = matched;
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.skippedCheckedOut = skippedCheckedOut;
+    }
+
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public void setMatched(int matched) {
+        this.matched = matched;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public int getSkippedCheckedOut() {
+        return skippedCheckedOut;
+    }
+
+    public void setSkippedCheckedOut(int skippedCheckedOut) {
+        this.skippedCheckedOut = skippedCheckedOut;
+    }
+}
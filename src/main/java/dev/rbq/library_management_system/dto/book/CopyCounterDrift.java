@@ -0,0 +1,67 @@
+package dev.rbq.library_management_system.dto.book;
+
+/**
+ * 副本计数器偏差 DTO
+ */
+public class CopyCounterDrift {
+
+    private Integer bookId;
+    private long storedTotalCopies; // 计数器中的副本总数
+    private long actualTotalCopies; // book_items 中统计的副本总数
+    private long storedAvailableCopies; // 计数器中的可借副本数
+    private long actualAvailableCopies; // book_items 中统计的可借副本数
+
+    // Constructors
+    public CopyCounterDrift() {
+    }
+
+    public CopyCounterDrift(Integer bookId, long storedTotalCopies, long actualTotalCopies,
+                            long storedAvailableCopies, long actualAvailableCopies) {
+        this.bookId = bookId;
+        this.storedTotalCopies = storedTotalCopies;
+        this.actualTotalCopies = actualTotalCopies;
+        this.storedAvailableCopies = storedAvailableCopies;
+        this.actualAvailableCopies = actualAvailableCopies;
+    }
+
+    // Getters and Setters
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public long getStoredTotalCopies() {
+        return storedTotalCopies;
+    }
+
+    public void setStoredTotalCopies(long storedTotalCopies) {
+        this.storedTotalCopies = storedTotalCopies;
+    }
+
+    public long getActualTotalCopies() {
+        return actualTotalCopies;
+    }
+
+    public void setActualTotalCopies(long actualTotalCopies) {
+        this.actualTotalCopies = actualTotalCopies;
+    }
+
+    public long getStoredAvailableCopies() {
+        return storedAvailableCopies;
+    }
+
+    public void setStoredAvailableCopies(long storedAvailableCopies) {
+        this.storedAvailableCopies = storedAvailableCopies;
+    }
+
+    public long getActualAvailableCopies() {
+        return actualAvailableCopies;
+    }
+
+    public void setActualAvailableCopies(long actualAvailableCopies) {
+        this.actualAvailableCopies = actualAvailableCopies;
+    }
+}
@@ -0,0 +1,48 @@
+package dev.rbq.library_management_system.dto.book;
+
+import java.util.List;
+
+/**
+ * 副本计数器对账结果 DTO
+ */
+public class CopyCounterReconcileResponse {
+
+    private long booksScanned; // 已检查的图书数量
+    private long booksDrifted; // 计数器有偏差并已修正的图书数量
+    private List<CopyCounterDrift> drifts; // 偏差明细（最多返回前若干条）
+
+    // Constructors
+    public CopyCounterReconcileResponse() {
+    }
+
+    public CopyCounterReconcileResponse(long booksScanned, long booksDrifted, List<CopyCounterDrift> drifts) {
+        this.booksScanned = booksScanned;
+        this.booksDrifted = booksDrifted;
+        this.drifts = drifts;
+    }
+
+    // Getters and Setters
+    public long getBooksScanned() {
+        return booksScanned;
+    }
+
+    public void setBooksScanned(long booksScanned) {
+        this.booksScanned = booksScanned;
+    }
+
+    public long getBooksDrifted() {
+        return booksDrifted;
+    }
+
+    public void setBooksDrifted(long booksDrifted) {
+        this.booksDrifted = booksDrifted;
+    }
+
+    public List<CopyCounterDrift> getDrifts() {
+        return drifts;
+    }
+
+    public void setDrifts(List<CopyCounterDrift> drifts) {
+        this.drifts = drifts;
+    }
+}
@@ -0,0 +1,69 @@
+package dev.rbq.library_management_system.dto.book;
+
+import java.util.List;
+
+/**
+ * 游标分页响应 DTO
+ * 下一页请求时传入 nextCursor 即可，totalElements 仅在请求时显式要求才会统计
+ */
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+    private Long totalElements;
+
+    // Constructors
+    public CursorPageResponse() {
+    }
+
+    public CursorPageResponse(List<T> content, String nextCursor, boolean hasNext, int size, Long totalElements) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.size = size;
+        this.totalElements = totalElements;
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
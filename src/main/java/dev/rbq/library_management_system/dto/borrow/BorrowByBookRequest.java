@@ -0,0 +1,29 @@
+package dev.rbq.library_management_system.dto.borrow;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 按图书借阅请求 DTO（由系统分配任一可借副本）
+ */
+public class BorrowByBookRequest {
+
+    @NotNull(message = "The book ID cannot be empty")
+    private Integer bookId;
+
+    // Constructors
+    public BorrowByBookRequest() {
+    }
+
+    public BorrowByBookRequest(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    // Getters and Setters
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+}
@@ -0,0 +1,44 @@
+package dev.rbq.library_management_system.dto.borrow;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * 批量借出请求 DTO（仅管理员使用，为同一读者借出多个副本）
+ */
+public class BulkCheckoutRequest {
+
+    @NotBlank(message = "The user UUID cannot be empty")
+    private String userUuid;
+
+    @NotEmpty(message = "The barcode list cannot be empty")
+    private List<String> barcodes;
+
+    // Constructors
+    public BulkCheckoutRequest() {
+    }
+
+    public BulkCheckoutRequest(String userUuid, List<String> barcodes) {
+        this.userUuid = userUuid;
+        this.barcodes = barcodes;
+    }
+
+    // Getters and Setters
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public void setUserUuid(String userUuid) {
+        this.userUuid = userUuid;
+    }
+
+    public List<String> getBarcodes() {
+        return barcodes;
+    }
+
+    public void setBarcodes(List<String> barcodes) {
+        this.barcodes = barcodes;
+    }
+}
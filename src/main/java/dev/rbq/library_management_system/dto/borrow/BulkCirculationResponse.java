@@ -0,0 +1,58 @@
+package dev.rbq.library_management_system.dto.borrow;
+
+import java.util.List;
+
+/**
+ * 批量借还结果 DTO
+ */
+public class BulkCirculationResponse {
+
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult> results;
+
+    // Constructors
+    public BulkCirculationResponse() {
+    }
+
+    public BulkCirculationResponse(int requested, int succeeded, int failed, List<BulkItemResult> results) {
+        this.requested = requested;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.results = results;
+    }
+
+    // Getters and Setters
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkItemResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,56 @@
+package dev.rbq.library_management_system.dto.borrow;
+
+/**
+ * 批量借还中单个副本的处理结果 DTO
+ */
+public class BulkItemResult {
+
+    private String barcode;
+    private boolean success;
+    private String recordId;
+    private String message;
+
+    // Constructors
+    public BulkItemResult() {
+    }
+
+    public BulkItemResult(String barcode, boolean success, String recordId, String message) {
+        this.barcode = barcode;
+        this.success = success;
+        this.recordId = recordId;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getRecordId() {
+        return recordId;
+    }
+
+    public void setRecordId(String recordId) {
+        this.recordId = recordId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
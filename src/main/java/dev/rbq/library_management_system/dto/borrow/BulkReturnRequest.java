@@ -0,0 +1,31 @@
+package dev.rbq.library_management_system.dto.borrow;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * 批量归还请求 DTO（仅管理员使用，如还书箱集中处理）
+ */
+public class BulkReturnRequest {
+
+    @NotEmpty(message = "The barcode list cannot be empty")
+    private List<String> barcodes;
+
+    // Constructors
+    public BulkReturnRequest() {
+    }
+
+    public BulkReturnRequest(List<String> barcodes) {
+        this.barcodes = barcodes;
+    }
+
+    // Getters and Setters
+    public List<String> getBarcodes() {
+        return barcodes;
+    }
+
+    public void setBarcodes(List<String> barcodes) {
+        this.barcodes = barcodes;
+    }
+}
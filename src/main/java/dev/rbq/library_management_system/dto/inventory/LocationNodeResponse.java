@@ -0,0 +1,103 @@
+package dev.rbq.library_management_system.dto.inventory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 馆藏位置节点 DTO
+ * copies 和 statusTotals 为节点下（包括所有下级节点）的副本数，directCopies 为位置恰好等于节点路径的副本数
+ * （根节点的 directCopies 为没有位置的副本数）；children 只在查询单个节点时返回
+ */
+public class LocationNodeResponse {
+
+    private String path;
+    private String label;
+    private String level;
+    private int depth;
+    private long copies;
+    private long directCopies;
+    private Map<String, Long> statusTotals;
+    private List<LocationNodeResponse> children;
+
+    // Constructors
+    public LocationNodeResponse() {
+    }
+
+    public LocationNodeResponse(String path, String label, String level, int depth, long copies,
+                                long directCopies, Map<String, Long> statusTotals,
+                                List<LocationNodeResponse> children) {
+        this.path = path;
+        this.label = label;
+        this.level = level;
+        this.depth = depth;
+        this.copies = copies;
+        this.directCopies = directCopies;
+        this.statusTotals = statusTotals;
+        this.children = children;
+    }
+
+    // Getters and Setters
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getCopies() {
+        return copies;
+    }
+
+    public void setCopies(long copies) {
+        this.copies = copies;
+    }
+
+    public long getDirectCopies() {
+        return directCopies;
+    }
+
+    public void setDirectCopies(long directCopies) {
+        this.directCopies = directCopies;
+    }
+
+    public Map<String, Long> getStatusTotals() {
+        return statusTotals;
+    }
+
+    public void setStatusTotals(Map<String, Long> statusTotals) {
+        this.statusTotals = statusTotals;
+    }
+
+    public List<LocationNodeResponse> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<LocationNodeResponse> children) {
+        this.children = children;
+    }
+}
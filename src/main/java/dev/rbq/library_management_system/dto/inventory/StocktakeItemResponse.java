@@ -0,0 +1,77 @@
+package dev.rbq.library_management_system.dto.inventory;
+
+/**
+ * 盘点报告中的副本 DTO
+ */
+public class StocktakeItemResponse {
+
+    private Integer itemId;
+    private Integer bookId;
+    private String barcode;
+    private String location;
+    private String status;
+    private String statusDescription;
+
+    // Constructors
+    public StocktakeItemResponse() {
+    }
+
+    public StocktakeItemResponse(Integer itemId, Integer bookId, String barcode, String location,
+                                 String status, String statusDescription) {
+        this.itemId = itemId;
+        this.bookId = bookId;
+        this.barcode = barcode;
+        this.location = location;
+        this.status = status;
+        this.statusDescription = statusDescription;
+    }
+
+    // Getters and Setters
+    public Integer getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Integer itemId) {
+        this.itemId = itemId;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getBarcode() {
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getStatusDescription() {
+        return statusDescription;
+    }
+
+    public void setStatusDescription(String statusDescription) {
+        this.statusDescription = statusDescription;
+    }
+}
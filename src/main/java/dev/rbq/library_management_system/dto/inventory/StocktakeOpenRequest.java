@@ -0,0 +1,31 @@
+package dev.rbq.library_management_system.dto.inventory;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * 开始盘点请求 DTO
+ */
+public class StocktakeOpenRequest {
+
+    @NotBlank(message = "The location prefix cannot be empty")
+    @Size(max = 50, message = "The location prefix must not exceed 50 characters in length")
+    private String locationPrefix;
+
+    // Constructors
+    public StocktakeOpenRequest() {
+    }
+
+    public StocktakeOpenRequest(String locationPrefix) {
+        this.locationPrefix = locationPrefix;
+    }
+
+    // Getters and Setters
+    public String getLocationPrefix() {
+        return locationPrefix;
+    }
+
+    public void setLocationPrefix(String locationPrefix) {
+        this.locationPrefix = locationPrefix;
+    }
+}
@@ -0,0 +1,189 @@
+package dev.rbq.library_management_system.dto.inventory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 盘点报告 DTO
+ * missing / misplaced / unexpected / unknownBarcodes 各最多包含前 1000 条，truncated 表示是否还有未列出的明细；
+ * markedLost 为结束时标记为丢失的缺失副本数
+ */
+public class StocktakeReportResponse {
+
+    private String sessionId;
+    private String locationPrefix;
+    private String openedBy;
+    private LocalDateTime openedAt;
+    private LocalDateTime closedAt;
+    private long scans;
+    private long duplicateScans;
+    private long expected;
+    private long found;
+    private long missingCount;
+    private long misplacedCount;
+    private long unexpectedCount;
+    private long unknownCount;
+    private long markedLost;
+    private List<StocktakeItemResponse> missing;
+    private List<StocktakeItemResponse> misplaced;
+    private List<StocktakeItemResponse> unexpected;
+    private List<String> unknownBarcodes;
+    private boolean truncated;
+
+    // Constructors
+    public StocktakeReportResponse() {
+    }
+
+    // Getters and Setters
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getLocationPrefix() {
+        return locationPrefix;
+    }
+
+    public void setLocationPrefix(String locationPrefix) {
+        this.locationPrefix = locationPrefix;
+    }
+
+    public String getOpenedBy() {
+        return openedBy;
+    }
+
+    public void setOpenedBy(String openedBy) {
+        this.openedBy = openedBy;
+    }
+
+    public LocalDateTime getOpenedAt() {
+        return openedAt;
+    }
+
+    public void setOpenedAt(LocalDateTime openedAt) {
+        this.openedAt = openedAt;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(LocalDateTime closedAt) {
+        this.closedAt = closedAt;
+    }
+
+    public long getScans() {
+        return scans;
+    }
+
+    public void setScans(long scans) {
+        this.scans = scans;
+    }
+
+    public long getDuplicateScans() {
+        return duplicateScans;
+    }
+
+    public void setDuplicateScans(long duplicateScans) {
+        this.duplicateScans = duplicateScans;
+    }
+
+    public long getExpected() {
+        return expected;
+    }
+
+    public void setExpected(long expected) {
+        this.expected = expected;
+    }
+
+    public long getFound() {
+        return found;
+    }
+
+    public void setFound(long found) {
+        this.found = found;
+    }
+
+    public long getMissingCount() {
+        return missingCount;
+    }
+
+    public void setMissingCount(long missingCount) {
+        this.missingCount = missingCount;
+    }
+
+    public long getMisplacedCount() {
+        return misplacedCount;
+    }
+
+    public void setMisplacedCount(long misplacedCount) {
+        this.misplacedCount = misplacedCount;
+    }
+
+    public long getUnexpectedCount() {
+        return unexpectedCount;
+    }
+
+    public void setUnexpectedCount(long unexpectedCount) {
+        this.unexpectedCount = unexpectedCount;
+    }
+
+    public long getUnknownCount() {
+        return unknownCount;
+    }
+
+    public void setUnknownCount(long unknownCount) {
+        this.unknownCount = unknownCount;
+    }
+
+    public long getMarkedLost() {
+        return markedLost;
+    }
+
+    public void setMarkedLost(long markedLost) {
+        this.markedLost = markedLost;
+    }
+
+    public List<StocktakeItemResponse> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<StocktakeItemResponse> missing) {
+        this.missing = missing;
+    }
+
+    public List<StocktakeItemResponse> getMisplaced() {
+        return misplaced;
+    }
+
+    public void setMisplaced(List<StocktakeItemResponse> misplaced) {
+        this.misplaced = misplaced;
+    }
+
+    public List<StocktakeItemResponse> getUnexpected() {
+        return unexpected;
+    }
+
+    public void setUnexpected(List<StocktakeItemResponse> unexpected) {
+        this.unexpected = unexpected;
+    }
+
+    public List<String> getUnknownBarcodes() {
+        return unknownBarcodes;
+    }
+
+    public void setUnknownBarcodes(List<String> unknownBarcodes) {
+        this.unknownBarcodes = unknownBarcodes;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+}
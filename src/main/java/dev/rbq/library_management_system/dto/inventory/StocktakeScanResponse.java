@@ -0,0 +1,70 @@
+package dev.rbq.library_management_system.dto.inventory;
+
+import java.util.List;
+
+/**
+ * 盘点扫码结果 DTO
+ * unknownBarcodes 最多包含本次上传中前 1000 个不存在的条码号
+ */
+public class StocktakeScanResponse {
+
+    private long received;
+    private long matched;
+    private long duplicates;
+    private long unknown;
+    private List<String> unknownBarcodes;
+
+    // Constructors
+    public StocktakeScanResponse() {
+    }
+
+    public StocktakeScanResponse(long received, long matched, long duplicates, long unknown,
+                                 List<String> unknownBarcodes) {
+        this.received = received;
+        this.matched = matched;
+        this.duplicates = duplicates;
+        this.unknown = unknown;
+        this.unknownBarcodes = unknownBarcodes;
+    }
+
+    // Getters and Setters
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getMatched() {
+        return matched;
+    }
+
+    public void setMatched(long matched) {
+        this.matched = matched;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getUnknown() {
+        return unknown;
+    }
+
+    public void setUnknown(long unknown) {
+        this.unknown = unknown;
+    }
+
+    public List<String> getUnknownBarcodes() {
+        return unknownBarcodes;
+    }
+
+    public void setUnknownBarcodes(List<String> unknownBarcodes) {
+        this.unknownBarcodes = unknownBarcodes;
+    }
+}
@@ -0,0 +1,111 @@
+package dev.rbq.library_management_system.dto.inventory;
+
+import java.time.LocalDateTime;
+
+/**
+ * 盘点会话 DTO
+ * seenItems 为已扫到的不同副本数，unknownBarcodes 为扫到的不存在的条码号数量
+ */
+public class StocktakeSessionResponse {
+
+    private String sessionId;
+    private String locationPrefix;
+    private String openedBy;
+    private LocalDateTime openedAt;
+    private long scans;
+    private long duplicateScans;
+    private long seenItems;
+    private long unknownBarcodes;
+    private boolean closing;
+
+    // Constructors
+    public StocktakeSessionResponse() {
+    }
+
+    public StocktakeSessionResponse(String sessionId, String locationPrefix, String openedBy,
+                                    LocalDateTime openedAt, long scans, long duplicateScans, long seenItems,
+                                    long unknownBarcodes, boolean closing) {
+        this.sessionId = sessionId;
+        this.locationPrefix = locationPrefix;
+        this.openedBy = openedBy;
+        this.openedAt = openedAt;
+        this.scans = scans;
+        this.duplicateScans = duplicateScans;
+        this.seenItems = seenItems;
+        this.unknownBarcodes = unknownBarcodes;
+        this.closing = closing;
+    }
+
+    // Getters and Setters
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getLocationPrefix() {
+        return locationPrefix;
+    }
+
+    public void setLocationPrefix(String locationPrefix) {
+        this.locationPrefix = locationPrefix;
+    }
+
+    public String getOpenedBy() {
+        return openedBy;
+    }
+
+    public void setOpenedBy(String openedBy) {
+        this.openedBy = openedBy;
+    }
+
+    public LocalDateTime getOpenedAt() {
+        return openedAt;
+    }
+
+    public void setOpenedAt(LocalDateTime openedAt) {
+        this.openedAt = openedAt;
+    }
+
+    public long getScans() {
+        return scans;
+    }
+
+    public void setScans(long scans) {
+        this.scans = scans;
+    }
+
+    public long getDuplicateScans() {
+        return duplicateScans;
+    }
+
+    public void setDuplicateScans(long duplicateScans) {
+        this.duplicateScans = duplicateScans;
+    }
+
+    public long getSeenItems() {
+        return seenItems;
+    }
+
+    public void setSeenItems(long seenItems) {
+        this.seenItems = seenItems;
+    }
+
+    public long getUnknownBarcodes() {
+        return unknownBarcodes;
+    }
+
+    public void setUnknownBarcodes(long unknownBarcodes) {
+        this.unknownBarcodes = unknownBarcodes;
+    }
+
+    public boolean isClosing() {
+        return closing;
+    }
+
+    public void setClosing(boolean closing) {
+        this.closing = closing;
+    }
+}
@@ -52,6 +52,13 @@ public class Book implements Serializable {
     @Column(name = "price", precision = 10, scale = 2)
     private BigDecimal price;
 
+    // 副本计数器（冗余字段），只通过 CopyCounterService 的原子更新语句维护，实体本身不写入
+    @Column(name = "total_copies", nullable = false, insertable = false, updatable = false)
+    private Integer totalCopies = 0;
+
+    @Column(name = "available_copies", nullable = false, insertable = false, updatable = false)
+    private Integer availableCopies = 0;
+
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<BookItem> bookItems;
 
@@ -144,6 +151,22 @@ public class Book implements Serializable {
         this.price = price;
     }
 
+    public Integer getTotalCopies() {
+        return totalCopies;
+    }
+
+    public void setTotalCopies(Integer totalCopies) {
+        this.totalCopies = totalCopies;
+    }
+
+    public Integer getAvailableCopies() {
+        return availableCopies;
+    }
+
+    public void setAvailableCopies(Integer availableCopies) {
+        this.availableCopies = availableCopies;
+    }
+
     public List<BookItem> getBookItems() {
         return bookItems;
     }
@@ -163,6 +186,8 @@ public class Book implements Serializable {
                 ", publishDate=" + publishDate +
                 ", category=" + category +
                 ", price=" + price +
+                ", totalCopies=" + totalCopies +
+                ", availableCopies=" + availableCopies +
                 '}';
     }
 }
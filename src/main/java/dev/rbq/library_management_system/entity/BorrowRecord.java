@@ -2,18 +2,32 @@ package dev.rbq.library_management_system.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Persistable;
+
 import java.io.Serializable;
 import java.time.LocalDateTime;
 
 /**
  * 借阅记录实体类
+ * 实体图 BorrowRecord.detail 在一次查询中连接用户、副本和图书，用于列表转换为响应时避免逐条懒加载
+ * 主键由应用生成，实现 Persistable 使新记录直接 INSERT，而不是先 SELECT 再合并
  */
 @Entity
 @Table(name = "borrow_records")
-public class BorrowRecord implements Serializable {
+@NamedEntityGraph(
+        name = BorrowRecord.DETAIL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode(value = "bookItem", subgraph = "bookItem")
+        },
+        subgraphs = @NamedSubgraph(name = "bookItem", attributeNodes = @NamedAttributeNode("book"))
+)
+public class BorrowRecord implements Serializable, Persistable<String> {
 
     private static final long serialVersionUID = 1L;
 
+    public static final String DETAIL_GRAPH = "BorrowRecord.detail";
+
     @Id
     @Column(name = "record_id", length = 36, nullable = false)
     private String recordId;
@@ -44,6 +58,9 @@ public class BorrowRecord implements Serializable {
     @Column(name = "status", nullable = false, length = 20)
     private BorrowStatus status = BorrowStatus.Checked_Out;
 
+    @Transient
+    private boolean newRecord = true;
+
     // Constructors
     public BorrowRecord() {
     }
@@ -59,6 +76,25 @@ public class BorrowRecord implements Serializable {
         this.status = status;
     }
 
+    /**
+     * 从数据库加载或保存后不再是新记录
+     */
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newRecord = false;
+    }
+
+    @Override
+    public String getId() {
+        return recordId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
     // Getters and Setters
     public String getRecordId() {
         return recordId;
@@ -0,0 +1,40 @@
+package dev.rbq.library_management_system.event;
+
+/**
+ * 图书信息变更事件
+ * 由 BookService 在事务中发布，监听者在事务提交后处理
+ */
+public class BookChangedEvent {
+
+    private final Integer bookId;
+    private final ChangeType changeType;
+
+    public BookChangedEvent(Integer bookId, ChangeType changeType) {
+        this.bookId = bookId;
+        this.changeType = changeType;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    @Override
+    public String toString() {
+        return "BookChangedEvent{" +
+                "bookId=" + bookId +
+                ", changeType=" + changeType +
+                '}';
+    }
+
+    /**
+     * 变更类型
+     */
+    public enum ChangeType {
+        UPSERT,
+        DELETE
+    }
+}
@@ -0,0 +1,35 @@
+package dev.rbq.library_management_system.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 图书副本计数器变更事件
+ * 由 CopyCounterService 在事务中发布，监听者在事务提交后处理；批量操作每块只发布一个事件
+ */
+public class BookCopiesChangedEvent {
+
+    private final List<Integer> bookIds;
+
+    /**
+     * @param bookIds 计数器变化的图书ID
+     */
+    public BookCopiesChangedEvent(Collection<Integer> bookIds) {
+        this.bookIds = List.copyOf(bookIds);
+    }
+
+    public BookCopiesChangedEvent(Integer bookId) {
+        this(List.of(bookId));
+    }
+
+    public List<Integer> getBookIds() {
+        return bookIds;
+    }
+
+    @Override
+    public String toString() {
+        return "BookCopiesChangedEvent{" +
+                "bookIds=" + bookIds +
+                '}';
+    }
+}
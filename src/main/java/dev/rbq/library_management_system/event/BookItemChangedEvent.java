@@ -0,0 +1,35 @@
+package dev.rbq.library_management_system.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 图书副本变更事件（新增、删除，条码号、所属图书、位置或状态变化）
+ * 由修改 book_items 的服务在事务中发布，监听者在事务提交后按副本ID重新读取
+ */
+public class BookItemChangedEvent {
+
+    private final List<Integer> itemIds;
+
+    /**
+     * @param itemIds 变更的副本ID
+     */
+    public BookItemChangedEvent(Collection<Integer> itemIds) {
+        this.itemIds = List.copyOf(itemIds);
+    }
+
+    public BookItemChangedEvent(Integer itemId) {
+        this(List.of(itemId));
+    }
+
+    public List<Integer> getItemIds() {
+        return itemIds;
+    }
+
+    @Override
+    public String toString() {
+        return "BookItemChangedEvent{" +
+                "itemIds=" + itemIds +
+                '}';
+    }
+}
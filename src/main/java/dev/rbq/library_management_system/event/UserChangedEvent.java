@@ -0,0 +1,72 @@
+package dev.rbq.library_management_system.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户信息变更事件（注册，用户名、昵称、密码或角色变化，用户被删除）
+ * 由 AuthService、UserService 和 AdminService 在事务中发布，监听者在事务提交后处理
+ */
+public class UserChangedEvent {
+
+    private final String userUuid;
+    private final ChangeType changeType;
+    private final Set<String> usernames;
+
+    /**
+     * @param userUuid 用户UUID
+     * @param changeType 变更类型
+     * @param usernames 受影响的用户名（修改用户名时包括新旧用户名）
+     */
+    public UserChangedEvent(String userUuid, ChangeType changeType, String... usernames) {
+        this.userUuid = userUuid;
+        this.changeType = changeType;
+        this.usernames = Set.copyOf(List.of(usernames));
+    }
+
+    /**
+     * 批量导入的一块用户（每块一个事件）
+     * @param changeType 变更类型
+     * @param usernames 受影响的用户名
+     */
+    public UserChangedEvent(ChangeType changeType, Collection<String> usernames) {
+        this.userUuid = null;
+        this.changeType = changeType;
+        this.usernames = Set.copyOf(usernames);
+    }
+
+    /**
+     * @return 用户UUID，批量事件为null
+     */
+    public String getUserUuid() {
+        return userUuid;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Set<String> getUsernames() {
+        return usernames;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangedEvent{" +
+                "userUuid='" + userUuid + '\'' +
+                ", changeType=" + changeType +
+                '}';
+    }
+
+    /**
+     * 变更类型
+     */
+    public enum ChangeType {
+        CREATE,
+        UPDATE,
+        PASSWORD,
+        ROLE,
+        DELETE
+    }
+}
@@ -0,0 +1,170 @@
+package dev.rbq.library_management_system.inventory;
+
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.repository.BookItemRepository;
+import dev.rbq.library_management_system.repository.BookItemRepository.BarcodeEntry;
+import dev.rbq.library_management_system.repository.BookItemRepository.ItemIndexEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 条码索引
+ * 在内存中维护 条码号 -> (副本ID, 图书ID, 状态)，流通台扫码时不访问数据库。
+ * 由 ItemIndexUpdater 加载和增量更新，加载完成前查询退回数据库。条码号不区分大小写、忽略首尾空白，与数据库的排序规则一致
+ */
+@Component
+public class BarcodeIndex implements ItemIndex {
+
+    private static final BookItemStatus[] STATUSES = BookItemStatus.values();
+
+    @Autowired
+    private BookItemRepository bookItemRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BarcodeTable table = new BarcodeTable(1024);
+
+    private volatile boolean ready;
+
+    /**
+     * 批量查询条码号
+     * @param barcodes 条码号集合
+     * @return 请求中的条码号 -> 索引条目（按请求顺序，只包含存在的条码号；条目中的条码号为数据库中的写法）
+     */
+    public Map<String, Entry> lookup(Collection<String> barcodes) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        if (!ready) {
+            for (BarcodeEntry row : bookItemRepository.findBarcodeEntriesByBarcodes(barcodes)) {
+                entries.put(normalize(row.getBarcode()),
+                        new Entry(row.getBarcode(), row.getItemId(), row.getBookId(), row.getStatus()));
+            }
+            Map<String, Entry> ordered = new LinkedHashMap<>();
+            for (String barcode : barcodes) {
+                Entry entry = entries.get(normalize(barcode));
+                if (entry != null) {
+                    ordered.put(barcode, entry);
+                }
+            }
+            return ordered;
+        }
+
+        lock.readLock().lock();
+        try {
+            for (String barcode : barcodes) {
+                int slot = table.find(barcode.trim());
+                if (slot >= 0) {
+                    byte status = table.status(slot);
+                    entries.put(barcode, new Entry(table.barcode(slot), table.itemId(slot), table.bookId(slot),
+                            status >= 0 ? STATUSES[status] : null));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return entries;
+    }
+
+    /**
+     * 查询单个条码号
+     * @param barcode 条码号
+     * @return 索引条目，不存在时为null
+     */
+    public Entry lookup(String barcode) {
+        String trimmed = barcode.trim();
+        return lookup(List.of(trimmed)).get(trimmed);
+    }
+
+    /**
+     * 索引是否已加载完成
+     * @return true 如果查询不访问数据库，否则 false
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 索引中的副本数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return table.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(List<ItemIndexEntry> rows, Collection<Integer> removedItemIds) {
+        lock.writeLock().lock();
+        try {
+            for (ItemIndexEntry row : rows) {
+                byte status = row.getStatus() != null ? (byte) row.getStatus().ordinal() : BarcodeTable.UNKNOWN_STATUS;
+                table.put(row.getBarcode(), row.getItemId(), row.getBookId(), status);
+            }
+            for (Integer itemId : removedItemIds) {
+                table.removeItem(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeBook(int bookId) {
+        lock.writeLock().lock();
+        try {
+            table.removeBook(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    private static String normalize(String barcode) {
+        return barcode.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 条码索引条目
+     */
+    public static final class Entry {
+        private final String barcode;
+        private final int itemId;
+        private final int bookId;
+        private final BookItemStatus status;
+
+        public Entry(String barcode, int itemId, int bookId, BookItemStatus status) {
+            this.barcode = barcode;
+            this.itemId = itemId;
+            this.bookId = bookId;
+            this.status = status;
+        }
+
+        public String getBarcode() {
+            return barcode;
+        }
+
+        public int getItemId() {
+            return itemId;
+        }
+
+        public int getBookId() {
+            return bookId;
+        }
+
+        public BookItemStatus getStatus() {
+            return status;
+        }
+    }
+}
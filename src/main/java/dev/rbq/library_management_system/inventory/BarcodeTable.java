@@ -0,0 +1,242 @@
+package dev.rbq.library_management_system.inventory;
+
+import java.util.Arrays;
+
+/**
+ * 条码号 -> (副本ID, 图书ID, 状态) 的开放寻址哈希表
+ * 每个条目只占用并列数组中的一个槽位（条码号引用、两个 int 和一个状态字节），
+ * 不为每个条目创建节点或包装对象；线性探测，删除时回移后续条目而不留墓碑。
+ * 条码号比较不区分大小写，与数据库的排序规则一致；另按副本ID记录当前条码号，按副本删除不需要扫描整个表。
+ * 非线程安全，由调用方加锁
+ */
+final class BarcodeTable {
+
+    // 状态未知（数据库中的值不是合法的枚举名称）
+    static final byte UNKNOWN_STATUS = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] barcodes;
+    private int[] itemIds;
+    private int[] bookIds;
+    private byte[] statuses;
+    // 副本ID -> 当前条码号
+    private String[] itemBarcodes = new String[MIN_CAPACITY];
+    private int mask;
+    private int size;
+
+    BarcodeTable(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * 写入或覆盖条目，副本原来的条码号不同时删除原条目
+     * @return true 如果是新条码号，否则 false
+     */
+    boolean put(String barcode, int itemId, int bookId, byte status) {
+        ensureItemCapacity(itemId);
+        String previous = itemBarcodes[itemId];
+        if (previous != null && !previous.equalsIgnoreCase(barcode)) {
+            removeItem(itemId);
+        }
+        int slot = find(barcode);
+        if (slot >= 0) {
+            int owner = itemIds[slot];
+            if (owner != itemId && owner < itemBarcodes.length && itemBarcodes[owner] == barcodes[slot]) {
+                // 条码号已转给另一个副本
+                itemBarcodes[owner] = null;
+            }
+            barcodes[slot] = barcode;
+            itemBarcodes[itemId] = barcode;
+            itemIds[slot] = itemId;
+            bookIds[slot] = bookId;
+            statuses[slot] = status;
+            return false;
+        }
+        if ((size + 1) * 4L > barcodes.length * 3L) {
+            resize(barcodes.length * 2);
+        }
+        slot = home(barcode);
+        while (barcodes[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        barcodes[slot] = barcode;
+        itemBarcodes[itemId] = barcode;
+        itemIds[slot] = itemId;
+        bookIds[slot] = bookId;
+        statuses[slot] = status;
+        size++;
+        return true;
+    }
+
+    /**
+     * 查找条码号所在的槽位
+     * @return 槽位，不存在时为 -1
+     */
+    int find(String barcode) {
+        int slot = home(barcode);
+        String current;
+        while ((current = barcodes[slot]) != null) {
+            if (current.equalsIgnoreCase(barcode)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    int itemId(int slot) {
+        return itemIds[slot];
+    }
+
+    int bookId(int slot) {
+        return bookIds[slot];
+    }
+
+    byte status(int slot) {
+        return statuses[slot];
+    }
+
+    String barcode(int slot) {
+        return barcodes[slot];
+    }
+
+    /**
+     * 删除条码号
+     * @return true 如果条码号存在，否则 false
+     */
+    boolean remove(String barcode) {
+        int slot = find(barcode);
+        if (slot < 0) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * 删除副本当前条码号的条目
+     * @return true 如果副本在表中，否则 false
+     */
+    boolean removeItem(int itemId) {
+        if (itemId < 0 || itemId >= itemBarcodes.length || itemBarcodes[itemId] == null) {
+            return false;
+        }
+        int slot = find(itemBarcodes[itemId]);
+        if (slot < 0 || itemIds[slot] != itemId) {
+            itemBarcodes[itemId] = null;
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * 删除属于某本图书的全部条目（需要扫描整个表）
+     * @return 删除的条目数
+     */
+    int removeBook(int bookId) {
+        int removed = 0;
+        for (int slot = 0; slot < barcodes.length; slot++) {
+            // 回移可能把后面的条目移到当前槽位，需要再检查一次
+            while (barcodes[slot] != null && bookIds[slot] == bookId) {
+                removeSlot(slot);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 删除槽位上的条目，并把同一探测序列中后续的条目回移，保证查找不会提前遇到空槽
+     */
+    private void removeSlot(int slot) {
+        int owner = itemIds[slot];
+        if (owner < itemBarcodes.length && itemBarcodes[owner] == barcodes[slot]) {
+            itemBarcodes[owner] = null;
+        }
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            String candidate = barcodes[next];
+            if (candidate == null) {
+                break;
+            }
+            int home = home(candidate);
+            // home 在 (hole, next] 之间（环形）时，条目不能移到 hole 之前
+            boolean stays = hole <= next
+                    ? hole < home && home <= next
+                    : hole < home || home <= next;
+            if (!stays) {
+                barcodes[hole] = candidate;
+                itemIds[hole] = itemIds[next];
+                bookIds[hole] = bookIds[next];
+                statuses[hole] = statuses[next];
+                hole = next;
+            }
+        }
+        barcodes[hole] = null;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        String[] oldBarcodes = barcodes;
+        int[] oldItemIds = itemIds;
+        int[] oldBookIds = bookIds;
+        byte[] oldStatuses = statuses;
+        allocate(capacity);
+        for (int i = 0; i < oldBarcodes.length; i++) {
+            String barcode = oldBarcodes[i];
+            if (barcode != null) {
+                int slot = home(barcode);
+                while (barcodes[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                barcodes[slot] = barcode;
+                itemIds[slot] = oldItemIds[i];
+                bookIds[slot] = oldBookIds[i];
+                statuses[slot] = oldStatuses[i];
+            }
+        }
+    }
+
+    private void ensureItemCapacity(int itemId) {
+        if (itemId < itemBarcodes.length) {
+            return;
+        }
+        itemBarcodes = Arrays.copyOf(itemBarcodes, Math.max(itemId + 1, itemBarcodes.length * 2));
+    }
+
+    private void allocate(int capacity) {
+        barcodes = new String[capacity];
+        itemIds = new int[capacity];
+        bookIds = new int[capacity];
+        statuses = new byte[capacity];
+        Arrays.fill(statuses, UNKNOWN_STATUS);
+        mask = capacity - 1;
+    }
+
+    /**
+     * 按小写字符计算哈希，大小写不同的条码号落在同一个探测序列上
+     */
+    private int home(String barcode) {
+        int h = 0;
+        for (int i = 0; i < barcode.length(); i++) {
+            h = 31 * h + Character.toLowerCase(barcode.charAt(i));
+        }
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * 负载不超过 3/4 的最小 2 的幂容量
+     */
+    private static int capacityFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+}
@@ -0,0 +1,31 @@
+package dev.rbq.library_management_system.inventory;
+
+import dev.rbq.library_management_system.repository.BookItemRepository.ItemIndexEntry;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 由 ItemIndexUpdater 加载和增量更新的副本内存索引
+ * 所有方法只在更新线程中调用，实现只需要处理与查询线程之间的并发
+ */
+interface ItemIndex {
+
+    /**
+     * 写入一批副本，并移除数据库中已不存在的副本
+     * @param rows 从数据库读取的副本
+     * @param removedItemIds 已删除的副本ID
+     */
+    void apply(List<ItemIndexEntry> rows, Collection<Integer> removedItemIds);
+
+    /**
+     * 移除属于某本图书的全部副本（图书删除时数据库级联删除了它的副本）
+     * @param bookId 图书ID
+     */
+    void removeBook(int bookId);
+
+    /**
+     * 全部副本加载完成
+     */
+    void markReady();
+}
@@ -0,0 +1,247 @@
+package dev.rbq.library_management_system.inventory;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import dev.rbq.library_management_system.event.BookChangedEvent;
+import dev.rbq.library_management_system.event.BookItemChangedEvent;
+import dev.rbq.library_management_system.repository.BookItemRepository;
+import dev.rbq.library_management_system.repository.BookItemRepository.ItemIndexEntry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * 副本内存索引（条码索引、位置索引）的加载和增量更新
+ * 应用启动后由一个后台线程按副本ID顺序分块读取全部副本并交给各个索引，读取失败时按指数退避重试，从失败的分块继续。
+ * 副本变更在事务提交后只记录副本ID并向其他节点广播一条消息；后台线程合并积压的副本ID，
+ * 每批只读取一次数据库、更新所有索引，请求线程和失效消息线程都不访问数据库。
+ * 同一时刻只有这一个线程读取和写入索引，后读到的数据一定较新，不会被先读到的旧数据覆盖；
+ * 代价是索引在事务提交后有短暂的滞后
+ */
+@Component
+public class ItemIndexUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemIndexUpdater.class);
+
+    // 跨节点失效区域，键为 items:副本ID列表 或 book:图书ID
+    public static final String INVALIDATION_REGION = "item-index";
+
+    private static final int LOAD_CHUNK_SIZE = 5000;
+
+    // 每次重新读取的最大副本数
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private static final long INITIAL_RETRY_DELAY_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 60_000;
+
+    @Autowired
+    private BookItemRepository bookItemRepository;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private List<ItemIndex> indexes;
+
+    private final Set<Integer> pendingItems = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> pendingBooks = ConcurrentHashMap.newKeySet();
+
+    // 有新的待处理变更时放入一个元素唤醒后台线程
+    private final BlockingQueue<Boolean> wakeUp = new LinkedBlockingQueue<>(1);
+
+    /**
+     * 订阅其他节点的副本变更
+     */
+    @PostConstruct
+    void subscribeInvalidations() {
+        invalidationBus.subscribe(INVALIDATION_REGION, this::onPeerChanged);
+    }
+
+    /**
+     * 应用启动后启动后台线程：先加载全部副本，之后处理副本变更
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        Thread updater = new Thread(this::run, "item-index-updater");
+        updater.setDaemon(true);
+        updater.start();
+    }
+
+    /**
+     * 副本变更事务提交后记录待更新的副本，并通知其他节点
+     * @param event 副本变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookItemChanged(BookItemChangedEvent event) {
+        if (event.getItemIds().isEmpty()) {
+            return;
+        }
+        enqueueItems(event.getItemIds());
+        invalidationBus.publish(INVALIDATION_REGION, "items:" + event.getItemIds().stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * 图书删除时数据库级联删除了它的副本，从索引中移除
+     * @param event 图书变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getChangeType() == BookChangedEvent.ChangeType.DELETE) {
+            enqueueBook(event.getBookId());
+            invalidationBus.publish(INVALIDATION_REGION, "book:" + event.getBookId());
+        }
+    }
+
+    /**
+     * 其他节点的副本变更，只记录下来，由后台线程处理
+     * @param key 变更描述
+     */
+    private void onPeerChanged(String key) {
+        if (key == null) {
+            return;
+        }
+        if (key.startsWith("items:")) {
+            List<Integer> itemIds = new ArrayList<>();
+            for (String itemId : key.substring("items:".length()).split(",")) {
+                itemIds.add(Integer.valueOf(itemId));
+            }
+            enqueueItems(itemIds);
+        } else if (key.startsWith("book:")) {
+            enqueueBook(Integer.valueOf(key.substring("book:".length())));
+        }
+    }
+
+    void enqueueItems(Collection<Integer> itemIds) {
+        pendingItems.addAll(itemIds);
+        wakeUp.offer(Boolean.TRUE);
+    }
+
+    void enqueueBook(int bookId) {
+        pendingBooks.add(bookId);
+        wakeUp.offer(Boolean.TRUE);
+    }
+
+    private void run() {
+        try {
+            load();
+            while (true) {
+                wakeUp.take();
+                drainWithRetry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 按副本ID顺序分块加载全部副本，加载期间的变更在加载完成、标记就绪之前处理
+     */
+    void load() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        int lastItemId = 0;
+        int loaded = 0;
+        long retryDelay = INITIAL_RETRY_DELAY_MS;
+
+        while (true) {
+            List<ItemIndexEntry> chunk;
+            try {
+                chunk = bookItemRepository.findIndexEntriesAfter(lastItemId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+            } catch (RuntimeException e) {
+                logger.error("Failed to load item indexes after item {}, retrying in {} ms", lastItemId, retryDelay, e);
+                Thread.sleep(retryDelay);
+                retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+                continue;
+            }
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (ItemIndex index : indexes) {
+                index.apply(chunk, List.of());
+            }
+            lastItemId = chunk.get(chunk.size() - 1).getItemId();
+            loaded += chunk.size();
+            retryDelay = INITIAL_RETRY_DELAY_MS;
+        }
+
+        // 加载期间发生变更的副本可能被旧数据覆盖，重新读取一次
+        drainWithRetry();
+        for (ItemIndex index : indexes) {
+            index.markReady();
+        }
+        logger.info("Item indexes loaded {} copies in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 处理全部积压的变更；读取失败时保留未处理的副本ID，退避后重试
+     */
+    void drainWithRetry() throws InterruptedException {
+        long retryDelay = INITIAL_RETRY_DELAY_MS;
+        while (true) {
+            try {
+                drain();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Failed to refresh item indexes, retrying in {} ms", retryDelay, e);
+                Thread.sleep(retryDelay);
+                retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    /**
+     * 处理积压的图书删除和副本变更，每批副本只读取一次数据库
+     */
+    void drain() {
+        for (Integer bookId : takeBatch(pendingBooks, Integer.MAX_VALUE)) {
+            for (ItemIndex index : indexes) {
+                index.removeBook(bookId);
+            }
+        }
+        while (!pendingItems.isEmpty()) {
+            List<Integer> batch = takeBatch(pendingItems, REFRESH_BATCH_SIZE);
+            List<ItemIndexEntry> rows;
+            try {
+                rows = bookItemRepository.findIndexEntriesByIds(batch);
+            } catch (RuntimeException e) {
+                pendingItems.addAll(batch);
+                throw e;
+            }
+            Set<Integer> removed = new HashSet<>(batch);
+            for (ItemIndexEntry row : rows) {
+                removed.remove(row.getItemId());
+            }
+            for (ItemIndex index : indexes) {
+                index.apply(rows, removed);
+            }
+        }
+    }
+
+    private static List<Integer> takeBatch(Set<Integer> pending, int limit) {
+        List<Integer> batch = new ArrayList<>();
+        Iterator<Integer> iterator = pending.iterator();
+        while (iterator.hasNext() && batch.size() < limit) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,182 @@
+package dev.rbq.library_management_system.inventory;
+
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.repository.BookItemRepository.ItemIndexEntry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 馆藏位置索引
+ * 在内存中维护 馆舍-楼层-书架排-层架 的位置树及每个节点的副本数和各状态副本数，
+ * 浏览位置和统计不访问数据库。由 ItemIndexUpdater 加载和增量更新
+ */
+@Component
+public class LocationIndex implements ItemIndex {
+
+    private static final BookItemStatus[] STATUSES = BookItemStatus.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LocationTree tree = new LocationTree();
+
+    private volatile boolean ready;
+
+    /**
+     * 索引是否已加载完成
+     * @return true 如果可以浏览，否则 false
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 查询位置节点及其直接子节点
+     * @param path 节点路径（不区分大小写），为空时为根节点
+     * @return 节点摘要，不存在时为null
+     */
+    public NodeSummary getNode(String path) {
+        lock.readLock().lock();
+        try {
+            LocationTree.Node node = tree.find(path);
+            if (node == null) {
+                return null;
+            }
+            List<NodeSummary> children = new ArrayList<>(node.children.size());
+            for (LocationTree.Node child : node.children.values()) {
+                children.add(summarize(child, List.of()));
+            }
+            return summarize(node, children);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按路径前缀查找节点（输入提示）
+     * @param prefix 路径前缀
+     * @param limit 最大数量
+     * @return 匹配的节点摘要（不包含子节点）
+     */
+    public List<NodeSummary> search(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return tree.search(prefix, limit).stream()
+                    .map(node -> summarize(node, List.of()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 索引中的副本数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void apply(List<ItemIndexEntry> rows, Collection<Integer> removedItemIds) {
+        lock.writeLock().lock();
+        try {
+            for (ItemIndexEntry row : rows) {
+                tree.put(row.getItemId(), row.getBookId(), row.getLocation(), row.getStatus());
+            }
+            for (Integer itemId : removedItemIds) {
+                tree.remove(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeBook(int bookId) {
+        lock.writeLock().lock();
+        try {
+            tree.removeBook(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    private NodeSummary summarize(LocationTree.Node node, List<NodeSummary> children) {
+        Map<String, Long> statusTotals = new LinkedHashMap<>();
+        for (BookItemStatus status : STATUSES) {
+            statusTotals.put(status.name(), node.statusCounts[status.ordinal()]);
+        }
+        long unknown = node.statusCounts[LocationTree.UNKNOWN_STATUS];
+        if (unknown > 0) {
+            statusTotals.put("Unknown", unknown);
+        }
+        return new NodeSummary(node.path, node.label, node.depth, node.copies, node.directCopies,
+                statusTotals, children);
+    }
+
+    /**
+     * 位置节点摘要
+     */
+    public static final class NodeSummary {
+        private final String path;
+        private final String label;
+        private final int depth;
+        private final long copies;
+        private final long directCopies;
+        private final Map<String, Long> statusTotals;
+        private final List<NodeSummary> children;
+
+        public NodeSummary(String path, String label, int depth, long copies, long directCopies,
+                           Map<String, Long> statusTotals, List<NodeSummary> children) {
+            this.path = path;
+            this.label = label;
+            this.depth = depth;
+            this.copies = copies;
+            this.directCopies = directCopies;
+            this.statusTotals = statusTotals;
+            this.children = children;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getCopies() {
+            return copies;
+        }
+
+        public long getDirectCopies() {
+            return directCopies;
+        }
+
+        public Map<String, Long> getStatusTotals() {
+            return statusTotals;
+        }
+
+        public List<NodeSummary> getChildren() {
+            return children;
+        }
+    }
+}
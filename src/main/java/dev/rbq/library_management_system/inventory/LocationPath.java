@@ -0,0 +1,104 @@
+package dev.rbq.library_management_system.inventory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 馆藏位置路径
+ * 位置按 "-" 分为 馆舍-楼层-书架排-层架 四级（如 A-2-03-4），第四个 "-" 之后的内容都属于层架一级；
+ * 某一级节点的路径就是位置字符串到该级为止的前缀，因此节点下的副本可以用
+ * location = 路径 OR location LIKE '路径-%' 在 idx_location 上做范围查询
+ */
+public final class LocationPath {
+
+    public static final char SEPARATOR = '-';
+
+    public static final int MAX_DEPTH = 4;
+
+    private static final String[] LEVELS = {"building", "floor", "range", "shelf"};
+
+    /**
+     * 同级节点的排序：都是数字时按数值比较（2 在 10 之前），否则按不区分大小写的字符串比较
+     */
+    public static final Comparator<String> SEGMENT_ORDER = (a, b) -> {
+        if (isDigits(a) && isDigits(b)) {
+            String x = stripLeadingZeros(a);
+            String y = stripLeadingZeros(b);
+            if (x.length() != y.length()) {
+                return Integer.compare(x.length(), y.length());
+            }
+            int cmp = x.compareTo(y);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return a.compareTo(b);
+    };
+
+    private LocationPath() {
+    }
+
+    /**
+     * 把位置拆分为各级名称
+     * @param location 馆藏位置
+     * @return 各级名称（位置为空时为空列表）
+     */
+    public static List<String> parse(String location) {
+        List<String> segments = new ArrayList<>(MAX_DEPTH);
+        if (location == null || location.isBlank()) {
+            return segments;
+        }
+        int start = 0;
+        while (segments.size() < MAX_DEPTH - 1) {
+            int end = location.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                break;
+            }
+            segments.add(location.substring(start, end));
+            start = end + 1;
+        }
+        segments.add(location.substring(start));
+        return segments;
+    }
+
+    /**
+     * 路径的规范形式（用于比较和作为节点键）
+     * 与数据库默认排序规则一致，不区分大小写
+     * @param path 路径或其中一级名称
+     * @return 规范形式
+     */
+    public static String normalize(String path) {
+        return path.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 层级名称
+     * @param depth 深度（1-4）
+     * @return building / floor / range / shelf，根节点为 root
+     */
+    public static String level(int depth) {
+        return depth == 0 ? "root" : LEVELS[depth - 1];
+    }
+
+    private static boolean isDigits(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String stripLeadingZeros(String value) {
+        int i = 0;
+        while (i < value.length() - 1 && value.charAt(i) == '0') {
+            i++;
+        }
+        return value.substring(i);
+    }
+}
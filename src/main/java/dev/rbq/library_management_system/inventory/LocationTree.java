@@ -0,0 +1,198 @@
+package dev.rbq.library_management_system.inventory;
+
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * 馆藏位置树
+ * 每个节点保存其子树中的副本总数和各状态的副本数，浏览任意节点只需读取节点本身和它的直接子节点；
+ * 每个副本当前所在的节点、状态和所属图书保存在按副本ID下标的数组中，
+ * 副本变化时先从原节点到根节点逐级减去、再在新节点逐级加上，副本数降为 0 的节点被移除。
+ * 非线程安全，由调用方加锁
+ */
+final class LocationTree {
+
+    private static final BookItemStatus[] STATUSES = BookItemStatus.values();
+
+    // 状态计数数组中未知状态的下标
+    static final int UNKNOWN_STATUS = STATUSES.length;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private final Node root = new Node(null, "", "", "", 0);
+
+    private Node[] itemNodes = new Node[MIN_CAPACITY];
+    private byte[] itemStatuses = new byte[MIN_CAPACITY];
+    private int[] itemBookIds = new int[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * 写入或更新副本
+     * @param itemId 副本ID
+     * @param bookId 图书ID
+     * @param location 馆藏位置（为空时计入根节点的未分配副本）
+     * @param status 副本状态（未知时为null）
+     */
+    void put(int itemId, int bookId, String location, BookItemStatus status) {
+        remove(itemId);
+        ensureCapacity(itemId);
+
+        Node node = root;
+        for (String segment : LocationPath.parse(location)) {
+            node = node.child(segment);
+        }
+        int statusSlot = status != null ? status.ordinal() : UNKNOWN_STATUS;
+        itemNodes[itemId] = node;
+        itemStatuses[itemId] = (byte) statusSlot;
+        itemBookIds[itemId] = bookId;
+        node.directCopies++;
+        for (Node n = node; n != null; n = n.parent) {
+            n.copies++;
+            n.statusCounts[statusSlot]++;
+        }
+        size++;
+    }
+
+    /**
+     * 删除副本
+     * @param itemId 副本ID
+     * @return true 如果副本存在，否则 false
+     */
+    boolean remove(int itemId) {
+        if (itemId < 0 || itemId >= itemNodes.length || itemNodes[itemId] == null) {
+            return false;
+        }
+        Node node = itemNodes[itemId];
+        int statusSlot = itemStatuses[itemId];
+        node.directCopies--;
+        for (Node n = node; n != null; n = n.parent) {
+            n.copies--;
+            n.statusCounts[statusSlot]--;
+        }
+        // 移除已经没有副本的节点
+        for (Node n = node; n != root && n.copies == 0; n = n.parent) {
+            n.parent.children.remove(n.key);
+        }
+        itemNodes[itemId] = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * 删除属于某本图书的全部副本（需要扫描所有副本）
+     * @param bookId 图书ID
+     * @return 删除的副本数
+     */
+    int removeBook(int bookId) {
+        int removed = 0;
+        for (int itemId = 0; itemId < itemNodes.length; itemId++) {
+            if (itemNodes[itemId] != null && itemBookIds[itemId] == bookId) {
+                remove(itemId);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 根节点（子树为全部副本，直接副本为没有位置的副本）
+     */
+    Node root() {
+        return root;
+    }
+
+    /**
+     * 按路径查找节点（不区分大小写）
+     * @param path 节点路径，为空时为根节点
+     * @return 节点，不存在时为null
+     */
+    Node find(String path) {
+        Node node = root;
+        for (String segment : LocationPath.parse(path)) {
+            node = node.children.get(LocationPath.normalize(segment));
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * 按前缀查找节点（输入提示）
+     * 前缀的最后一级按名称前缀匹配，之前的各级必须完整匹配；例如 "A-2-0" 返回 A-2 下名称以 0 开头的书架排
+     * @param prefix 路径前缀
+     * @param limit 最大数量
+     * @return 匹配的节点（按同级顺序）
+     */
+    List<Node> search(String prefix, int limit) {
+        List<String> segments = LocationPath.parse(prefix);
+        Node parent = root;
+        String partial = "";
+        if (!segments.isEmpty()) {
+            for (int i = 0; i < segments.size() - 1; i++) {
+                parent = parent.children.get(LocationPath.normalize(segments.get(i)));
+                if (parent == null) {
+                    return List.of();
+                }
+            }
+            partial = LocationPath.normalize(segments.get(segments.size() - 1));
+        }
+
+        List<Node> matches = new ArrayList<>();
+        for (Node child : parent.children.values()) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            if (child.key.startsWith(partial)) {
+                matches.add(child);
+            }
+        }
+        return matches;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void ensureCapacity(int itemId) {
+        if (itemId < itemNodes.length) {
+            return;
+        }
+        int capacity = Math.max(itemId + 1, itemNodes.length * 2);
+        itemNodes = Arrays.copyOf(itemNodes, capacity);
+        itemStatuses = Arrays.copyOf(itemStatuses, capacity);
+        itemBookIds = Arrays.copyOf(itemBookIds, capacity);
+    }
+
+    /**
+     * 位置节点
+     */
+    static final class Node {
+        final Node parent;
+        final String key;
+        final String label;
+        final String path;
+        final int depth;
+        final TreeMap<String, Node> children = new TreeMap<>(LocationPath.SEGMENT_ORDER);
+        final long[] statusCounts = new long[UNKNOWN_STATUS + 1];
+        long copies;
+        long directCopies;
+
+        private Node(Node parent, String key, String label, String path, int depth) {
+            this.parent = parent;
+            this.key = key;
+            this.label = label;
+            this.path = path;
+            this.depth = depth;
+        }
+
+        private Node child(String segment) {
+            return children.computeIfAbsent(LocationPath.normalize(segment), key -> new Node(
+                    this, key, segment, depth == 0 ? segment : path + LocationPath.SEPARATOR + segment, depth + 1));
+        }
+    }
+}
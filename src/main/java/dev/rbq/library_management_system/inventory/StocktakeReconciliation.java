@@ -0,0 +1,189 @@
+package dev.rbq.library_management_system.inventory;
+
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository.ItemRow;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 盘点核对
+ * 按副本ID顺序依次接收盘点范围内的副本，与已扫到的副本ID位集合比较：
+ * 在架状态（可借、损坏）却没有扫到的为缺失，扫到但状态不应在架（借出、丢失、注销）的为异常；
+ * 范围内的副本处理完后，位集合中剩下的是扫到但位置不在盘点范围内的副本，为错架。
+ * 各类副本只保留前 maxReported 条明细，缺失副本的ID全部保存在位集合中
+ */
+public final class StocktakeReconciliation {
+
+    private static final Set<BookItemStatus> ON_SHELF_STATUSES = EnumSet.of(BookItemStatus.Available, BookItemStatus.Damaged);
+
+    private final String locationPrefix;
+    private final int maxReported;
+
+    // 已扫到但尚未在盘点范围内出现的副本ID
+    private final BitSet unmatched;
+    private final BitSet missing = new BitSet();
+
+    private long expected;
+    private long found;
+    private long missingCount;
+    private long misplacedCount;
+    private long unexpectedCount;
+
+    private final List<ItemRow> missingItems = new ArrayList<>();
+    private final List<ItemRow> misplacedItems = new ArrayList<>();
+    private final List<ItemRow> unexpectedItems = new ArrayList<>();
+
+    /**
+     * @param locationPrefix 盘点范围（位置节点路径）
+     * @param seen 已扫到的副本ID（会被修改）
+     * @param maxReported 每类副本保留的明细数量
+     */
+    public StocktakeReconciliation(String locationPrefix, BitSet seen, int maxReported) {
+        this.locationPrefix = locationPrefix;
+        this.unmatched = seen;
+        this.maxReported = maxReported;
+    }
+
+    /**
+     * 处理盘点范围内的一个副本
+     * @param row 副本行
+     */
+    public void acceptInRange(ItemRow row) {
+        boolean onShelf = isOnShelf(parseStatus(row.getStatus()));
+        if (onShelf) {
+            expected++;
+        }
+        if (unmatched.get(row.getItemId())) {
+            unmatched.clear(row.getItemId());
+            if (onShelf) {
+                found++;
+            } else {
+                unexpectedCount++;
+                report(unexpectedItems, row);
+            }
+        } else if (onShelf) {
+            missing.set(row.getItemId());
+            missingCount++;
+            report(missingItems, row);
+        }
+    }
+
+    /**
+     * 处理一个扫到但不在盘点范围查询结果中的副本
+     * 范围查询之后副本可能被移入盘点范围，此时按范围内的副本处理
+     * @param row 副本行
+     */
+    public void acceptScannedOutsideRange(ItemRow row) {
+        if (isUnder(row.getLocation(), locationPrefix)) {
+            acceptInRange(row);
+            return;
+        }
+        unmatched.clear(row.getItemId());
+        misplacedCount++;
+        report(misplacedItems, row);
+    }
+
+    /**
+     * 扫到但尚未处理的副本ID（范围内的副本全部处理完后即为可能错架的副本）
+     */
+    public BitSet unmatchedItemIds() {
+        return unmatched;
+    }
+
+    /**
+     * 缺失副本的ID
+     */
+    public BitSet missingItemIds() {
+        return missing;
+    }
+
+    public long getExpected() {
+        return expected;
+    }
+
+    public long getFound() {
+        return found;
+    }
+
+    public long getMissingCount() {
+        return missingCount;
+    }
+
+    public long getMisplacedCount() {
+        return misplacedCount;
+    }
+
+    public long getUnexpectedCount() {
+        return unexpectedCount;
+    }
+
+    public List<ItemRow> getMissingItems() {
+        return missingItems;
+    }
+
+    public List<ItemRow> getMisplacedItems() {
+        return misplacedItems;
+    }
+
+    public List<ItemRow> getUnexpectedItems() {
+        return unexpectedItems;
+    }
+
+    /**
+     * 是否有未列出的明细
+     */
+    public boolean isTruncated() {
+        return missingCount > missingItems.size()
+                || misplacedCount > misplacedItems.size()
+                || unexpectedCount > unexpectedItems.size();
+    }
+
+    private void report(List<ItemRow> items, ItemRow row) {
+        if (items.size() < maxReported) {
+            items.add(row);
+        }
+    }
+
+    /**
+     * 副本是否应在架上
+     * @param status 副本状态
+     * @return true 如果可借或损坏，否则 false
+     */
+    public static boolean isOnShelf(BookItemStatus status) {
+        return status != null && ON_SHELF_STATUSES.contains(status);
+    }
+
+    /**
+     * 位置是否在盘点范围内：等于范围节点或位于其下级（按层级匹配，A-1 不包含 A-10），不区分大小写
+     * 与 InventoryJdbcRepository.streamItemsUnderLocation 的查询条件一致
+     * @param location 馆藏位置
+     * @param path 范围节点路径
+     * @return true 如果位置在范围内，否则 false
+     */
+    public static boolean isUnder(String location, String path) {
+        if (location == null || !location.regionMatches(true, 0, path, 0, path.length())) {
+            return false;
+        }
+        return location.length() == path.length() || location.charAt(path.length()) == LocationPath.SEPARATOR;
+    }
+
+    /**
+     * 解析数据库中的状态（不是合法的枚举名称时为null）
+     * @param status 状态
+     * @return 副本状态
+     */
+    public static BookItemStatus parseStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return BookItemStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
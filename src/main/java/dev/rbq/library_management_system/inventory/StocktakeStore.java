@@ -0,0 +1,322 @@
+package dev.rbq.library_management_system.inventory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 盘点会话存储
+ * 会话保存在 Redis 中，扫码请求可以落在任意节点：
+ * 会话信息为哈希，已扫到的副本为以副本ID为偏移量的位图（100 万个副本约 125 KB），
+ * 不存在的条码号为集合。所有键在最后一次扫码后保留 library.stocktake.ttl
+ */
+@Component
+public class StocktakeStore {
+
+    private static final String KEY_PREFIX = "library:stocktake:";
+    private static final String SESSION_IDS_KEY = KEY_PREFIX + "sessions";
+
+    private static final String FIELD_LOCATION_PREFIX = "locationPrefix";
+    private static final String FIELD_OPENED_BY = "openedBy";
+    private static final String FIELD_OPENED_AT = "openedAt";
+    private static final String FIELD_SCANS = "scans";
+    private static final String FIELD_DUPLICATES = "duplicates";
+    private static final String FIELD_CLOSING = "closing";
+
+    // 会话存在（有 openedAt 字段）时才设置结束标记；返回 -1 表示会话不存在或已过期
+    private static final RedisScript<Long> MARK_CLOSING_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then return -1 end " +
+                    "return redis.call('HSETNX', KEYS[1], ARGV[2], '1')",
+            Long.class);
+
+    @Value("${library.stocktake.ttl:7d}")
+    private Duration ttl;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * 创建会话
+     * @param locationPrefix 盘点范围（位置节点路径）
+     * @param openedBy 创建者用户名
+     * @return 会话
+     */
+    public StocktakeSession open(String locationPrefix, String openedBy) {
+        String sessionId = UUID.randomUUID().toString();
+        LocalDateTime openedAt = LocalDateTime.now();
+        redisTemplate.opsForHash().putAll(sessionKey(sessionId), Map.of(
+                FIELD_LOCATION_PREFIX, locationPrefix,
+                FIELD_OPENED_BY, openedBy,
+                FIELD_OPENED_AT, openedAt.toString(),
+                FIELD_SCANS, "0",
+                FIELD_DUPLICATES, "0"
+        ));
+        redisTemplate.expire(sessionKey(sessionId), ttl);
+        redisTemplate.opsForSet().add(SESSION_IDS_KEY, sessionId);
+        return new StocktakeSession(sessionId, locationPrefix, openedBy, openedAt, 0, 0, false);
+    }
+
+    /**
+     * 读取会话
+     * @param sessionId 会话ID
+     * @return 会话，不存在或已过期时为null
+     */
+    public StocktakeSession get(String sessionId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(sessionKey(sessionId));
+        if (fields.isEmpty()) {
+            return null;
+        }
+        if (!fields.containsKey(FIELD_OPENED_AT)) {
+            // 会话过期后迟到的扫码计数重新创建了不完整的哈希
+            delete(sessionId);
+            return null;
+        }
+        return new StocktakeSession(
+                sessionId,
+                (String) fields.get(FIELD_LOCATION_PREFIX),
+                (String) fields.get(FIELD_OPENED_BY),
+                LocalDateTime.parse((String) fields.get(FIELD_OPENED_AT)),
+                Long.parseLong((String) fields.getOrDefault(FIELD_SCANS, "0")),
+                Long.parseLong((String) fields.getOrDefault(FIELD_DUPLICATES, "0")),
+                fields.containsKey(FIELD_CLOSING)
+        );
+    }
+
+    /**
+     * 列出所有未过期的会话（顺带清理已过期会话的ID）
+     * @return 会话列表
+     */
+    public List<StocktakeSession> list() {
+        Set<String> sessionIds = redisTemplate.opsForSet().members(SESSION_IDS_KEY);
+        List<StocktakeSession> sessions = new ArrayList<>();
+        if (sessionIds == null) {
+            return sessions;
+        }
+        for (String sessionId : sessionIds) {
+            StocktakeSession session = get(sessionId);
+            if (session != null) {
+                sessions.add(session);
+            } else {
+                redisTemplate.opsForSet().remove(SESSION_IDS_KEY, sessionId);
+            }
+        }
+        return sessions;
+    }
+
+    /**
+     * 记录一批扫码结果（一次往返），并延长会话的保留时间
+     * @param sessionId 会话ID
+     * @param itemIds 扫到的副本ID
+     * @param unknownBarcodes 不存在的条码号
+     * @param received 本批扫码次数
+     * @return 本批中此前已扫到过的副本数
+     */
+    public int recordScans(String sessionId, Collection<Integer> itemIds,
+                           Collection<String> unknownBarcodes, int received) {
+        byte[] sessionKey = bytes(sessionKey(sessionId));
+        byte[] seenKey = bytes(seenKey(sessionId));
+        byte[] unknownKey = bytes(unknownKey(sessionId));
+        long ttlSeconds = ttl.toSeconds();
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Integer itemId : itemIds) {
+                connection.stringCommands().setBit(seenKey, itemId, true);
+            }
+            if (!unknownBarcodes.isEmpty()) {
+                connection.setCommands().sAdd(unknownKey, unknownBarcodes.stream().map(StocktakeStore::bytes).toArray(byte[][]::new));
+            }
+            connection.hashCommands().hIncrBy(sessionKey, bytes(FIELD_SCANS), received);
+            expire(connection, ttlSeconds, sessionKey, seenKey, unknownKey);
+            return null;
+        });
+
+        // SETBIT 返回该位原来的值
+        int duplicates = 0;
+        for (int i = 0; i < itemIds.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                duplicates++;
+            }
+        }
+        if (duplicates > 0) {
+            redisTemplate.opsForHash().increment(sessionKey(sessionId), FIELD_DUPLICATES, duplicates);
+        }
+        return duplicates;
+    }
+
+    /**
+     * 已扫到的不同副本数
+     */
+    public long seenCount(String sessionId) {
+        Long count = redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.stringCommands().bitCount(bytes(seenKey(sessionId))));
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 已扫到的副本ID集合
+     */
+    public BitSet seenItems(String sessionId) {
+        byte[] bitmap = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(bytes(seenKey(sessionId))));
+        return bitmap != null ? toBitSet(bitmap) : new BitSet();
+    }
+
+    /**
+     * 扫到的不存在的条码号数量
+     */
+    public long unknownCount(String sessionId) {
+        Long count = redisTemplate.opsForSet().size(unknownKey(sessionId));
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 扫到的不存在的条码号（按字母顺序，最多 limit 个）
+     */
+    public List<String> unknownBarcodes(String sessionId, int limit) {
+        List<String> barcodes = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.opsForSet()
+                .scan(unknownKey(sessionId), ScanOptions.scanOptions().count(1000).build())) {
+            while (cursor.hasNext() && barcodes.size() < limit) {
+                barcodes.add(cursor.next());
+            }
+        }
+        Collections.sort(barcodes);
+        return barcodes;
+    }
+
+    /**
+     * 将会话标记为正在结束，之后不再接受扫码
+     * 检查会话是否存在和设置标记在同一个脚本中执行，不会为已过期的会话创建只有结束标记的哈希
+     * @return true 如果标记成功，false 如果会话已在结束中
+     * @throws IllegalArgumentException 会话不存在或已过期
+     */
+    public boolean markClosing(String sessionId) {
+        Long result = redisTemplate.execute(MARK_CLOSING_SCRIPT, List.of(sessionKey(sessionId)),
+                FIELD_OPENED_AT, FIELD_CLOSING);
+        if (result == null || result < 0) {
+            throw new IllegalArgumentException("Stocktake session does not exist");
+        }
+        return result == 1;
+    }
+
+    /**
+     * 结束失败时撤销结束标记，会话可以继续扫码或重新结束
+     */
+    public void clearClosing(String sessionId) {
+        redisTemplate.opsForHash().delete(sessionKey(sessionId), FIELD_CLOSING);
+    }
+
+    /**
+     * 删除会话及其扫码数据
+     */
+    public void delete(String sessionId) {
+        redisTemplate.delete(List.of(sessionKey(sessionId), seenKey(sessionId), unknownKey(sessionId)));
+        redisTemplate.opsForSet().remove(SESSION_IDS_KEY, sessionId);
+    }
+
+    /**
+     * Redis 位图的偏移量 0 是第一个字节的最高位，而 BitSet.valueOf 从最低位开始，需要逐字节翻转
+     * @param bitmap Redis 位图
+     * @return 位集合
+     */
+    static BitSet toBitSet(byte[] bitmap) {
+        byte[] reversed = new byte[bitmap.length];
+        for (int i = 0; i < bitmap.length; i++) {
+            reversed[i] = (byte) (Integer.reverse(bitmap[i] & 0xFF) >>> 24);
+        }
+        return BitSet.valueOf(reversed);
+    }
+
+    private static void expire(RedisConnection connection, long ttlSeconds, byte[]... keys) {
+        for (byte[] key : keys) {
+            connection.keyCommands().expire(key, ttlSeconds);
+        }
+    }
+
+    private static String sessionKey(String sessionId) {
+        return KEY_PREFIX + sessionId;
+    }
+
+    private static String seenKey(String sessionId) {
+        return KEY_PREFIX + sessionId + ":seen";
+    }
+
+    private static String unknownKey(String sessionId) {
+        return KEY_PREFIX + sessionId + ":unknown";
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 盘点会话
+     */
+    public static final class StocktakeSession {
+        private final String sessionId;
+        private final String locationPrefix;
+        private final String openedBy;
+        private final LocalDateTime openedAt;
+        private final long scans;
+        private final long duplicateScans;
+        private final boolean closing;
+
+        public StocktakeSession(String sessionId, String locationPrefix, String openedBy, LocalDateTime openedAt,
+                                long scans, long duplicateScans, boolean closing) {
+            this.sessionId = sessionId;
+            this.locationPrefix = locationPrefix;
+            this.openedBy = openedBy;
+            this.openedAt = openedAt;
+            this.scans = scans;
+            this.duplicateScans = duplicateScans;
+            this.closing = closing;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public String getLocationPrefix() {
+            return locationPrefix;
+        }
+
+        public String getOpenedBy() {
+            return openedBy;
+        }
+
+        public LocalDateTime getOpenedAt() {
+            return openedAt;
+        }
+
+        public long getScans() {
+            return scans;
+        }
+
+        public long getDuplicateScans() {
+            return duplicateScans;
+        }
+
+        public boolean isClosing() {
+            return closing;
+        }
+    }
+}
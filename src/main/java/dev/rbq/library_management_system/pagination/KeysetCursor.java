@@ -0,0 +1,126 @@
+package dev.rbq.library_management_system.pagination;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * 游标分页的位置
+ * 记录排序字段、排序方向以及上一页最后一行的 (排序键, 主键)，编码为不透明的 URL 安全字符串。
+ * 游标不包含筛选条件，翻页时客户端需要传入与第一页相同的筛选参数
+ */
+public final class KeysetCursor {
+
+    private static final byte VERSION = 1;
+
+    private final String sortBy;
+    private final boolean ascending;
+    private final String sortValue;
+    private final String idValue;
+
+    private KeysetCursor(String sortBy, boolean ascending, String sortValue, String idValue) {
+        this.sortBy = sortBy;
+        this.ascending = ascending;
+        this.sortValue = sortValue;
+        this.idValue = idValue;
+    }
+
+    /**
+     * 解析请求中的游标；没有游标时按排序参数创建第一页的位置
+     * 有游标时使用游标中记录的排序，忽略排序参数
+     * @param token 游标字符串（可选）
+     * @param sortBy 排序字段
+     * @param sortDirection 排序方向（asc/desc）
+     * @param allowedSortFields 允许排序的字段（必须是非空列）
+     * @return 游标位置
+     */
+    public static KeysetCursor resolve(String token, String sortBy, String sortDirection, Set<String> allowedSortFields) {
+        KeysetCursor cursor = token != null && !token.isBlank()
+                ? decode(token)
+                : new KeysetCursor(sortBy, "asc".equalsIgnoreCase(sortDirection), null, null);
+        if (!allowedSortFields.contains(cursor.sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort field:" + cursor.sortBy);
+        }
+        return cursor;
+    }
+
+    /**
+     * 解码游标字符串
+     * @param token 游标字符串
+     * @return 游标位置
+     */
+    static KeysetCursor decode(String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String sortBy = in.readUTF();
+            boolean ascending = in.readBoolean();
+            String sortValue = in.readUTF();
+            String idValue = in.readUTF();
+            return new KeysetCursor(sortBy, ascending, sortValue, idValue);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * 编码为游标字符串
+     * @return URL 安全的游标字符串
+     */
+    public String encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            out.writeUTF(sortBy);
+            out.writeBoolean(ascending);
+            out.writeUTF(sortValue);
+            out.writeUTF(idValue);
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * 以某一行为起点创建下一页的位置
+     * @param lastSortValue 当前页最后一行的排序键
+     * @param lastIdValue 当前页最后一行的主键
+     * @return 下一页的游标位置
+     */
+    KeysetCursor after(Object lastSortValue, Object lastIdValue) {
+        return new KeysetCursor(sortBy, ascending, String.valueOf(lastSortValue), String.valueOf(lastIdValue));
+    }
+
+    /**
+     * 是否为第一页（没有起点）
+     * @return true 如果是第一页，否则 false
+     */
+    public boolean isFirstPage() {
+        return idValue == null;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    String getSortValue() {
+        return sortValue;
+    }
+
+    String getIdValue() {
+        return idValue;
+    }
+}
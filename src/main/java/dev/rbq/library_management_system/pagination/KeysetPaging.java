@@ -0,0 +1,164 @@
+package dev.rbq.library_management_system.pagination;
+
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 游标（keyset）分页查询
+ * 按 (排序键, 主键) 定位下一页：WHERE (k > :k) OR (k = :k AND id > :id)，
+ * 不使用 OFFSET，翻页深度不影响查询速度；多查一行判断是否还有下一页，总数只在需要时统计
+ */
+public final class KeysetPaging {
+
+    // 每页最大数量
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * 查询一页数据
+     * @param repository 支持 Specification 的数据访问接口
+     * @param filter 筛选条件（可为null）
+     * @param cursor 游标位置
+     * @param idAttribute 主键属性名（作为排序的第二关键字，保证顺序唯一）
+     * @param size 每页数量
+     * @param includeTotal 是否统计总数
+     * @param mapper 实体到响应DTO的转换
+     * @return 游标分页响应
+     */
+    public static <T, R> CursorPageResponse<R> fetch(
+            JpaSpecificationExecutor<T> repository, Specification<T> filter, KeysetCursor cursor,
+            String idAttribute, int size, boolean includeTotal, Function<T, R> mapper) {
+        return fetch(repository, filter, cursor, idAttribute, size, includeTotal, List.of(), mapper);
+    }
+
+    /**
+     * 查询一页数据，并在同一查询中连接加载指定的关联属性
+     * @param repository 支持 Specification 的数据访问接口
+     * @param filter 筛选条件（可为null）
+     * @param cursor 游标位置
+     * @param idAttribute 主键属性名（作为排序的第二关键字，保证顺序唯一）
+     * @param size 每页数量
+     * @param includeTotal 是否统计总数
+     * @param fetchPaths 需要连接加载的关联属性路径（如 bookItem.book）
+     * @param mapper 实体到响应DTO的转换
+     * @return 游标分页响应
+     */
+    public static <T, R> CursorPageResponse<R> fetch(
+            JpaSpecificationExecutor<T> repository, Specification<T> filter, KeysetCursor cursor,
+            String idAttribute, int size, boolean includeTotal, Collection<String> fetchPaths, Function<T, R> mapper) {
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Sort.Direction direction = cursor.isAscending() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = cursor.getSortBy().equals(idAttribute)
+                ? Sort.by(direction, idAttribute)
+                : Sort.by(direction, cursor.getSortBy()).and(Sort.by(direction, idAttribute));
+
+        Specification<T> seek = seek(cursor, idAttribute);
+        Specification<T> spec = filter != null ? filter.and(seek) : seek;
+
+        // 多取一行用于判断是否还有下一页
+        List<T> rows = repository.findBy(spec, query -> {
+            FluentQuery.FetchableFluentQuery<T> fetchable = query.sortBy(sort).limit(size + 1);
+            return fetchPaths.isEmpty() ? fetchable.all() : fetchable.project(fetchPaths).all();
+        });
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(rows.get(rows.size() - 1));
+            nextCursor = cursor.after(
+                    last.getPropertyValue(cursor.getSortBy()),
+                    last.getPropertyValue(idAttribute)
+            ).encode();
+        }
+
+        Long totalElements = includeTotal ? repository.count(filter) : null;
+
+        List<R> content = rows.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+
+        return new CursorPageResponse<>(content, nextCursor, hasNext, size, totalElements);
+    }
+
+    /**
+     * 生成“位于游标之后”的条件，第一页时不加条件
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Specification<T> seek(KeysetCursor cursor, String idAttribute) {
+        return (root, query, cb) -> {
+            if (cursor.isFirstPage()) {
+                return null;
+            }
+            Path<Comparable> idPath = root.get(idAttribute);
+            Comparable idValue = parse(cursor.getIdValue(), idPath.getJavaType());
+            if (cursor.getSortBy().equals(idAttribute)) {
+                return beyond(cb, idPath, idValue, cursor.isAscending());
+            }
+
+            Path<Comparable> sortPath = root.get(cursor.getSortBy());
+            Comparable sortValue = parse(cursor.getSortValue(), sortPath.getJavaType());
+            return cb.or(
+                    beyond(cb, sortPath, sortValue, cursor.isAscending()),
+                    cb.and(cb.equal(sortPath, sortValue), beyond(cb, idPath, idValue, cursor.isAscending()))
+            );
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Path<Comparable> path, Comparable value, boolean ascending) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    /**
+     * 将游标中的字符串还原为属性类型的值
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable parse(String value, Class<?> type) {
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            } else if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            } else if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            } else if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            } else if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        throw new IllegalArgumentException("Unsupported sort field type:" + type.getSimpleName());
+    }
+}
@@ -4,17 +4,21 @@ import dev.rbq.library_management_system.entity.BookItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * 图书副本数据访问接口
  */
 @Repository
-public interface BookItemRepository extends JpaRepository<BookItem, Integer> {
+public interface BookItemRepository extends JpaRepository<BookItem, Integer>, JpaSpecificationExecutor<BookItem> {
 
     /**
      * 根据条码号查找图书副本
@@ -30,6 +34,48 @@ public interface BookItemRepository extends JpaRepository<BookItem, Integer> {
      */
     boolean existsByBarcode(String barcode);
 
+    /**
+     * 查询已存在的条码号（一次查询检查一批条码号）
+     * @param barcodes 条码号集合
+     * @return 已存在的条码号（数据库中的写法）
+     */
+    @Query("SELECT bi.barcode FROM BookItem bi WHERE bi.barcode IN :barcodes")
+    List<String> findExistingBarcodes(@Param("barcodes") Collection<String> barcodes);
+
+    /**
+     * 仅当副本处于预期状态时修改状态（原子条件更新，用于防止并发重复借出）
+     * @param itemId 副本ID
+     * @param expectedStatus 预期的当前状态
+     * @param newStatus 新状态
+     * @return 更新的行数（0 表示副本不存在或状态已变化）
+     */
+    @Modifying
+    @Query("UPDATE BookItem bi SET bi.status = :newStatus WHERE bi.itemId = :itemId AND bi.status = :expectedStatus")
+    int compareAndSetStatus(
+            @Param("itemId") Integer itemId,
+            @Param("expectedStatus") BookItem.BookItemStatus expectedStatus,
+            @Param("newStatus") BookItem.BookItemStatus newStatus
+    );
+
+    /**
+     * 锁定并返回某本图书的一个指定状态的副本ID
+     * 使用 SKIP LOCKED 跳过已被其他事务锁定的副本，并发借阅同一本书时各自拿到不同的副本
+     * @param bookId 图书ID
+     * @param status 副本状态（枚举名称）
+     * @return 副本ID（没有未锁定的符合条件的副本时为空）
+     */
+    @Query(value = "SELECT item_id FROM book_items WHERE book_id = :bookId AND status = :status " +
+            "ORDER BY item_id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Integer> lockOneItemIdByBookIdAndStatus(@Param("bookId") Integer bookId, @Param("status") String status);
+
+    /**
+     * 查询副本的当前状态
+     * @param itemId 副本ID
+     * @return 副本状态（如果副本存在）
+     */
+    @Query("SELECT bi.status FROM BookItem bi WHERE bi.itemId = :itemId")
+    Optional<BookItem.BookItemStatus> findStatusByItemId(@Param("itemId") Integer itemId);
+
     /**
      * 根据图书ID查询该图书的所有副本（分页）
      * @param bookId 图书ID
@@ -53,14 +99,6 @@ public interface BookItemRepository extends JpaRepository<BookItem, Integer> {
             Pageable pageable
     );
 
-    /**
-     * 根据馆藏位置查询副本（分页）
-     * @param location 馆藏位置
-     * @param pageable 分页参数
-     * @return 图书副本分页列表
-     */
-    Page<BookItem> findByLocationContaining(String location, Pageable pageable);
-
     /**
      * 统计某本图书的副本数量
      * @param bookId 图书ID
@@ -80,4 +118,83 @@ public interface BookItemRepository extends JpaRepository<BookItem, Integer> {
             @Param("bookId") Integer bookId,
             @Param("status") BookItem.BookItemStatus status
     );
+
+    /**
+     * 按图书ID和状态分组统计副本数量（用于一次性统计整页图书的副本数）
+     * @param bookIds 图书ID集合
+     * @return 每个 (图书ID, 状态) 组合对应的副本数量
+     */
+    @Query("SELECT bi.book.bookId AS bookId, bi.status AS status, COUNT(bi) AS copies " +
+            "FROM BookItem bi WHERE bi.book.bookId IN :bookIds " +
+            "GROUP BY bi.book.bookId, bi.status")
+    List<BookStatusCount> countByBookIdsGroupByStatus(@Param("bookIds") Collection<Integer> bookIds);
+
+    /**
+     * 按副本ID顺序分块读取用于建立副本内存索引（条码索引、位置索引）的字段
+     * @param afterItemId 上一块最后一个副本ID
+     * @param pageable 分块大小
+     * @return 副本索引行
+     */
+    @Query("SELECT bi.itemId AS itemId, bi.book.bookId AS bookId, bi.barcode AS barcode, " +
+            "bi.location AS location, bi.status AS status " +
+            "FROM BookItem bi WHERE bi.itemId > :afterItemId ORDER BY bi.itemId ASC")
+    List<ItemIndexEntry> findIndexEntriesAfter(@Param("afterItemId") Integer afterItemId, Pageable pageable);
+
+    /**
+     * 根据副本ID读取用于建立副本内存索引的字段
+     * @param itemIds 副本ID集合
+     * @return 副本索引行
+     */
+    @Query("SELECT bi.itemId AS itemId, bi.book.bookId AS bookId, bi.barcode AS barcode, " +
+            "bi.location AS location, bi.status AS status " +
+            "FROM BookItem bi WHERE bi.itemId IN :itemIds")
+    List<ItemIndexEntry> findIndexEntriesByIds(@Param("itemIds") Collection<Integer> itemIds);
+
+    /**
+     * 根据条码号读取用于建立条码索引的字段（索引加载完成前使用）
+     * @param barcodes 条码号集合
+     * @return 条码索引行
+     */
+    @Query("SELECT bi.itemId AS itemId, bi.book.bookId AS bookId, bi.barcode AS barcode, bi.status AS status " +
+            "FROM BookItem bi WHERE bi.barcode IN :barcodes")
+    List<BarcodeEntry> findBarcodeEntriesByBarcodes(@Param("barcodes") Collection<String> barcodes);
+
+    /**
+     * 条码索引行
+     */
+    interface BarcodeEntry {
+        Integer getItemId();
+
+        Integer getBookId();
+
+        String getBarcode();
+
+        BookItem.BookItemStatus getStatus();
+    }
+
+    /**
+     * 副本索引行
+     */
+    interface ItemIndexEntry {
+        Integer getItemId();
+
+        Integer getBookId();
+
+        String getBarcode();
+
+        String getLocation();
+
+        BookItem.BookItemStatus getStatus();
+    }
+
+    /**
+     * 图书副本分组统计结果
+     */
+    interface BookStatusCount {
+        Integer getBookId();
+
+        BookItem.BookItemStatus getStatus();
+
+        Long getCopies();
+    }
 }
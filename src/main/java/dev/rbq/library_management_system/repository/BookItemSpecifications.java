@@ -0,0 +1,56 @@
+package dev.rbq.library_management_system.repository;
+
+import dev.rbq.library_management_system.entity.BookItem;
+import dev.rbq.library_management_system.inventory.LocationPath;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * 图书副本查询条件
+ * 参数为空时返回 null，组合时该条件被忽略，只生成实际提供的筛选条件
+ */
+public final class BookItemSpecifications {
+
+    private BookItemSpecifications() {
+    }
+
+    /**
+     * 属于指定图书
+     * @param bookId 图书ID（可选）
+     * @return 查询条件
+     */
+    public static Specification<BookItem> bookIdEquals(Integer bookId) {
+        if (bookId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("book").get("bookId"), bookId);
+    }
+
+    /**
+     * 副本状态等于
+     * @param status 副本状态（可选）
+     * @return 查询条件
+     */
+    public static Specification<BookItem> statusEquals(BookItem.BookItemStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * 位于某个位置节点下（位置等于节点路径，或以 节点路径 + "-" 开头）
+     * 两个条件都是 idx_location 上的范围查询，不会扫描全表
+     * @param path 位置节点路径（可选）
+     * @return 查询条件
+     */
+    public static Specification<BookItem> locationUnder(String path) {
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        String pattern = UserSpecifications.escapeLike(path) + LocationPath.SEPARATOR + "%";
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("location"), path),
+                cb.like(root.get("location"), pattern, '\\')
+        );
+    }
+}
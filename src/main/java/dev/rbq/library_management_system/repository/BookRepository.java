@@ -4,17 +4,21 @@ import dev.rbq.library_management_system.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * 图书信息数据访问接口
  */
 @Repository
-public interface BookRepository extends JpaRepository<Book, Integer> {
+public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book> {
 
     /**
      * 根据ISBN查找图书
@@ -55,21 +59,103 @@ public interface BookRepository extends JpaRepository<Book, Integer> {
     Page<Book> findByCategory(Integer category, Pageable pageable);
 
     /**
-     * 多条件查询图书（分页）
-     * @param title 书名（模糊查询）
-     * @param author 作者（模糊查询）
-     * @param category 分类（精确查询）
+     * 查询有可借副本的图书（分页）
+     * @param availableCopies 可借副本数下限（不含）
      * @param pageable 分页参数
      * @return 图书分页列表
      */
-    @Query("SELECT b FROM Book b WHERE " +
-            "(:title IS NULL OR b.title LIKE %:title%) AND " +
-            "(:author IS NULL OR b.author LIKE %:author%) AND " +
-            "(:category IS NULL OR b.category = :category)")
-    Page<Book> findByMultipleConditions(
-            @Param("title") String title,
-            @Param("author") String author,
-            @Param("category") Integer category,
-            Pageable pageable
+    Page<Book> findByAvailableCopiesGreaterThan(Integer availableCopies, Pageable pageable);
+
+    /**
+     * 原子地增减图书的副本计数器
+     * @param bookId 图书ID
+     * @param totalDelta 副本总数变化量
+     * @param availableDelta 可借副本数变化量
+     * @return 受影响的行数
+     */
+    @Modifying
+    @Query(value = "UPDATE books SET total_copies = total_copies + :totalDelta, " +
+            "available_copies = available_copies + :availableDelta WHERE book_id = :bookId",
+            nativeQuery = true)
+    int adjustCopyCounters(
+            @Param("bookId") Integer bookId,
+            @Param("totalDelta") int totalDelta,
+            @Param("availableDelta") int availableDelta
+    );
+
+    /**
+     * 根据 book_items 重新计算指定图书的副本计数器（单条语句内完成统计与写入）
+     * @param bookIds 图书ID集合
+     * @param availableStatus 可借状态在数据库中的取值
+     * @return 受影响的行数
+     */
+    @Modifying
+    @Query(value = "UPDATE books b SET " +
+            "b.total_copies = (SELECT COUNT(*) FROM book_items bi WHERE bi.book_id = b.book_id), " +
+            "b.available_copies = (SELECT COUNT(*) FROM book_items bi WHERE bi.book_id = b.book_id AND bi.status = :availableStatus) " +
+            "WHERE b.book_id IN (:bookIds)",
+            nativeQuery = true)
+    int recomputeCopyCounters(
+            @Param("bookIds") Collection<Integer> bookIds,
+            @Param("availableStatus") String availableStatus
     );
+
+    /**
+     * 按图书ID顺序分块读取副本计数器（用于对账）
+     * @param afterBookId 上一块最后一个图书ID
+     * @param pageable 分块大小
+     * @return 图书副本计数器列表
+     */
+    @Query("SELECT b.bookId AS bookId, b.totalCopies AS totalCopies, b.availableCopies AS availableCopies " +
+            "FROM Book b WHERE b.bookId > :afterBookId ORDER BY b.bookId ASC")
+    List<BookCopyCounters> findCopyCountersAfter(@Param("afterBookId") Integer afterBookId, Pageable pageable);
+
+    /**
+     * 图书副本计数器
+     */
+    interface BookCopyCounters {
+        Integer getBookId();
+
+        Integer getTotalCopies();
+
+        Integer getAvailableCopies();
+    }
+
+    /**
+     * 按图书ID顺序分块读取用于建立搜索索引的字段
+     * @param afterBookId 上一块最后一个图书ID
+     * @param pageable 分块大小
+     * @return 搜索文档列表
+     */
+    @Query("SELECT b.bookId AS bookId, b.title AS title, b.author AS author, b.publisher AS publisher, " +
+            "b.summary AS summary, b.category AS category " +
+            "FROM Book b WHERE b.bookId > :afterBookId ORDER BY b.bookId ASC")
+    List<BookSearchDocument> findSearchDocumentsAfter(@Param("afterBookId") Integer afterBookId, Pageable pageable);
+
+    /**
+     * 根据图书ID读取用于建立搜索索引的字段
+     * @param bookIds 图书ID集合
+     * @return 搜索文档列表
+     */
+    @Query("SELECT b.bookId AS bookId, b.title AS title, b.author AS author, b.publisher AS publisher, " +
+            "b.summary AS summary, b.category AS category " +
+            "FROM Book b WHERE b.bookId IN :bookIds")
+    List<BookSearchDocument> findSearchDocumentsByIds(@Param("bookIds") Collection<Integer> bookIds);
+
+    /**
+     * 图书搜索文档
+     */
+    interface BookSearchDocument {
+        Integer getBookId();
+
+        String getTitle();
+
+        String getAuthor();
+
+        String getPublisher();
+
+        String getSummary();
+
+        Integer getCategory();
+    }
 }
@@ -0,0 +1,79 @@
+package dev.rbq.library_management_system.repository;
+
+import dev.rbq.library_management_system.entity.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * 图书查询条件
+ * 参数为空时返回 null，组合时该条件被忽略，只生成实际提供的筛选条件
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * 书名包含
+     * @param title 书名（可选）
+     * @return 查询条件
+     */
+    public static Specification<Book> titleContains(String title) {
+        if (title == null || title.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(root.get("title"), "%" + title + "%");
+    }
+
+    /**
+     * 作者包含
+     * @param author 作者（可选）
+     * @return 查询条件
+     */
+    public static Specification<Book> authorContains(String author) {
+        if (author == null || author.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(root.get("author"), "%" + author + "%");
+    }
+
+    /**
+     * 分类等于
+     * @param category 分类（可选）
+     * @return 查询条件
+     */
+    public static Specification<Book> categoryEquals(Integer category) {
+        if (category == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    /**
+     * 只查询有可借副本的图书
+     * @param availableOnly 是否启用
+     * @return 查询条件
+     */
+    public static Specification<Book> availableOnly(boolean availableOnly) {
+        if (!availableOnly) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThan(root.get("availableCopies"), 0);
+    }
+
+    /**
+     * 图书ID在指定集合中（用于搜索索引匹配的结果）
+     * @param bookIds 图书ID集合（可选）
+     * @return 查询条件
+     */
+    public static Specification<Book> bookIdIn(Collection<Integer> bookIds) {
+        if (bookIds == null) {
+            return null;
+        }
+        if (bookIds.isEmpty()) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        return (root, query, cb) -> root.get("bookId").in(bookIds);
+    }
+}
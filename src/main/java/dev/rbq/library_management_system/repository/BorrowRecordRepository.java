@@ -4,19 +4,32 @@ import dev.rbq.library_management_system.entity.BorrowRecord;
 import dev.rbq.library_management_system.entity.BorrowRecord.BorrowStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 借阅记录数据访问接口
  */
 @Repository
-public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, String> {
+public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, String>, JpaSpecificationExecutor<BorrowRecord> {
+
+    /**
+     * 根据ID查询借阅记录，同时连接加载用户、副本和图书
+     * @param recordId 借阅记录ID
+     * @return 借阅记录（如果存在）
+     */
+    @EntityGraph(BorrowRecord.DETAIL_GRAPH)
+    @Query("SELECT br FROM BorrowRecord br WHERE br.recordId = :recordId")
+    Optional<BorrowRecord> findDetailById(@Param("recordId") String recordId);
 
     /**
      * 根据用户UUID查询借阅记录（分页）
@@ -24,6 +37,7 @@ public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Stri
      * @param pageable 分页参数
      * @return 借阅记录分页列表
      */
+    @EntityGraph(BorrowRecord.DETAIL_GRAPH)
     @Query("SELECT br FROM BorrowRecord br WHERE br.user.uuid = :userUuid ORDER BY br.borrowDate DESC")
     Page<BorrowRecord> findByUserUuid(@Param("userUuid") String userUuid, Pageable pageable);
 
@@ -34,6 +48,7 @@ public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Stri
      * @param pageable 分页参数
      * @return 借阅记录分页列表
      */
+    @EntityGraph(BorrowRecord.DETAIL_GRAPH)
     @Query("SELECT br FROM BorrowRecord br WHERE br.user.uuid = :userUuid AND br.status = :status ORDER BY br.borrowDate DESC")
     Page<BorrowRecord> findByUserUuidAndStatus(@Param("userUuid") String userUuid, @Param("status") BorrowStatus status, Pageable pageable);
 
@@ -76,28 +91,17 @@ public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Stri
      * @param pageable 分页参数
      * @return 逾期借阅记录分页列表
      */
+    @EntityGraph(BorrowRecord.DETAIL_GRAPH)
     @Query("SELECT br FROM BorrowRecord br WHERE br.status = 'Checked_Out' AND br.dueDate < :currentTime ORDER BY br.dueDate ASC")
     Page<BorrowRecord> findOverdueRecords(@Param("currentTime") LocalDateTime currentTime, Pageable pageable);
 
     /**
-     * 多条件查询借阅记录（管理员使用）
-     * @param userUuid 用户UUID（可选）
-     * @param status 借阅状态（可选）
-     * @param startDate 开始日期（可选）
-     * @param endDate 结束日期（可选）
+     * 按条件分页查询借阅记录，同时连接加载用户、副本和图书
+     * @param spec 查询条件
      * @param pageable 分页参数
      * @return 借阅记录分页列表
      */
-    @Query("SELECT br FROM BorrowRecord br WHERE " +
-            "(:userUuid IS NULL OR br.user.uuid = :userUuid) AND " +
-            "(:status IS NULL OR br.status = :status) AND " +
-            "(:startDate IS NULL OR br.borrowDate >= :startDate) AND " +
-            "(:endDate IS NULL OR br.borrowDate <= :endDate) " +
-            "ORDER BY br.borrowDate DESC")
-    Page<BorrowRecord> findByMultipleConditions(
-            @Param("userUuid") String userUuid,
-            @Param("status") BorrowStatus status,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable);
+    @Override
+    @EntityGraph(BorrowRecord.DETAIL_GRAPH)
+    Page<BorrowRecord> findAll(Specification<BorrowRecord> spec, Pageable pageable);
 }
@@ -0,0 +1,77 @@
+package dev.rbq.library_management_system.repository;
+
+import dev.rbq.library_management_system.entity.BorrowRecord;
+import dev.rbq.library_management_system.entity.BorrowRecord.BorrowStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * 借阅记录查询条件
+ * 参数为空时返回 null，组合时该条件被忽略，只生成实际提供的筛选条件
+ */
+public final class BorrowRecordSpecifications {
+
+    private BorrowRecordSpecifications() {
+    }
+
+    /**
+     * 属于指定用户
+     * @param userUuid 用户UUID（可选）
+     * @return 查询条件
+     */
+    public static Specification<BorrowRecord> userUuidEquals(String userUuid) {
+        if (userUuid == null || userUuid.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("user").get("uuid"), userUuid);
+    }
+
+    /**
+     * 借阅状态等于
+     * @param status 借阅状态（可选）
+     * @return 查询条件
+     */
+    public static Specification<BorrowRecord> statusEquals(BorrowStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * 借阅日期不早于
+     * @param startDate 开始日期（可选）
+     * @return 查询条件
+     */
+    public static Specification<BorrowRecord> borrowedFrom(LocalDateTime startDate) {
+        if (startDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("borrowDate"), startDate);
+    }
+
+    /**
+     * 借阅日期不晚于
+     * @param endDate 结束日期（可选）
+     * @return 查询条件
+     */
+    public static Specification<BorrowRecord> borrowedTo(LocalDateTime endDate) {
+        if (endDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("borrowDate"), endDate);
+    }
+
+    /**
+     * 在指定时间已逾期未还
+     * @param currentTime 当前时间
+     * @return 查询条件
+     */
+    public static Specification<BorrowRecord> overdueAt(LocalDateTime currentTime) {
+        return (root, query, cb) -> cb.and(
+                cb.equal(root.get("status"), BorrowStatus.Checked_Out),
+                cb.lessThan(root.get("dueDate"), currentTime)
+        );
+    }
+}
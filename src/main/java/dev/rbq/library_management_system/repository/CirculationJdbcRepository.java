@@ -0,0 +1,192 @@
+package dev.rbq.library_management_system.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量借还数据访问
+ * 使用 JDBC 批量语句处理大量副本，需要在调用方的事务中使用
+ */
+@Repository
+public class CirculationJdbcRepository {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * 按条码号查询并锁定副本（一次查询）
+     * @param barcodes 条码号集合
+     * @return 副本行
+     */
+    public List<ItemRow> lockItemsByBarcodes(Collection<String> barcodes) {
+        if (barcodes.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                "SELECT item_id, book_id, barcode, status FROM book_items WHERE barcode IN (:barcodes) FOR UPDATE",
+                Map.of("barcodes", barcodes),
+                (rs, rowNum) -> new ItemRow(
+                        rs.getInt("item_id"),
+                        rs.getInt("book_id"),
+                        rs.getString("barcode"),
+                        rs.getString("status")
+                ));
+    }
+
+    /**
+     * 查询并锁定副本当前未归还的借阅记录
+     * @param itemIds 副本ID集合
+     * @param checkedOutStatus 借出状态（枚举名称）
+     * @return 副本ID -> 借阅记录ID
+     */
+    public Map<Integer, String> lockActiveRecordIdsByItemIds(Collection<Integer> itemIds, String checkedOutStatus) {
+        Map<Integer, String> recordIds = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return recordIds;
+        }
+        jdbcTemplate.query(
+                "SELECT record_id, item_id FROM borrow_records WHERE item_id IN (:itemIds) AND status = :status FOR UPDATE",
+                Map.of("itemIds", itemIds, "status", checkedOutStatus),
+                rs -> {
+                    recordIds.putIfAbsent(rs.getInt("item_id"), rs.getString("record_id"));
+                });
+        return recordIds;
+    }
+
+    /**
+     * 批量修改副本状态
+     * @param itemIds 副本ID列表
+     * @param status 新状态（枚举名称）
+     */
+    public void batchUpdateItemStatus(List<Integer> itemIds, String status) {
+        List<Object[]> args = new ArrayList<>(itemIds.size());
+        for (Integer itemId : itemIds) {
+            args.add(new Object[]{status, itemId});
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate("UPDATE book_items SET status = ? WHERE item_id = ?", args);
+    }
+
+    /**
+     * 批量插入借阅记录
+     * @param records 新借阅记录
+     */
+    public void batchInsertBorrowRecords(List<NewBorrowRecord> records) {
+        List<Object[]> args = new ArrayList<>(records.size());
+        for (NewBorrowRecord record : records) {
+            args.add(new Object[]{
+                    record.getRecordId(),
+                    record.getUserUuid(),
+                    record.getItemId(),
+                    record.getBorrowDate(),
+                    record.getDueDate(),
+                    record.getStatus()
+            });
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "INSERT INTO borrow_records (record_id, user_uuid, item_id, borrow_date, due_date, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                args);
+    }
+
+    /**
+     * 批量将借阅记录标记为已归还
+     * @param recordIds 借阅记录ID列表
+     * @param returnedStatus 归还状态（枚举名称）
+     * @param returnDate 归还时间
+     */
+    public void batchReturnRecords(List<String> recordIds, String returnedStatus, LocalDateTime returnDate) {
+        List<Object[]> args = new ArrayList<>(recordIds.size());
+        for (String recordId : recordIds) {
+            args.add(new Object[]{returnedStatus, returnDate, recordId});
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "UPDATE borrow_records SET status = ?, return_date = ? WHERE record_id = ?", args);
+    }
+
+    /**
+     * 副本行
+     */
+    public static final class ItemRow {
+        private final int itemId;
+        private final int bookId;
+        private final String barcode;
+        private final String status;
+
+        public ItemRow(int itemId, int bookId, String barcode, String status) {
+            this.itemId = itemId;
+            this.bookId = bookId;
+            this.barcode = barcode;
+            this.status = status;
+        }
+
+        public int getItemId() {
+            return itemId;
+        }
+
+        public int getBookId() {
+            return bookId;
+        }
+
+        public String getBarcode() {
+            return barcode;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * 待插入的借阅记录
+     */
+    public static final class NewBorrowRecord {
+        private final String recordId;
+        private final String userUuid;
+        private final int itemId;
+        private final LocalDateTime borrowDate;
+        private final LocalDateTime dueDate;
+        private final String status;
+
+        public NewBorrowRecord(String recordId, String userUuid, int itemId,
+                               LocalDateTime borrowDate, LocalDateTime dueDate, String status) {
+            this.recordId = recordId;
+            this.userUuid = userUuid;
+            this.itemId = itemId;
+            this.borrowDate = borrowDate;
+            this.dueDate = dueDate;
+            this.status = status;
+        }
+
+        public String getRecordId() {
+            return recordId;
+        }
+
+        public String getUserUuid() {
+            return userUuid;
+        }
+
+        public int getItemId() {
+            return itemId;
+        }
+
+        public LocalDateTime getBorrowDate() {
+            return borrowDate;
+        }
+
+        public LocalDateTime getDueDate() {
+            return dueDate;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+}
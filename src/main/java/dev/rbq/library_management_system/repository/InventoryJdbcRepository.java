@@ -0,0 +1,344 @@
+package dev.rbq.library_management_system.repository;
+
+import dev.rbq.library_management_system.inventory.LocationPath;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 馆藏批量数据访问（盘点、批量登记、批量修改状态）
+ * 只读写副本的基本字段，不加载实体；按位置范围读取时使用流式结果集，批量登记使用 JDBC 批量插入，
+ * 批量修改状态每块使用一条 UPDATE ... WHERE item_id IN (...)
+ */
+@Repository
+public class InventoryJdbcRepository {
+
+    private static final String ITEM_COLUMNS = "SELECT item_id, book_id, barcode, location, status FROM book_items";
+
+    private static final RowMapper<ItemRow> ITEM_ROW_MAPPER = (rs, rowNum) -> mapRow(rs);
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * 按副本ID顺序逐行读取位于指定位置节点（含下级）的副本
+     * 按层级匹配：位置等于该节点或以 "节点-" 开头，A-1 不包含 A-10；
+     * MySQL 驱动只有在 fetchSize 为 Integer.MIN_VALUE 时才逐行传输结果；
+     * 读取期间连接被占用，处理函数中不能再使用同一连接执行其他语句
+     * @param path 位置节点路径
+     * @param consumer 逐行处理函数
+     */
+    public void streamItemsUnderLocation(String path, Consumer<ItemRow> consumer) {
+        String pattern = UserSpecifications.escapeLike(path) + LocationPath.SEPARATOR + "%";
+        jdbcTemplate.getJdbcTemplate().query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            ITEM_COLUMNS + " WHERE location = ? OR location LIKE ? ORDER BY item_id",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(Integer.MIN_VALUE);
+                    statement.setString(1, path);
+                    statement.setString(2, pattern);
+                    return statement;
+                },
+                rs -> {
+                    consumer.accept(mapRow(rs));
+                });
+    }
+
+    /**
+     * 根据副本ID查询副本
+     * @param itemIds 副本ID集合
+     * @return 副本行（不存在的副本不返回）
+     */
+    public List<ItemRow> findItemsByIds(Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(ITEM_COLUMNS + " WHERE item_id IN (:itemIds)",
+                Map.of("itemIds", itemIds), ITEM_ROW_MAPPER);
+    }
+
+    /**
+     * 根据副本ID查询并锁定副本，需要在调用方的事务中使用
+     * @param itemIds 副本ID集合
+     * @return 副本行（不存在的副本不返回）
+     */
+    public List<ItemRow> lockItemsByIds(Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(ITEM_COLUMNS + " WHERE item_id IN (:itemIds) FOR UPDATE",
+                Map.of("itemIds", itemIds), ITEM_ROW_MAPPER);
+    }
+
+    /**
+     * 统计符合条件的副本数（不加锁）
+     * @param filter 筛选条件
+     * @return 副本数
+     */
+    public long countItemsMatching(ItemFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM book_items WHERE 1 = 1" + filterClause(filter, params), params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 按副本ID顺序查询符合条件的下一块副本ID（不加锁）
+     * @param filter 筛选条件
+     * @param afterItemId 上一块最后一个副本ID（第一块为0）
+     * @param limit 最大数量
+     * @return 副本ID（升序）
+     */
+    public List<Integer> findItemIdsMatching(ItemFilter filter, int afterItemId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterItemId", afterItemId)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(
+                "SELECT item_id FROM book_items WHERE item_id > :afterItemId" + filterClause(filter, params) +
+                        " ORDER BY item_id LIMIT :limit",
+                params, Integer.class);
+    }
+
+    /**
+     * 查询并锁定指定副本中仍然符合条件的副本，需要在调用方的事务中使用
+     * @param filter 筛选条件
+     * @param itemIds 副本ID集合
+     * @return 副本行（不存在或已不符合条件的副本不返回）
+     */
+    public List<ItemRow> lockItemsMatching(ItemFilter filter, Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("itemIds", itemIds);
+        return jdbcTemplate.query(
+                ITEM_COLUMNS + " WHERE item_id IN (:itemIds)" + filterClause(filter, params) + " FOR UPDATE",
+                params, ITEM_ROW_MAPPER);
+    }
+
+    /**
+     * 用一条语句修改一组副本的状态，需要在调用方的事务中使用
+     * @param itemIds 副本ID集合
+     * @param status 新状态（枚举名称）
+     * @return 修改的行数
+     */
+    public int updateItemStatus(Collection<Integer> itemIds, String status) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("UPDATE book_items SET status = :status WHERE item_id IN (:itemIds)",
+                new MapSqlParameterSource()
+                        .addValue("status", status)
+                        .addValue("itemIds", itemIds));
+    }
+
+    /**
+     * 批量插入副本，需要在调用方的事务中使用
+     * 连接参数 rewriteBatchedStatements=true 时驱动把整批合并为多值 INSERT，
+     * 不受 IDENTITY 主键无法在 Hibernate 中批量插入的限制
+     * @param items 新副本
+     */
+    public void batchInsertItems(List<NewBookItem> items) {
+        List<Object[]> args = new ArrayList<>(items.size());
+        for (NewBookItem item : items) {
+            args.add(new Object[]{
+                    item.getBookId(),
+                    item.getBarcode(),
+                    item.getLocation(),
+                    item.getStatus(),
+                    item.getAcquisitionDate(),
+                    item.getAcquisitionPrice(),
+                    item.getNotes()
+            });
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "INSERT INTO book_items (book_id, barcode, location, status, acquisition_date, acquisition_price, notes) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                args);
+    }
+
+    /**
+     * 生成筛选条件的 SQL 片段，并写入对应参数
+     * 位置条件与 BookItemSpecifications.locationUnder 相同：位置等于该节点或位于其下级
+     */
+    private static String filterClause(ItemFilter filter, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder();
+        if (filter.getBookId() != null) {
+            sql.append(" AND book_id = :bookId");
+            params.addValue("bookId", filter.getBookId());
+        }
+        if (filter.getLocation() != null && !filter.getLocation().isEmpty()) {
+            sql.append(" AND (location = :location OR location LIKE :locationPattern)");
+            params.addValue("location", filter.getLocation());
+            params.addValue("locationPattern",
+                    UserSpecifications.escapeLike(filter.getLocation()) + LocationPath.SEPARATOR + "%");
+        }
+        if (filter.getAcquiredFrom() != null) {
+            sql.append(" AND acquisition_date >= :acquiredFrom");
+            params.addValue("acquiredFrom", filter.getAcquiredFrom());
+        }
+        if (filter.getAcquiredTo() != null) {
+            sql.append(" AND acquisition_date <= :acquiredTo");
+            params.addValue("acquiredTo", filter.getAcquiredTo());
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" AND status = :status");
+            params.addValue("status", filter.getStatus());
+        }
+        return sql.toString();
+    }
+
+    private static ItemRow mapRow(ResultSet rs) throws SQLException {
+        return new ItemRow(
+                rs.getInt("item_id"),
+                rs.getInt("book_id"),
+                rs.getString("barcode"),
+                rs.getString("location"),
+                rs.getString("status")
+        );
+    }
+
+    /**
+     * 副本行
+     */
+    public static final class ItemRow {
+        private final int itemId;
+        private final int bookId;
+        private final String barcode;
+        private final String location;
+        private final String status;
+
+        public ItemRow(int itemId, int bookId, String barcode, String location, String status) {
+            this.itemId = itemId;
+            this.bookId = bookId;
+            this.barcode = barcode;
+            this.location = location;
+            this.status = status;
+        }
+
+        public int getItemId() {
+            return itemId;
+        }
+
+        public int getBookId() {
+            return bookId;
+        }
+
+        public String getBarcode() {
+            return barcode;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * 副本筛选条件，为null的条件不参与筛选
+     */
+    public static final class ItemFilter {
+        private final Integer bookId;
+        private final String location;
+        private final LocalDate acquiredFrom;
+        private final LocalDate acquiredTo;
+        private final String status;
+
+        public ItemFilter(Integer bookId, String location, LocalDate acquiredFrom, LocalDate acquiredTo,
+                          String status) {
+            this.bookId = bookId;
+            this.location = location;
+            this.acquiredFrom = acquiredFrom;
+            this.acquiredTo = acquiredTo;
+            this.status = status;
+        }
+
+        public Integer getBookId() {
+            return bookId;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public LocalDate getAcquiredFrom() {
+            return acquiredFrom;
+        }
+
+        public LocalDate getAcquiredTo() {
+            return acquiredTo;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * 待插入的副本
+     */
+    public static final class NewBookItem {
+        private final int bookId;
+        private final String barcode;
+        private final String location;
+        private final String status;
+        private final LocalDate acquisitionDate;
+        private final BigDecimal acquisitionPrice;
+        private final String notes;
+
+        public NewBookItem(int bookId, String barcode, String location, String status,
+                           LocalDate acquisitionDate, BigDecimal acquisitionPrice, String notes) {
+            this.bookId = bookId;
+            this.barcode = barcode;
+            this.location = location;
+            this.status = status;
+            this.acquisitionDate = acquisitionDate;
+            this.acquisitionPrice = acquisitionPrice;
+            this.notes = notes;
+        }
+
+        public int getBookId() {
+            return bookId;
+        }
+
+        public String getBarcode() {
+            return barcode;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public LocalDate getAcquisitionDate() {
+            return acquisitionDate;
+        }
+
+        public BigDecimal getAcquisitionPrice() {
+            return acquisitionPrice;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+    }
+}
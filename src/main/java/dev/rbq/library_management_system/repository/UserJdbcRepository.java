@@ -0,0 +1,117 @@
+package dev.rbq.library_management_system.repository;
+
+import dev.rbq.library_management_system.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 用户批量数据访问
+ * 导出时使用流式结果集逐行读取，内存占用与用户数量无关；导入时使用 JDBC 批量插入
+ */
+@Repository
+public class UserJdbcRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 按用户名顺序逐行读取用户（不包含密码哈希）
+     * MySQL 驱动只有在 fetchSize 为 Integer.MIN_VALUE 时才逐行传输结果，否则会把整个结果集读入内存；
+     * 读取期间连接被占用，处理函数中不能再使用同一连接执行其他语句
+     * @param keyword 用户名或昵称前缀（可选）
+     * @param admin 管理员标识（可选）
+     * @param consumer 逐行处理函数
+     */
+    public void streamUsers(String keyword, Boolean admin, Consumer<UserRow> consumer) {
+        StringBuilder sql = new StringBuilder("SELECT uuid, username, name, admin FROM user WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (keyword != null && !keyword.isEmpty()) {
+            String pattern = UserSpecifications.escapeLike(keyword) + "%";
+            sql.append(" AND (username LIKE ? OR name LIKE ?)");
+            args.add(pattern);
+            args.add(pattern);
+        }
+        if (admin != null) {
+            sql.append(" AND admin = ?");
+            args.add(admin);
+        }
+        sql.append(" ORDER BY username");
+
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(Integer.MIN_VALUE);
+                    for (int i = 0; i < args.size(); i++) {
+                        statement.setObject(i + 1, args.get(i));
+                    }
+                    return statement;
+                },
+                rs -> {
+                    consumer.accept(new UserRow(
+                            rs.getString("uuid"),
+                            rs.getString("username"),
+                            rs.getString("name"),
+                            rs.getBoolean("admin")
+                    ));
+                });
+    }
+
+    /**
+     * 批量插入用户，需要在调用方的事务中使用
+     * @param users 新用户（密码为哈希）
+     */
+    public void batchInsertUsers(List<User> users) {
+        List<Object[]> args = new ArrayList<>(users.size());
+        for (User user : users) {
+            args.add(new Object[]{
+                    user.getUuid(),
+                    user.getUsername(),
+                    user.getName(),
+                    user.getPassword(),
+                    user.getAdmin()
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user (uuid, username, name, password, admin) VALUES (?, ?, ?, ?, ?)", args);
+    }
+
+    /**
+     * 用户行
+     */
+    public static final class UserRow {
+        private final String uuid;
+        private final String username;
+        private final String name;
+        private final boolean admin;
+
+        public UserRow(String uuid, String username, String name, boolean admin) {
+            this.uuid = uuid;
+            this.username = username;
+            this.name = name;
+            this.admin = admin;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+    }
+}
@@ -2,15 +2,21 @@ package dev.rbq.library_management_system.repository;
 
 import dev.rbq.library_management_system.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * 用户数据访问接口
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, String>, JpaSpecificationExecutor<User> {
 
     /**
      * 根据用户名查找用户
@@ -32,4 +38,23 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @return true 如果存在管理员账户，否则 false
      */
     boolean existsByAdmin(Boolean admin);
+
+    /**
+     * 查询已存在的用户名（一次查询检查一批用户名）
+     * 比较规则与 username 列的排序规则一致（不区分大小写）
+     * @param usernames 用户名集合
+     * @return 已存在的用户名（数据库中的写法）
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * 更新用户密码哈希
+     * @param uuid 用户UUID
+     * @param password 新的密码哈希
+     * @return 更新的行数
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.uuid = :uuid")
+    int updatePassword(@Param("uuid") String uuid, @Param("password") String password);
 }
@@ -0,0 +1,60 @@
+package dev.rbq.library_management_system.repository;
+
+import dev.rbq.library_management_system.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * 用户查询条件
+ * 参数为空时返回 null，组合时该条件被忽略，只生成实际提供的筛选条件
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * 用户名或昵称以关键词开头
+     * 只做前缀匹配，可以使用 username 和 name 上的索引
+     * @param keyword 关键词（可选）
+     * @return 查询条件
+     */
+    public static Specification<User> usernameOrNameStartsWith(String keyword) {
+        if (keyword == null || keyword.isEmpty()) {
+            return null;
+        }
+        String pattern = escapeLike(keyword) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(root.get("username"), pattern, '\\'),
+                cb.like(root.get("name"), pattern, '\\')
+        );
+    }
+
+    /**
+     * 管理员标识等于
+     * @param admin 管理员标识（可选）
+     * @return 查询条件
+     */
+    public static Specification<User> adminEquals(Boolean admin) {
+        if (admin == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("admin"), admin);
+    }
+
+    /**
+     * 转义 LIKE 通配符，使关键词按字面匹配
+     * @param value 关键词
+     * @return 转义后的关键词
+     */
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,562 @@
+package dev.rbq.library_management_system.search;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import dev.rbq.library_management_system.event.BookChangedEvent;
+import dev.rbq.library_management_system.repository.BookRepository;
+import dev.rbq.library_management_system.repository.BookRepository.BookSearchDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 图书全文搜索索引
+ * 在内存中维护书名、作者、出版社和简介的倒排索引，使用 BM25 对结果排序。
+ * 应用启动后从数据库加载，图书增删改在事务提交后增量更新。
+ * 分词模式由 library.search.mode 配置：simple 为单字切分，cjk（默认）额外使用汉字二元词项，
+ * 并为书名和作者生成拼音词项；搜索关键词的最后一个字母数字词项按前缀展开，支持输入过程中的联想。
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    // BM25 参数
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // 字段权重
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float AUTHOR_WEIGHT = 2.0f;
+    private static final float PUBLISHER_WEIGHT = 1.0f;
+    private static final float SUMMARY_WEIGHT = 1.0f;
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    // 加载失败时的重试间隔（指数退避）
+    private static final long INITIAL_RETRY_DELAY_MS = 1000;
+    private static final long MAX_RETRY_DELAY_MS = 60_000;
+
+    // 前缀展开的最大词项数
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+
+    // 跨节点失效区域，键为图书ID
+    public static final String INVALIDATION_REGION = "book-index";
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${library.search.mode:cjk}")
+    private String mode;
+
+    private SearchTokenizer tokenizer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 使用有序映射以支持前缀展开
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Integer, IndexedBook> documents = new HashMap<>();
+    private double totalLength;
+
+    private volatile boolean ready;
+    private final Set<Integer> changedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    // 其他节点变更的图书在独立线程中合并后重新索引，失效消息线程只做内存操作，不被数据库查询拖慢
+    private final Set<Integer> pendingPeerChanges = ConcurrentHashMap.newKeySet();
+    private final ExecutorService peerReindexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-search-index-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 根据配置初始化分词器
+     */
+    @PostConstruct
+    void initTokenizer() {
+        if ("simple".equalsIgnoreCase(mode)) {
+            tokenizer = new SearchTokenizer(false, false);
+        } else if ("cjk".equalsIgnoreCase(mode)) {
+            tokenizer = new SearchTokenizer(true, true);
+        } else {
+            throw new IllegalStateException("Unknown search mode: " + mode);
+        }
+    }
+
+    /**
+     * 订阅其他节点的图书变更
+     */
+    @PostConstruct
+    void subscribeInvalidations() {
+        invalidationBus.subscribe(INVALIDATION_REGION, this::onPeerBookChanged);
+    }
+
+    /**
+     * 应用启动后在后台线程加载索引，加载完成前搜索会退回数据库查询
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(() -> {
+            try {
+                load();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "book-search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * 从数据库分块加载全部图书
+     * 读取失败时从失败的分块退避重试，直到加载完成；加载完成前搜索退回数据库查询
+     */
+    void load() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        int lastBookId = 0;
+        int loaded = 0;
+        long retryDelay = INITIAL_RETRY_DELAY_MS;
+
+        while (true) {
+            List<BookSearchDocument> chunk;
+            try {
+                chunk = bookRepository.findSearchDocumentsAfter(lastBookId, PageRequest.of(0, LOAD_CHUNK_SIZE));
+            } catch (RuntimeException e) {
+                logger.error("Failed to load book search index after book {}, retrying in {} ms",
+                        lastBookId, retryDelay, e);
+                Thread.sleep(retryDelay);
+                retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+                continue;
+            }
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (BookSearchDocument document : chunk) {
+                upsert(document);
+            }
+            lastBookId = chunk.get(chunk.size() - 1).getBookId();
+            loaded += chunk.size();
+            retryDelay = INITIAL_RETRY_DELAY_MS;
+        }
+
+        ready = true;
+
+        // 加载期间发生变更的图书可能被旧数据覆盖，重新索引一次（失败时同样退避重试）
+        retryDelay = INITIAL_RETRY_DELAY_MS;
+        while (!changedDuringLoad.isEmpty()) {
+            List<Integer> changed = new ArrayList<>(changedDuringLoad);
+            try {
+                reindex(changed);
+                changedDuringLoad.removeAll(changed);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to reindex books changed during load, retrying in {} ms", retryDelay, e);
+                Thread.sleep(retryDelay);
+                retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+
+        logger.info("Book search index loaded {} books with {} terms in {} ms",
+                loaded, termCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 图书变更事务提交后更新索引，并通知其他节点
+     * @param event 图书变更事件
+     */
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (!ready) {
+            changedDuringLoad.add(event.getBookId());
+        }
+        if (event.getChangeType() == BookChangedEvent.ChangeType.DELETE) {
+            remove(event.getBookId());
+        } else {
+            reindex(List.of(event.getBookId()));
+        }
+        invalidationBus.publish(INVALIDATION_REGION, event.getBookId().toString());
+    }
+
+    /**
+     * 其他节点的图书变更：记录下来，由重新索引线程从数据库读取
+     * @param key 图书ID
+     */
+    private void onPeerBookChanged(String key) {
+        if (key == null) {
+            return;
+        }
+        Integer bookId = Integer.valueOf(key);
+        if (!ready) {
+            changedDuringLoad.add(bookId);
+        }
+        if (pendingPeerChanges.add(bookId)) {
+            peerReindexExecutor.execute(this::reindexPeerChanges);
+        }
+    }
+
+    /**
+     * 重新索引积压的其他节点变更（多条消息合并为一次查询）
+     */
+    void reindexPeerChanges() {
+        List<Integer> bookIds = new ArrayList<>();
+        for (Iterator<Integer> iterator = pendingPeerChanges.iterator(); iterator.hasNext(); ) {
+            bookIds.add(iterator.next());
+            iterator.remove();
+        }
+        try {
+            reindex(bookIds);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reindex books {} changed on other nodes", bookIds, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdownPeerReindex() {
+        peerReindexExecutor.shutdownNow();
+    }
+
+    /**
+     * 从数据库重新读取并索引指定图书，数据库中已不存在的图书会从索引中移除
+     * @param bookIds 图书ID集合
+     */
+    public void reindex(Collection<Integer> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        Set<Integer> missing = new HashSet<>(bookIds);
+        for (BookSearchDocument document : bookRepository.findSearchDocumentsByIds(bookIds)) {
+            upsert(document);
+            missing.remove(document.getBookId());
+        }
+        for (Integer bookId : missing) {
+            remove(bookId);
+        }
+    }
+
+    /**
+     * 索引是否已加载完成
+     * @return true 如果可以使用索引搜索，否则 false
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 搜索图书，所有关键词都必须命中（任一字段）
+     * 关键词不以空白结尾时，最后一个字母数字词项按前缀匹配，同一本书取展开词项中的最高得分
+     * @param query 搜索关键词
+     * @param category 分类（可选，精确过滤）
+     * @param author 作者（可选，包含过滤）
+     * @return 按相关度从高到低排序的图书ID列表
+     */
+    public List<Integer> search(String query, Integer category, String author) {
+        return search(query, category, author, false);
+    }
+
+    /**
+     * 只在书名中搜索图书（图书列表的书名条件），所有关键词都必须命中书名
+     * 前缀展开规则与 search 相同
+     * @param query 书名关键词
+     * @param category 分类（可选，精确过滤）
+     * @param author 作者（可选，包含过滤）
+     * @return 按相关度从高到低排序的图书ID列表
+     */
+    public List<Integer> searchTitles(String query, Integer category, String author) {
+        return search(query, category, author, true);
+    }
+
+    private List<Integer> search(String query, Integer category, String author, boolean titleOnly) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenizer.tokenizeQuery(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String lastTerm = terms.get(terms.size() - 1);
+        boolean prefixLastTerm = !Character.isWhitespace(query.charAt(query.length() - 1))
+                && SearchTokenizer.isPrefixExpandable(lastTerm);
+        String authorFilter = author != null && !author.isBlank() ? author.toLowerCase(Locale.ROOT) : null;
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = totalLength / documentCount;
+
+            // 按文档频率从低到高处理，第一个词项确定候选集合，之后只在候选集合中累加
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = prefixLastTerm && term.equals(lastTerm) ? expandPrefix(term) : postings.get(term);
+                if (list == null || list.isEmpty()) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+            Map<Integer, double[]> scores = new HashMap<>();
+            for (int t = 0; t < lists.size(); t++) {
+                PostingList list = lists.get(t);
+                double idf = Math.log(1 + (documentCount - list.size() + 0.5) / (list.size() + 0.5));
+                for (int i = 0; i < list.size(); i++) {
+                    int docId = list.docId(i);
+                    double[] score;
+                    if (t == 0) {
+                        score = new double[2];
+                        scores.put(docId, score);
+                    } else {
+                        score = scores.get(docId);
+                        if (score == null || score[1] < t) {
+                            continue;
+                        }
+                    }
+                    IndexedBook document = documents.get(docId);
+                    double tf = list.weight(i);
+                    score[0] += idf * tf * (K1 + 1)
+                            / (tf + K1 * (1 - B + B * document.length / averageLength));
+                    score[1] = t + 1;
+                }
+            }
+
+            List<ScoredBook> hits = new ArrayList<>();
+            for (Map.Entry<Integer, double[]> entry : scores.entrySet()) {
+                if (entry.getValue()[1] < lists.size()) {
+                    continue;
+                }
+                IndexedBook document = documents.get(entry.getKey());
+                if (category != null && !category.equals(document.category)) {
+                    continue;
+                }
+                if (authorFilter != null && (document.author == null || !document.author.contains(authorFilter))) {
+                    continue;
+                }
+                if (titleOnly && !document.titleMatches(terms, prefixLastTerm)) {
+                    continue;
+                }
+                hits.add(new ScoredBook(entry.getKey(), entry.getValue()[0]));
+            }
+
+            hits.sort((a, b) -> {
+                int byScore = Double.compare(b.score, a.score);
+                return byScore != 0 ? byScore : Integer.compare(b.bookId, a.bookId);
+            });
+
+            List<Integer> bookIds = new ArrayList<>(hits.size());
+            for (ScoredBook hit : hits) {
+                bookIds.add(hit.bookId);
+            }
+            return bookIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 将以指定前缀开头的词项合并为一个倒排列表，同一本书取最高词频
+     * 调用方必须持有读锁
+     * @param prefix 前缀
+     * @return 合并后的倒排列表，没有匹配的词项时返回 null
+     */
+    private PostingList expandPrefix(String prefix) {
+        SortedMap<String, PostingList> matches = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (matches.isEmpty()) {
+            return null;
+        }
+        if (matches.size() == 1) {
+            return matches.values().iterator().next();
+        }
+
+        // 完全匹配的词项按字典序排在最前，超出上限的较长词项被忽略
+        Map<Integer, Float> best = new HashMap<>();
+        int expanded = 0;
+        for (PostingList list : matches.values()) {
+            if (expanded >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                best.merge(list.docId(i), list.weight(i), Math::max);
+            }
+            expanded++;
+        }
+
+        List<Integer> docIds = new ArrayList<>(best.keySet());
+        docIds.sort(null);
+        PostingList merged = new PostingList();
+        for (Integer docId : docIds) {
+            merged.put(docId, best.get(docId));
+        }
+        return merged;
+    }
+
+    /**
+     * 写入（或覆盖）一本图书的索引
+     * @param document 搜索文档
+     */
+    void upsert(BookSearchDocument document) {
+        Map<String, Float> termWeights = new HashMap<>();
+        float length = 0;
+        // 拼音词项只为书名和作者生成，简介等长字段会产生过多噪声
+        List<String> titleTokens = tokenizer.tokenize(document.getTitle(), true);
+        length += addField(termWeights, titleTokens, TITLE_WEIGHT);
+        length += addField(termWeights, tokenizer.tokenize(document.getAuthor(), true), AUTHOR_WEIGHT);
+        length += addField(termWeights, tokenizer.tokenize(document.getPublisher(), false), PUBLISHER_WEIGHT);
+        length += addField(termWeights, tokenizer.tokenize(document.getSummary(), false), SUMMARY_WEIGHT);
+
+        // 书名词项排序后保存，用于只按书名搜索时的过滤
+        String[] titleTerms = new TreeSet<>(titleTokens).toArray(new String[0]);
+
+        IndexedBook indexed = new IndexedBook(
+                length,
+                termWeights.keySet().toArray(new String[0]),
+                titleTerms,
+                document.getCategory(),
+                document.getAuthor() != null ? document.getAuthor().toLowerCase(Locale.ROOT) : null
+        );
+
+        int bookId = document.getBookId();
+        lock.writeLock().lock();
+        try {
+            removeInternal(bookId);
+            for (Map.Entry<String, Float> entry : termWeights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).put(bookId, entry.getValue());
+            }
+            documents.put(bookId, indexed);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 从索引中移除一本图书
+     * @param bookId 图书ID
+     */
+    void remove(Integer bookId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeInternal(int bookId) {
+        IndexedBook existing = documents.remove(bookId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms) {
+            PostingList list = postings.get(term);
+            if (list != null) {
+                list.remove(bookId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= existing.length;
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 累加字段的加权词频
+     * @return 字段的加权长度
+     */
+    private float addField(Map<String, Float> termWeights, List<String> tokens, float weight) {
+        for (String token : tokens) {
+            termWeights.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    /**
+     * 已索引的图书
+     */
+    private static final class IndexedBook {
+        private final float length;
+        private final String[] terms;
+        // 书名词项（已排序）
+        private final String[] titleTerms;
+        private final Integer category;
+        private final String author;
+
+        private IndexedBook(float length, String[] terms, String[] titleTerms, Integer category, String author) {
+            this.length = length;
+            this.terms = terms;
+            this.titleTerms = titleTerms;
+            this.category = category;
+            this.author = author;
+        }
+
+        /**
+         * 书名是否包含全部词项（最后一个词项可按前缀匹配）
+         */
+        private boolean titleMatches(List<String> queryTerms, boolean prefixLastTerm) {
+            for (int i = 0; i < queryTerms.size(); i++) {
+                String term = queryTerms.get(i);
+                int position = Arrays.binarySearch(titleTerms, term);
+                if (position >= 0) {
+                    continue;
+                }
+                int insertion = -position - 1;
+                boolean prefixMatch = prefixLastTerm && i == queryTerms.size() - 1
+                        && insertion < titleTerms.length && titleTerms[insertion].startsWith(term);
+                if (!prefixMatch) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 带相关度得分的搜索结果
+     */
+    private static final class ScoredBook {
+        private final int bookId;
+        private final double score;
+
+        private ScoredBook(int bookId, double score) {
+            this.bookId = bookId;
+            this.score = score;
+        }
+    }
+}
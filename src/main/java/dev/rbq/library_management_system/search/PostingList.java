@@ -0,0 +1,69 @@
+package dev.rbq.library_management_system.search;
+
+import java.util.Arrays;
+
+/**
+ * 倒排表
+ * 按图书ID升序保存包含某个词项的文档及其加权词频，使用原始类型数组以减少内存占用
+ */
+final class PostingList {
+
+    private int[] docIds = new int[4];
+    private float[] weights = new float[4];
+    private int size;
+
+    /**
+     * 写入文档的加权词频（已存在则覆盖）
+     * @param docId 图书ID
+     * @param weight 加权词频
+     */
+    void put(int docId, float weight) {
+        int pos = Arrays.binarySearch(docIds, 0, size, docId);
+        if (pos >= 0) {
+            weights[pos] = weight;
+            return;
+        }
+
+        pos = -pos - 1;
+        if (size == docIds.length) {
+            int newCapacity = docIds.length + (docIds.length >> 1) + 1;
+            docIds = Arrays.copyOf(docIds, newCapacity);
+            weights = Arrays.copyOf(weights, newCapacity);
+        }
+        System.arraycopy(docIds, pos, docIds, pos + 1, size - pos);
+        System.arraycopy(weights, pos, weights, pos + 1, size - pos);
+        docIds[pos] = docId;
+        weights[pos] = weight;
+        size++;
+    }
+
+    /**
+     * 删除文档
+     * @param docId 图书ID
+     */
+    void remove(int docId) {
+        int pos = Arrays.binarySearch(docIds, 0, size, docId);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(docIds, pos + 1, docIds, pos, size - pos - 1);
+        System.arraycopy(weights, pos + 1, weights, pos, size - pos - 1);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int docId(int index) {
+        return docIds[index];
+    }
+
+    float weight(int index) {
+        return weights[index];
+    }
+}
@@ -0,0 +1,253 @@
+package dev.rbq.library_management_system.search;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 搜索分词器
+ * 文本先做 NFKC 归一化（全角转半角）并转为小写，拉丁字母和数字按连续片段切分。
+ * 连续的汉字片段在基础模式下按单字切分；在 CJK 模式下额外生成相邻两字的二元词项，
+ * 并可为书名、作者等短字段生成拼音全拼、相邻音节组合和首字母词项，
+ * 例如“红楼梦”会生成 hong、lou、meng、honglou、loumeng、hongloumeng 和 hlm
+ */
+public class SearchTokenizer {
+
+    private static final String[] NO_READINGS = new String[0];
+
+    private final boolean cjkBigrams;
+    private final boolean pinyin;
+
+    private final HanyuPinyinOutputFormat pinyinFormat = new HanyuPinyinOutputFormat();
+    private final Map<Character, String[]> pinyinCache = new ConcurrentHashMap<>();
+
+    /**
+     * @param cjkBigrams 是否为汉字生成二元词项
+     * @param pinyin 是否生成拼音词项
+     */
+    public SearchTokenizer(boolean cjkBigrams, boolean pinyin) {
+        this.cjkBigrams = cjkBigrams;
+        this.pinyin = pinyin;
+        pinyinFormat.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        pinyinFormat.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        pinyinFormat.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    /**
+     * 对待索引的文本分词
+     * @param text 文本（可为null）
+     * @param withPinyin 是否为汉字生成拼音词项（仅在启用拼音时生效）
+     * @return 词项列表（保留重复词项，用于统计词频）
+     */
+    public List<String> tokenize(String text, boolean withPinyin) {
+        List<String> tokens = new ArrayList<>();
+        for (Segment segment : segment(text)) {
+            if (!segment.han) {
+                tokens.add(segment.text);
+                continue;
+            }
+
+            int[] chars = segment.text.codePoints().toArray();
+            for (int i = 0; i < chars.length; i++) {
+                tokens.add(new String(chars, i, 1));
+                if (cjkBigrams && i + 1 < chars.length) {
+                    tokens.add(new String(chars, i, 2));
+                }
+            }
+            if (pinyin && withPinyin) {
+                addPinyinTokens(chars, tokens);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 对搜索关键词分词
+     * CJK 模式下两个字以上的汉字片段只使用二元词项，单个汉字使用单字词项
+     * @param text 搜索关键词
+     * @return 词项列表
+     */
+    public List<String> tokenizeQuery(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (Segment segment : segment(text)) {
+            if (!segment.han) {
+                tokens.add(segment.text);
+                continue;
+            }
+
+            int[] chars = segment.text.codePoints().toArray();
+            if (!cjkBigrams || chars.length == 1) {
+                for (int i = 0; i < chars.length; i++) {
+                    tokens.add(new String(chars, i, 1));
+                }
+            } else {
+                for (int i = 0; i + 1 < chars.length; i++) {
+                    tokens.add(new String(chars, i, 2));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 判断词项是否可以作为前缀展开（仅由小写字母和数字组成，如拼音或英文单词的开头）
+     * @param token 词项
+     * @return true 如果可以前缀展开，否则 false
+     */
+    static boolean isPrefixExpandable(String token) {
+        if (token.length() < 2) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断字符是否为汉字
+     * @param codePoint 字符码点
+     * @return true 如果是汉字，否则 false
+     */
+    static boolean isHan(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+
+    /**
+     * 生成拼音词项：每个字的所有读音、相邻音节组合、整段全拼和整段首字母
+     * 多音字的组合词项只使用第一个读音
+     */
+    private void addPinyinTokens(int[] chars, List<String> tokens) {
+        StringBuilder full = new StringBuilder();
+        StringBuilder initials = new StringBuilder();
+        String previous = null;
+        int syllables = 0;
+
+        for (int codePoint : chars) {
+            String[] readings = readings(codePoint);
+            if (readings.length == 0) {
+                addPinyinRun(full, initials, syllables, tokens);
+                previous = null;
+                syllables = 0;
+                continue;
+            }
+
+            for (String reading : readings) {
+                tokens.add(reading);
+            }
+            String reading = readings[0];
+            if (previous != null) {
+                tokens.add(previous + reading);
+            }
+            previous = reading;
+            full.append(reading);
+            initials.append(reading.charAt(0));
+            syllables++;
+        }
+        addPinyinRun(full, initials, syllables, tokens);
+    }
+
+    private void addPinyinRun(StringBuilder full, StringBuilder initials, int syllables, List<String> tokens) {
+        if (syllables >= 2) {
+            if (syllables > 2) {
+                tokens.add(full.toString());
+            }
+            tokens.add(initials.toString());
+        }
+        full.setLength(0);
+        initials.setLength(0);
+    }
+
+    /**
+     * 获取汉字的拼音读音（去除声调，去重）
+     * @param codePoint 字符码点
+     * @return 读音数组（非汉字或无读音时为空数组）
+     */
+    private String[] readings(int codePoint) {
+        if (!Character.isBmpCodePoint(codePoint)) {
+            return NO_READINGS;
+        }
+        return pinyinCache.computeIfAbsent((char) codePoint, c -> {
+            try {
+                String[] raw = PinyinHelper.toHanyuPinyinStringArray(c, pinyinFormat);
+                if (raw == null) {
+                    return NO_READINGS;
+                }
+                Set<String> distinct = new LinkedHashSet<>(List.of(raw));
+                return distinct.toArray(new String[0]);
+            } catch (BadHanyuPinyinOutputFormatCombination e) {
+                return NO_READINGS;
+            }
+        });
+    }
+
+    /**
+     * 将文本切分为拉丁字母数字片段和汉字片段
+     */
+    private List<Segment> segment(String text) {
+        List<Segment> segments = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return segments;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        StringBuilder han = new StringBuilder();
+
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isHan(codePoint)) {
+                flush(word, false, segments);
+                han.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flush(han, true, segments);
+                word.appendCodePoint(codePoint);
+            } else {
+                flush(word, false, segments);
+                flush(han, true, segments);
+            }
+        }
+        flush(word, false, segments);
+        flush(han, true, segments);
+
+        return segments;
+    }
+
+    private void flush(StringBuilder buffer, boolean han, List<Segment> segments) {
+        if (!buffer.isEmpty()) {
+            segments.add(new Segment(buffer.toString(), han));
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * 文本片段
+     */
+    private static final class Segment {
+        private final String text;
+        private final boolean han;
+
+        private Segment(String text, boolean han) {
+            this.text = text;
+            this.han = han;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package dev.rbq.library_management_system.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 在独立的有界线程池中执行 BCrypt 的密码编码器
+ * 请求线程只提交任务并等待结果；排队任务超过上限或等待超时时立即抛出
+ * PasswordHashingUnavailableException，避免登录高峰占满 Tomcat 线程和全部 CPU
+ * 批量编码（导入用户）使用另一个线程池，不占用登录使用的线程和队列；
+ * 批量线程数默认为登录线程数的一半，所有导入共用，两个线程池加起来也留出一半以上的 CPU 给请求处理
+ * （Linux 上线程优先级不起作用，只能靠线程数限制）
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    // 校准时允许的 BCrypt 强度范围
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 14;
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor bulkExecutor;
+    private final long timeoutMillis;
+
+    /**
+     * @param strength BCrypt 强度
+     * @param threads 哈希线程数
+     * @param queueCapacity 等待队列长度
+     * @param timeout 请求线程的最长等待时间
+     */
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, Duration timeout) {
+        this(strength, threads, defaultBulkThreads(threads), queueCapacity, timeout);
+    }
+
+    /**
+     * @param strength BCrypt 强度
+     * @param threads 哈希线程数
+     * @param bulkThreads 批量编码线程数
+     * @param queueCapacity 等待队列长度
+     * @param timeout 请求线程的最长等待时间
+     */
+    public BoundedPasswordEncoder(int strength, int threads, int bulkThreads, int queueCapacity, Duration timeout) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // 空闲后线程自动回收
+        AtomicInteger bulkThreadNumber = new AtomicInteger();
+        this.bulkExecutor = new ThreadPoolExecutor(bulkThreads, bulkThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-bulk-" + bulkThreadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.bulkExecutor.allowCoreThreadTimeOut(true);
+        logger.info("Password hashing uses BCrypt strength {} on {} threads (queue {}), bulk encoding on {} threads",
+                strength, threads, queueCapacity, bulkThreads);
+    }
+
+    /**
+     * 默认批量编码线程数：登录线程数的一半，至少一个
+     */
+    static int defaultBulkThreads(int threads) {
+        return Math.max(1, threads / 2);
+    }
+
+    /**
+     * 根据目标耗时选择 BCrypt 强度：在当前机器上测量最低强度的耗时，每增加一级耗时翻倍
+     * @param targetLatency 单次哈希的目标耗时
+     * @return 强度（介于 MIN_STRENGTH 和 MAX_STRENGTH 之间）
+     */
+    public static int calibrateStrength(Duration targetLatency) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        // 预热一次，排除类加载和 JIT 的影响
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+
+        int strength = MIN_STRENGTH;
+        long estimatedNanos = elapsedNanos;
+        while (strength < MAX_STRENGTH && estimatedNanos * 2 <= targetLatency.toNanos()) {
+            strength++;
+            estimatedNanos *= 2;
+        }
+        logger.info("BCrypt strength {} hashes in about {} ms (strength {} took {} ms)",
+                strength, estimatedNanos / 1_000_000, MIN_STRENGTH, elapsedNanos / 1_000_000);
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 并行编码一批密码，调用线程等待全部完成
+     * 不受登录队列长度和等待超时的限制，只应由管理员的批量操作调用
+     * @param rawPasswords 明文密码
+     * @return 密码哈希（与输入顺序一致）
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (CharSequence rawPassword : rawPasswords) {
+            futures.add(bulkExecutor.submit(() -> delegate.encode(rawPassword)));
+        }
+
+        List<String> hashes = new ArrayList<>(futures.size());
+        try {
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Password hashing was interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return hashes;
+    }
+
+    /**
+     * 哈希强度低于当前配置时需要重新编码（登录成功后透明升级）
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 当前排队等待的哈希任务数
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * 批量编码线程数
+     */
+    public int getBulkThreads() {
+        return bulkExecutor.getMaximumPoolSize();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingUnavailableException("Too many authentication requests, please retry later");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new PasswordHashingUnavailableException("Too many authentication requests, please retry later", e);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Password hashing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        bulkExecutor.shutdownNow();
+    }
+}
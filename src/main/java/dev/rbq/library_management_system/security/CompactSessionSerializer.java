@@ -0,0 +1,182 @@
+package dev.rbq.library_management_system.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Session 属性值的紧凑序列化器
+ * 第一个字节为类型标记：Session 元数据（Long、Integer、String）和只包含 SessionPrincipal 的安全上下文
+ * 使用定长二进制编码，其他对象退回 JDK 序列化。
+ * JDK 序列化的数据以 0xAC 开头，不会与类型标记冲突，升级前写入的 Session 仍可读取：
+ * 其中主体为 UserDetailsImpl（包含完整用户实体和密码哈希）的安全上下文在读取时转换为 SessionPrincipal，
+ * 并标记为 {@link LegacySecurityContext}，由 {@link LegacySessionContextFilter} 以紧凑编码写回；
+ * 无法读取的旧数据（如实体类已变化）按不存在处理，用户需要重新登录
+ */
+public class CompactSessionSerializer implements RedisSerializer<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactSessionSerializer.class);
+
+    private static final byte TYPE_LONG = 'L';
+    private static final byte TYPE_INTEGER = 'I';
+    private static final byte TYPE_STRING = 'S';
+    private static final byte TYPE_SECURITY_CONTEXT = 'C';
+    private static final byte TYPE_JDK = 'J';
+
+    private static final byte SECURITY_CONTEXT_VERSION = 1;
+
+    private final JdkSerializationRedisSerializer jdkSerializer;
+
+    public CompactSessionSerializer(ClassLoader classLoader) {
+        this.jdkSerializer = new JdkSerializationRedisSerializer(classLoader);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (value instanceof Long longValue) {
+                out.writeByte(TYPE_LONG);
+                out.writeLong(longValue);
+            } else if (value instanceof Integer intValue) {
+                out.writeByte(TYPE_INTEGER);
+                out.writeInt(intValue);
+            } else if (value instanceof String stringValue) {
+                out.writeByte(TYPE_STRING);
+                out.write(stringValue.getBytes(StandardCharsets.UTF_8));
+            } else if (isCompactSecurityContext(value)) {
+                SessionPrincipal principal = (SessionPrincipal) ((SecurityContext) value).getAuthentication().getPrincipal();
+                out.writeByte(TYPE_SECURITY_CONTEXT);
+                out.writeByte(SECURITY_CONTEXT_VERSION);
+                out.writeUTF(principal.getUuid());
+                writeNullableUtf(out, principal.getUsername());
+                writeNullableUtf(out, principal.getDisplayName());
+                out.writeBoolean(principal.isAdmin());
+            } else {
+                out.writeByte(TYPE_JDK);
+                out.write(jdkSerializer.serialize(value));
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize session value", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+            switch (bytes[0]) {
+                case TYPE_LONG:
+                    return in.readLong();
+                case TYPE_INTEGER:
+                    return in.readInt();
+                case TYPE_STRING:
+                    return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+                case TYPE_SECURITY_CONTEXT:
+                    return readSecurityContext(in);
+                case TYPE_JDK:
+                    return upgradeLegacyContext(jdkSerializer.deserialize(Arrays.copyOfRange(bytes, 1, bytes.length)));
+                default:
+                    // 升级前以 JDK 序列化写入的值
+                    return deserializeLegacy(bytes);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Cannot deserialize session value", e);
+        }
+    }
+
+    private Object deserializeLegacy(byte[] bytes) {
+        try {
+            return upgradeLegacyContext(jdkSerializer.deserialize(bytes));
+        } catch (SerializationException e) {
+            logger.warn("Dropping unreadable legacy session value: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 把主体为 UserDetailsImpl 的旧安全上下文转换为只包含 SessionPrincipal 的安全上下文
+     */
+    private static Object upgradeLegacyContext(Object value) {
+        if (value instanceof SecurityContext context
+                && context.getAuthentication() != null
+                && context.getAuthentication().getPrincipal() instanceof UserDetailsImpl details) {
+            return new LegacySecurityContext(SessionPrincipal.from(details.getUser()).toAuthentication());
+        }
+        return value;
+    }
+
+    private SecurityContext readSecurityContext(DataInputStream in) throws IOException {
+        byte version = in.readByte();
+        if (version != SECURITY_CONTEXT_VERSION) {
+            throw new SerializationException("Unsupported security context version: " + version);
+        }
+        SessionPrincipal principal = new SessionPrincipal(
+                in.readUTF(),
+                readNullableUtf(in),
+                readNullableUtf(in),
+                in.readBoolean()
+        );
+        return new SecurityContextImpl(principal.toAuthentication());
+    }
+
+    /**
+     * 只有不带凭据和请求详情、主体为 SessionPrincipal 的安全上下文才使用紧凑编码
+     */
+    private static boolean isCompactSecurityContext(Object value) {
+        if (!(value instanceof SecurityContext context)) {
+            return false;
+        }
+        Authentication authentication = context.getAuthentication();
+        return authentication != null
+                && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof SessionPrincipal
+                && authentication.getCredentials() == null
+                && authentication.getDetails() == null;
+    }
+
+    /**
+     * 从旧格式转换而来、尚未以紧凑编码写回的安全上下文
+     */
+    public static final class LegacySecurityContext extends SecurityContextImpl {
+
+        private static final long serialVersionUID = 1L;
+
+        private LegacySecurityContext(Authentication authentication) {
+            super(authentication);
+        }
+    }
+
+    private static void writeNullableUtf(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUtf(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
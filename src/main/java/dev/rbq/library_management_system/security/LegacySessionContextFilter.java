@@ -0,0 +1,34 @@
+package dev.rbq.library_management_system.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 升级前写入的 Session 的写回过滤器
+ * 安全上下文是从旧的 JDK 序列化数据转换而来时重新设置 Session 属性，
+ * 请求结束时以紧凑编码覆盖 Redis 中包含用户实体和密码哈希的旧数据，并按用户UUID重建 Session 索引
+ */
+public class LegacySessionContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            Object context = session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY);
+            if (context instanceof CompactSessionSerializer.LegacySecurityContext legacy) {
+                session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                        new SecurityContextImpl(legacy.getAuthentication()));
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,102 @@
+package dev.rbq.library_management_system.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 登录尝试限流
+ * 按客户端IP限制单位时间内的登录和注册次数，按（用户名, 客户端IP）限制连续失败次数，
+ * 在计算任何密码哈希之前拒绝。失败计数带有IP，其他地址的失败不会锁住用户本人的登录。
+ * 校园网等 NAT 出口后的所有用户共用一个IP，IP 限制的默认值按开学高峰的登录量设置，
+ * 只用于防止单个地址占满密码哈希线程。计数保存在本节点内存中，窗口到期后自动清除
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    private final int maxAttemptsPerIp;
+    private final int maxFailuresPerUsername;
+    private final Duration ipWindow;
+    private final Duration usernameWindow;
+
+    private final Cache<String, AtomicInteger> attemptsByIp;
+    // 用户名|IP -> 连续失败次数
+    private final Cache<String, AtomicInteger> failuresByUsername;
+
+    public LoginAttemptThrottle(
+            @Value("${library.login.max-attempts-per-ip:300}") int maxAttemptsPerIp,
+            @Value("${library.login.ip-window:1m}") Duration ipWindow,
+            @Value("${library.login.max-failures-per-username:10}") int maxFailuresPerUsername,
+            @Value("${library.login.username-window:15m}") Duration usernameWindow) {
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.ipWindow = ipWindow;
+        this.usernameWindow = usernameWindow;
+        this.attemptsByIp = Caffeine.newBuilder().expireAfterWrite(ipWindow).maximumSize(100_000).build();
+        this.failuresByUsername = Caffeine.newBuilder().expireAfterWrite(usernameWindow).maximumSize(100_000).build();
+    }
+
+    /**
+     * 登录前检查并记录一次尝试
+     * @param username 用户名
+     * @param clientIp 客户端IP
+     * @throws LoginThrottledException 如果超过限制
+     */
+    public void checkLogin(String username, String clientIp) {
+        AtomicInteger failures = failuresByUsername.getIfPresent(failureKey(username, clientIp));
+        if (failures != null && failures.get() >= maxFailuresPerUsername) {
+            throw new LoginThrottledException("Too many failed login attempts, please retry later",
+                    usernameWindow.toSeconds());
+        }
+        checkIp(clientIp);
+    }
+
+    /**
+     * 注册前检查并记录一次尝试
+     * @param clientIp 客户端IP
+     * @throws LoginThrottledException 如果超过限制
+     */
+    public void checkRegistration(String clientIp) {
+        checkIp(clientIp);
+    }
+
+    /**
+     * 记录一次登录失败
+     * @param username 用户名
+     * @param clientIp 客户端IP
+     */
+    public void loginFailed(String username, String clientIp) {
+        // 首次失败时开始计时，窗口内的后续失败不延长窗口
+        failuresByUsername.get(failureKey(username, clientIp), key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * 登录成功后清除该用户名在该地址上的失败计数
+     * @param username 用户名
+     * @param clientIp 客户端IP
+     */
+    public void loginSucceeded(String username, String clientIp) {
+        failuresByUsername.invalidate(failureKey(username, clientIp));
+    }
+
+    private void checkIp(String clientIp) {
+        if (clientIp == null) {
+            return;
+        }
+        int attempts = attemptsByIp.get(clientIp, key -> new AtomicInteger()).incrementAndGet();
+        if (attempts > maxAttemptsPerIp) {
+            throw new LoginThrottledException("Too many requests from this address, please retry later",
+                    ipWindow.toSeconds());
+        }
+    }
+
+    private static String failureKey(String username, String clientIp) {
+        String normalized = username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+        return normalized + '|' + (clientIp != null ? clientIp : "");
+    }
+}
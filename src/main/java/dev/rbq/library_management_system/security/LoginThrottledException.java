@@ -0,0 +1,19 @@
+package dev.rbq.library_management_system.security;
+
+/**
+ * 登录或注册尝试过于频繁
+ * 控制器应返回 429，并通过 Retry-After 告知客户端等待时间
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
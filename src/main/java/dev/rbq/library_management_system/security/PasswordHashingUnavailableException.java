@@ -0,0 +1,16 @@
+package dev.rbq.library_management_system.security;
+
+/**
+ * 密码哈希线程池已满或等待超时
+ * 控制器应返回 503，提示客户端稍后重试
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,140 @@
+package dev.rbq.library_management_system.security;
+
+import dev.rbq.library_management_system.entity.User;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 存放在 Session 中的登录用户信息
+ * 只包含身份和角色，不包含密码等实体字段；不可变，用户信息变化时整体替换
+ * getName() 返回用户UUID，Session 按UUID建立用户索引，修改用户名不影响索引
+ */
+public final class SessionPrincipal implements AuthenticatedPrincipal, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final List<GrantedAuthority> ADMIN_AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN"));
+    private static final List<GrantedAuthority> USER_AUTHORITIES =
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final String uuid;
+    private final String username;
+    private final String displayName;
+    private final boolean admin;
+
+    public SessionPrincipal(String uuid, String username, String displayName, boolean admin) {
+        this.uuid = Objects.requireNonNull(uuid);
+        this.username = username;
+        this.displayName = displayName;
+        this.admin = admin;
+    }
+
+    /**
+     * 根据用户实体创建
+     * @param user 用户实体
+     * @return Session 用户信息
+     */
+    public static SessionPrincipal from(User user) {
+        return new SessionPrincipal(user.getUuid(), user.getUsername(), user.getName(), Boolean.TRUE.equals(user.getAdmin()));
+    }
+
+    /**
+     * 获取当前请求的登录用户
+     * @return 登录用户，未登录或主体不是 SessionPrincipal 时为null
+     */
+    public static SessionPrincipal current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof SessionPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
+
+    /**
+     * 获取当前请求的登录用户，未登录时抛出异常
+     * @return 登录用户
+     * @throws SecurityException 未登录
+     */
+    public static SessionPrincipal requireCurrent() {
+        SessionPrincipal principal = current();
+        if (principal == null) {
+            throw new SecurityException("User not logged in");
+        }
+        return principal;
+    }
+
+    /**
+     * 创建已认证的 Authentication（不含凭据）
+     * @return 认证信息
+     */
+    public Authentication toAuthentication() {
+        return UsernamePasswordAuthenticationToken.authenticated(this, null, getAuthorities());
+    }
+
+    /**
+     * 根据管理员标记分配角色
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return admin ? ADMIN_AUTHORITIES : USER_AUTHORITIES;
+    }
+
+    @Override
+    public String getName() {
+        return uuid;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SessionPrincipal other)) {
+            return false;
+        }
+        return admin == other.admin
+                && uuid.equals(other.uuid)
+                && Objects.equals(username, other.username)
+                && Objects.equals(displayName, other.displayName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(uuid, username, displayName, admin);
+    }
+
+    @Override
+    public String toString() {
+        return "SessionPrincipal{" +
+                "uuid='" + uuid + '\'' +
+                ", username='" + username + '\'' +
+                ", admin=" + admin +
+                '}';
+    }
+}
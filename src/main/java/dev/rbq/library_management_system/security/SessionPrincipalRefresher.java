@@ -0,0 +1,115 @@
+package dev.rbq.library_management_system.security;
+
+import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.event.UserChangedEvent;
+import dev.rbq.library_management_system.repository.UserRepository;
+import jakarta.servlet.http.HttpSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 用户信息变更后刷新该用户所有 Session 中的登录信息
+ * 用户被删除时删除其所有 Session
+ */
+@Component
+public class SessionPrincipalRefresher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionPrincipalRefresher.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+
+    /**
+     * 用户变更事务提交后刷新 Session
+     * @param event 用户变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getChangeType() == UserChangedEvent.ChangeType.CREATE
+                || event.getChangeType() == UserChangedEvent.ChangeType.PASSWORD) {
+            // 新用户没有 Session；密码不保存在 Session 中
+            return;
+        }
+
+        Optional<User> user = event.getChangeType() == UserChangedEvent.ChangeType.DELETE
+                ? Optional.empty()
+                : userRepository.findById(event.getUserUuid());
+        SessionPrincipal principal = user.map(SessionPrincipal::from).orElse(null);
+
+        String currentSessionId = refreshCurrentRequest(event.getUserUuid(), principal);
+        try {
+            refreshSessions(sessionRepository, event.getUserUuid(), principal, currentSessionId);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to refresh sessions of user {}", event.getUserUuid(), e);
+        }
+    }
+
+    /**
+     * 刷新当前请求的安全上下文（修改自己的信息时），请求结束时随 Session 一起保存
+     * @return 当前请求的 Session ID（已处理，不再重复刷新），不涉及当前用户时为null
+     */
+    private String refreshCurrentRequest(String userUuid, SessionPrincipal principal) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof SessionPrincipal current)
+                || !current.getUuid().equals(userUuid)) {
+            return null;
+        }
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpSession session = attributes.getRequest().getSession(false);
+        if (session == null) {
+            return null;
+        }
+
+        if (principal == null) {
+            SecurityContextHolder.clearContext();
+            session.invalidate();
+        } else {
+            SecurityContext context = new SecurityContextImpl(principal.toAuthentication());
+            SecurityContextHolder.setContext(context);
+            session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY, context);
+        }
+        return session.getId();
+    }
+
+    /**
+     * 按用户UUID索引查找其他 Session 并写回新的安全上下文
+     */
+    private <S extends Session> void refreshSessions(FindByIndexNameSessionRepository<S> repository,
+                                                     String userUuid, SessionPrincipal principal,
+                                                     String skipSessionId) {
+        Map<String, S> sessions = repository.findByPrincipalName(userUuid);
+        for (S session : sessions.values()) {
+            if (session.getId().equals(skipSessionId)) {
+                continue;
+            }
+            if (principal == null) {
+                repository.deleteById(session.getId());
+            } else {
+                session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                        new SecurityContextImpl(principal.toAuthentication()));
+                repository.save(session);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dev.rbq.library_management_system.security;
+
+import dev.rbq.library_management_system.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 令牌认证过滤器
+ * 从 Authorization: Bearer 请求头读取访问令牌，校验通过后设置安全上下文，整个过程不做 I/O。
+ * 令牌无效时不设置安全上下文，由后续的鉴权规则返回 401
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (token != null) {
+            try {
+                SessionPrincipal principal = tokenService.verifyAccessToken(token).toPrincipal();
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(principal.toAuthentication());
+                SecurityContextHolder.setContext(context);
+            } catch (BadCredentialsException e) {
+                SecurityContextHolder.clearContext();
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 读取 Bearer 令牌
+     * @param request 请求
+     * @return 令牌（没有时为null）
+     */
+    public static String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = header.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+}
@@ -0,0 +1,222 @@
+package dev.rbq.library_management_system.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * HS256 签名令牌（JWT 格式）的编码和校验
+ * 校验只做签名、类型和过期时间检查，不访问数据库或 Redis
+ */
+public class TokenCodec {
+
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
+    private static final String HEADER = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ThreadLocal<Mac> mac;
+
+    /**
+     * @param secret 签名密钥（至少32字节）
+     */
+    public TokenCodec(String secret) {
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < 32) {
+            throw new IllegalStateException("The token secret must be at least 32 bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+    }
+
+    /**
+     * 生成令牌
+     * @param claims 令牌内容
+     * @return 令牌字符串
+     */
+    public String encode(TokenClaims claims) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sub", claims.getSubject());
+        payload.put("typ", claims.getType());
+        payload.put("jti", encodeId(claims.getTokenId()));
+        payload.put("iat", claims.getIssuedAtMillis() / 1000);
+        // 毫秒签发时间：用户级吊销与重新登录可能发生在同一秒内
+        payload.put("iam", claims.getIssuedAtMillis());
+        payload.put("exp", claims.getExpiresAt());
+        if (claims.getUsername() != null) {
+            payload.put("usr", claims.getUsername());
+            payload.put("nam", claims.getDisplayName());
+            payload.put("adm", claims.isAdmin());
+        }
+
+        try {
+            String signingInput = HEADER + '.' + ENCODER.encodeToString(objectMapper.writeValueAsBytes(payload));
+            return signingInput + '.' + ENCODER.encodeToString(sign(signingInput));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode token", e);
+        }
+    }
+
+    /**
+     * 校验并解析令牌
+     * @param token 令牌字符串
+     * @param expectedType 期望的令牌类型
+     * @param nowEpochSecond 当前时间（秒）
+     * @return 令牌内容
+     * @throws BadCredentialsException 如果令牌格式、签名、类型错误或已过期
+     */
+    public TokenClaims decode(String token, String expectedType, long nowEpochSecond) {
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first <= 0 || second <= first || token.indexOf('.', second + 1) >= 0) {
+            throw new BadCredentialsException("Malformed token");
+        }
+
+        String signingInput = token.substring(0, second);
+        byte[] signature;
+        Map<?, ?> payload;
+        try {
+            signature = DECODER.decode(token.substring(second + 1));
+            if (!MessageDigest.isEqual(signature, sign(signingInput))) {
+                throw new BadCredentialsException("Invalid token signature");
+            }
+            payload = objectMapper.readValue(DECODER.decode(token.substring(first + 1, second)), Map.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadCredentialsException("Malformed token");
+        }
+
+        TokenClaims claims;
+        try {
+            claims = new TokenClaims(
+                    (String) payload.get("sub"),
+                    (String) payload.get("typ"),
+                    decodeId((String) payload.get("jti")),
+                    payload.get("iam") != null
+                            ? ((Number) payload.get("iam")).longValue()
+                            : ((Number) payload.get("iat")).longValue() * 1000,
+                    ((Number) payload.get("exp")).longValue(),
+                    (String) payload.get("usr"),
+                    (String) payload.get("nam"),
+                    Boolean.TRUE.equals(payload.get("adm"))
+            );
+        } catch (RuntimeException e) {
+            throw new BadCredentialsException("Malformed token");
+        }
+        if (claims.getSubject() == null || !expectedType.equals(claims.getType())) {
+            throw new BadCredentialsException("Invalid token type");
+        }
+        if (claims.getExpiresAt() <= nowEpochSecond) {
+            throw new BadCredentialsException("Token has expired");
+        }
+        return claims;
+    }
+
+    private byte[] sign(String signingInput) {
+        return mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String encodeId(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    private static UUID decodeId(String value) {
+        ByteBuffer buffer = ByteBuffer.wrap(DECODER.decode(value));
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * 令牌内容
+     */
+    public static final class TokenClaims {
+        private final String subject;
+        private final String type;
+        private final UUID tokenId;
+        private final long issuedAtMillis;
+        private final long expiresAt;
+        private final String username;
+        private final String displayName;
+        private final boolean admin;
+
+        /**
+         * @param issuedAtMillis 签发时间（毫秒）
+         * @param expiresAt 过期时间（秒）
+         */
+        public TokenClaims(String subject, String type, UUID tokenId, long issuedAtMillis, long expiresAt,
+                           String username, String displayName, boolean admin) {
+            this.subject = subject;
+            this.type = type;
+            this.tokenId = tokenId;
+            this.issuedAtMillis = issuedAtMillis;
+            this.expiresAt = expiresAt;
+            this.username = username;
+            this.displayName = displayName;
+            this.admin = admin;
+        }
+
+        /**
+         * 转换为登录用户信息（仅访问令牌）
+         */
+        public SessionPrincipal toPrincipal() {
+            return new SessionPrincipal(subject, username, displayName, admin);
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public UUID getTokenId() {
+            return tokenId;
+        }
+
+        public long getIssuedAtMillis() {
+            return issuedAtMillis;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package dev.rbq.library_management_system.security;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 令牌吊销列表
+ * 内存中只保存尚未过期的吊销记录：单个令牌按 128 位令牌ID记录，用户级吊销只记录一个时间点，
+ * 检查时不做任何 I/O。吊销时写入 Redis 有序集合（分数为记录的过期时间）供新启动的节点加载，
+ * 并通过缓存失效总线通知其他节点
+ */
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    public static final String INVALIDATION_REGION = "token-revocation";
+
+    private static final long PURGE_INTERVAL_SECONDS = 60;
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final String redisKey;
+    private final long userRevocationTtlSeconds;
+
+    // 令牌ID -> 令牌过期时间（秒）
+    private final Map<UUID, Long> revokedTokens = new ConcurrentHashMap<>();
+    // 用户UUID -> 在此时间（毫秒）之前签发的令牌全部失效
+    private final Map<String, Long> revokedUsers = new ConcurrentHashMap<>();
+    // 用户UUID -> 用户级吊销记录的过期时间（秒）
+    private final Map<String, Long> revokedUserExpiry = new ConcurrentHashMap<>();
+
+    private volatile long lastPurge;
+
+    /**
+     * @param redisTemplate Redis 模板
+     * @param invalidationBus 缓存失效总线
+     * @param redisKey 吊销记录的 Redis 键
+     * @param userRevocationTtlSeconds 用户级吊销的保留时间（不短于刷新令牌的有效期）
+     */
+    public TokenRevocationList(StringRedisTemplate redisTemplate, CacheInvalidationBus invalidationBus,
+                               String redisKey, long userRevocationTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.invalidationBus = invalidationBus;
+        this.redisKey = redisKey;
+        this.userRevocationTtlSeconds = userRevocationTtlSeconds;
+        invalidationBus.subscribe(INVALIDATION_REGION, entry -> {
+            if (entry != null) {
+                apply(entry);
+            }
+        });
+    }
+
+    /**
+     * 从 Redis 加载尚未过期的吊销记录
+     */
+    public void load() {
+        long now = Instant.now().getEpochSecond();
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(redisKey, 0, now);
+            Set<String> entries = redisTemplate.opsForZSet().rangeByScore(redisKey, now, Double.MAX_VALUE);
+            if (entries != null) {
+                entries.forEach(this::apply);
+            }
+            logger.info("Loaded {} token revocations", entries != null ? entries.size() : 0);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load token revocations, only revocations made from now on apply", e);
+        }
+    }
+
+    /**
+     * 吊销单个令牌
+     * @param tokenId 令牌ID
+     * @param expiresAt 令牌过期时间（秒）
+     */
+    public void revokeToken(UUID tokenId, long expiresAt) {
+        record("t:" + tokenId + ':' + expiresAt, expiresAt);
+    }
+
+    /**
+     * 吊销用户在指定时间之前签发的全部令牌
+     * 按毫秒比较：同一秒内稍后重新登录得到的令牌不受影响
+     * @param userUuid 用户UUID
+     * @param revokedAtMillis 吊销时间（毫秒）
+     */
+    public void revokeUser(String userUuid, long revokedAtMillis) {
+        record("r:" + userUuid + ':' + revokedAtMillis, revokedAtMillis / 1000 + userRevocationTtlSeconds);
+    }
+
+    /**
+     * 判断令牌是否已被吊销（只访问内存）
+     * @param claims 令牌内容
+     * @return true 如果已吊销，否则 false
+     */
+    public boolean isRevoked(TokenCodec.TokenClaims claims) {
+        Long revokedBefore = revokedUsers.get(claims.getSubject());
+        if (revokedBefore != null && claims.getIssuedAtMillis() < revokedBefore) {
+            return true;
+        }
+        return revokedTokens.containsKey(claims.getTokenId());
+    }
+
+    private void record(String entry, long expiresAt) {
+        apply(entry);
+        try {
+            redisTemplate.opsForZSet().add(redisKey, entry, expiresAt);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to persist token revocation, nodes started later will not see it", e);
+        }
+        invalidationBus.publish(INVALIDATION_REGION, entry);
+        purgeExpired();
+    }
+
+    /**
+     * 应用一条吊销记录，格式为 "t:令牌ID:过期时间"、"r:用户UUID:吊销时间（毫秒）"
+     * 或旧格式 "u:用户UUID:时间点（秒，含该秒内签发的令牌）"
+     */
+    private void apply(String entry) {
+        int last = entry.lastIndexOf(':');
+        if (entry.length() < 3 || entry.charAt(1) != ':' || last <= 1) {
+            logger.warn("Ignoring malformed token revocation {}", entry);
+            return;
+        }
+        String id = entry.substring(2, last);
+        long time = Long.parseLong(entry.substring(last + 1));
+        if (entry.charAt(0) == 't') {
+            revokedTokens.put(UUID.fromString(id), time);
+        } else if (entry.charAt(0) == 'r') {
+            revokedUsers.merge(id, time, Math::max);
+            revokedUserExpiry.merge(id, time / 1000 + userRevocationTtlSeconds, Math::max);
+        } else if (entry.charAt(0) == 'u') {
+            revokedUsers.merge(id, (time + 1) * 1000, Math::max);
+            revokedUserExpiry.merge(id, time + userRevocationTtlSeconds, Math::max);
+        }
+    }
+
+    /**
+     * 清理已过期的吊销记录（至多每分钟一次）
+     */
+    private void purgeExpired() {
+        long now = Instant.now().getEpochSecond();
+        if (now - lastPurge < PURGE_INTERVAL_SECONDS) {
+            return;
+        }
+        lastPurge = now;
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUserExpiry.entrySet().removeIf(entry -> {
+            if (entry.getValue() <= now) {
+                revokedUsers.remove(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(redisKey, 0, now);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to purge expired token revocations", e);
+        }
+    }
+
+    /**
+     * 当前内存中的吊销记录数
+     */
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+}
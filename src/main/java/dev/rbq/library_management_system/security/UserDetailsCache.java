@@ -0,0 +1,146 @@
+package dev.rbq.library_management_system.security;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import dev.rbq.library_management_system.cache.CacheRegistry;
+import dev.rbq.library_management_system.cache.NamedCache;
+import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.event.UserChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 登录认证使用的用户详情缓存
+ * 存在的用户缓存副本，不存在的用户名单独做短时间的负缓存，避免暴力尝试不存在的账号时反复查询数据库
+ * 用户名按小写作为缓存键，与数据库不区分大小写的比较规则一致
+ * 用户名、密码、角色变化或用户被删除的事务提交后失效对应用户名，并通知其他节点
+ */
+@Component
+public class UserDetailsCache {
+
+    public static final String USER_DETAILS = "user-details";
+    public static final String USER_DETAILS_MISSING = "user-details-missing";
+
+    // 跨节点失效区域，键为小写用户名
+    public static final String INVALIDATION_REGION = "user-details";
+
+    @Value("${library.cache.user-details.max-size:10000}")
+    private long maxSize;
+
+    @Value("${library.cache.user-details.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${library.cache.user-details.missing-max-size:10000}")
+    private long missingMaxSize;
+
+    @Value("${library.cache.user-details.missing-ttl:60s}")
+    private Duration missingTtl;
+
+    @Autowired
+    private CacheRegistry cacheRegistry;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    private NamedCache<String, User> users;
+    private NamedCache<String, Boolean> missing;
+
+    @PostConstruct
+    void initCaches() {
+        users = new NamedCache<>(USER_DETAILS, maxSize, ttl);
+        missing = new NamedCache<>(USER_DETAILS_MISSING, missingMaxSize, missingTtl);
+        cacheRegistry.register(users);
+        cacheRegistry.register(missing);
+        invalidationBus.subscribe(INVALIDATION_REGION, key -> {
+            if (key == null) {
+                invalidateAll();
+            } else {
+                for (String username : key.split("\n")) {
+                    invalidateLocal(username);
+                }
+            }
+        });
+    }
+
+    /**
+     * 按用户名读取用户，未命中时调用加载函数
+     * 负缓存在内层：两个缓存都在加载前记录失效代数，加载期间发生失效时结果都不写入缓存
+     * @param username 用户名
+     * @param loader 加载函数
+     * @return 用户副本（调用方可以修改），用户不存在时为空
+     */
+    public Optional<User> getUser(String username, Supplier<Optional<User>> loader) {
+        String key = key(username);
+        User[] found = new User[1];
+        User user = users.get(key, () -> {
+            missing.get(key, () -> {
+                Optional<User> loaded = loader.get();
+                if (loaded.isPresent()) {
+                    found[0] = copy(loaded.get());
+                    return null;
+                }
+                return Boolean.TRUE;
+            });
+            return found[0];
+        });
+        return Optional.ofNullable(user).map(UserDetailsCache::copy);
+    }
+
+    /**
+     * 使指定用户名失效，并用一条消息通知其他节点（键之间以换行分隔）
+     * @param usernames 用户名
+     */
+    public void invalidate(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(usernames.size());
+        for (String username : usernames) {
+            String key = key(username);
+            invalidateLocal(key);
+            keys.add(key);
+        }
+        invalidationBus.publish(INVALIDATION_REGION, String.join("\n", keys));
+    }
+
+    /**
+     * 使全部条目失效（仅本节点）
+     */
+    public void invalidateAll() {
+        users.invalidateAll();
+        missing.invalidateAll();
+    }
+
+    /**
+     * 用户变更的事务提交后失效缓存
+     * 新注册的用户名可能在负缓存中，也需要失效
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUsernames());
+    }
+
+    private void invalidateLocal(String key) {
+        users.invalidate(key);
+        missing.invalidate(key);
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getUuid(), user.getUsername(), user.getName(), user.getPassword(), user.getAdmin());
+    }
+}
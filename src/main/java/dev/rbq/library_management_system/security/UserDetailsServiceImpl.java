@@ -4,24 +4,46 @@ import dev.rbq.library_management_system.entity.User;
 import dev.rbq.library_management_system.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 /**
  * 用户详情服务实现
+ * 按用户名的查询经过 {@link UserDetailsCache}，登录时不必每次查询数据库
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userDetailsCache.getUser(username, () -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User does not exist:" + username));
 
         return new UserDetailsImpl(user);
     }
+
+    /**
+     * 登录成功后保存按当前强度重新编码的密码哈希
+     * 提交前被其他请求重新缓存的旧哈希仍能校验同一密码，下次登录时会再次升级
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = ((UserDetailsImpl) userDetails).getUser();
+        userRepository.updatePassword(user.getUuid(), newPassword);
+        user.setPassword(newPassword);
+        userDetailsCache.invalidate(List.of(user.getUsername()));
+        return new UserDetailsImpl(user);
+    }
 }
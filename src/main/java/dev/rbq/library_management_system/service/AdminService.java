@@ -2,16 +2,36 @@ package dev.rbq.library_management_system.service;
 
 import dev.rbq.library_management_system.dto.admin.AdminUserResponse;
 import dev.rbq.library_management_system.dto.admin.UpdateAdminRequest;
+import dev.rbq.library_management_system.dto.admin.UserSessionResponse;
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
 import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.event.UserChangedEvent;
+import dev.rbq.library_management_system.pagination.KeysetCursor;
+import dev.rbq.library_management_system.pagination.KeysetPaging;
+import dev.rbq.library_management_system.repository.UserJdbcRepository;
 import dev.rbq.library_management_system.repository.UserRepository;
-import dev.rbq.library_management_system.security.UserDetailsImpl;
+import dev.rbq.library_management_system.repository.UserSpecifications;
+import dev.rbq.library_management_system.security.SessionPrincipal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -20,17 +40,33 @@ import java.util.stream.Collectors;
 @Service
 public class AdminService {
 
+    // 游标分页允许排序的字段
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("uuid", "username", "name");
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+
     /**
      * 获取所有用户列表（仅管理员可访问）
+     * 一次加载全部用户，用户数量较多时使用 {@link #getUsersByCursor} 或 {@link #exportUsers}
      * @return 用户列表
      */
     public List<AdminUserResponse> getAllUsers() {
         // 验证当前用户是否为管理员
-        User currentUser = getCurrentUser();
-        if (!currentUser.getAdmin()) {
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
+        if (!currentUser.isAdmin()) {
             throw new SecurityException("Only administrators can access the user list");
         }
 
@@ -45,6 +81,78 @@ public class AdminService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 游标分页查询用户列表（仅管理员可访问）
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页；有游标时使用游标中的排序）
+     * @param size 每页数量
+     * @param keyword 用户名或昵称前缀（可选）
+     * @param admin 管理员标识（可选）
+     * @param sortBy 排序字段（默认为username）
+     * @param sortDirection 排序方向（asc/desc，默认为asc）
+     * @param includeTotal 是否统计总数
+     * @return 用户游标分页列表
+     */
+    public CursorPageResponse<AdminUserResponse> getUsersByCursor(
+            String cursor, int size, String keyword, Boolean admin,
+            String sortBy, String sortDirection, boolean includeTotal) {
+        // 验证当前用户是否为管理员
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
+        if (!currentUser.isAdmin()) {
+            throw new SecurityException("Only administrators can access the user list");
+        }
+
+        KeysetCursor position = KeysetCursor.resolve(
+                cursor, sortBy != null ? sortBy : "username",
+                sortDirection != null ? sortDirection : "asc", CURSOR_SORT_FIELDS);
+
+        Specification<User> filter = Specification.allOf(
+                UserSpecifications.usernameOrNameStartsWith(keyword),
+                UserSpecifications.adminEquals(admin));
+
+        return KeysetPaging.fetch(userRepository, filter, position, "uuid", size, includeTotal, user -> new AdminUserResponse(
+                user.getUuid(),
+                user.getUsername(),
+                user.getName(),
+                user.getAdmin()
+        ));
+    }
+
+    /**
+     * 导出用户列表为 JSON 数组（仅管理员可访问）
+     * 权限在调用时检查；返回的响应体从数据库流式读取并逐行写出，内存占用与用户数量无关
+     * @param keyword 用户名或昵称前缀（可选）
+     * @param admin 管理员标识（可选）
+     * @return 流式响应体
+     */
+    public StreamingResponseBody exportUsers(String keyword, Boolean admin) {
+        // 验证当前用户是否为管理员
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
+        if (!currentUser.isAdmin()) {
+            throw new SecurityException("Only administrators can export the user list");
+        }
+
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                userJdbcRepository.streamUsers(keyword, admin, row -> {
+                    try {
+                        generator.writeStartObject();
+                        generator.writeStringField("uuid", row.getUuid());
+                        generator.writeStringField("username", row.getUsername());
+                        generator.writeStringField("name", row.getName());
+                        generator.writeBooleanField("admin", row.isAdmin());
+                        generator.writeEndObject();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
     /**
      * 更新用户的管理员权限
      * @param request 更新请求
@@ -53,8 +161,8 @@ public class AdminService {
     @Transactional
     public AdminUserResponse updateAdminStatus(UpdateAdminRequest request) {
         // 验证当前用户是否为管理员
-        User currentUser = getCurrentUser();
-        if (!currentUser.getAdmin()) {
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
+        if (!currentUser.isAdmin()) {
             throw new SecurityException("Only administrators can modify user permissions");
         }
 
@@ -70,6 +178,8 @@ public class AdminService {
         // 更新管理员状态
         targetUser.setAdmin(request.getAdmin());
         User savedUser = userRepository.save(targetUser);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getUuid(), UserChangedEvent.ChangeType.ROLE,
+                savedUser.getUsername()));
 
         return new AdminUserResponse(
                 savedUser.getUuid(),
@@ -86,8 +196,8 @@ public class AdminService {
     @Transactional
     public void deleteUser(String userUuid) {
         // 验证当前用户是否为管理员
-        User currentUser = getCurrentUser();
-        if (!currentUser.getAdmin()) {
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
+        if (!currentUser.isAdmin()) {
             throw new SecurityException("Only administrators can delete users");
         }
 
@@ -102,21 +212,85 @@ public class AdminService {
 
         // 删除用户
         userRepository.delete(targetUser);
+        eventPublisher.publishEvent(new UserChangedEvent(userUuid, UserChangedEvent.ChangeType.DELETE,
+                targetUser.getUsername()));
     }
 
     /**
-     * 获取当前登录用户
-     * @return 当前用户
+     * 获取用户的所有 Session（仅管理员可访问）
+     * @param userUuid 用户UUID
+     * @return 按最后访问时间倒序排列的 Session 列表
+     */
+    public List<UserSessionResponse> getUserSessions(String userUuid) {
+        // 验证当前用户是否为管理员
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
+        if (!currentUser.isAdmin()) {
+            throw new SecurityException("Only administrators can view user sessions");
+        }
+
+        if (!userRepository.existsById(userUuid)) {
+            throw new IllegalArgumentException("User does not exist");
+        }
+
+        return sessionRepository.findByPrincipalName(userUuid).values().stream()
+                .sorted(Comparator.comparing(Session::getLastAccessedTime).reversed())
+                .map(session -> new UserSessionResponse(
+                        sessionHandle(session.getId()),
+                        session.getCreationTime(),
+                        session.getLastAccessedTime(),
+                        session.getLastAccessedTime().plus(session.getMaxInactiveInterval()),
+                        session.isExpired()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 吊销用户的指定 Session（仅管理员可操作）
+     * @param userUuid 用户UUID
+     * @param handle Session 句柄
      */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    public void revokeUserSession(String userUuid, String handle) {
+        // 验证当前用户是否为管理员
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
+        if (!currentUser.isAdmin()) {
+            throw new SecurityException("Only administrators can revoke user sessions");
+        }
+
+        String sessionId = sessionRepository.findByPrincipalName(userUuid).keySet().stream()
+                .filter(id -> sessionHandle(id).equals(handle))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Session does not exist"));
+        sessionRepository.deleteById(sessionId);
+    }
 
-        if (authentication == null || !authentication.isAuthenticated() ||
-            authentication.getPrincipal().equals("anonymousUser")) {
-            throw new SecurityException("User not logged in");
+    /**
+     * 吊销用户的所有 Session（仅管理员可操作）
+     * @param userUuid 用户UUID
+     * @return 吊销的 Session 数量
+     */
+    public int revokeAllUserSessions(String userUuid) {
+        // 验证当前用户是否为管理员
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
+        if (!currentUser.isAdmin()) {
+            throw new SecurityException("Only administrators can revoke user sessions");
         }
 
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        return userDetails.getUser();
+        List<String> sessionIds = List.copyOf(sessionRepository.findByPrincipalName(userUuid).keySet());
+        sessionIds.forEach(sessionRepository::deleteById);
+        return sessionIds.size();
+    }
+
+    /**
+     * 由 Session ID 派生对外展示的句柄，避免把可直接使用的 Session ID 返回给客户端
+     * @param sessionId Session ID
+     * @return 句柄（SHA-256 前16个十六进制字符）
+     */
+    private static String sessionHandle(String sessionId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sessionId.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
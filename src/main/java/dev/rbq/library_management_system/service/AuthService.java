@@ -4,12 +4,16 @@ import dev.rbq.library_management_system.dto.auth.AuthResponse;
 import dev.rbq.library_management_system.dto.auth.LoginRequest;
 import dev.rbq.library_management_system.dto.auth.RegisterRequest;
 import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.event.UserChangedEvent;
 import dev.rbq.library_management_system.repository.UserRepository;
+import dev.rbq.library_management_system.security.LoginAttemptThrottle;
+import dev.rbq.library_management_system.security.SessionPrincipal;
 import dev.rbq.library_management_system.security.UserDetailsImpl;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -17,6 +21,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.session.ConcurrentSessionControlAuthenticationStrategy;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,11 +43,23 @@ public class AuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private ConcurrentSessionControlAuthenticationStrategy sessionControlStrategy;
+
+    @Autowired
+    private LoginAttemptThrottle loginAttemptThrottle;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 用户注册
      */
     @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    public AuthResponse register(RegisterRequest request, String clientIp) {
+        // 在计算密码哈希之前限流
+        loginAttemptThrottle.checkRegistration(clientIp);
+
         // 检查用户名是否已存在
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new IllegalArgumentException("Username already exists");
@@ -58,6 +75,8 @@ public class AuthService {
 
         // 保存用户
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUuid(), UserChangedEvent.ChangeType.CREATE,
+                user.getUsername()));
 
         return new AuthResponse(
                 user.getUuid(),
@@ -69,9 +88,12 @@ public class AuthService {
 
     /**
      * 用户登录
+     * 不在事务中执行，等待密码哈希期间不占用数据库连接
      */
-    @Transactional
     public AuthResponse login(LoginRequest request, HttpServletRequest httpRequest, HttpServletResponse httpResponse) {
+        // 在计算密码哈希之前限流
+        loginAttemptThrottle.checkLogin(request.getUsername(), httpRequest.getRemoteAddr());
+
         try {
             // 使用 Spring Security 进行认证
             Authentication authentication = authenticationManager.authenticate(
@@ -81,9 +103,19 @@ public class AuthService {
                     )
             );
 
-            // 认证成功，设置安全上下文
+            // 获取用户信息
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            User user = userDetails.getUser();
+
+            // 认证成功，设置安全上下文（Session 中只保存精简的登录信息，不保存用户实体和密码）
+            loginAttemptThrottle.loginSucceeded(request.getUsername(), httpRequest.getRemoteAddr());
+            Authentication sessionAuthentication = SessionPrincipal.from(user).toAuthentication();
+
+            // 超出每个用户的 Session 数量上限时，使该用户最久未使用的 Session 过期
+            sessionControlStrategy.onAuthentication(sessionAuthentication, httpRequest, httpResponse);
+
             SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
-            securityContext.setAuthentication(authentication);
+            securityContext.setAuthentication(sessionAuthentication);
             SecurityContextHolder.setContext(securityContext);
 
             // 创建或获取 session
@@ -125,10 +157,6 @@ public class AuthService {
                 httpResponse.addCookie(sessionCookie);
             }
 
-            // 获取用户信息
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userDetails.getUser();
-
             return new AuthResponse(
                     user.getUuid(),
                     user.getUsername(),
@@ -137,6 +165,7 @@ public class AuthService {
             );
 
         } catch (BadCredentialsException e) {
+            loginAttemptThrottle.loginFailed(request.getUsername(), httpRequest.getRemoteAddr());
             throw new BadCredentialsException("Incorrect username or password");
         }
     }
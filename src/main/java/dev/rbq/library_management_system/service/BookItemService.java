@@ -1,22 +1,35 @@
 package dev.rbq.library_management_system.service;
 
+import dev.rbq.library_management_system.dto.book.BarcodeLookupResponse;
 import dev.rbq.library_management_system.dto.book.BookItemRequest;
 import dev.rbq.library_management_system.dto.book.BookItemResponse;
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
 import dev.rbq.library_management_system.dto.book.PageResponse;
 import dev.rbq.library_management_system.entity.Book;
 import dev.rbq.library_management_system.entity.BookItem;
+import dev.rbq.library_management_system.event.BookItemChangedEvent;
+import dev.rbq.library_management_system.inventory.BarcodeIndex;
+import dev.rbq.library_management_system.pagination.KeysetCursor;
+import dev.rbq.library_management_system.pagination.KeysetPaging;
 import dev.rbq.library_management_system.repository.BookItemRepository;
+import dev.rbq.library_management_system.repository.BookItemSpecifications;
 import dev.rbq.library_management_system.repository.BookRepository;
 import dev.rbq.library_management_system.repository.BorrowRecordRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +38,14 @@ import java.util.stream.Collectors;
 @Service
 public class BookItemService {
 
+    // 游标分页允许的排序字段（均为非空列）
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("itemId", "barcode");
+
+    private static final Set<String> LOCATION_CURSOR_SORT_FIELDS = Set.of("location", "itemId", "barcode");
+
+    // 单次批量条码查询的最大数量
+    private static final int MAX_BARCODE_LOOKUP = 1000;
+
     @Autowired
     private BookItemRepository bookItemRepository;
 
@@ -34,6 +55,15 @@ public class BookItemService {
     @Autowired
     private BorrowRecordRepository borrowRecordRepository;
 
+    @Autowired
+    private CopyCounterService copyCounterService;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 获取图书副本详情
      * @param itemId 副本ID
@@ -45,6 +75,47 @@ public class BookItemService {
         return convertToResponse(bookItem);
     }
 
+    /**
+     * 按条码号查询副本（扫码枪使用，索引加载完成后不访问数据库）
+     * @param barcode 条码号
+     * @return 条码查询结果
+     */
+    public BarcodeLookupResponse lookupBarcode(String barcode) {
+        BarcodeIndex.Entry entry = barcodeIndex.lookup(barcode);
+        if (entry == null) {
+            throw new IllegalArgumentException("The book copy does not exist");
+        }
+        return convertToLookupResponse(barcode, entry);
+    }
+
+    /**
+     * 批量按条码号查询副本
+     * @param barcodes 条码号列表
+     * @return 每个条码号的查询结果（按请求顺序，重复的条码号只返回一次）
+     */
+    public List<BarcodeLookupResponse> lookupBarcodes(List<String> barcodes) {
+        if (barcodes.size() > MAX_BARCODE_LOOKUP) {
+            throw new IllegalArgumentException("At most " + MAX_BARCODE_LOOKUP + " barcodes can be looked up at once");
+        }
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String barcode : barcodes) {
+            if (barcode == null || barcode.isBlank()) {
+                throw new IllegalArgumentException("The barcode cannot be empty");
+            }
+            distinct.add(barcode.trim());
+        }
+
+        Map<String, BarcodeIndex.Entry> entries = barcodeIndex.lookup(distinct);
+        List<BarcodeLookupResponse> results = new ArrayList<>(distinct.size());
+        for (String barcode : distinct) {
+            BarcodeIndex.Entry entry = entries.get(barcode);
+            results.add(entry != null
+                    ? convertToLookupResponse(barcode, entry)
+                    : new BarcodeLookupResponse(barcode, false, null, null, null, null));
+        }
+        return results;
+    }
+
     /**
      * 根据图书ID分页查询副本列表
      * @param bookId 图书ID
@@ -102,6 +173,70 @@ public class BookItemService {
         );
     }
 
+    /**
+     * 根据图书ID游标分页查询副本列表
+     * @param bookId 图书ID
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页；有游标时使用游标中的排序）
+     * @param size 每页数量
+     * @param status 副本状态（可选）
+     * @param sortBy 排序字段（默认为itemId，可按 barcode 排序）
+     * @param sortDirection 排序方向（asc/desc，默认为desc）
+     * @param includeTotal 是否统计总数
+     * @return 图书副本游标分页列表
+     */
+    public CursorPageResponse<BookItemResponse> getBookItemsByBookIdByCursor(
+            Integer bookId, String cursor, int size, String status,
+            String sortBy, String sortDirection, boolean includeTotal) {
+
+        // 验证图书是否存在
+        if (!bookRepository.existsById(bookId)) {
+            throw new IllegalArgumentException("The book does not exist");
+        }
+
+        KeysetCursor position = KeysetCursor.resolve(
+                cursor, sortBy != null ? sortBy : "itemId", sortDirection, CURSOR_SORT_FIELDS);
+
+        BookItem.BookItemStatus itemStatus = status != null && !status.isEmpty() ? parseStatus(status) : null;
+        Specification<BookItem> filter = Specification.allOf(
+                BookItemSpecifications.bookIdEquals(bookId),
+                BookItemSpecifications.statusEquals(itemStatus));
+
+        return KeysetPaging.fetch(bookItemRepository, filter, position, "itemId", size, includeTotal, this::convertToResponse);
+    }
+
+    /**
+     * 游标分页查询某个位置节点下的副本
+     * 默认按 (位置, 副本ID) 排序，与 idx_location 的顺序一致，翻页时沿索引向后读取
+     * @param path 位置节点路径（如 A-2-03）
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页；有游标时使用游标中的排序）
+     * @param size 每页数量
+     * @param status 副本状态（可选）
+     * @param sortBy 排序字段（默认为location，可按 itemId、barcode 排序）
+     * @param sortDirection 排序方向（asc/desc，默认为asc）
+     * @param includeTotal 是否统计总数
+     * @return 图书副本游标分页列表
+     */
+    public CursorPageResponse<BookItemResponse> getBookItemsByLocationByCursor(
+            String path, String cursor, int size, String status,
+            String sortBy, String sortDirection, boolean includeTotal) {
+
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("The location path cannot be empty");
+        }
+
+        KeysetCursor position = KeysetCursor.resolve(
+                cursor, sortBy != null ? sortBy : "location", sortDirection != null ? sortDirection : "asc",
+                LOCATION_CURSOR_SORT_FIELDS);
+
+        BookItem.BookItemStatus itemStatus = status != null && !status.isEmpty() ? parseStatus(status) : null;
+        Specification<BookItem> filter = Specification.allOf(
+                BookItemSpecifications.locationUnder(path.trim()),
+                BookItemSpecifications.statusEquals(itemStatus));
+
+        return KeysetPaging.fetch(bookItemRepository, filter, position, "itemId", size, includeTotal,
+                List.of("book"), this::convertToResponse);
+    }
+
     /**
      * 添加图书副本
      * @param request 图书副本请求
@@ -141,6 +276,8 @@ public class BookItemService {
 
         // 保存副本
         BookItem savedItem = bookItemRepository.save(bookItem);
+        copyCounterService.copyAdded(book.getBookId(), savedItem.getStatus());
+        eventPublisher.publishEvent(new BookItemChangedEvent(savedItem.getItemId()));
 
         return convertToResponse(savedItem);
     }
@@ -156,6 +293,8 @@ public class BookItemService {
         // 查找副本
         BookItem bookItem = bookItemRepository.findById(itemId)
                 .orElseThrow(() -> new IllegalArgumentException("The book copy does not exist"));
+        Integer oldBookId = bookItem.getBook().getBookId();
+        BookItem.BookItemStatus oldStatus = bookItem.getStatus();
 
         // 检查条码号是否已被其他副本使用
         if (!request.getBarcode().equals(bookItem.getBarcode())) {
@@ -190,6 +329,8 @@ public class BookItemService {
 
         // 保存副本
         BookItem savedItem = bookItemRepository.save(bookItem);
+        copyCounterService.copyMoved(oldBookId, savedItem.getBook().getBookId(), oldStatus, savedItem.getStatus());
+        eventPublisher.publishEvent(new BookItemChangedEvent(itemId));
 
         return convertToResponse(savedItem);
     }
@@ -201,9 +342,8 @@ public class BookItemService {
     @Transactional
     public void deleteBookItem(Integer itemId) {
         // 检查副本是否存在
-        if (!bookItemRepository.existsById(itemId)) {
-            throw new IllegalArgumentException("The book copy does not exist");
-        }
+        BookItem bookItem = bookItemRepository.findById(itemId)
+                .orElseThrow(() -> new IllegalArgumentException("The book copy does not exist"));
 
         // 检查是否有任何关联的借阅记录（包括历史记录）
         if (borrowRecordRepository.existsByBookItemId(itemId)) {
@@ -211,7 +351,9 @@ public class BookItemService {
         }
 
         // 删除副本
-        bookItemRepository.deleteById(itemId);
+        bookItemRepository.delete(bookItem);
+        copyCounterService.copyRemoved(bookItem.getBook().getBookId(), bookItem.getStatus());
+        eventPublisher.publishEvent(new BookItemChangedEvent(itemId));
     }
 
     /**
@@ -236,12 +378,27 @@ public class BookItemService {
         );
     }
 
+    /**
+     * 将条码索引条目转换为查询结果
+     */
+    private BarcodeLookupResponse convertToLookupResponse(String barcode, BarcodeIndex.Entry entry) {
+        BookItem.BookItemStatus status = entry.getStatus();
+        return new BarcodeLookupResponse(
+                barcode,
+                true,
+                entry.getItemId(),
+                entry.getBookId(),
+                status != null ? status.name() : null,
+                status != null ? status.getDescription() : "Unknown"
+        );
+    }
+
     /**
      * 解析状态字符串为枚举
      * @param status 状态字符串
      * @return 状态枚举
      */
-    private BookItem.BookItemStatus parseStatus(String status) {
+    static BookItem.BookItemStatus parseStatus(String status) {
         return switch (status) {
             case "Available" -> BookItem.BookItemStatus.Available;
             case "Checked Out" -> BookItem.BookItemStatus.Checked_Out;
@@ -1,21 +1,34 @@
 package dev.rbq.library_management_system.service;
 
+import dev.rbq.library_management_system.cache.CatalogCache;
 import dev.rbq.library_management_system.dto.book.BookRequest;
 import dev.rbq.library_management_system.dto.book.BookResponse;
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
 import dev.rbq.library_management_system.dto.book.PageResponse;
 import dev.rbq.library_management_system.entity.Book;
-import dev.rbq.library_management_system.entity.BookItem;
-import dev.rbq.library_management_system.repository.BookItemRepository;
+import dev.rbq.library_management_system.event.BookChangedEvent;
+import dev.rbq.library_management_system.pagination.KeysetCursor;
+import dev.rbq.library_management_system.pagination.KeysetPaging;
 import dev.rbq.library_management_system.repository.BookRepository;
+import dev.rbq.library_management_system.repository.BookSpecifications;
+import dev.rbq.library_management_system.search.BookSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,37 +37,71 @@ import java.util.stream.Collectors;
 @Service
 public class BookService {
 
+    // 书名条件走搜索索引时的最大匹配数量，超过时改用数据库模糊查询（避免过长的 IN 列表）
+    static final int MAX_INDEXED_TITLE_MATCHES = 5000;
+
+    // 游标分页允许的排序字段（均为非空列）
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("bookId", "title", "author", "totalCopies", "availableCopies");
+
     @Autowired
     private BookRepository bookRepository;
 
     @Autowired
-    private BookItemRepository bookItemRepository;
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CatalogCache catalogCache;
 
     /**
-     * 获取图书详情
+     * 获取图书详情（读穿目录缓存）
      * @param bookId 图书ID
      * @return 图书详情
      */
     public BookResponse getBookDetail(Integer bookId) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new IllegalArgumentException("The book does not exist"));
-        return convertToResponse(book);
+        return catalogCache.getBookDetail(bookId, () -> {
+            Book book = bookRepository.findById(bookId)
+                    .orElseThrow(() -> new IllegalArgumentException("The book does not exist"));
+            return convertToResponse(book);
+        });
     }
 
     /**
-     * 分页查询图书列表
+     * 分页查询图书列表（读穿目录缓存）
      * @param page 页码（从0开始）
      * @param size 每页数量
-     * @param title 书名（可选，模糊查询）
+     * @param title 书名（可选，搜索索引就绪时按分词和拼音匹配，否则模糊查询）
      * @param author 作者（可选，模糊查询）
      * @param category 分类（可选，精确查询）
-     * @param sortBy 排序字段（默认为bookId）
+     * @param availableOnly 是否只查询有可借副本的图书
+     * @param sortBy 排序字段（默认为bookId，可按 availableCopies 排序）
      * @param sortDirection 排序方向（asc/desc，默认为desc）
      * @return 图书分页列表
      */
     public PageResponse<BookResponse> getBookList(
             int page, int size, String title, String author, Integer category,
-            String sortBy, String sortDirection) {
+            boolean availableOnly, String sortBy, String sortDirection) {
+        return catalogCache.getBookList(page, size, title, author, category, availableOnly, sortBy, sortDirection,
+                () -> loadBookList(page, size, title, author, category, availableOnly, sortBy, sortDirection),
+                this::loadBookDetails);
+    }
+
+    /**
+     * 批量加载图书详情（列表页命中缓存而部分图书详情未命中时调用）
+     */
+    private Map<Integer, BookResponse> loadBookDetails(Collection<Integer> bookIds) {
+        return bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getBookId, this::convertToResponse));
+    }
+
+    /**
+     * 从数据库查询图书列表页（缓存未命中时调用）
+     */
+    private PageResponse<BookResponse> loadBookList(
+            int page, int size, String title, String author, Integer category,
+            boolean availableOnly, String sortBy, String sortDirection) {
 
         // 创建排序对象
         Sort sort = sortDirection != null && sortDirection.equalsIgnoreCase("asc")
@@ -66,8 +113,23 @@ public class BookService {
 
         // 执行查询
         Page<Book> bookPage;
-        if (title != null || author != null || category != null) {
-            bookPage = bookRepository.findByMultipleConditions(title, author, category, pageable);
+        List<Integer> matchedIds = matchTitleWithIndex(title, category, author);
+        if (matchedIds != null) {
+            // 书名条件由搜索索引匹配（支持中文分词和拼音），分类和作者过滤在索引中完成
+            bookPage = matchedIds.isEmpty()
+                    ? new PageImpl<>(List.of(), pageable, 0)
+                    : bookRepository.findAll(Specification.allOf(
+                            BookSpecifications.bookIdIn(matchedIds),
+                            BookSpecifications.availableOnly(availableOnly)), pageable);
+        } else if (title != null || author != null || category != null) {
+            // 只生成实际提供的条件，让 MySQL 可以选择对应的索引
+            bookPage = bookRepository.findAll(Specification.allOf(
+                    BookSpecifications.titleContains(title),
+                    BookSpecifications.authorContains(author),
+                    BookSpecifications.categoryEquals(category),
+                    BookSpecifications.availableOnly(availableOnly)), pageable);
+        } else if (availableOnly) {
+            bookPage = bookRepository.findByAvailableCopiesGreaterThan(0, pageable);
         } else {
             bookPage = bookRepository.findAll(pageable);
         }
@@ -89,6 +151,105 @@ public class BookService {
         );
     }
 
+    /**
+     * 游标分页查询图书列表，翻页深度不影响查询速度
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页；有游标时使用游标中的排序）
+     * @param size 每页数量
+     * @param title 书名（可选，搜索索引就绪时按分词和拼音匹配，否则模糊查询）
+     * @param author 作者（可选，模糊查询）
+     * @param category 分类（可选，精确查询）
+     * @param availableOnly 是否只查询有可借副本的图书
+     * @param sortBy 排序字段（默认为bookId）
+     * @param sortDirection 排序方向（asc/desc，默认为desc）
+     * @param includeTotal 是否统计总数
+     * @return 图书游标分页列表
+     */
+    public CursorPageResponse<BookResponse> getBookListByCursor(
+            String cursor, int size, String title, String author, Integer category,
+            boolean availableOnly, String sortBy, String sortDirection, boolean includeTotal) {
+
+        KeysetCursor position = KeysetCursor.resolve(
+                cursor, sortBy != null ? sortBy : "bookId", sortDirection, CURSOR_SORT_FIELDS);
+
+        Specification<Book> filter;
+        List<Integer> matchedIds = matchTitleWithIndex(title, category, author);
+        if (matchedIds != null) {
+            filter = Specification.allOf(
+                    BookSpecifications.bookIdIn(matchedIds),
+                    BookSpecifications.availableOnly(availableOnly));
+        } else {
+            filter = Specification.allOf(
+                    BookSpecifications.titleContains(title),
+                    BookSpecifications.authorContains(author),
+                    BookSpecifications.categoryEquals(category),
+                    BookSpecifications.availableOnly(availableOnly));
+        }
+
+        return KeysetPaging.fetch(bookRepository, filter, position, "bookId", size, includeTotal, this::convertToResponse);
+    }
+
+    /**
+     * 使用搜索索引匹配书名条件（只匹配书名字段，同时在索引中过滤分类和作者）
+     * @return 匹配的图书ID；没有书名条件、索引未就绪或匹配超过 MAX_INDEXED_TITLE_MATCHES 本时返回 null，
+     *         由调用方使用数据库模糊查询
+     */
+    List<Integer> matchTitleWithIndex(String title, Integer category, String author) {
+        if (title == null || title.isBlank() || !bookSearchIndex.isReady()) {
+            return null;
+        }
+        List<Integer> matchedIds = bookSearchIndex.searchTitles(title, category, author);
+        return matchedIds.size() > MAX_INDEXED_TITLE_MATCHES ? null : matchedIds;
+    }
+
+    /**
+     * 全文搜索图书（书名、作者、出版社、简介），按相关度排序
+     * 索引尚未加载完成时退回数据库模糊查询
+     * @param query 搜索关键词
+     * @param category 分类（可选，精确过滤）
+     * @param author 作者（可选，包含过滤）
+     * @param page 页码（从0开始）
+     * @param size 每页数量
+     * @return 图书分页列表
+     */
+    public PageResponse<BookResponse> searchBooks(String query, Integer category, String author, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("The search keyword cannot be empty");
+        }
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Invalid paging parameters");
+        }
+
+        if (!bookSearchIndex.isReady()) {
+            return getBookList(page, size, query, author, category, false, null, null);
+        }
+
+        List<Integer> rankedIds = bookSearchIndex.search(query, category, author);
+        int from = (int) Math.min((long) page * size, rankedIds.size());
+        int to = Math.min(from + size, rankedIds.size());
+        List<Integer> pageIds = rankedIds.subList(from, to);
+
+        // 按相关度顺序组装当前页
+        Map<Integer, Book> books = bookRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Book::getBookId, Function.identity()));
+        List<BookResponse> content = pageIds.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+
+        int totalPages = (rankedIds.size() + size - 1) / size;
+        return new PageResponse<>(
+                content,
+                page,
+                size,
+                rankedIds.size(),
+                totalPages,
+                page == 0,
+                page >= totalPages - 1,
+                content.isEmpty()
+        );
+    }
+
     /**
      * 添加图书
      * @param request 图书请求
@@ -114,6 +275,7 @@ public class BookService {
 
         // 保存图书
         Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(savedBook.getBookId(), BookChangedEvent.ChangeType.UPSERT));
 
         return convertToResponse(savedBook);
     }
@@ -149,6 +311,7 @@ public class BookService {
 
         // 保存图书
         Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(savedBook.getBookId(), BookChangedEvent.ChangeType.UPSERT));
 
         return convertToResponse(savedBook);
     }
@@ -166,10 +329,12 @@ public class BookService {
 
         // 删除图书（会级联删除所有副本）
         bookRepository.deleteById(bookId);
+        eventPublisher.publishEvent(new BookChangedEvent(bookId, BookChangedEvent.ChangeType.DELETE));
     }
 
     /**
      * 将图书实体转换为响应对象
+     * 副本数量直接读取 books 表上的冗余计数器，不访问 book_items
      * @param book 图书实体
      * @return 图书响应对象
      */
@@ -186,15 +351,9 @@ public class BookService {
                 book.getPrice()
         );
 
-        // 统计副本数量
-        long totalCopies = bookItemRepository.countByBookId(book.getBookId());
-        long availableCopies = bookItemRepository.countByBookIdAndStatus(
-                book.getBookId(), BookItem.BookItemStatus.Available);
-
-        response.setTotalCopies(totalCopies);
-        response.setAvailableCopies(availableCopies);
+        response.setTotalCopies(book.getTotalCopies().longValue());
+        response.setAvailableCopies(book.getAvailableCopies().longValue());
 
         return response;
     }
 }
-
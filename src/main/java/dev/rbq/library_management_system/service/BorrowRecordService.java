@@ -1,6 +1,8 @@
 package dev.rbq.library_management_system.service;
 
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
 import dev.rbq.library_management_system.dto.book.PageResponse;
+import dev.rbq.library_management_system.dto.borrow.BorrowByBookRequest;
 import dev.rbq.library_management_system.dto.borrow.BorrowRecordResponse;
 import dev.rbq.library_management_system.dto.borrow.BorrowRequest;
 import dev.rbq.library_management_system.dto.borrow.UpdateBorrowRecordRequest;
@@ -8,20 +10,29 @@ import dev.rbq.library_management_system.entity.BookItem;
 import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
 import dev.rbq.library_management_system.entity.BorrowRecord;
 import dev.rbq.library_management_system.entity.BorrowRecord.BorrowStatus;
-import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.event.BookItemChangedEvent;
+import dev.rbq.library_management_system.pagination.KeysetCursor;
+import dev.rbq.library_management_system.pagination.KeysetPaging;
 import dev.rbq.library_management_system.repository.BookItemRepository;
+import dev.rbq.library_management_system.repository.BookRepository;
 import dev.rbq.library_management_system.repository.BorrowRecordRepository;
+import dev.rbq.library_management_system.repository.BorrowRecordSpecifications;
 import dev.rbq.library_management_system.repository.UserRepository;
+import dev.rbq.library_management_system.transaction.RetryingTransactionExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -31,56 +42,102 @@ import java.util.stream.Collectors;
 @Service
 public class BorrowRecordService {
 
+    // 借阅记录的游标分页固定按借阅日期倒序，逾期记录固定按应还日期正序
+    private static final Set<String> BORROW_DATE_SORT = Set.of("borrowDate");
+    private static final Set<String> DUE_DATE_SORT = Set.of("dueDate");
+
+    // 列表转换为响应时需要的关联（与实体图 BorrowRecord.detail 一致）
+    private static final List<String> DETAIL_FETCH_PATHS = List.of("user", "bookItem", "bookItem.book");
+
     @Autowired
     private BorrowRecordRepository borrowRecordRepository;
 
     @Autowired
     private BookItemRepository bookItemRepository;
 
+    @Autowired
+    private BookRepository bookRepository;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CopyCounterService copyCounterService;
+
+    @Autowired
+    private RetryingTransactionExecutor retryingTransactionExecutor;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 借阅图书（已登录用户）
+     * 通过条件更新原子地将副本从“可借”改为“已借出”，并发请求中只有一个能成功；
+     * 遇到死锁或锁等待超时时整个事务自动重试
      * @param userUuid 当前登录用户的UUID
      * @param request 借阅请求
      * @return 借阅记录响应
      */
-    @Transactional
     public BorrowRecordResponse borrowBook(String userUuid, BorrowRequest request) {
-        // 验证用户是否存在
-        User user = userRepository.findById(userUuid)
-                .orElseThrow(() -> new IllegalArgumentException("User does not exist"));
-
-        // 验证图书副本是否存在
-        BookItem bookItem = bookItemRepository.findById(request.getItemId())
-                .orElseThrow(() -> new IllegalArgumentException("The book copy does not exist."));
+        return retryingTransactionExecutor.execute(() -> checkout(userUuid, request.getItemId()));
+    }
 
-        // 检查图书副本状态是否可借
-        if (bookItem.getStatus() != BookItemStatus.Available) {
-            throw new IllegalStateException("This copy of the book is currently unavailable for borrowing. Status:" + bookItem.getStatus().getDescription());
-        }
+    /**
+     * 按图书借阅（已登录用户），由系统分配任一可借副本
+     * 以 FOR UPDATE SKIP LOCKED 锁定一个可借副本，并发借阅同一本书的请求各自分到不同副本，
+     * 不会因争抢同一副本而失败
+     * @param userUuid 当前登录用户的UUID
+     * @param request 按图书借阅请求
+     * @return 借阅记录响应
+     */
+    public BorrowRecordResponse borrowBookByBook(String userUuid, BorrowByBookRequest request) {
+        Integer bookId = request.getBookId();
+        return retryingTransactionExecutor.execute(() -> {
+            Integer itemId = bookItemRepository
+                    .lockOneItemIdByBookIdAndStatus(bookId, BookItemStatus.Available.name())
+                    .orElseThrow(() -> bookRepository.existsById(bookId)
+                            ? new IllegalStateException("No copies of this book are currently available for borrowing")
+                            : new IllegalArgumentException("The book does not exist"));
+            return checkout(userUuid, itemId);
+        });
+    }
 
-        // 检查是否已存在未归还的借阅记录
-        if (borrowRecordRepository.existsByBookItemIdAndStatusCheckedOut(bookItem.getItemId())) {
-            throw new IllegalStateException("This copy of the book is currently checked out");
+    /**
+     * 在当前事务中借出副本
+     * @param userUuid 用户UUID
+     * @param itemId 副本ID
+     * @return 借阅记录响应
+     */
+    private BorrowRecordResponse checkout(String userUuid, Integer itemId) {
+        // 原子地占用副本，失败时再区分副本不存在和不可借
+        if (bookItemRepository.compareAndSetStatus(itemId, BookItemStatus.Available, BookItemStatus.Checked_Out) == 0) {
+            BookItemStatus currentStatus = bookItemRepository.findStatusByItemId(itemId)
+                    .orElseThrow(() -> new IllegalArgumentException("The book copy does not exist."));
+            throw new IllegalStateException("This copy of the book is currently unavailable for borrowing. Status:"
+                    + (currentStatus != null ? currentStatus.getDescription() : "Unknown"));
         }
 
-        // 创建借阅记录
+        // 用户和副本只作为外键引用，不单独查询
         BorrowRecord borrowRecord = new BorrowRecord();
         borrowRecord.setRecordId(UUID.randomUUID().toString());
-        borrowRecord.setUser(user);
-        borrowRecord.setBookItem(bookItem);
+        borrowRecord.setUser(userRepository.getReferenceById(userUuid));
+        borrowRecord.setBookItem(bookItemRepository.getReferenceById(itemId));
         borrowRecord.setBorrowDate(LocalDateTime.now());
         borrowRecord.setDueDate(LocalDateTime.now().plusDays(30)); // 默认借阅期限30天
         borrowRecord.setStatus(BorrowStatus.Checked_Out);
+        try {
+            borrowRecordRepository.saveAndFlush(borrowRecord);
+        } catch (DataIntegrityViolationException e) {
+            // 外键约束失败说明用户已被删除
+            throw new IllegalArgumentException("User does not exist");
+        }
 
-        // 更新图书副本状态为已借出
-        bookItem.setStatus(BookItemStatus.Checked_Out);
-        bookItemRepository.save(bookItem);
-
-        // 保存借阅记录
-        BorrowRecord savedRecord = borrowRecordRepository.save(borrowRecord);
+        // 一次连接查询读取响应所需的用户、副本和图书
+        BorrowRecord savedRecord = borrowRecordRepository.findDetailById(borrowRecord.getRecordId())
+                .orElseThrow(() -> new IllegalStateException("Borrowing record was not saved"));
+        copyCounterService.statusChanged(savedRecord.getBookItem().getBook().getBookId(),
+                BookItemStatus.Available, BookItemStatus.Checked_Out);
+        eventPublisher.publishEvent(new BookItemChangedEvent(itemId));
 
         return convertToResponse(savedRecord);
     }
@@ -119,6 +176,27 @@ public class BorrowRecordService {
         );
     }
 
+    /**
+     * 游标分页查询自己的借阅记录（按借阅日期倒序）
+     * @param userUuid 当前登录用户的UUID
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量
+     * @param status 借阅状态（可选）
+     * @param includeTotal 是否统计总数
+     * @return 借阅记录游标分页列表
+     */
+    public CursorPageResponse<BorrowRecordResponse> getMyBorrowRecordsByCursor(
+            String userUuid, String cursor, int size, BorrowStatus status, boolean includeTotal) {
+
+        KeysetCursor position = KeysetCursor.resolve(cursor, "borrowDate", "desc", BORROW_DATE_SORT);
+        Specification<BorrowRecord> filter = Specification.allOf(
+                BorrowRecordSpecifications.userUuidEquals(userUuid),
+                BorrowRecordSpecifications.statusEquals(status));
+
+        return KeysetPaging.fetch(borrowRecordRepository, filter, position, "recordId", size, includeTotal,
+                DETAIL_FETCH_PATHS, this::convertToResponse);
+    }
+
     /**
      * 查询所有借阅记录（仅管理员）
      * @param page 页码（从0开始）
@@ -135,12 +213,13 @@ public class BorrowRecordService {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("borrowDate").descending());
 
-        Page<BorrowRecord> recordPage;
-        if (userUuid != null || status != null || startDate != null || endDate != null) {
-            recordPage = borrowRecordRepository.findByMultipleConditions(userUuid, status, startDate, endDate, pageable);
-        } else {
-            recordPage = borrowRecordRepository.findAll(pageable);
-        }
+        // 只生成实际提供的条件，让 MySQL 可以选择对应的索引（例如只有日期范围时使用 idx_borrow_date）
+        Specification<BorrowRecord> filter = Specification.allOf(
+                BorrowRecordSpecifications.userUuidEquals(userUuid),
+                BorrowRecordSpecifications.statusEquals(status),
+                BorrowRecordSpecifications.borrowedFrom(startDate),
+                BorrowRecordSpecifications.borrowedTo(endDate));
+        Page<BorrowRecord> recordPage = borrowRecordRepository.findAll(filter, pageable);
 
         List<BorrowRecordResponse> content = recordPage.getContent().stream()
                 .map(this::convertToResponse)
@@ -158,6 +237,32 @@ public class BorrowRecordService {
         );
     }
 
+    /**
+     * 游标分页查询所有借阅记录（仅管理员，按借阅日期倒序）
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量
+     * @param userUuid 用户UUID（可选，用于筛选）
+     * @param status 借阅状态（可选）
+     * @param startDate 开始日期（可选）
+     * @param endDate 结束日期（可选）
+     * @param includeTotal 是否统计总数
+     * @return 借阅记录游标分页列表
+     */
+    public CursorPageResponse<BorrowRecordResponse> getAllBorrowRecordsByCursor(
+            String cursor, int size, String userUuid, BorrowStatus status,
+            LocalDateTime startDate, LocalDateTime endDate, boolean includeTotal) {
+
+        KeysetCursor position = KeysetCursor.resolve(cursor, "borrowDate", "desc", BORROW_DATE_SORT);
+        Specification<BorrowRecord> filter = Specification.allOf(
+                BorrowRecordSpecifications.userUuidEquals(userUuid),
+                BorrowRecordSpecifications.statusEquals(status),
+                BorrowRecordSpecifications.borrowedFrom(startDate),
+                BorrowRecordSpecifications.borrowedTo(endDate));
+
+        return KeysetPaging.fetch(borrowRecordRepository, filter, position, "recordId", size, includeTotal,
+                DETAIL_FETCH_PATHS, this::convertToResponse);
+    }
+
     /**
      * 获取借阅记录详情
      * @param recordId 借阅记录ID
@@ -166,7 +271,7 @@ public class BorrowRecordService {
      * @return 借阅记录响应
      */
     public BorrowRecordResponse getBorrowRecordDetail(String recordId, String currentUserUuid, boolean isAdmin) {
-        BorrowRecord borrowRecord = borrowRecordRepository.findById(recordId)
+        BorrowRecord borrowRecord = borrowRecordRepository.findDetailById(recordId)
                 .orElseThrow(() -> new IllegalArgumentException("No borrowing records found"));
 
         // 如果不是管理员，只能查看自己的借阅记录
@@ -185,7 +290,7 @@ public class BorrowRecordService {
      */
     @Transactional
     public BorrowRecordResponse updateBorrowRecord(String recordId, UpdateBorrowRecordRequest request) {
-        BorrowRecord borrowRecord = borrowRecordRepository.findById(recordId)
+        BorrowRecord borrowRecord = borrowRecordRepository.findDetailById(recordId)
                 .orElseThrow(() -> new IllegalArgumentException("No borrowing records found"));
 
         // 更新应还日期
@@ -208,8 +313,11 @@ public class BorrowRecordService {
             // 如果状态从已借出变为已归还，更新图书副本状态
             if (oldStatus == BorrowStatus.Checked_Out && newStatus == BorrowStatus.Returned) {
                 BookItem bookItem = borrowRecord.getBookItem();
+                BookItemStatus oldItemStatus = bookItem.getStatus();
                 bookItem.setStatus(BookItemStatus.Available);
                 bookItemRepository.save(bookItem);
+                copyCounterService.statusChanged(bookItem.getBook().getBookId(), oldItemStatus, BookItemStatus.Available);
+                eventPublisher.publishEvent(new BookItemChangedEvent(bookItem.getItemId()));
 
                 // 自动设置归还日期（如果没有设置）
                 if (borrowRecord.getReturnDate() == null) {
@@ -230,7 +338,7 @@ public class BorrowRecordService {
      */
     @Transactional
     public BorrowRecordResponse returnBook(String recordId, String currentUserUuid) {
-        BorrowRecord borrowRecord = borrowRecordRepository.findById(recordId)
+        BorrowRecord borrowRecord = borrowRecordRepository.findDetailById(recordId)
                 .orElseThrow(() -> new IllegalArgumentException("No borrowing records found"));
 
         // 验证是否为本人的借阅记录
@@ -249,8 +357,11 @@ public class BorrowRecordService {
 
         // 更新图书副本状态
         BookItem bookItem = borrowRecord.getBookItem();
+        BookItemStatus oldItemStatus = bookItem.getStatus();
         bookItem.setStatus(BookItemStatus.Available);
         bookItemRepository.save(bookItem);
+        copyCounterService.statusChanged(bookItem.getBook().getBookId(), oldItemStatus, BookItemStatus.Available);
+        eventPublisher.publishEvent(new BookItemChangedEvent(bookItem.getItemId()));
 
         BorrowRecord savedRecord = borrowRecordRepository.save(borrowRecord);
         return convertToResponse(savedRecord);
@@ -282,6 +393,21 @@ public class BorrowRecordService {
         );
     }
 
+    /**
+     * 游标分页查询逾期未还的借阅记录（仅管理员，按应还日期正序）
+     * @param cursor 上一页返回的游标（可选，为空时查询第一页）
+     * @param size 每页数量
+     * @param includeTotal 是否统计总数
+     * @return 逾期借阅记录游标分页列表
+     */
+    public CursorPageResponse<BorrowRecordResponse> getOverdueRecordsByCursor(String cursor, int size, boolean includeTotal) {
+        KeysetCursor position = KeysetCursor.resolve(cursor, "dueDate", "asc", DUE_DATE_SORT);
+        Specification<BorrowRecord> filter = BorrowRecordSpecifications.overdueAt(LocalDateTime.now());
+
+        return KeysetPaging.fetch(borrowRecordRepository, filter, position, "recordId", size, includeTotal,
+                DETAIL_FETCH_PATHS, this::convertToResponse);
+    }
+
     /**
      * 将借阅记录实体转换为响应DTO
      * @param borrowRecord 借阅记录实体
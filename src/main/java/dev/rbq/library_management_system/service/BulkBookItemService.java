@@ -0,0 +1,251 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.book.BarcodeRange;
+import dev.rbq.library_management_system.dto.book.BulkBookItemRequest;
+import dev.rbq.library_management_system.dto.book.BulkBookItemResponse;
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.event.BookItemChangedEvent;
+import dev.rbq.library_management_system.repository.BookItemRepository;
+import dev.rbq.library_management_system.repository.BookItemRepository.BarcodeEntry;
+import dev.rbq.library_management_system.repository.BookRepository;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository.NewBookItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 批量登记图书副本（新到馆的一批副本）
+ * 按条码号列表或范围生成条码号，每 1000 个条码号用一次查询检查是否已存在，
+ * 再在一个事务中用 JDBC 批量插入全部副本、更新计数器，任何一个条码号冲突时整批不登记
+ */
+@Service
+public class BulkBookItemService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkBookItemService.class);
+
+    // 单次请求的最大副本数
+    static final int MAX_COPIES = 5000;
+
+    // 每次查询或插入的副本数
+    static final int CHUNK_SIZE = 1000;
+
+    // 冲突时错误信息中列出的最大条码号数量
+    private static final int MAX_REPORTED_CONFLICTS = 20;
+
+    private static final int MAX_BARCODE_LENGTH = 50;
+
+    // book_items.book_id 外键（database.sql）及 MySQL 的外键失败错误码
+    private static final String BOOK_FOREIGN_KEY = "fk_book_items_book_id";
+    private static final int MYSQL_NO_REFERENCED_ROW = 1452;
+    private static final int MYSQL_NO_REFERENCED_ROW_LEGACY = 1216;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookItemRepository bookItemRepository;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    private CopyCounterService copyCounterService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 批量登记副本
+     * @param request 批量登记请求
+     * @return 条码号 -> 新副本ID
+     */
+    public BulkBookItemResponse addBookItems(BulkBookItemRequest request) {
+        Integer bookId = request.getBookId();
+        List<String> barcodes = resolveBarcodes(request);
+        BookItemStatus status = request.getStatus() != null && !request.getStatus().isEmpty()
+                ? BookItemService.parseStatus(request.getStatus())
+                : BookItemStatus.Available;
+
+        if (!bookRepository.existsById(bookId)) {
+            throw new IllegalArgumentException("The book does not exist");
+        }
+
+        // 一次查询检查一块条码号
+        List<String> conflicts = new ArrayList<>();
+        for (List<String> chunk : chunks(barcodes)) {
+            conflicts.addAll(bookItemRepository.findExistingBarcodes(chunk));
+        }
+        if (!conflicts.isEmpty()) {
+            throw conflict(conflicts);
+        }
+
+        List<NewBookItem> items = new ArrayList<>(barcodes.size());
+        for (String barcode : barcodes) {
+            items.add(new NewBookItem(bookId, barcode, request.getLocation(), status.name(),
+                    request.getAcquisitionDate(), request.getAcquisitionPrice(), request.getNotes()));
+        }
+
+        Map<String, Integer> itemIds;
+        try {
+            itemIds = transactionTemplate.execute(txStatus -> insert(bookId, status, barcodes, items));
+        } catch (DuplicateKeyException e) {
+            // 检查之后其他请求登记了相同的条码号
+            logger.warn("Bulk copy registration for book {} conflicted with a concurrent registration", bookId, e);
+            List<String> concurrent = new ArrayList<>();
+            for (List<String> chunk : chunks(barcodes)) {
+                concurrent.addAll(bookItemRepository.findExistingBarcodes(chunk));
+            }
+            if (!concurrent.isEmpty()) {
+                throw conflict(concurrent);
+            }
+            throw new IllegalStateException("A barcode number was registered concurrently, please retry");
+        } catch (DataIntegrityViolationException e) {
+            // 检查之后图书被删除；其他约束失败（字段超长等）原样抛出，不当作图书不存在
+            if (isMissingBook(e)) {
+                throw new IllegalArgumentException("The book does not exist");
+            }
+            throw e;
+        }
+
+        logger.info("Registered {} copies of book {}", barcodes.size(), bookId);
+        return new BulkBookItemResponse(bookId, barcodes.size(), itemIds);
+    }
+
+    /**
+     * 在当前事务中插入副本、读取生成的副本ID、更新计数器并发布变更事件
+     */
+    private Map<String, Integer> insert(Integer bookId, BookItemStatus status,
+                                        List<String> barcodes, List<NewBookItem> items) {
+        for (int from = 0; from < items.size(); from += CHUNK_SIZE) {
+            inventoryJdbcRepository.batchInsertItems(items.subList(from, Math.min(from + CHUNK_SIZE, items.size())));
+        }
+
+        // 多值 INSERT 的自增ID不一定连续，按条码号读回
+        Map<String, Integer> generated = new HashMap<>();
+        for (List<String> chunk : chunks(barcodes)) {
+            for (BarcodeEntry entry : bookItemRepository.findBarcodeEntriesByBarcodes(chunk)) {
+                generated.put(entry.getBarcode().toLowerCase(Locale.ROOT), entry.getItemId());
+            }
+        }
+        Map<String, Integer> itemIds = new LinkedHashMap<>();
+        for (String barcode : barcodes) {
+            itemIds.put(barcode, generated.get(barcode.toLowerCase(Locale.ROOT)));
+        }
+
+        copyCounterService.adjust(bookId, items.size(), status == BookItemStatus.Available ? items.size() : 0);
+        eventPublisher.publishEvent(new BookItemChangedEvent(itemIds.values()));
+        return itemIds;
+    }
+
+    /**
+     * 解析请求中的条码号列表或范围
+     * @param request 批量登记请求
+     * @return 去除首尾空白后的条码号（保持顺序）
+     */
+    static List<String> resolveBarcodes(BulkBookItemRequest request) {
+        boolean hasList = request.getBarcodes() != null && !request.getBarcodes().isEmpty();
+        BarcodeRange range = request.getBarcodeRange();
+        if (hasList == (range != null)) {
+            throw new IllegalArgumentException("Provide either a barcode list or a barcode range");
+        }
+        List<String> barcodes = hasList ? request.getBarcodes() : expandRange(range);
+        if (barcodes.size() > MAX_COPIES) {
+            throw new IllegalArgumentException("At most " + MAX_COPIES + " copies can be registered at once");
+        }
+
+        List<String> trimmedBarcodes = new ArrayList<>(barcodes.size());
+        Set<String> normalized = new HashSet<>();
+        for (String barcode : barcodes) {
+            if (barcode == null || barcode.isBlank()) {
+                throw new IllegalArgumentException("The barcode cannot be empty");
+            }
+            String trimmed = barcode.trim();
+            if (trimmed.length() > MAX_BARCODE_LENGTH) {
+                throw new IllegalArgumentException("The barcode number must not exceed 50 characters in length: " + trimmed);
+            }
+            // 条码号唯一约束不区分大小写
+            if (!normalized.add(trimmed.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Duplicate barcode in request: " + trimmed);
+            }
+            trimmedBarcodes.add(trimmed);
+        }
+        return trimmedBarcodes;
+    }
+
+    /**
+     * 展开条码号范围
+     * @param range 条码号范围
+     * @return 条码号列表
+     */
+    static List<String> expandRange(BarcodeRange range) {
+        if (range.getStart() == null || range.getEnd() == null) {
+            throw new IllegalArgumentException("The barcode range needs a start and an end");
+        }
+        long start = range.getStart();
+        long end = range.getEnd();
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("The barcode range end must not be less than its start");
+        }
+        if (end - start >= MAX_COPIES) {
+            throw new IllegalArgumentException("At most " + MAX_COPIES + " copies can be registered at once");
+        }
+        String prefix = range.getPrefix() != null ? range.getPrefix().trim() : "";
+        int width = range.getWidth() != null ? range.getWidth() : String.valueOf(end).length();
+        if (String.valueOf(end).length() > width) {
+            throw new IllegalArgumentException("The barcode range end does not fit in " + width + " digits");
+        }
+
+        List<String> barcodes = new ArrayList<>((int) (end - start + 1));
+        String format = "%0" + width + "d";
+        for (long number = start; number <= end; number++) {
+            barcodes.add(prefix + String.format(format, number));
+        }
+        return barcodes;
+    }
+
+    /**
+     * 约束失败是否由图书外键引起（MySQL 错误码 1452 或 1216，或错误信息中的外键名）
+     */
+    static boolean isMissingBook(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+        if (cause instanceof SQLException sqlException
+                && (sqlException.getErrorCode() == MYSQL_NO_REFERENCED_ROW
+                || sqlException.getErrorCode() == MYSQL_NO_REFERENCED_ROW_LEGACY)) {
+            return true;
+        }
+        return cause.getMessage() != null && cause.getMessage().contains(BOOK_FOREIGN_KEY);
+    }
+
+    private static List<List<String>> chunks(List<String> values) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += CHUNK_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + CHUNK_SIZE, values.size())));
+        }
+        return chunks;
+    }
+
+    private static IllegalStateException conflict(List<String> barcodes) {
+        List<String> listed = barcodes.subList(0, Math.min(barcodes.size(), MAX_REPORTED_CONFLICTS));
+        return new IllegalStateException(barcodes.size() + " barcode number(s) already exist: "
+                + String.join(", ", listed) + (barcodes.size() > listed.size() ? ", ..." : ""));
+    }
+}
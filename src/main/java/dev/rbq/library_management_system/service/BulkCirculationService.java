@@ -0,0 +1,222 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.borrow.BulkCheckoutRequest;
+import dev.rbq.library_management_system.dto.borrow.BulkCirculationResponse;
+import dev.rbq.library_management_system.dto.borrow.BulkItemResult;
+import dev.rbq.library_management_system.dto.borrow.BulkReturnRequest;
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.entity.BorrowRecord.BorrowStatus;
+import dev.rbq.library_management_system.event.BookItemChangedEvent;
+import dev.rbq.library_management_system.repository.CirculationJdbcRepository;
+import dev.rbq.library_management_system.repository.CirculationJdbcRepository.ItemRow;
+import dev.rbq.library_management_system.repository.CirculationJdbcRepository.NewBorrowRecord;
+import dev.rbq.library_management_system.repository.UserRepository;
+import dev.rbq.library_management_system.transaction.RetryingTransactionExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 批量借还服务（流通台批量借出、还书箱批量归还）
+ * 每个批次在一个事务中完成：一次查询解析并锁定所有条码，按副本逐个判断，
+ * 再用 JDBC 批量语句写入状态变化，最后按图书汇总更新可借副本计数器
+ */
+@Service
+public class BulkCirculationService {
+
+    // 单个批次的最大条码数量
+    static final int MAX_BATCH_SIZE = 1000;
+
+    @Autowired
+    private CirculationJdbcRepository circulationJdbcRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CopyCounterService copyCounterService;
+
+    @Autowired
+    private RetryingTransactionExecutor retryingTransactionExecutor;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 为同一读者批量借出副本
+     * @param request 批量借出请求
+     * @return 每个条码的处理结果
+     */
+    public BulkCirculationResponse checkout(BulkCheckoutRequest request) {
+        List<String> barcodes = validateBarcodes(request.getBarcodes());
+        String userUuid = request.getUserUuid();
+        if (!userRepository.existsById(userUuid)) {
+            throw new IllegalArgumentException("User does not exist");
+        }
+
+        return retryingTransactionExecutor.execute(() -> {
+            Map<String, ItemRow> items = lockItems(barcodes);
+            LocalDateTime now = LocalDateTime.now();
+
+            List<BulkItemResult> results = new ArrayList<>(barcodes.size());
+            List<Integer> checkedOutItemIds = new ArrayList<>();
+            List<NewBorrowRecord> newRecords = new ArrayList<>();
+            Map<Integer, Integer> availableDeltas = new HashMap<>();
+            Set<String> seen = new HashSet<>();
+
+            for (String barcode : barcodes) {
+                ItemRow item = items.get(key(barcode));
+                if (!seen.add(key(barcode))) {
+                    results.add(failure(barcode, "Duplicate barcode in request"));
+                } else if (item == null) {
+                    results.add(failure(barcode, "The book copy does not exist."));
+                } else if (!BookItemStatus.Available.name().equals(item.getStatus())) {
+                    results.add(failure(barcode, "This copy of the book is currently unavailable for borrowing. Status:"
+                            + describe(item.getStatus())));
+                } else {
+                    String recordId = UUID.randomUUID().toString();
+                    checkedOutItemIds.add(item.getItemId());
+                    newRecords.add(new NewBorrowRecord(recordId, userUuid, item.getItemId(),
+                            now, now.plusDays(30), BorrowStatus.Checked_Out.name())); // 默认借阅期限30天
+                    availableDeltas.merge(item.getBookId(), -1, Integer::sum);
+                    results.add(new BulkItemResult(barcode, true, recordId, "Borrowing successful"));
+                }
+            }
+
+            if (!checkedOutItemIds.isEmpty()) {
+                circulationJdbcRepository.batchUpdateItemStatus(checkedOutItemIds, BookItemStatus.Checked_Out.name());
+                circulationJdbcRepository.batchInsertBorrowRecords(newRecords);
+                copyCounterService.adjustAvailable(availableDeltas);
+                eventPublisher.publishEvent(new BookItemChangedEvent(checkedOutItemIds));
+            }
+            return summarize(results);
+        });
+    }
+
+    /**
+     * 批量归还副本
+     * @param request 批量归还请求
+     * @return 每个条码的处理结果
+     */
+    public BulkCirculationResponse returnItems(BulkReturnRequest request) {
+        List<String> barcodes = validateBarcodes(request.getBarcodes());
+
+        return retryingTransactionExecutor.execute(() -> {
+            Map<String, ItemRow> items = lockItems(barcodes);
+            List<Integer> itemIds = items.values().stream().map(ItemRow::getItemId).toList();
+            Map<Integer, String> activeRecordIds =
+                    circulationJdbcRepository.lockActiveRecordIdsByItemIds(itemIds, BorrowStatus.Checked_Out.name());
+
+            List<BulkItemResult> results = new ArrayList<>(barcodes.size());
+            List<Integer> returnedItemIds = new ArrayList<>();
+            List<String> returnedRecordIds = new ArrayList<>();
+            Map<Integer, Integer> availableDeltas = new HashMap<>();
+            Set<String> seen = new HashSet<>();
+
+            for (String barcode : barcodes) {
+                ItemRow item = items.get(key(barcode));
+                String recordId = item != null ? activeRecordIds.get(item.getItemId()) : null;
+                if (!seen.add(key(barcode))) {
+                    results.add(failure(barcode, "Duplicate barcode in request"));
+                } else if (item == null) {
+                    results.add(failure(barcode, "The book copy does not exist."));
+                } else if (recordId == null) {
+                    results.add(failure(barcode, "This copy of the book is not checked out"));
+                } else {
+                    returnedItemIds.add(item.getItemId());
+                    returnedRecordIds.add(recordId);
+                    if (!BookItemStatus.Available.name().equals(item.getStatus())) {
+                        availableDeltas.merge(item.getBookId(), 1, Integer::sum);
+                    }
+                    results.add(new BulkItemResult(barcode, true, recordId, "Return successful"));
+                }
+            }
+
+            if (!returnedItemIds.isEmpty()) {
+                circulationJdbcRepository.batchReturnRecords(
+                        returnedRecordIds, BorrowStatus.Returned.name(), LocalDateTime.now());
+                circulationJdbcRepository.batchUpdateItemStatus(returnedItemIds, BookItemStatus.Available.name());
+                copyCounterService.adjustAvailable(availableDeltas);
+                eventPublisher.publishEvent(new BookItemChangedEvent(returnedItemIds));
+            }
+            return summarize(results);
+        });
+    }
+
+    /**
+     * 校验条码列表
+     * @param barcodes 条码列表
+     * @return 去除首尾空白后的条码列表（保持请求顺序）
+     */
+    private List<String> validateBarcodes(List<String> barcodes) {
+        if (barcodes == null || barcodes.isEmpty()) {
+            throw new IllegalArgumentException("The barcode list cannot be empty");
+        }
+        if (barcodes.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " barcodes can be processed at once");
+        }
+        List<String> trimmed = new ArrayList<>(barcodes.size());
+        for (String barcode : barcodes) {
+            if (barcode == null || barcode.isBlank()) {
+                throw new IllegalArgumentException("The barcode cannot be empty");
+            }
+            trimmed.add(barcode.trim());
+        }
+        return trimmed;
+    }
+
+    /**
+     * 一次查询解析并锁定所有条码对应的副本
+     * @param barcodes 条码列表
+     * @return 条码键（见 key）-> 副本行
+     */
+    private Map<String, ItemRow> lockItems(List<String> barcodes) {
+        Map<String, ItemRow> items = new HashMap<>();
+        for (ItemRow row : circulationJdbcRepository.lockItemsByBarcodes(new LinkedHashSet<>(barcodes))) {
+            items.put(key(row.getBarcode()), row);
+        }
+        return items;
+    }
+
+    /**
+     * 条码在批次内的比较键：数据库按不区分大小写的排序规则匹配条码，
+     * 因此查找和重复检查也忽略大小写，否则 "a1" 会查到 "A1" 却被当作不存在
+     */
+    private static String key(String barcode) {
+        return barcode.toLowerCase(Locale.ROOT);
+    }
+
+    private BulkItemResult failure(String barcode, String message) {
+        return new BulkItemResult(barcode, false, null, message);
+    }
+
+    private BulkCirculationResponse summarize(List<BulkItemResult> results) {
+        int succeeded = (int) results.stream().filter(BulkItemResult::isSuccess).count();
+        return new BulkCirculationResponse(results.size(), succeeded, results.size() - succeeded, results);
+    }
+
+    /**
+     * 副本状态的描述（数据库中的值可能不是枚举名称）
+     */
+    private String describe(String status) {
+        if (status == null) {
+            return "Unknown";
+        }
+        try {
+            return BookItemStatus.valueOf(status).getDescription();
+        } catch (IllegalArgumentException e) {
+            return status;
+        }
+    }
+}
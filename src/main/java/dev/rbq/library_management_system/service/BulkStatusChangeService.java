@@ -0,0 +1,192 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.book.BulkStatusChangeRequest;
+import dev.rbq.library_management_system.dto.book.BulkStatusChangeResponse;
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.event.BookItemChangedEvent;
+import dev.rbq.library_management_system.inventory.StocktakeReconciliation;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository.ItemFilter;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository.ItemRow;
+import dev.rbq.library_management_system.transaction.RetryingTransactionExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 批量修改副本状态（剔旧、报损、报失、修复后重新上架）
+ * 按副本ID顺序分块处理，每块在独立事务中锁定仍符合条件的副本、用一条 UPDATE 修改状态并更新计数器
+ * （每块只发布一个计数器变更事件）；按筛选条件修改时先统计匹配数，超过上限直接拒绝。
+ * 已借出的副本只能通过归还改变状态，始终跳过
+ */
+@Service
+public class BulkStatusChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkStatusChangeService.class);
+
+    // 每个事务处理的副本数
+    static final int CHUNK_SIZE = 1000;
+
+    // 按副本ID列表修改时单次请求的最大副本数
+    static final int MAX_ITEM_IDS = 5000;
+
+    // 按筛选条件修改时单次请求的最大副本数（修改前先统计，超过时拒绝）
+    static final int MAX_FILTER_MATCHES = 20_000;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    private CopyCounterService copyCounterService;
+
+    @Autowired
+    private RetryingTransactionExecutor retryingTransactionExecutor;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 批量修改副本状态
+     * 同时给出副本ID列表和筛选条件时，只修改列表中符合条件的副本
+     * @param request 批量修改请求
+     * @return 各类副本数量
+     */
+    public BulkStatusChangeResponse changeStatus(BulkStatusChangeRequest request) {
+        BookItemStatus target = BookItemService.parseStatus(request.getStatus());
+        if (target == BookItemStatus.Checked_Out) {
+            throw new IllegalArgumentException("Copies can only be checked out through circulation");
+        }
+        BookItemStatus current = null;
+        if (request.getCurrentStatus() != null && !request.getCurrentStatus().isEmpty()) {
+            current = BookItemService.parseStatus(request.getCurrentStatus());
+            if (current == BookItemStatus.Checked_Out) {
+                throw new IllegalArgumentException("Checked out copies can only be changed by returning them");
+            }
+        }
+
+        String location = request.getLocation() != null ? request.getLocation().trim() : null;
+        if (location != null && location.isEmpty()) {
+            location = null;
+        }
+        boolean hasItemIds = request.getItemIds() != null && !request.getItemIds().isEmpty();
+        if (!hasItemIds && request.getBookId() == null && location == null
+                && request.getAcquiredFrom() == null && request.getAcquiredTo() == null) {
+            throw new IllegalArgumentException(
+                    "Provide item IDs or at least one of book ID, location and acquisition date range");
+        }
+        if (request.getAcquiredFrom() != null && request.getAcquiredTo() != null
+                && request.getAcquiredFrom().isAfter(request.getAcquiredTo())) {
+            throw new IllegalArgumentException("The acquisition date range start must not be after its end");
+        }
+
+        ItemFilter filter = new ItemFilter(request.getBookId(), location, request.getAcquiredFrom(),
+                request.getAcquiredTo(), current != null ? current.name() : null);
+        Tally total = new Tally();
+
+        if (hasItemIds) {
+            List<Integer> itemIds = new ArrayList<>(new LinkedHashSet<>(request.getItemIds()));
+            if (itemIds.contains(null)) {
+                throw new IllegalArgumentException("The copy ID cannot be empty");
+            }
+            if (itemIds.size() > MAX_ITEM_IDS) {
+                throw new IllegalArgumentException("At most " + MAX_ITEM_IDS + " copies can be changed at once");
+            }
+            for (int from = 0; from < itemIds.size(); from += CHUNK_SIZE) {
+                List<Integer> chunk = itemIds.subList(from, Math.min(from + CHUNK_SIZE, itemIds.size()));
+                total.add(changeChunk(filter, chunk, target));
+            }
+        } else {
+            long matching = inventoryJdbcRepository.countItemsMatching(filter);
+            if (matching > MAX_FILTER_MATCHES) {
+                throw new IllegalArgumentException("The filter matches " + matching + " copies; at most "
+                        + MAX_FILTER_MATCHES + " copies can be changed at once, please narrow the filter");
+            }
+            // 按副本ID顺序逐块查找，修改后不再符合条件的副本不会影响后续分块
+            int lastItemId = 0;
+            while (true) {
+                List<Integer> chunk = inventoryJdbcRepository.findItemIdsMatching(filter, lastItemId, CHUNK_SIZE);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                total.add(changeChunk(filter, chunk, target));
+                lastItemId = chunk.get(chunk.size() - 1);
+            }
+        }
+
+        logger.info("Bulk status change to {}: {} matched, {} updated, {} skipped as checked out",
+                target.name(), total.matched, total.updated, total.skippedCheckedOut);
+        return new BulkStatusChangeResponse(target.name(), total.matched, total.updated,
+                total.unchanged, total.skippedCheckedOut);
+    }
+
+    /**
+     * 在一个事务中修改一块副本
+     * 锁定后按最新状态重新分类，查询之后被借出或已不符合条件的副本不处理
+     */
+    private Tally changeChunk(ItemFilter filter, List<Integer> itemIds, BookItemStatus target) {
+        return retryingTransactionExecutor.execute(() -> {
+            List<ItemRow> rows = inventoryJdbcRepository.lockItemsMatching(filter, itemIds);
+            Tally tally = new Tally();
+            List<Integer> changedItemIds = new ArrayList<>();
+            Map<Integer, Integer> availableDeltas = new HashMap<>();
+            classify(rows, target, tally, changedItemIds, availableDeltas);
+
+            if (!changedItemIds.isEmpty()) {
+                inventoryJdbcRepository.updateItemStatus(changedItemIds, target.name());
+                copyCounterService.adjustAvailable(availableDeltas);
+                eventPublisher.publishEvent(new BookItemChangedEvent(changedItemIds));
+            }
+            return tally;
+        });
+    }
+
+    /**
+     * 把锁定的副本分为需要修改、状态未变和已借出三类，并统计每本图书可借副本数的变化
+     */
+    private static void classify(List<ItemRow> rows, BookItemStatus target, Tally tally,
+                                 List<Integer> changedItemIds, Map<Integer, Integer> availableDeltas) {
+        for (ItemRow row : rows) {
+            tally.matched++;
+            BookItemStatus status = StocktakeReconciliation.parseStatus(row.getStatus());
+            if (status == BookItemStatus.Checked_Out) {
+                tally.skippedCheckedOut++;
+                continue;
+            }
+            if (status == target) {
+                tally.unchanged++;
+                continue;
+            }
+            changedItemIds.add(row.getItemId());
+            tally.updated++;
+            int delta = (target == BookItemStatus.Available ? 1 : 0) - (status == BookItemStatus.Available ? 1 : 0);
+            if (delta != 0) {
+                availableDeltas.merge(row.getBookId(), delta, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * 副本数量统计
+     */
+    private static final class Tally {
+        int matched;
+        int updated;
+        int unchanged;
+        int skippedCheckedOut;
+
+        void add(Tally other) {
+            matched += other.matched;
+            updated += other.updated;
+            unchanged += other.unchanged;
+            skippedCheckedOut += other.skippedCheckedOut;
+        }
+    }
+}
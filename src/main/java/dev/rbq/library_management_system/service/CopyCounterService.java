@@ -0,0 +1,258 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.book.CopyCounterDrift;
+import dev.rbq.library_management_system.dto.book.CopyCounterReconcileResponse;
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.event.BookCopiesChangedEvent;
+import dev.rbq.library_management_system.repository.BookItemRepository;
+import dev.rbq.library_management_system.repository.BookRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 图书副本计数器服务
+ * 维护 books 表上的 total_copies / available_copies 冗余字段，
+ * 所有副本的增删和状态变化都必须在同一事务中调用本服务
+ */
+@Service
+public class CopyCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CopyCounterService.class);
+
+    private static final int MAX_REPORTED_DRIFTS = 100;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookItemRepository bookItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // 对账读取用的只读事务：计数器和副本统计在同一个快照中读取
+    private TransactionTemplate snapshotTemplate;
+
+    @PostConstruct
+    void initSnapshotTemplate() {
+        snapshotTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        snapshotTemplate.setReadOnly(true);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * 新增副本
+     * @param bookId 图书ID
+     * @param status 副本状态
+     */
+    @Transactional
+    public void copyAdded(Integer bookId, BookItemStatus status) {
+        adjust(bookId, 1, isAvailable(status) ? 1 : 0);
+    }
+
+    /**
+     * 删除副本
+     * @param bookId 图书ID
+     * @param status 删除前的副本状态
+     */
+    @Transactional
+    public void copyRemoved(Integer bookId, BookItemStatus status) {
+        adjust(bookId, -1, isAvailable(status) ? -1 : 0);
+    }
+
+    /**
+     * 副本状态变化
+     * @param bookId 图书ID
+     * @param oldStatus 原状态
+     * @param newStatus 新状态
+     */
+    @Transactional
+    public void statusChanged(Integer bookId, BookItemStatus oldStatus, BookItemStatus newStatus) {
+        int availableDelta = (isAvailable(newStatus) ? 1 : 0) - (isAvailable(oldStatus) ? 1 : 0);
+        if (availableDelta != 0) {
+            adjust(bookId, 0, availableDelta);
+        }
+    }
+
+    /**
+     * 副本被转移到另一本图书（可能同时改变状态）
+     * @param oldBookId 原图书ID
+     * @param newBookId 新图书ID
+     * @param oldStatus 原状态
+     * @param newStatus 新状态
+     */
+    @Transactional
+    public void copyMoved(Integer oldBookId, Integer newBookId, BookItemStatus oldStatus, BookItemStatus newStatus) {
+        if (oldBookId.equals(newBookId)) {
+            statusChanged(newBookId, oldStatus, newStatus);
+            return;
+        }
+        copyRemoved(oldBookId, oldStatus);
+        copyAdded(newBookId, newStatus);
+    }
+
+    /**
+     * 直接增减计数器（批量操作使用）
+     * @param bookId 图书ID
+     * @param totalDelta 副本总数变化量
+     * @param availableDelta 可借副本数变化量
+     */
+    @Transactional
+    public void adjust(Integer bookId, int totalDelta, int availableDelta) {
+        if (totalDelta == 0 && availableDelta == 0) {
+            return;
+        }
+        bookRepository.adjustCopyCounters(bookId, totalDelta, availableDelta);
+        eventPublisher.publishEvent(new BookCopiesChangedEvent(bookId));
+    }
+
+    /**
+     * 增减一组图书的可借副本数（批量状态变化使用），只发布一个计数器变更事件
+     * @param availableDeltas 图书ID -> 可借副本数变化量
+     */
+    @Transactional
+    public void adjustAvailable(Map<Integer, Integer> availableDeltas) {
+        List<Integer> changed = new ArrayList<>(availableDeltas.size());
+        availableDeltas.forEach((bookId, delta) -> {
+            if (delta != 0) {
+                bookRepository.adjustCopyCounters(bookId, 0, delta);
+                changed.add(bookId);
+            }
+        });
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new BookCopiesChangedEvent(changed));
+        }
+    }
+
+    /**
+     * 分块对账：根据 book_items 重新统计所有图书的副本数，修正有偏差的计数器
+     * 每一块的计数器和副本统计在同一个只读事务（一致性快照）中读取，
+     * 两次读取之间提交的借还不会被误报为偏差；修正在另一个短事务中按 book_items 重新计算
+     * @param chunkSize 每块的图书数量
+     * @return 对账结果
+     */
+    public CopyCounterReconcileResponse reconcile(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive");
+        }
+
+        long booksScanned = 0;
+        long booksDrifted = 0;
+        List<CopyCounterDrift> reportedDrifts = new ArrayList<>();
+        int lastBookId = 0;
+
+        while (true) {
+            int after = lastBookId;
+            ChunkSnapshot snapshot = snapshotTemplate.execute(status -> {
+                List<BookRepository.BookCopyCounters> chunk =
+                        bookRepository.findCopyCountersAfter(after, PageRequest.of(0, chunkSize));
+                return chunk.isEmpty() ? null : new ChunkSnapshot(
+                        chunk.get(chunk.size() - 1).getBookId(), chunk.size(), findDrifts(chunk));
+            });
+            if (snapshot == null) {
+                break;
+            }
+            lastBookId = snapshot.lastBookId;
+            booksScanned += snapshot.scanned;
+
+            List<CopyCounterDrift> drifts = snapshot.drifts;
+            if (!drifts.isEmpty()) {
+                List<Integer> driftedIds = drifts.stream()
+                        .map(CopyCounterDrift::getBookId)
+                        .collect(Collectors.toList());
+                transactionTemplate.executeWithoutResult(status -> {
+                    bookRepository.recomputeCopyCounters(driftedIds, BookItemStatus.Available.name());
+                    eventPublisher.publishEvent(new BookCopiesChangedEvent(driftedIds));
+                });
+
+                booksDrifted += drifts.size();
+                for (CopyCounterDrift drift : drifts) {
+                    if (reportedDrifts.size() >= MAX_REPORTED_DRIFTS) {
+                        break;
+                    }
+                    reportedDrifts.add(drift);
+                }
+            }
+        }
+
+        if (booksDrifted > 0) {
+            logger.warn("Copy counter reconciliation fixed {} of {} books", booksDrifted, booksScanned);
+        } else {
+            logger.info("Copy counter reconciliation found no drift in {} books", booksScanned);
+        }
+
+        return new CopyCounterReconcileResponse(booksScanned, booksDrifted, reportedDrifts);
+    }
+
+    /**
+     * 对比一块图书的计数器与实际副本数量
+     * @param chunk 图书计数器
+     * @return 有偏差的图书
+     */
+    private List<CopyCounterDrift> findDrifts(List<BookRepository.BookCopyCounters> chunk) {
+        List<Integer> bookIds = chunk.stream()
+                .map(BookRepository.BookCopyCounters::getBookId)
+                .collect(Collectors.toList());
+
+        // bookId -> {总数, 可借数}
+        Map<Integer, long[]> actualCounts = new HashMap<>();
+        for (BookItemRepository.BookStatusCount row : bookItemRepository.countByBookIdsGroupByStatus(bookIds)) {
+            long[] counts = actualCounts.computeIfAbsent(row.getBookId(), id -> new long[2]);
+            counts[0] += row.getCopies();
+            if (isAvailable(row.getStatus())) {
+                counts[1] += row.getCopies();
+            }
+        }
+
+        List<CopyCounterDrift> drifts = new ArrayList<>();
+        for (BookRepository.BookCopyCounters stored : chunk) {
+            long[] actual = actualCounts.getOrDefault(stored.getBookId(), new long[2]);
+            if (stored.getTotalCopies() != actual[0] || stored.getAvailableCopies() != actual[1]) {
+                drifts.add(new CopyCounterDrift(
+                        stored.getBookId(),
+                        stored.getTotalCopies(),
+                        actual[0],
+                        stored.getAvailableCopies(),
+                        actual[1]
+                ));
+            }
+        }
+        return drifts;
+    }
+
+    private boolean isAvailable(BookItemStatus status) {
+        return status == BookItemStatus.Available;
+    }
+
+    /**
+     * 一块图书的对账结果
+     */
+    private static final class ChunkSnapshot {
+        private final int lastBookId;
+        private final int scanned;
+        private final List<CopyCounterDrift> drifts;
+
+        private ChunkSnapshot(int lastBookId, int scanned, List<CopyCounterDrift> drifts) {
+            this.lastBookId = lastBookId;
+            this.scanned = scanned;
+            this.drifts = drifts;
+        }
+    }
+}
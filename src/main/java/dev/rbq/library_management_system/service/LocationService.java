@@ -0,0 +1,73 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.inventory.LocationNodeResponse;
+import dev.rbq.library_management_system.inventory.LocationIndex;
+import dev.rbq.library_management_system.inventory.LocationIndex.NodeSummary;
+import dev.rbq.library_management_system.inventory.LocationPath;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 馆藏位置浏览服务
+ * 位置树和统计数据全部来自内存中的位置索引，节点下的副本列表由 BookItemService 按位置范围查询
+ */
+@Service
+public class LocationService {
+
+    // 输入提示的最大数量
+    static final int MAX_SUGGESTIONS = 50;
+
+    @Autowired
+    private LocationIndex locationIndex;
+
+    /**
+     * 查询位置节点、其直接子节点及各自的副本统计
+     * @param path 节点路径（可选，为空时为根节点）
+     * @return 位置节点
+     */
+    public LocationNodeResponse getNode(String path) {
+        requireReady();
+        NodeSummary node = locationIndex.getNode(path != null ? path.trim() : "");
+        if (node == null) {
+            throw new IllegalArgumentException("Location does not exist");
+        }
+        return convertToResponse(node, true);
+    }
+
+    /**
+     * 按路径前缀查找位置节点（输入提示）
+     * @param prefix 路径前缀（如 A-2-0）
+     * @param limit 最大数量
+     * @return 匹配的位置节点
+     */
+    public List<LocationNodeResponse> searchNodes(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        requireReady();
+        return locationIndex.search(prefix != null ? prefix.trim() : "", limit).stream()
+                .map(node -> convertToResponse(node, false))
+                .toList();
+    }
+
+    private void requireReady() {
+        if (!locationIndex.isReady()) {
+            throw new IllegalStateException("The location index is still loading");
+        }
+    }
+
+    private LocationNodeResponse convertToResponse(NodeSummary node, boolean withChildren) {
+        return new LocationNodeResponse(
+                node.getPath(),
+                node.getLabel(),
+                LocationPath.level(node.getDepth()),
+                node.getDepth(),
+                node.getCopies(),
+                node.getDirectCopies(),
+                node.getStatusTotals(),
+                withChildren ? node.getChildren().stream().map(child -> convertToResponse(child, false)).toList() : null
+        );
+    }
+}
@@ -0,0 +1,416 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.inventory.StocktakeItemResponse;
+import dev.rbq.library_management_system.dto.inventory.StocktakeReportResponse;
+import dev.rbq.library_management_system.dto.inventory.StocktakeScanResponse;
+import dev.rbq.library_management_system.dto.inventory.StocktakeSessionResponse;
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.event.BookItemChangedEvent;
+import dev.rbq.library_management_system.inventory.BarcodeIndex;
+import dev.rbq.library_management_system.inventory.LocationPath;
+import dev.rbq.library_management_system.inventory.StocktakeReconciliation;
+import dev.rbq.library_management_system.inventory.StocktakeStore;
+import dev.rbq.library_management_system.inventory.StocktakeStore.StocktakeSession;
+import dev.rbq.library_management_system.repository.CirculationJdbcRepository;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository.ItemRow;
+import dev.rbq.library_management_system.security.SessionPrincipal;
+import dev.rbq.library_management_system.transaction.RetryingTransactionExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 馆藏盘点服务
+ * 管理员为一个位置前缀开始盘点，扫码枪通过长连接持续上传条码号（每行一个），
+ * 每收到一批条码就通过条码索引解析为副本ID并写入会话的位图；
+ * 结束盘点时流式读取范围内的副本与位图核对，生成缺失、错架、异常副本报告，
+ * 并可以把缺失副本批量标记为丢失。整个过程不加载副本实体
+ */
+@Service
+public class StocktakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StocktakeService.class);
+
+    // 每收到多少个条码写入一次 Redis
+    static final int SCAN_BATCH_SIZE = 500;
+
+    // 报告中每类副本的最大明细数量
+    static final int MAX_REPORTED_ITEMS = 1000;
+
+    // 按副本ID查询或更新时每块的副本数
+    static final int CHUNK_SIZE = 1000;
+
+    private static final int MAX_BARCODE_LENGTH = 50;
+
+    @Autowired
+    private StocktakeStore stocktakeStore;
+
+    @Autowired
+    private BarcodeIndex barcodeIndex;
+
+    @Autowired
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Autowired
+    private CirculationJdbcRepository circulationJdbcRepository;
+
+    @Autowired
+    private CopyCounterService copyCounterService;
+
+    @Autowired
+    private RetryingTransactionExecutor retryingTransactionExecutor;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 开始盘点
+     * @param locationPrefix 盘点范围（位置节点路径，包含其所有下级位置）
+     * @return 盘点会话
+     */
+    public StocktakeSessionResponse open(String locationPrefix) {
+        String path = normalizeScope(locationPrefix);
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("The location prefix cannot be empty");
+        }
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
+        StocktakeSession session = stocktakeStore.open(path, currentUser.getUsername());
+        logger.info("Stocktake {} opened for location prefix '{}' by {}",
+                session.getSessionId(), session.getLocationPrefix(), session.getOpenedBy());
+        return convertToResponse(session);
+    }
+
+    /**
+     * 查询所有进行中的盘点
+     * @return 盘点会话列表（按开始时间排序）
+     */
+    public List<StocktakeSessionResponse> listSessions() {
+        return stocktakeStore.list().stream()
+                .sorted((a, b) -> a.getOpenedAt().compareTo(b.getOpenedAt()))
+                .map(this::convertToResponse)
+                .toList();
+    }
+
+    /**
+     * 查询盘点进度
+     * @param sessionId 会话ID
+     * @return 盘点会话
+     */
+    public StocktakeSessionResponse getSession(String sessionId) {
+        return convertToResponse(requireSession(sessionId));
+    }
+
+    /**
+     * 接收扫码枪上传的条码号
+     * 请求体每行一个条码号，边读取边处理，连接可以在整个书架的扫描过程中保持打开
+     * @param sessionId 会话ID
+     * @param input 请求体
+     * @return 本次上传的处理结果
+     * @throws IOException 读取请求体失败时抛出
+     */
+    public StocktakeScanResponse scan(String sessionId, InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ScanTally tally = new ScanTally();
+        List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+
+        requireOpenSession(sessionId);
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String barcode = line.trim();
+                if (!barcode.isEmpty()) {
+                    batch.add(barcode);
+                }
+                // 缓冲区中没有更多数据（扫码枪逐条上传、中途停顿）时立即写入，不等凑满一批
+                if (batch.size() == SCAN_BATCH_SIZE || (!batch.isEmpty() && !reader.ready())) {
+                    recordBatch(sessionId, batch, tally);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            // 连接中断或读取超时：先写入已读取的条码号再抛出
+            if (!batch.isEmpty()) {
+                try {
+                    recordBatch(sessionId, batch, tally);
+                } catch (RuntimeException recordFailure) {
+                    e.addSuppressed(recordFailure);
+                }
+            }
+            logger.warn("Stocktake {} upload interrupted after {} scans", sessionId, tally.received);
+            throw e;
+        }
+        if (!batch.isEmpty()) {
+            recordBatch(sessionId, batch, tally);
+        }
+
+        return new StocktakeScanResponse(tally.received, tally.matched, tally.duplicates,
+                tally.unknown, tally.unknownBarcodes);
+    }
+
+    /**
+     * 结束盘点并生成报告，结束后会话被删除
+     * @param sessionId 会话ID
+     * @param markMissingLost 是否把缺失副本标记为丢失
+     * @return 盘点报告
+     */
+    public StocktakeReportResponse close(String sessionId, boolean markMissingLost) {
+        if (!stocktakeStore.markClosing(sessionId)) {
+            throw new IllegalStateException("The stocktake session is already being closed");
+        }
+
+        try {
+            // 标记后重新读取，包含标记前仍在处理的扫码批次的计数
+            StocktakeReportResponse report = reconcile(requireSession(sessionId), markMissingLost);
+            stocktakeStore.delete(sessionId);
+            logger.info("Stocktake {} closed: expected {}, found {}, missing {}, misplaced {}, unexpected {}, marked lost {}",
+                    sessionId, report.getExpected(), report.getFound(), report.getMissingCount(),
+                    report.getMisplacedCount(), report.getUnexpectedCount(), report.getMarkedLost());
+            return report;
+        } catch (RuntimeException e) {
+            // 会话保留，可以继续扫码或重新结束（已标记为丢失的副本不会再被计为缺失）
+            stocktakeStore.clearClosing(sessionId);
+            throw e;
+        }
+    }
+
+    /**
+     * 放弃盘点，删除会话及扫码数据
+     * @param sessionId 会话ID
+     */
+    public void cancel(String sessionId) {
+        requireSession(sessionId);
+        stocktakeStore.delete(sessionId);
+        logger.info("Stocktake {} cancelled", sessionId);
+    }
+
+    /**
+     * 解析一批条码号并写入会话
+     */
+    private void recordBatch(String sessionId, List<String> barcodes, ScanTally tally) {
+        // 结束盘点开始后不再接受扫码
+        requireOpenSession(sessionId);
+
+        Set<String> distinct = new LinkedHashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String barcode : barcodes) {
+            if (barcode.length() > MAX_BARCODE_LENGTH) {
+                unknown.add(barcode);
+            } else {
+                distinct.add(barcode);
+            }
+        }
+
+        Map<String, BarcodeIndex.Entry> entries = barcodeIndex.lookup(distinct);
+        List<Integer> itemIds = new ArrayList<>(barcodes.size());
+        for (String barcode : barcodes) {
+            BarcodeIndex.Entry entry = entries.get(barcode);
+            if (entry != null) {
+                itemIds.add(entry.getItemId());
+            } else if (barcode.length() <= MAX_BARCODE_LENGTH) {
+                unknown.add(barcode);
+            }
+        }
+
+        int duplicates = stocktakeStore.recordScans(sessionId, itemIds, unknown, barcodes.size());
+
+        tally.received += barcodes.size();
+        tally.matched += itemIds.size() - duplicates;
+        tally.duplicates += duplicates;
+        tally.unknown += unknown.size();
+        for (String barcode : unknown) {
+            if (tally.unknownBarcodes.size() >= MAX_REPORTED_ITEMS) {
+                break;
+            }
+            tally.unknownBarcodes.add(barcode);
+        }
+    }
+
+    /**
+     * 核对盘点结果
+     */
+    private StocktakeReportResponse reconcile(StocktakeSession session, boolean markMissingLost) {
+        String sessionId = session.getSessionId();
+        String locationPrefix = normalizeScope(session.getLocationPrefix());
+        StocktakeReconciliation reconciliation =
+                new StocktakeReconciliation(locationPrefix, stocktakeStore.seenItems(sessionId), MAX_REPORTED_ITEMS);
+
+        inventoryJdbcRepository.streamItemsUnderLocation(locationPrefix, reconciliation::acceptInRange);
+
+        // 剩下的是扫到但不在范围内的副本，分块读取它们的位置
+        BitSet outside = (BitSet) reconciliation.unmatchedItemIds().clone();
+        forEachChunk(outside, chunk -> {
+            for (ItemRow row : inventoryJdbcRepository.findItemsByIds(chunk)) {
+                reconciliation.acceptScannedOutsideRange(row);
+            }
+        });
+
+        long markedLost = 0;
+        if (markMissingLost) {
+            long[] marked = new long[1];
+            forEachChunk(reconciliation.missingItemIds(), chunk -> marked[0] += markLost(chunk, locationPrefix));
+            markedLost = marked[0];
+        }
+
+        long unknownCount = stocktakeStore.unknownCount(sessionId);
+        List<String> unknownBarcodes = stocktakeStore.unknownBarcodes(sessionId, MAX_REPORTED_ITEMS);
+
+        StocktakeReportResponse report = new StocktakeReportResponse();
+        report.setSessionId(sessionId);
+        report.setLocationPrefix(locationPrefix);
+        report.setOpenedBy(session.getOpenedBy());
+        report.setOpenedAt(session.getOpenedAt());
+        report.setClosedAt(LocalDateTime.now());
+        report.setScans(session.getScans());
+        report.setDuplicateScans(session.getDuplicateScans());
+        report.setExpected(reconciliation.getExpected());
+        report.setFound(reconciliation.getFound());
+        report.setMissingCount(reconciliation.getMissingCount());
+        report.setMisplacedCount(reconciliation.getMisplacedCount());
+        report.setUnexpectedCount(reconciliation.getUnexpectedCount());
+        report.setUnknownCount(unknownCount);
+        report.setMarkedLost(markedLost);
+        report.setMissing(convertItems(reconciliation.getMissingItems()));
+        report.setMisplaced(convertItems(reconciliation.getMisplacedItems()));
+        report.setUnexpected(convertItems(reconciliation.getUnexpectedItems()));
+        report.setUnknownBarcodes(unknownBarcodes);
+        report.setTruncated(reconciliation.isTruncated() || unknownCount > unknownBarcodes.size());
+        return report;
+    }
+
+    /**
+     * 在一个事务中把一块缺失副本标记为丢失
+     * 锁定后重新检查状态和位置：盘点结束前被借出、移走或已修改状态的副本不处理
+     * @param itemIds 副本ID
+     * @param locationPrefix 盘点范围
+     * @return 标记的副本数
+     */
+    private int markLost(List<Integer> itemIds, String locationPrefix) {
+        return retryingTransactionExecutor.execute(() -> {
+            List<Integer> lostItemIds = new ArrayList<>();
+            Map<Integer, Integer> availableDeltas = new HashMap<>();
+            for (ItemRow row : inventoryJdbcRepository.lockItemsByIds(itemIds)) {
+                BookItemStatus status = StocktakeReconciliation.parseStatus(row.getStatus());
+                if (!StocktakeReconciliation.isOnShelf(status)
+                        || !StocktakeReconciliation.isUnder(row.getLocation(), locationPrefix)) {
+                    continue;
+                }
+                lostItemIds.add(row.getItemId());
+                if (status == BookItemStatus.Available) {
+                    availableDeltas.merge(row.getBookId(), -1, Integer::sum);
+                }
+            }
+
+            if (!lostItemIds.isEmpty()) {
+                circulationJdbcRepository.batchUpdateItemStatus(lostItemIds, BookItemStatus.Lost.name());
+                copyCounterService.adjustAvailable(availableDeltas);
+                eventPublisher.publishEvent(new BookItemChangedEvent(lostItemIds));
+            }
+            return lostItemIds.size();
+        });
+    }
+
+    /**
+     * 去掉首尾空白和末尾的层级分隔符（"A-1-" 与 "A-1" 是同一个节点）
+     */
+    static String normalizeScope(String locationPrefix) {
+        if (locationPrefix == null) {
+            return "";
+        }
+        String path = locationPrefix.trim();
+        while (!path.isEmpty() && path.charAt(path.length() - 1) == LocationPath.SEPARATOR) {
+            path = path.substring(0, path.length() - 1).trim();
+        }
+        return path;
+    }
+
+    /**
+     * 按副本ID顺序分块处理位集合
+     */
+    private void forEachChunk(BitSet itemIds, Consumer<List<Integer>> action) {
+        List<Integer> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int itemId = itemIds.nextSetBit(0); itemId >= 0; itemId = itemIds.nextSetBit(itemId + 1)) {
+            chunk.add(itemId);
+            if (chunk.size() == CHUNK_SIZE) {
+                action.accept(List.copyOf(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            action.accept(List.copyOf(chunk));
+        }
+    }
+
+    private StocktakeSession requireSession(String sessionId) {
+        StocktakeSession session = stocktakeStore.get(sessionId);
+        if (session == null) {
+            throw new IllegalArgumentException("Stocktake session does not exist");
+        }
+        return session;
+    }
+
+    private void requireOpenSession(String sessionId) {
+        if (requireSession(sessionId).isClosing()) {
+            throw new IllegalStateException("The stocktake session is closing and no longer accepts scans");
+        }
+    }
+
+    private StocktakeSessionResponse convertToResponse(StocktakeSession session) {
+        String sessionId = session.getSessionId();
+        return new StocktakeSessionResponse(
+                sessionId,
+                session.getLocationPrefix(),
+                session.getOpenedBy(),
+                session.getOpenedAt(),
+                session.getScans(),
+                session.getDuplicateScans(),
+                stocktakeStore.seenCount(sessionId),
+                stocktakeStore.unknownCount(sessionId),
+                session.isClosing()
+        );
+    }
+
+    private List<StocktakeItemResponse> convertItems(List<ItemRow> rows) {
+        List<StocktakeItemResponse> items = new ArrayList<>(rows.size());
+        for (ItemRow row : rows) {
+            BookItemStatus status = StocktakeReconciliation.parseStatus(row.getStatus());
+            items.add(new StocktakeItemResponse(
+                    row.getItemId(),
+                    row.getBookId(),
+                    row.getBarcode(),
+                    row.getLocation(),
+                    row.getStatus(),
+                    status != null ? status.getDescription() : row.getStatus()
+            ));
+        }
+        return items;
+    }
+
+    /**
+     * 单次上传的计数
+     */
+    private static final class ScanTally {
+        private long received;
+        private long matched;
+        private long duplicates;
+        private long unknown;
+        private final List<String> unknownBarcodes = new ArrayList<>();
+    }
+}
@@ -0,0 +1,162 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.auth.AuthResponse;
+import dev.rbq.library_management_system.dto.auth.LoginRequest;
+import dev.rbq.library_management_system.dto.auth.TokenResponse;
+import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.event.UserChangedEvent;
+import dev.rbq.library_management_system.repository.UserRepository;
+import dev.rbq.library_management_system.security.LoginAttemptThrottle;
+import dev.rbq.library_management_system.security.TokenCodec;
+import dev.rbq.library_management_system.security.TokenCodec.TokenClaims;
+import dev.rbq.library_management_system.security.TokenRevocationList;
+import dev.rbq.library_management_system.security.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 令牌认证服务（library.auth.mode=token 时生效）
+ * 访问令牌有效期短，携带用户UUID、用户名、昵称和角色；刷新令牌有效期长，
+ * 刷新时从数据库重新读取用户信息并轮换刷新令牌
+ */
+@Service
+@ConditionalOnProperty(name = "library.auth.mode", havingValue = "token")
+public class TokenService {
+
+    @Autowired
+    private TokenCodec tokenCodec;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private LoginAttemptThrottle loginAttemptThrottle;
+
+    @Value("${library.auth.token.access-ttl:15m}")
+    private Duration accessTtl;
+
+    @Value("${library.auth.token.refresh-ttl:14d}")
+    private Duration refreshTtl;
+
+    /**
+     * 用户名密码登录，签发令牌
+     * @param request 登录请求
+     * @param clientIp 客户端IP
+     * @return 令牌
+     */
+    public TokenResponse login(LoginRequest request, String clientIp) {
+        // 在计算密码哈希之前限流
+        loginAttemptThrottle.checkLogin(request.getUsername(), clientIp);
+
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
+            loginAttemptThrottle.loginSucceeded(request.getUsername(), clientIp);
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            return issue(userDetails.getUser());
+        } catch (BadCredentialsException e) {
+            loginAttemptThrottle.loginFailed(request.getUsername(), clientIp);
+            throw new BadCredentialsException("Incorrect username or password");
+        }
+    }
+
+    /**
+     * 使用刷新令牌换取新令牌，旧的刷新令牌随即失效
+     * @param refreshToken 刷新令牌
+     * @return 新令牌
+     */
+    public TokenResponse refresh(String refreshToken) {
+        TokenClaims claims = verify(refreshToken, TokenCodec.TYPE_REFRESH);
+        User user = userRepository.findById(claims.getSubject())
+                .orElseThrow(() -> new BadCredentialsException("User does not exist"));
+        revocationList.revokeToken(claims.getTokenId(), claims.getExpiresAt());
+        return issue(user);
+    }
+
+    /**
+     * 校验访问令牌（只访问内存）
+     * @param accessToken 访问令牌
+     * @return 令牌内容
+     */
+    public TokenClaims verifyAccessToken(String accessToken) {
+        return verify(accessToken, TokenCodec.TYPE_ACCESS);
+    }
+
+    /**
+     * 登出：吊销访问令牌和刷新令牌
+     * @param accessToken 访问令牌（可选）
+     * @param refreshToken 刷新令牌（可选）
+     */
+    public void revoke(String accessToken, String refreshToken) {
+        long now = Instant.now().getEpochSecond();
+        if (accessToken != null) {
+            revokeQuietly(accessToken, TokenCodec.TYPE_ACCESS, now);
+        }
+        if (refreshToken != null) {
+            revokeQuietly(refreshToken, TokenCodec.TYPE_REFRESH, now);
+        }
+    }
+
+    /**
+     * 用户角色或密码变化、用户被删除的事务提交后，吊销该用户已签发的全部令牌
+     * 用户名和昵称变化不影响权限，在下次刷新时更新
+     * @param event 用户变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        UserChangedEvent.ChangeType type = event.getChangeType();
+        if (type == UserChangedEvent.ChangeType.ROLE
+                || type == UserChangedEvent.ChangeType.PASSWORD
+                || type == UserChangedEvent.ChangeType.DELETE) {
+            revocationList.revokeUser(event.getUserUuid(), Instant.now().toEpochMilli());
+        }
+    }
+
+    private TokenResponse issue(User user) {
+        long nowMillis = Instant.now().toEpochMilli();
+        long now = nowMillis / 1000;
+        boolean admin = Boolean.TRUE.equals(user.getAdmin());
+        String accessToken = tokenCodec.encode(new TokenClaims(user.getUuid(), TokenCodec.TYPE_ACCESS,
+                UUID.randomUUID(), nowMillis, now + accessTtl.toSeconds(), user.getUsername(), user.getName(), admin));
+        String refreshToken = tokenCodec.encode(new TokenClaims(user.getUuid(), TokenCodec.TYPE_REFRESH,
+                UUID.randomUUID(), nowMillis, now + refreshTtl.toSeconds(), null, null, false));
+
+        return new TokenResponse(accessToken, refreshToken, accessTtl.toSeconds(),
+                new AuthResponse(user.getUuid(), user.getUsername(), user.getName(), admin));
+    }
+
+    private TokenClaims verify(String token, String type) {
+        TokenClaims claims = tokenCodec.decode(token, type, Instant.now().getEpochSecond());
+        if (revocationList.isRevoked(claims)) {
+            throw new BadCredentialsException("Token has been revoked");
+        }
+        return claims;
+    }
+
+    private void revokeQuietly(String token, String type, long now) {
+        try {
+            TokenClaims claims = tokenCodec.decode(token, type, now);
+            revocationList.revokeToken(claims.getTokenId(), claims.getExpiresAt());
+        } catch (BadCredentialsException e) {
+            // 无效或已过期的令牌无需吊销
+        }
+    }
+}
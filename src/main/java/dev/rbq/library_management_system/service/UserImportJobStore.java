@@ -0,0 +1,144 @@
+package dev.rbq.library_management_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rbq.library_management_system.dto.admin.UserImportJobResponse;
+import dev.rbq.library_management_system.dto.admin.UserImportResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 批量导入用户任务的状态存储
+ * 任务在提交它的节点上执行，状态保存在 Redis 哈希中，查询请求可以落在任意节点；
+ * 任务结束后保留 library.user-import.result-ttl
+ */
+@Component
+public class UserImportJobStore {
+
+    private static final String KEY_PREFIX = "library:user-import:";
+
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_PROCESSED = "processed";
+    private static final String FIELD_CREATED = "created";
+    private static final String FIELD_FAILED = "failed";
+    private static final String FIELD_MESSAGE = "message";
+    private static final String FIELD_RESULT = "result";
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Value("${library.user-import.result-ttl:1d}")
+    private Duration ttl;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 创建排队中的任务
+     * @return 任务ID
+     */
+    public String create() {
+        String jobId = UUID.randomUUID().toString();
+        redisTemplate.opsForHash().putAll(key(jobId), Map.of(
+                FIELD_STATUS, Status.QUEUED.name(),
+                FIELD_PROCESSED, "0",
+                FIELD_CREATED, "0",
+                FIELD_FAILED, "0"
+        ));
+        redisTemplate.expire(key(jobId), ttl);
+        return jobId;
+    }
+
+    /**
+     * 更新任务进度
+     */
+    public void progress(String jobId, long processed, long created, long failed) {
+        redisTemplate.opsForHash().putAll(key(jobId), Map.of(
+                FIELD_STATUS, Status.RUNNING.name(),
+                FIELD_PROCESSED, Long.toString(processed),
+                FIELD_CREATED, Long.toString(created),
+                FIELD_FAILED, Long.toString(failed)
+        ));
+    }
+
+    /**
+     * 记录任务完成及导入结果
+     */
+    public void complete(String jobId, UserImportResponse result) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize user import result", e);
+        }
+        redisTemplate.opsForHash().putAll(key(jobId), Map.of(
+                FIELD_STATUS, Status.COMPLETED.name(),
+                FIELD_PROCESSED, Long.toString(result.getProcessed()),
+                FIELD_CREATED, Long.toString(result.getCreated()),
+                FIELD_FAILED, Long.toString(result.getFailed()),
+                FIELD_RESULT, json
+        ));
+        redisTemplate.expire(key(jobId), ttl);
+    }
+
+    /**
+     * 记录任务失败（已提交的块不会回滚）
+     */
+    public void fail(String jobId, String message) {
+        redisTemplate.opsForHash().putAll(key(jobId), Map.of(
+                FIELD_STATUS, Status.FAILED.name(),
+                FIELD_MESSAGE, message != null ? message : "Unknown error"
+        ));
+        redisTemplate.expire(key(jobId), ttl);
+    }
+
+    /**
+     * 读取任务状态
+     * @param jobId 任务ID
+     * @return 任务状态，不存在或已过期时为null
+     */
+    public UserImportJobResponse get(String jobId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(key(jobId));
+        if (fields.isEmpty() || !fields.containsKey(FIELD_STATUS)) {
+            return null;
+        }
+        UserImportResponse result = null;
+        String json = (String) fields.get(FIELD_RESULT);
+        if (json != null) {
+            try {
+                result = objectMapper.readValue(json, UserImportResponse.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to read user import result", e);
+            }
+        }
+        return new UserImportJobResponse(
+                jobId,
+                (String) fields.get(FIELD_STATUS),
+                Long.parseLong((String) fields.getOrDefault(FIELD_PROCESSED, "0")),
+                Long.parseLong((String) fields.getOrDefault(FIELD_CREATED, "0")),
+                Long.parseLong((String) fields.getOrDefault(FIELD_FAILED, "0")),
+                (String) fields.get(FIELD_MESSAGE),
+                result
+        );
+    }
+
+    private static String key(String jobId) {
+        return KEY_PREFIX + jobId;
+    }
+}
@@ -0,0 +1,552 @@
+package dev.rbq.library_management_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rbq.library_management_system.dto.admin.UserImportError;
+import dev.rbq.library_management_system.dto.admin.UserImportJobResponse;
+import dev.rbq.library_management_system.dto.admin.UserImportResponse;
+import dev.rbq.library_management_system.dto.auth.RegisterRequest;
+import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.event.UserChangedEvent;
+import dev.rbq.library_management_system.repository.UserJdbcRepository;
+import dev.rbq.library_management_system.repository.UserRepository;
+import dev.rbq.library_management_system.security.BoundedPasswordEncoder;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * 批量导入用户服务（按学期导入整届学生账号）
+ * 上传的文件先写入临时文件，由后台线程导入，调用方按任务ID查询进度和结果；同一节点上的导入依次执行。
+ * 输入按行流式读取，每 CHUNK_SIZE 行为一块：一次查询检查整块的用户名是否已存在，
+ * 在批量线程池中并行计算密码哈希，再用 JDBC 批量插入；每一块在独立事务中提交并发布一个用户变更事件，
+ * 出错的行记录在结果中，不影响其他行
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    // 每块的行数
+    static final int CHUNK_SIZE = 500;
+
+    // 单次导入的最大行数
+    static final int MAX_ROWS = 50_000;
+
+    // 结果中最多列出的错误数
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    // 上传文件的最大字节数（50000 行按字段长度上限约 9 MB）
+    static final long MAX_UPLOAD_BYTES = 16L * 1024 * 1024;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserJdbcRepository userJdbcRepository;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserImportJobStore jobStore;
+
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 导入格式
+     */
+    public enum Format {
+        // 第一行为表头，必须包含 username、name、password 列
+        CSV,
+        // 每行一个 JSON 对象，字段与注册请求相同
+        NDJSON
+    }
+
+    /**
+     * 提交批量导入任务（均为普通用户）
+     * 上传内容写入临时文件并检查 CSV 表头后立即返回，导入在后台执行
+     * @param input 输入流（UTF-8）
+     * @param format 导入格式
+     * @return 排队中的任务
+     * @throws IOException 读取输入或写入临时文件失败
+     */
+    public UserImportJobResponse startImport(InputStream input, Format format) throws IOException {
+        Path file = Files.createTempFile("user-import-", format == Format.CSV ? ".csv" : ".ndjson");
+        try {
+            spool(input, file);
+            if (format == Format.CSV) {
+                checkCsvHeader(file);
+            }
+            String jobId = jobStore.create();
+            importExecutor.execute(() -> runImport(jobId, file, format));
+            return new UserImportJobResponse(jobId, UserImportJobStore.Status.QUEUED.name(), 0, 0, 0, null, null);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * 查询导入任务
+     * @param jobId 任务ID
+     * @return 任务状态
+     * @throws IllegalArgumentException 任务不存在或已过期
+     */
+    public UserImportJobResponse getJob(String jobId) {
+        UserImportJobResponse job = jobStore.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Import job does not exist");
+        }
+        return job;
+    }
+
+    @PreDestroy
+    void shutdownImports() {
+        importExecutor.shutdownNow();
+    }
+
+    /**
+     * 在后台线程中执行导入任务，结束后删除临时文件
+     */
+    private void runImport(String jobId, Path file, Format format) {
+        try (InputStream input = Files.newInputStream(file)) {
+            jobStore.progress(jobId, 0, 0, 0);
+            jobStore.complete(jobId, importUsers(input, format, jobId));
+        } catch (Exception e) {
+            logger.error("User import job {} failed", jobId, e);
+            jobStore.fail(jobId, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Failed to delete user import file {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * 把上传内容写入临时文件，超过 MAX_UPLOAD_BYTES 时拒绝
+     */
+    private static void spool(InputStream input, Path file) throws IOException {
+        try (OutputStream output = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[8192];
+            long total = 0;
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                total += read;
+                if (total > MAX_UPLOAD_BYTES) {
+                    throw new IllegalArgumentException("The import file must not exceed " + MAX_UPLOAD_BYTES / (1024 * 1024) + " MB");
+                }
+                output.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * 提交任务前检查 CSV 表头，格式错误直接返回给调用方
+     */
+    private static void checkCsvHeader(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                if (first && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                first = false;
+                if (!line.isBlank()) {
+                    CsvHeader.parse(line);
+                    return;
+                }
+            }
+        }
+        throw new IllegalArgumentException("The import file is empty");
+    }
+
+    /**
+     * 批量导入用户
+     * 用户名和昵称去除首尾空白后按注册请求的规则校验
+     * @param input 输入流（UTF-8）
+     * @param format 导入格式
+     * @param jobId 任务ID，每块导入后更新进度
+     * @return 导入结果
+     * @throws IOException 读取输入失败
+     */
+    UserImportResponse importUsers(InputStream input, Format format, String jobId) throws IOException {
+        ImportReport report = new ImportReport(jobId);
+        Set<String> seenUsernames = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        CsvHeader header = null;
+        long lineNumber = 0;
+        long rows = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = CsvHeader.parse(line);
+                continue;
+            }
+            if (++rows > MAX_ROWS) {
+                report.fail(lineNumber, null, "At most " + MAX_ROWS + " rows can be imported at once; remaining rows were skipped");
+                break;
+            }
+
+            chunk.add(format == Format.CSV ? parseCsvRow(lineNumber, line, header) : parseJsonRow(lineNumber, line));
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, seenUsernames, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, seenUsernames, report);
+        }
+        if (format == Format.CSV && header == null) {
+            throw new IllegalArgumentException("The import file is empty");
+        }
+
+        logger.info("User import finished: {} rows processed, {} created, {} failed",
+                report.processed, report.created, report.failed);
+        return report.toResponse();
+    }
+
+    /**
+     * 导入一块数据：校验、检查用户名、并行哈希、批量插入
+     */
+    private void importChunk(List<ImportRow> chunk, Set<String> seenUsernames, ImportReport report) {
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            String error = row.error != null ? row.error : validate(row.request);
+            if (error != null) {
+                report.fail(row.line, row.username(), error);
+            } else if (!seenUsernames.add(key(row.request.getUsername()))) {
+                report.fail(row.line, row.username(), "Duplicate username in import file");
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            candidates = rejectExisting(candidates, report);
+        }
+        if (!candidates.isEmpty()) {
+            List<String> hashes = passwordEncoder.encodeAll(
+                    candidates.stream().map(row -> row.request.getPassword()).collect(Collectors.toList()));
+            List<User> users = new ArrayList<>(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                RegisterRequest request = candidates.get(i).request;
+                users.add(new User(UUID.randomUUID().toString(), request.getUsername(), request.getName(),
+                        hashes.get(i), false));
+            }
+            insert(candidates, users, report);
+        }
+
+        report.processed += chunk.size();
+        logger.info("User import progress: {} rows processed, {} created, {} failed",
+                report.processed, report.created, report.failed);
+        if (report.jobId != null) {
+            jobStore.progress(report.jobId, report.processed, report.created, report.failed);
+        }
+    }
+
+    /**
+     * 一次查询排除数据库中已存在的用户名
+     * @return 仍可导入的行
+     */
+    private List<ImportRow> rejectExisting(List<ImportRow> rows, ImportReport report) {
+        List<String> usernames = rows.stream().map(row -> row.request.getUsername()).collect(Collectors.toList());
+        Set<String> existing = userRepository.findExistingUsernames(usernames).stream()
+                .map(UserImportService::key)
+                .collect(Collectors.toSet());
+        if (existing.isEmpty()) {
+            return rows;
+        }
+
+        List<ImportRow> remaining = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            if (existing.contains(key(row.request.getUsername()))) {
+                report.fail(row.line, row.username(), "Username already exists");
+            } else {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * 批量插入一块用户
+     * 检查之后有同名用户通过注册接口创建时，唯一约束会使整批失败：重新检查后重试一次
+     */
+    private void insert(List<ImportRow> rows, List<User> users, ImportReport report) {
+        try {
+            insertInTransaction(users);
+            report.created += users.size();
+            return;
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("User import batch conflicted with concurrent registrations, retrying", e);
+        }
+
+        List<ImportRow> remaining = rejectExisting(rows, report);
+        Set<ImportRow> retained = new HashSet<>(remaining);
+        List<User> remainingUsers = new ArrayList<>(remaining.size());
+        for (int i = 0; i < rows.size(); i++) {
+            if (retained.contains(rows.get(i))) {
+                remainingUsers.add(users.get(i));
+            }
+        }
+        if (remainingUsers.isEmpty()) {
+            return;
+        }
+        try {
+            insertInTransaction(remainingUsers);
+            report.created += remainingUsers.size();
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("User import batch failed after retry", e);
+            remaining.forEach(row -> report.fail(row.line, row.username(), "Failed to create user"));
+        }
+    }
+
+    /**
+     * 在一个事务中批量插入并为整块发布一个用户创建事件（提交后失效用户详情负缓存，向其他节点只发一条消息）
+     */
+    private void insertInTransaction(List<User> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userJdbcRepository.batchInsertUsers(users);
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.ChangeType.CREATE,
+                    users.stream().map(User::getUsername).collect(Collectors.toList())));
+        });
+    }
+
+    /**
+     * 按注册请求的约束校验
+     * @return 第一条错误信息（按字段名排序），校验通过时为null
+     */
+    private String validate(RegisterRequest request) {
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+        return violations.stream()
+                .min(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .orElse(null);
+    }
+
+    private ImportRow parseCsvRow(long lineNumber, String line, CsvHeader header) {
+        List<String> fields;
+        try {
+            fields = parseCsvLine(line);
+        } catch (IllegalArgumentException e) {
+            return ImportRow.invalid(lineNumber, e.getMessage());
+        }
+        return ImportRow.of(lineNumber, new RegisterRequest(
+                trim(header.field(fields, header.username)),
+                trim(header.field(fields, header.name)),
+                header.field(fields, header.password)));
+    }
+
+    ImportRow parseJsonRow(long lineNumber, String line) {
+        RegisterRequest request;
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            // null、数组和标量行不是注册请求，按行记录错误
+            if (node == null || !node.isObject()) {
+                return ImportRow.invalid(lineNumber, "Each line must be a JSON object");
+            }
+            request = objectMapper.treeToValue(node, RegisterRequest.class);
+        } catch (JsonProcessingException e) {
+            return ImportRow.invalid(lineNumber, "Invalid JSON");
+        }
+        request.setUsername(trim(request.getUsername()));
+        request.setName(trim(request.getName()));
+        return ImportRow.of(lineNumber, request);
+    }
+
+    /**
+     * 解析一行 CSV（RFC 4180，字段不能跨行）
+     * @param line 行
+     * @return 字段列表
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : null;
+    }
+
+    /**
+     * 用户名比较键（与数据库不区分大小写的比较规则一致）
+     */
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * CSV 表头中各列的位置
+     */
+    private static final class CsvHeader {
+        private final int username;
+        private final int name;
+        private final int password;
+
+        private CsvHeader(int username, int name, int password) {
+            this.username = username;
+            this.name = name;
+            this.password = password;
+        }
+
+        private static CsvHeader parse(String line) {
+            List<String> columns = parseCsvLine(line).stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toList());
+            int username = columns.indexOf("username");
+            int name = columns.indexOf("name");
+            int password = columns.indexOf("password");
+            if (username < 0 || name < 0 || password < 0) {
+                throw new IllegalArgumentException("The CSV header must contain username, name and password columns");
+            }
+            return new CsvHeader(username, name, password);
+        }
+
+        private String field(List<String> fields, int index) {
+            return index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    /**
+     * 待导入的一行
+     */
+    static final class ImportRow {
+        private final long line;
+        private final RegisterRequest request;
+        private final String error;
+
+        private ImportRow(long line, RegisterRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+
+        private static ImportRow of(long line, RegisterRequest request) {
+            return new ImportRow(line, request, null);
+        }
+
+        private static ImportRow invalid(long line, String error) {
+            return new ImportRow(line, null, error);
+        }
+
+        String username() {
+            return request != null ? request.getUsername() : null;
+        }
+
+        String error() {
+            return error;
+        }
+    }
+
+    /**
+     * 导入结果统计
+     */
+    private static final class ImportReport {
+        private final String jobId;
+        private long processed;
+        private long created;
+        private long failed;
+        private final List<UserImportError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+
+        private ImportReport(String jobId) {
+            this.jobId = jobId;
+        }
+
+        private void fail(long line, String username, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new UserImportError(line, username, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        private UserImportResponse toResponse() {
+            return new UserImportResponse(processed, created, failed, errors, errorsTruncated);
+        }
+    }
+}
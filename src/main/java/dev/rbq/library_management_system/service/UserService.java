@@ -5,12 +5,12 @@ import dev.rbq.library_management_system.dto.user.ChangeDisplayNameRequest;
 import dev.rbq.library_management_system.dto.user.ChangePasswordRequest;
 import dev.rbq.library_management_system.dto.user.ChangeUsernameRequest;
 import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.event.UserChangedEvent;
 import dev.rbq.library_management_system.repository.UserRepository;
-import dev.rbq.library_management_system.security.UserDetailsImpl;
+import dev.rbq.library_management_system.security.SessionPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,25 +27,23 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 获取当前登录用户信息
      */
     public AuthResponse getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-        if (authentication == null || !authentication.isAuthenticated() ||
-            authentication.getPrincipal().equals("anonymousUser")) {
+        SessionPrincipal principal = SessionPrincipal.current();
+        if (principal == null) {
             return null;
         }
 
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        User user = userDetails.getUser();
-
         return new AuthResponse(
-                user.getUuid(),
-                user.getUsername(),
-                user.getName(),
-                user.getAdmin()
+                principal.getUuid(),
+                principal.getUsername(),
+                principal.getDisplayName(),
+                principal.isAdmin()
         );
     }
 
@@ -57,9 +55,7 @@ public class UserService {
     @Transactional
     public void changePassword(ChangePasswordRequest request) {
         // 获取当前登录用户
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        User currentUser = userDetails.getUser();
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
 
         // 验证用户只能修改自己的密码
         if (!currentUser.getUuid().equals(request.getUserUuid())) {
@@ -83,6 +79,8 @@ public class UserService {
         // 更新密码
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUuid(), UserChangedEvent.ChangeType.PASSWORD,
+                user.getUsername()));
     }
 
     /**
@@ -93,9 +91,7 @@ public class UserService {
     @Transactional
     public AuthResponse changeUsername(ChangeUsernameRequest request) {
         // 获取当前登录用户
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        User currentUser = userDetails.getUser();
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
 
         // 验证用户只能修改自己的用户名
         if (!currentUser.getUuid().equals(request.getUserUuid())) {
@@ -117,8 +113,11 @@ public class UserService {
         }
 
         // 更新用户名
+        String oldUsername = user.getUsername();
         user.setUsername(request.getNewUsername());
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUuid(), UserChangedEvent.ChangeType.UPDATE,
+                oldUsername, user.getUsername()));
 
         return new AuthResponse(
                 user.getUuid(),
@@ -136,9 +135,7 @@ public class UserService {
     @Transactional
     public AuthResponse changeDisplayName(ChangeDisplayNameRequest request) {
         // 获取当前登录用户
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        User currentUser = userDetails.getUser();
+        SessionPrincipal currentUser = SessionPrincipal.requireCurrent();
 
         // 验证用户只能修改自己的昵称
         if (!currentUser.getUuid().equals(request.getUserUuid())) {
@@ -157,6 +154,8 @@ public class UserService {
         // 更新昵称
         user.setName(request.getNewName());
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUuid(), UserChangedEvent.ChangeType.UPDATE,
+                user.getUsername()));
 
         return new AuthResponse(
                 user.getUuid(),
@@ -0,0 +1,257 @@
+package dev.rbq.library_management_system.session;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import dev.rbq.library_management_system.cache.NamedCache;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository.RedisSession;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 带本地近缓存的 Session 仓库
+ * 在短时间内重复读取同一个 Session 时不访问 Redis；只刷新最后访问时间的请求
+ * 每个 Session 在写回间隔内最多写回一次。修改属性、更换ID或删除 Session 时立即写入 Redis，
+ * 并通过缓存失效总线通知其他节点丢弃近缓存，消息丢失时近缓存依靠较短的过期时间兜底
+ */
+public class NearCachingSessionRepository
+        implements FindByIndexNameSessionRepository<NearCachingSessionRepository.NearCachedSession> {
+
+    // 跨节点失效区域，键为 Session ID
+    public static final String INVALIDATION_REGION = "session";
+
+    public static final String CACHE_NAME = "session";
+
+    private final RedisIndexedSessionRepository delegate;
+    private final NamedCache<String, CachedSession> cache;
+    private final CacheInvalidationBus invalidationBus;
+    private final Duration touchInterval;
+
+    /**
+     * @param delegate Redis Session 仓库
+     * @param cache 近缓存
+     * @param invalidationBus 缓存失效总线
+     * @param touchInterval 最后访问时间的写回间隔
+     */
+    public NearCachingSessionRepository(RedisIndexedSessionRepository delegate,
+                                        NamedCache<String, CachedSession> cache,
+                                        CacheInvalidationBus invalidationBus,
+                                        Duration touchInterval) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.invalidationBus = invalidationBus;
+        this.touchInterval = touchInterval;
+        invalidationBus.subscribe(INVALIDATION_REGION, id -> {
+            if (id == null) {
+                cache.invalidateAll();
+            } else {
+                cache.invalidate(id);
+            }
+        });
+    }
+
+    @Override
+    public NearCachedSession createSession() {
+        return new NearCachedSession(delegate.createSession(), true);
+    }
+
+    @Override
+    public void save(NearCachedSession session) {
+        boolean touchDue = Duration.between(session.persistedLastAccessedTime, session.view.getLastAccessedTime())
+                .compareTo(touchInterval) >= 0;
+        if (!session.dirty && !touchDue) {
+            // 只有最后访问时间变化且未到写回间隔：只更新本地近缓存
+            cache.put(session.getId(), new CachedSession(new MapSession(session.view), session.persistedLastAccessedTime));
+            return;
+        }
+
+        boolean attributesChanged = session.dirty;
+        RedisSession redisSession = session.resolve();
+        redisSession.setLastAccessedTime(session.view.getLastAccessedTime());
+        delegate.save(redisSession);
+
+        String previousId = session.persistedId;
+        session.persisted();
+        if (previousId != null && !previousId.equals(session.getId())) {
+            evict(previousId);
+        }
+        cache.put(session.getId(), new CachedSession(new MapSession(session.view), session.persistedLastAccessedTime));
+        if (attributesChanged) {
+            invalidationBus.publish(INVALIDATION_REGION, session.getId());
+        }
+    }
+
+    @Override
+    public NearCachedSession findById(String id) {
+        CachedSession cached = cache.getIfPresent(id);
+        if (cached != null && !cached.snapshot.isExpired()) {
+            return new NearCachedSession(new MapSession(cached.snapshot), cached.persistedLastAccessedTime);
+        }
+
+        RedisSession redisSession = delegate.findById(id);
+        if (redisSession == null) {
+            cache.invalidate(id);
+            return null;
+        }
+        NearCachedSession session = new NearCachedSession(redisSession, false);
+        cache.put(id, new CachedSession(new MapSession(session.view), session.persistedLastAccessedTime));
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+        evict(id);
+    }
+
+    @Override
+    public Map<String, NearCachedSession> findByIndexNameAndValue(String indexName, String indexValue) {
+        Map<String, NearCachedSession> sessions = new LinkedHashMap<>();
+        delegate.findByIndexNameAndValue(indexName, indexValue)
+                .forEach((id, redisSession) -> sessions.put(id, new NearCachedSession(redisSession, false)));
+        return sessions;
+    }
+
+    /**
+     * 丢弃本节点和其他节点上的近缓存
+     */
+    private void evict(String id) {
+        cache.invalidate(id);
+        invalidationBus.publish(INVALIDATION_REGION, id);
+    }
+
+    /**
+     * 近缓存条目：Session 快照和 Redis 中已保存的最后访问时间
+     */
+    public static final class CachedSession {
+        private final MapSession snapshot;
+        private final Instant persistedLastAccessedTime;
+
+        private CachedSession(MapSession snapshot, Instant persistedLastAccessedTime) {
+            this.snapshot = snapshot;
+            this.persistedLastAccessedTime = persistedLastAccessedTime;
+        }
+    }
+
+    /**
+     * 近缓存中的 Session
+     * 读取使用本地快照；修改属性时才从 Redis 加载真实 Session 并同步修改
+     */
+    public final class NearCachedSession implements Session {
+
+        private final MapSession view;
+        private RedisSession redisSession;
+        private String persistedId;
+        private Instant persistedLastAccessedTime;
+        private boolean dirty;
+
+        private NearCachedSession(RedisSession redisSession, boolean isNew) {
+            this.view = new MapSession(redisSession);
+            this.redisSession = redisSession;
+            this.persistedId = isNew ? null : redisSession.getId();
+            this.persistedLastAccessedTime = redisSession.getLastAccessedTime();
+            this.dirty = isNew;
+        }
+
+        private NearCachedSession(MapSession snapshot, Instant persistedLastAccessedTime) {
+            this.view = snapshot;
+            this.persistedId = snapshot.getId();
+            this.persistedLastAccessedTime = persistedLastAccessedTime;
+        }
+
+        /**
+         * 获取 Redis 中的真实 Session（命中近缓存时按需加载）
+         */
+        private RedisSession resolve() {
+            if (redisSession == null) {
+                redisSession = delegate.findById(view.getId());
+                if (redisSession == null) {
+                    cache.invalidate(view.getId());
+                    throw new IllegalStateException("The session has been invalidated");
+                }
+            }
+            return redisSession;
+        }
+
+        private void persisted() {
+            dirty = false;
+            persistedId = view.getId();
+            persistedLastAccessedTime = view.getLastAccessedTime();
+        }
+
+        @Override
+        public String getId() {
+            return view.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            String newId = resolve().changeSessionId();
+            view.setId(newId);
+            dirty = true;
+            return newId;
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return view.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return view.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            resolve().setAttribute(attributeName, attributeValue);
+            view.setAttribute(attributeName, attributeValue);
+            dirty = true;
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            resolve().removeAttribute(attributeName);
+            view.removeAttribute(attributeName);
+            dirty = true;
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return view.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            view.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return view.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            resolve().setMaxInactiveInterval(interval);
+            view.setMaxInactiveInterval(interval);
+            dirty = true;
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return view.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return view.isExpired();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dev.rbq.library_management_system.transaction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 可重试的事务执行器
+ * 在独立事务中执行操作，遇到死锁或锁等待超时（PessimisticLockingFailureException）时回滚并重试。
+ * 调用方不能已处于事务中，否则重试时外层事务已被标记为回滚
+ */
+@Component
+public class RetryingTransactionExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryingTransactionExecutor.class);
+
+    // 最大尝试次数
+    static final int MAX_ATTEMPTS = 3;
+
+    // 重试前的基础等待时间（毫秒），按尝试次数线性增加并加入随机抖动
+    private static final long BASE_BACKOFF_MILLIS = 20;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 在事务中执行操作，锁冲突时自动重试
+     * @param action 操作
+     * @return 操作结果
+     */
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    logger.warn("Transaction failed after {} attempts due to lock contention", attempt);
+                    throw e;
+                }
+                logger.debug("Lock contention on attempt {}, retrying: {}", attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long millis = BASE_BACKOFF_MILLIS * attempt + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS);
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry the transaction", e);
+        }
+    }
+}
@@ -4,7 +4,9 @@ create table
             username varchar(50) not null unique,
             name varchar(12) not null,
             password varchar(60) not null,
-            admin boolean not null default false
+            admin boolean not null default false,
+            key idx_name (name),
+            key idx_admin_username (admin, username)
 );
 
 -- 图书信息表（存储图书品种信息）
@@ -18,11 +20,15 @@ CREATE TABLE `books` (
                          `category` int(11) DEFAULT NULL COMMENT '分类',
                          `summary` text COMMENT '内容简介',
                          `price` decimal(10,2) DEFAULT NULL COMMENT '定价',
+                         `total_copies` int(11) NOT NULL DEFAULT 0 COMMENT '副本总数（冗余计数）',
+                         `available_copies` int(11) NOT NULL DEFAULT 0 COMMENT '可借副本数（冗余计数）',
                          PRIMARY KEY (`book_id`),
                          UNIQUE KEY `uk_isbn` (`isbn`),
                          KEY `idx_title` (`title`),
                          KEY `idx_author` (`author`),
-                         KEY `idx_publish_date` (`publish_date`)
+                         KEY `idx_publish_date` (`publish_date`),
+                         KEY `idx_category` (`category`),
+                         KEY `idx_available_copies` (`available_copies`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='图书信息表（品种信息）';
 
 -- 图书副本表（存储具体物理书籍信息）
@@ -38,6 +44,7 @@ CREATE TABLE `book_items` (
                               PRIMARY KEY (`item_id`),
                               UNIQUE KEY `uk_barcode` (`barcode`),
                               KEY `idx_book_id` (`book_id`),
+                              KEY `idx_book_status` (`book_id`, `status`),
                               KEY `idx_status` (`status`),
                               KEY `idx_location` (`location`),
                               CONSTRAINT `fk_book_items_book_id` FOREIGN KEY (`book_id`) REFERENCES `books` (`book_id`) ON DELETE CASCADE ON UPDATE CASCADE
@@ -62,6 +69,31 @@ CREATE TABLE `borrow_records` (
                                   KEY `idx_borrow_date` (`borrow_date`),
                                   KEY `idx_status` (`status`),
                                   KEY `idx_user_status` (`user_uuid`, `status`),
+                                  KEY `idx_user_borrow_date` (`user_uuid`, `borrow_date`),
+                                  KEY `idx_status_borrow_date` (`status`, `borrow_date`),
+                                  KEY `idx_status_due_date` (`status`, `due_date`),
                                   CONSTRAINT `fk_borrow_records_user_uuid` FOREIGN KEY (`user_uuid`) REFERENCES `user` (`uuid`) ON DELETE CASCADE ON UPDATE CASCADE,
                                   CONSTRAINT `fk_borrow_records_item_id` FOREIGN KEY (`item_id`) REFERENCES `book_items` (`item_id`) ON DELETE CASCADE ON UPDATE CASCADE
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='借阅记录表';
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='借阅记录表';
+
+-- 升级已有数据库：为 books 表添加副本计数器并根据 book_items 初始化
+-- ALTER TABLE `books`
+--     ADD COLUMN `total_copies` int(11) NOT NULL DEFAULT 0 COMMENT '副本总数（冗余计数）',
+--     ADD COLUMN `available_copies` int(11) NOT NULL DEFAULT 0 COMMENT '可借副本数（冗余计数）',
+--     ADD KEY `idx_available_copies` (`available_copies`);
+-- 之后调用 POST /api/books/copy-counters/reconcile 重新计算计数器
+
+-- 升级已有数据库：按筛选条件组合补充复合索引
+-- ALTER TABLE `books` ADD KEY `idx_category` (`category`);
+-- ALTER TABLE `borrow_records`
+--     ADD KEY `idx_user_borrow_date` (`user_uuid`, `borrow_date`),
+--     ADD KEY `idx_status_borrow_date` (`status`, `borrow_date`),
+--     ADD KEY `idx_status_due_date` (`status`, `due_date`);
+
+-- 升级已有数据库：按图书借阅时分配可借副本使用的索引
+-- ALTER TABLE `book_items` ADD KEY `idx_book_status` (`book_id`, `status`);
+
+-- 升级已有数据库：管理员用户列表按昵称前缀搜索和按管理员标识筛选使用的索引
+-- ALTER TABLE `user`
+--     ADD KEY `idx_name` (`name`),
+--     ADD KEY `idx_admin_username` (`admin`, `username`);
@@ -0,0 +1,73 @@
+package dev.rbq.library_management_system.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationBusTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    private CacheInvalidationBus bus;
+
+    private final List<String> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bus, "channel", "test:invalidation");
+        bus.subscribe("catalog", received::add);
+    }
+
+    @Test
+    void messagesFromPeersReachTheRegionHandler() {
+        bus.onMessage(message("peer-node\ncatalog\n42"), null);
+        bus.onMessage(message("peer-node\ncatalog\n"), null);
+
+        assertEquals(2, received.size());
+        assertEquals("42", received.get(0));
+        assertEquals(null, received.get(1));
+    }
+
+    @Test
+    void ownMessagesAreIgnored() {
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        bus.publish("catalog", "7");
+        verify(redisTemplate).convertAndSend(eq("test:invalidation"), payload.capture());
+
+        bus.onMessage(message(payload.getValue()), null);
+
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void unknownRegionsAndMalformedMessagesAreIgnored() {
+        bus.onMessage(message("peer-node\nusers\n7"), null);
+        bus.onMessage(message("garbage"), null);
+
+        assertTrue(received.isEmpty());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("test:invalidation".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package dev.rbq.library_management_system.cache;
+
+import dev.rbq.library_management_system.dto.book.BookResponse;
+import dev.rbq.library_management_system.dto.book.PageResponse;
+import dev.rbq.library_management_system.event.BookCopiesChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class CatalogCacheTest {
+
+    private final CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+    private final CatalogCache cache = new CatalogCache();
+    private final AtomicInteger pageLoads = new AtomicInteger();
+    private final AtomicInteger detailLoads = new AtomicInteger();
+    private final Map<Integer, Long> available = new HashMap<>(Map.of(1, 2L, 2, 0L));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "detailMaxSize", 100L);
+        ReflectionTestUtils.setField(cache, "detailTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "listMaxSize", 100L);
+        ReflectionTestUtils.setField(cache, "listTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "cacheRegistry", new CacheRegistry());
+        ReflectionTestUtils.setField(cache, "invalidationBus", bus);
+        cache.initCaches();
+    }
+
+    @Test
+    void counterChangeKeepsListPageAndRefreshesOnlyThatBook() {
+        list(false);
+        available.put(1, 1L);
+        cache.onBookCopiesChanged(new BookCopiesChangedEvent(1));
+
+        PageResponse<BookResponse> page = list(false);
+
+        assertEquals(1, pageLoads.get());
+        assertEquals(1, detailLoads.get());
+        assertEquals(1L, page.getContent().get(0).getAvailableCopies());
+        assertEquals(List.of(1, 2), page.getContent().stream().map(BookResponse::getBookId).toList());
+        verify(bus).publish(CatalogCache.INVALIDATION_REGION, "copies:1");
+    }
+
+    @Test
+    void counterChangeDropsAvailableOnlyPages() {
+        list(true);
+        cache.onBookCopiesChanged(new BookCopiesChangedEvent(2));
+        list(true);
+
+        assertEquals(2, pageLoads.get());
+    }
+
+    private PageResponse<BookResponse> list(boolean availableOnly) {
+        return cache.getBookList(0, 10, null, null, null, availableOnly, null, null,
+                () -> {
+                    pageLoads.incrementAndGet();
+                    return new PageResponse<>(List.of(book(1), book(2)), 0, 10, 2, 1, true, true, false);
+                },
+                this::loadDetails);
+    }
+
+    private Map<Integer, BookResponse> loadDetails(Collection<Integer> bookIds) {
+        detailLoads.incrementAndGet();
+        Map<Integer, BookResponse> books = new HashMap<>();
+        bookIds.forEach(bookId -> books.put(bookId, book(bookId)));
+        return books;
+    }
+
+    private BookResponse book(int bookId) {
+        BookResponse book = new BookResponse();
+        book.setBookId(bookId);
+        book.setAvailableCopies(available.get(bookId));
+        return book;
+    }
+}
@@ -0,0 +1,105 @@
+package dev.rbq.library_management_system.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NamedCacheTest {
+
+    @Test
+    void secondReadIsServedFromCache() {
+        NamedCache<Integer, String> cache = new NamedCache<>("test", 10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, () -> "v" + loads.incrementAndGet());
+        String value = cache.get(1, () -> "v" + loads.incrementAndGet());
+
+        assertEquals("v1", value);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getHitCount());
+    }
+
+    @Test
+    void loadRacingWithInvalidationIsNotCached() {
+        NamedCache<Integer, String> cache = new NamedCache<>("test", 10, Duration.ofMinutes(1));
+
+        String stale = cache.get(1, () -> {
+            cache.invalidate(1);
+            return "stale";
+        });
+        String fresh = cache.get(1, () -> "fresh");
+
+        assertEquals("stale", stale);
+        assertEquals("fresh", fresh);
+    }
+
+    @Test
+    void invalidatingOtherKeysDuringLoadStillCaches() {
+        NamedCache<Integer, String> cache = new NamedCache<>("test", 10, Duration.ofMinutes(1));
+
+        cache.get(1, () -> {
+            cache.invalidate(2);
+            cache.invalidateIf(key -> key > 1);
+            return "loaded";
+        });
+
+        assertEquals("loaded", cache.getIfPresent(1));
+    }
+
+    @Test
+    void bulkLoadSkipsOnlyKeysInvalidatedDuringLoad() {
+        NamedCache<Integer, String> cache = new NamedCache<>("test", 10, Duration.ofMinutes(1));
+
+        Map<Integer, String> values = cache.getAll(List.of(1, 2), missing -> {
+            cache.invalidate(2);
+            return Map.of(1, "one", 2, "stale");
+        });
+
+        assertEquals(Map.of(1, "one", 2, "stale"), values);
+        assertEquals("one", cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2));
+    }
+
+    @Test
+    void bulkReadLoadsOnlyMissingKeysOnce() {
+        NamedCache<Integer, String> cache = new NamedCache<>("test", 10, Duration.ofMinutes(1));
+        cache.put(1, "cached");
+        AtomicInteger loads = new AtomicInteger();
+
+        Map<Integer, String> values = cache.getAll(List.of(1, 2, 3), missing -> {
+            loads.incrementAndGet();
+            assertEquals(List.of(2, 3), missing);
+            return Map.of(2, "loaded");
+        });
+
+        assertEquals(Map.of(1, "cached", 2, "loaded"), values);
+        assertEquals(1, loads.get());
+        assertEquals("loaded", cache.getIfPresent(2));
+    }
+
+    @Test
+    void invalidateIfRemovesOnlyMatchingKeys() {
+        NamedCache<Integer, String> cache = new NamedCache<>("test", 10, Duration.ofMinutes(1));
+        cache.put(1, "odd");
+        cache.put(2, "even");
+
+        cache.invalidateIf(key -> key % 2 == 0);
+
+        assertEquals("odd", cache.getIfPresent(1));
+        assertNull(cache.getIfPresent(2));
+    }
+
+    @Test
+    void nullResultsAreNotCached() {
+        NamedCache<Integer, String> cache = new NamedCache<>("test", 10, Duration.ofMinutes(1));
+
+        assertNull(cache.get(1, () -> null));
+        assertEquals("loaded", cache.get(1, () -> "loaded"));
+    }
+}
@@ -0,0 +1,99 @@
+package dev.rbq.library_management_system.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BarcodeTableTest {
+
+    @Test
+    void putFindAndOverwrite() {
+        BarcodeTable table = new BarcodeTable(4);
+        assertTrue(table.put("B0001", 1, 10, (byte) 0));
+        assertFalse(table.put("B0001", 1, 11, (byte) 1));
+
+        int slot = table.find("B0001");
+        assertEquals(11, table.bookId(slot));
+        assertEquals(1, table.status(slot));
+        assertEquals(-1, table.find("B0002"));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void lookupIgnoresCase() {
+        BarcodeTable table = new BarcodeTable(4);
+        table.put("Lib0001", 1, 10, (byte) 0);
+
+        assertEquals(1, table.itemId(table.find("LIB0001")));
+        assertEquals(1, table.itemId(table.find("lib0001")));
+        assertFalse(table.put("LIB0001", 1, 10, (byte) 1));
+        assertEquals("LIB0001", table.barcode(table.find("lib0001")));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void removeItemFollowsBarcodeChangesAndReuse() {
+        BarcodeTable table = new BarcodeTable(4);
+        table.put("A1", 1, 10, (byte) 0);
+        table.put("A2", 2, 10, (byte) 0);
+
+        // 副本 1 改用 A3，原条码号 A1 随后分配给副本 2
+        table.put("A3", 1, 10, (byte) 0);
+        assertEquals(-1, table.find("A1"));
+        table.put("A1", 2, 10, (byte) 0);
+        assertEquals(-1, table.find("A2"));
+        assertEquals(2, table.size());
+
+        assertTrue(table.removeItem(1));
+        assertFalse(table.removeItem(1));
+        assertEquals(-1, table.find("A3"));
+        assertEquals(2, table.itemId(table.find("A1")));
+
+        assertTrue(table.removeItem(2));
+        assertFalse(table.removeItem(99));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void randomPutsAndRemovesMatchHashMap() {
+        BarcodeTable table = new BarcodeTable(16);
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            String barcode = "B" + random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(barcode) != null, table.remove(barcode));
+            } else {
+                table.put(barcode, i, i % 50, (byte) 0);
+                expected.put(barcode, i);
+            }
+        }
+
+        assertEquals(expected.size(), table.size());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), table.itemId(table.find(entry.getKey())));
+        }
+    }
+
+    @Test
+    void removeBookDropsOnlyThatBook() {
+        BarcodeTable table = new BarcodeTable(16);
+        for (int i = 0; i < 1000; i++) {
+            table.put("B" + i, i, i % 3, (byte) 0);
+        }
+
+        assertEquals(334, table.removeBook(0));
+
+        assertEquals(666, table.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 3 != 0, table.find("B" + i) >= 0);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package dev.rbq.library_management_system.inventory;
+
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.repository.BookItemRepository;
+import dev.rbq.library_management_system.repository.BookItemRepository.ItemIndexEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemIndexUpdaterTest {
+
+    private BookItemRepository bookItemRepository;
+    private RecordingIndex index;
+    private ItemIndexUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        bookItemRepository = mock(BookItemRepository.class);
+        index = new RecordingIndex();
+        updater = new ItemIndexUpdater();
+        ReflectionTestUtils.setField(updater, "bookItemRepository", bookItemRepository);
+        ReflectionTestUtils.setField(updater, "indexes", List.of(index));
+    }
+
+    @Test
+    void loadAppliesChangesQueuedDuringLoadBeforeMarkingReady() throws InterruptedException {
+        when(bookItemRepository.findIndexEntriesAfter(eq(0), any(Pageable.class))).thenAnswer(invocation -> {
+            // 加载期间副本 1 被修改
+            updater.enqueueItems(List.of(1));
+            return List.of(entry(1, "A-1"), entry(2, "A-1"));
+        });
+        when(bookItemRepository.findIndexEntriesAfter(eq(2), any(Pageable.class))).thenReturn(List.of());
+        when(bookItemRepository.findIndexEntriesByIds(anyCollection())).thenReturn(List.of(entry(1, "B-2")));
+
+        updater.load();
+
+        assertTrue(index.ready);
+        assertEquals(List.of("1@A-1", "2@A-1", "1@B-2"), index.applied);
+    }
+
+    @Test
+    void drainCoalescesChangesAndReportsDeletedItems() {
+        updater.enqueueItems(List.of(1, 2));
+        updater.enqueueItems(List.of(2, 3));
+        updater.enqueueBook(9);
+        when(bookItemRepository.findIndexEntriesByIds(anyCollection())).thenReturn(List.of(entry(1, "A-1"), entry(2, "A-1")));
+
+        updater.drain();
+
+        verify(bookItemRepository, times(1)).findIndexEntriesByIds(anyCollection());
+        assertEquals(Set.of("1@A-1", "2@A-1"), new HashSet<>(index.applied));
+        assertEquals(Set.of(3), index.removed);
+        assertEquals(List.of(9), index.removedBooks);
+    }
+
+    @Test
+    void failedRefreshKeepsItemsPending() {
+        updater.enqueueItems(List.of(1));
+        when(bookItemRepository.findIndexEntriesByIds(anyCollection()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(List.of(entry(1, "A-1")));
+
+        assertThrows(QueryTimeoutException.class, updater::drain);
+        updater.drain();
+
+        assertEquals(List.of("1@A-1"), index.applied);
+    }
+
+    private static ItemIndexEntry entry(int itemId, String location) {
+        return new ItemIndexEntry() {
+            public Integer getItemId() {
+                return itemId;
+            }
+
+            public Integer getBookId() {
+                return 10;
+            }
+
+            public String getBarcode() {
+                return "B" + itemId;
+            }
+
+            public String getLocation() {
+                return location;
+            }
+
+            public BookItemStatus getStatus() {
+                return BookItemStatus.Available;
+            }
+        };
+    }
+
+    private static final class RecordingIndex implements ItemIndex {
+        final List<String> applied = new ArrayList<>();
+        final Set<Integer> removed = new HashSet<>();
+        final List<Integer> removedBooks = new ArrayList<>();
+        boolean ready;
+
+        @Override
+        public void apply(List<ItemIndexEntry> rows, Collection<Integer> removedItemIds) {
+            rows.forEach(row -> applied.add(row.getItemId() + "@" + row.getLocation()));
+            removed.addAll(removedItemIds);
+        }
+
+        @Override
+        public void removeBook(int bookId) {
+            removedBooks.add(bookId);
+        }
+
+        @Override
+        public void markReady() {
+            ready = true;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package dev.rbq.library_management_system.inventory;
+
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocationTreeTest {
+
+    @Test
+    void parsesUpToFourLevels() {
+        assertEquals(List.of("A", "2", "03", "4-b"), LocationPath.parse("A-2-03-4-b"));
+        assertEquals(List.of("A"), LocationPath.parse("A"));
+        assertEquals(List.of(), LocationPath.parse(" "));
+    }
+
+    @Test
+    void aggregatesCountsAlongThePath() {
+        LocationTree tree = new LocationTree();
+        tree.put(1, 10, "A-2-03-1", BookItemStatus.Available);
+        tree.put(2, 10, "A-2-03-2", BookItemStatus.Checked_Out);
+        tree.put(3, 11, "a-2-10-1", BookItemStatus.Available);
+        tree.put(4, 11, null, BookItemStatus.Available);
+
+        LocationTree.Node floor = tree.find("A-2");
+        assertEquals(3, floor.copies);
+        assertEquals(2, floor.statusCounts[BookItemStatus.Available.ordinal()]);
+        assertEquals(1, floor.statusCounts[BookItemStatus.Checked_Out.ordinal()]);
+        // 数字按数值排序
+        assertEquals(List.of("03", "10"), floor.children.values().stream().map(node -> node.label).toList());
+        assertEquals("A-2-03", tree.find("a-2-03").path);
+
+        assertEquals(4, tree.root().copies);
+        assertEquals(1, tree.root().directCopies);
+    }
+
+    @Test
+    void movingAndRemovingCopiesPrunesEmptyNodes() {
+        LocationTree tree = new LocationTree();
+        tree.put(1, 10, "A-1-01-1", BookItemStatus.Available);
+        tree.put(2, 10, "A-1-01-2", BookItemStatus.Available);
+
+        tree.put(1, 10, "B-1-01-1", BookItemStatus.Damaged);
+        assertEquals(1, tree.find("A").copies);
+        assertNull(tree.find("A-1-01-1"));
+        assertEquals(1, tree.find("B").statusCounts[BookItemStatus.Damaged.ordinal()]);
+
+        assertEquals(2, tree.removeBook(10));
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.root().copies);
+        assertEquals(0, tree.root().children.size());
+    }
+
+    @Test
+    void searchMatchesThePartialLastLevel() {
+        LocationTree tree = new LocationTree();
+        tree.put(1, 10, "A-2-01-1", BookItemStatus.Available);
+        tree.put(2, 10, "A-2-02-1", BookItemStatus.Available);
+        tree.put(3, 10, "A-2-11-1", BookItemStatus.Available);
+
+        assertEquals(List.of("A-2-01", "A-2-02"), tree.search("A-2-0", 10).stream().map(node -> node.path).toList());
+        assertEquals(3, tree.search("A-2-", 10).size());
+        assertEquals(1, tree.search("A-2-", 1).size());
+        assertEquals(List.of(), tree.search("B-", 10));
+    }
+}
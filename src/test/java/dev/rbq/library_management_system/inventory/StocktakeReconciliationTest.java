@@ -0,0 +1,96 @@
+package dev.rbq.library_management_system.inventory;
+
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository.ItemRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StocktakeReconciliationTest {
+
+    @Test
+    void classifiesMissingMisplacedAndUnexpectedCopies() {
+        BitSet seen = new BitSet();
+        seen.set(1);   // 在架，已扫到
+        seen.set(3);   // 已借出却在架上
+        seen.set(5);   // 位置不在盘点范围内
+        StocktakeReconciliation reconciliation = new StocktakeReconciliation("A-2", seen, 10);
+
+        reconciliation.acceptInRange(row(1, "A-2-01", "Available"));
+        reconciliation.acceptInRange(row(2, "A-2-01", "Damaged"));
+        reconciliation.acceptInRange(row(3, "A-2-02", "Checked_Out"));
+        reconciliation.acceptInRange(row(4, "A-2-02", "Withdrawn"));
+
+        assertEquals(List.of(5), reconciliation.unmatchedItemIds().stream().boxed().toList());
+        reconciliation.acceptScannedOutsideRange(row(5, "B-1-01", "Available"));
+
+        assertEquals(2, reconciliation.getExpected());
+        assertEquals(1, reconciliation.getFound());
+        assertEquals(1, reconciliation.getMissingCount());
+        assertEquals(2, reconciliation.getMissingItems().get(0).getItemId());
+        assertTrue(reconciliation.missingItemIds().get(2));
+        assertEquals(1, reconciliation.getUnexpectedCount());
+        assertEquals(3, reconciliation.getUnexpectedItems().get(0).getItemId());
+        assertEquals(1, reconciliation.getMisplacedCount());
+        assertEquals(5, reconciliation.getMisplacedItems().get(0).getItemId());
+        assertTrue(reconciliation.unmatchedItemIds().isEmpty());
+        assertFalse(reconciliation.isTruncated());
+    }
+
+    @Test
+    void copyMovedIntoRangeAfterTheRangeQueryCountsAsFound() {
+        BitSet seen = new BitSet();
+        seen.set(7);
+        StocktakeReconciliation reconciliation = new StocktakeReconciliation("A-2", seen, 10);
+
+        reconciliation.acceptScannedOutsideRange(row(7, "a-2-05", "Available"));
+
+        assertEquals(1, reconciliation.getFound());
+        assertEquals(0, reconciliation.getMisplacedCount());
+    }
+
+    @Test
+    void rangeMatchesWholeLevelsOnly() {
+        assertTrue(StocktakeReconciliation.isUnder("A-1", "A-1"));
+        assertTrue(StocktakeReconciliation.isUnder("a-1-03-2", "A-1"));
+        assertFalse(StocktakeReconciliation.isUnder("A-10", "A-1"));
+        assertFalse(StocktakeReconciliation.isUnder("A-19-01", "A-1"));
+
+        // A-10 上被扫到的副本属于范围外（错架），不会被当作 A-1 的在架副本
+        BitSet seen = new BitSet();
+        seen.set(8);
+        StocktakeReconciliation reconciliation = new StocktakeReconciliation("A-1", seen, 10);
+        reconciliation.acceptScannedOutsideRange(row(8, "A-10-01", "Available"));
+        assertEquals(0, reconciliation.getFound());
+        assertEquals(1, reconciliation.getMisplacedCount());
+    }
+
+    @Test
+    void keepsAllMissingIdsButOnlyReportsTheFirstDetails() {
+        StocktakeReconciliation reconciliation = new StocktakeReconciliation("A", new BitSet(), 2);
+        for (int itemId = 1; itemId <= 5; itemId++) {
+            reconciliation.acceptInRange(row(itemId, "A-1", "Available"));
+        }
+
+        assertEquals(5, reconciliation.getMissingCount());
+        assertEquals(5, reconciliation.missingItemIds().cardinality());
+        assertEquals(2, reconciliation.getMissingItems().size());
+        assertTrue(reconciliation.isTruncated());
+    }
+
+    @Test
+    void redisBitmapOffsetsStartFromTheHighestBit() {
+        // SETBIT 0、7、9 之后的位图
+        BitSet bits = StocktakeStore.toBitSet(new byte[]{(byte) 0b1000_0001, (byte) 0b0100_0000});
+
+        assertEquals(List.of(0, 7, 9), bits.stream().boxed().toList());
+    }
+
+    private static ItemRow row(int itemId, String location, String status) {
+        return new ItemRow(itemId, 100, "B" + itemId, location, status);
+    }
+}
@@ -0,0 +1,61 @@
+package dev.rbq.library_management_system.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    private static final Set<String> SORT_FIELDS = Set.of("borrowDate", "title");
+
+    @Test
+    void firstPageUsesRequestedSort() {
+        KeysetCursor cursor = KeysetCursor.resolve(null, "title", "asc", SORT_FIELDS);
+
+        assertTrue(cursor.isFirstPage());
+        assertEquals("title", cursor.getSortBy());
+        assertTrue(cursor.isAscending());
+    }
+
+    @Test
+    void encodedCursorRoundTripsAndKeepsItsSort() {
+        LocalDateTime borrowDate = LocalDateTime.of(2024, 3, 1, 10, 30, 15);
+        String token = KeysetCursor.resolve(null, "borrowDate", "desc", SORT_FIELDS)
+                .after(borrowDate, "3f2c|a/b")
+                .encode();
+
+        // 有游标时忽略请求中的排序参数
+        KeysetCursor decoded = KeysetCursor.resolve(token, "title", "asc", SORT_FIELDS);
+
+        assertFalse(decoded.isFirstPage());
+        assertEquals("borrowDate", decoded.getSortBy());
+        assertFalse(decoded.isAscending());
+        assertEquals(borrowDate.toString(), decoded.getSortValue());
+        assertEquals("3f2c|a/b", decoded.getIdValue());
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.resolve("not a cursor!", "title", "asc", SORT_FIELDS));
+    }
+
+    @Test
+    void rejectsSortFieldOutsideWhitelist() {
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.resolve(null, "summary", "asc", SORT_FIELDS));
+
+        String token = KeysetCursor.resolve(null, "summary", "asc", Set.of("summary"))
+                .after("x", 1)
+                .encode();
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.resolve(token, "title", "asc", SORT_FIELDS));
+    }
+}
@@ -0,0 +1,104 @@
+package dev.rbq.library_management_system.pagination;
+
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
+import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 在内存数据库上逐页翻完，验证排序键重复时的顺序、去重和最后一页
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // user 是 H2 的关键字
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+class KeysetPagingTest {
+
+    private static final Set<String> SORT_FIELDS = Set.of("uuid", "username", "name");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private List<User> users;
+
+    @BeforeEach
+    void createUsersWithDuplicateNames() {
+        // 7 个用户只有 3 个不同的昵称，uuid 插入顺序与排序顺序不同
+        users = userRepository.saveAll(List.of(
+                user("u-05", "s05", "beta"),
+                user("u-02", "s02", "beta"),
+                user("u-07", "s07", "alpha"),
+                user("u-01", "s01", "beta"),
+                user("u-06", "s06", "gamma"),
+                user("u-04", "s04", "alpha"),
+                user("u-03", "s03", "beta")
+        ));
+    }
+
+    @Test
+    void tiesAreOrderedByIdAndNeverRepeatedOrSkipped() {
+        Comparator<User> byNameThenId = Comparator.comparing(User::getName).thenComparing(User::getUuid);
+
+        assertEquals(expected(byNameThenId), walk("name", "asc", 2));
+        assertEquals(expected(byNameThenId.reversed()), walk("name", "desc", 2));
+        // 每页一行时每次翻页都落在相同的排序键上
+        assertEquals(expected(byNameThenId), walk("name", "asc", 1));
+    }
+
+    @Test
+    void lastFullPageReportsNoNextPage() {
+        KeysetCursor first = KeysetCursor.resolve(null, "name", "asc", SORT_FIELDS);
+        CursorPageResponse<String> page = KeysetPaging.fetch(userRepository, null, first, "uuid", 4, true, User::getUuid);
+        assertTrue(page.isHasNext());
+        assertEquals(7L, page.getTotalElements());
+
+        // 剩余行数恰好等于页大小
+        KeysetCursor next = KeysetCursor.resolve(page.getNextCursor(), null, null, SORT_FIELDS);
+        CursorPageResponse<String> last = KeysetPaging.fetch(userRepository, null, next, "uuid", 3, false, User::getUuid);
+        assertEquals(3, last.getContent().size());
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+        assertNull(last.getTotalElements());
+    }
+
+    /**
+     * 从第一页开始按游标翻到最后一页，返回全部 uuid
+     */
+    private List<String> walk(String sortBy, String direction, int size) {
+        List<String> seen = new ArrayList<>();
+        String token = null;
+        do {
+            KeysetCursor cursor = KeysetCursor.resolve(token, sortBy, direction, SORT_FIELDS);
+            CursorPageResponse<String> page = KeysetPaging.fetch(
+                    userRepository, null, cursor, "uuid", size, false, User::getUuid);
+            assertTrue(page.getContent().size() <= size);
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            seen.addAll(page.getContent());
+            token = page.getNextCursor();
+        } while (token != null);
+        return seen;
+    }
+
+    private List<String> expected(Comparator<User> order) {
+        return users.stream().sorted(order).map(User::getUuid).toList();
+    }
+
+    private static User user(String uuid, String username, String name) {
+        return new User(uuid, username, name, "$2a$10$hash", false);
+    }
+}
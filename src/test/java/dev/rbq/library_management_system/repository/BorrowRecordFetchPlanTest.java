@@ -0,0 +1,155 @@
+package dev.rbq.library_management_system.repository;
+
+import dev.rbq.library_management_system.dto.book.CursorPageResponse;
+import dev.rbq.library_management_system.entity.Book;
+import dev.rbq.library_management_system.entity.BookItem;
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.entity.BorrowRecord;
+import dev.rbq.library_management_system.entity.BorrowRecord.BorrowStatus;
+import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.pagination.KeysetCursor;
+import dev.rbq.library_management_system.pagination.KeysetPaging;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 借阅记录列表的语句数：读取一页并访问转换为响应时用到的用户、副本和图书，
+ * 语句数与页大小无关（分页查询 + 可选的总数查询）
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // user 是 H2 的关键字
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+// 副本计数器列不由实体写入，默认值在 database.sql 中定义
+@Sql(statements = {
+        "ALTER TABLE \"books\" ALTER COLUMN \"total_copies\" SET DEFAULT 0",
+        "ALTER TABLE \"books\" ALTER COLUMN \"available_copies\" SET DEFAULT 0"
+})
+class BorrowRecordFetchPlanTest {
+
+    private static final int RECORDS = 12;
+    private static final int[] PAGE_SIZES = {2, 5, 10};
+    private static final List<String> DETAIL_FETCH_PATHS = List.of("user", "bookItem", "bookItem.book");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    private Statistics statistics;
+
+    private String userUuid;
+
+    @BeforeEach
+    void createOverdueRecordsOnDistinctBooks() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        User user = entityManager.persist(new User("u-01", "s01", "alice", "$2a$10$hash", false));
+        userUuid = user.getUuid();
+        LocalDateTime now = LocalDateTime.now();
+        // 每条记录对应不同的副本和图书，懒加载时每行都会多出查询
+        for (int i = 0; i < RECORDS; i++) {
+            Book book = entityManager.persist(new Book(null, "Title " + i, "Author " + i, null, null, null, null, null));
+            BookItem item = entityManager.persist(
+                    new BookItem(book, "BC-" + i, null, BookItemStatus.Checked_Out, null, null, null));
+            entityManager.persist(new BorrowRecord(String.format("r-%02d", i), user, item,
+                    now.minusDays(40 - i), now.minusDays(10 - i % 5), null, BorrowStatus.Checked_Out));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void userPageIssuesTheSameStatementsForEveryPageSize() {
+        assertStatementsIndependentOfPageSize(2, size -> () ->
+                touch(borrowRecordRepository.findByUserUuid(userUuid, PageRequest.of(0, size)).getContent()));
+    }
+
+    @Test
+    void filteredPageIssuesTheSameStatementsForEveryPageSize() {
+        Specification<BorrowRecord> filter = Specification.allOf(
+                BorrowRecordSpecifications.userUuidEquals(userUuid),
+                BorrowRecordSpecifications.statusEquals(BorrowStatus.Checked_Out),
+                BorrowRecordSpecifications.borrowedFrom(LocalDateTime.now().minusDays(60)));
+
+        assertStatementsIndependentOfPageSize(2, size -> () -> {
+            Page<BorrowRecord> page = borrowRecordRepository.findAll(
+                    filter, PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "borrowDate")));
+            touch(page.getContent());
+        });
+    }
+
+    @Test
+    void overduePageIssuesTheSameStatementsForEveryPageSize() {
+        assertStatementsIndependentOfPageSize(2, size -> () ->
+                touch(borrowRecordRepository.findOverdueRecords(LocalDateTime.now(), PageRequest.of(0, size)).getContent()));
+    }
+
+    @Test
+    void cursorPageIssuesOneStatementForEveryPageSize() {
+        Specification<BorrowRecord> filter = BorrowRecordSpecifications.overdueAt(LocalDateTime.now());
+
+        assertStatementsIndependentOfPageSize(1, size -> () -> {
+            KeysetCursor first = KeysetCursor.resolve(null, "dueDate", "asc", Set.of("dueDate"));
+            CursorPageResponse<String> page = KeysetPaging.fetch(borrowRecordRepository, filter, first, "recordId",
+                    size, false, DETAIL_FETCH_PATHS, BorrowRecordFetchPlanTest::describe);
+            assertEquals(size, page.getContent().size());
+        });
+    }
+
+    /**
+     * 以每种页大小读取第一页，每次都从空的持久化上下文开始计数
+     */
+    private void assertStatementsIndependentOfPageSize(long expected, PageQuery query) {
+        List<Long> counts = new ArrayList<>();
+        for (int size : PAGE_SIZES) {
+            counts.add(countStatements(query.forSize(size)));
+        }
+        assertEquals(List.of(expected, expected, expected), counts);
+    }
+
+    private long countStatements(Runnable query) {
+        entityManager.clear();
+        statistics.clear();
+        query.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * 访问与 BorrowRecordService.convertToResponse 相同的关联属性
+     */
+    private static void touch(List<BorrowRecord> records) {
+        records.forEach(BorrowRecordFetchPlanTest::describe);
+    }
+
+    private static String describe(BorrowRecord borrowRecord) {
+        return borrowRecord.getUser().getUsername() + borrowRecord.getUser().getName()
+                + borrowRecord.getBookItem().getBarcode()
+                + borrowRecord.getBookItem().getBook().getTitle() + borrowRecord.getBookItem().getBook().getAuthor();
+    }
+
+    private interface PageQuery {
+        Runnable forSize(int size);
+    }
+}
@@ -0,0 +1,168 @@
+package dev.rbq.library_management_system.repository;
+
+import dev.rbq.library_management_system.entity.Book;
+import dev.rbq.library_management_system.entity.BorrowRecord;
+import dev.rbq.library_management_system.entity.BorrowRecord.BorrowStatus;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 每种筛选组合生成的 WHERE 子句只包含实际提供的条件，
+ * 不出现 “:x IS NULL OR ...” 这类让 MySQL 无法使用索引的写法
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // user 是 H2 的关键字
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+class SpecificationPredicatesTest {
+
+    private static final List<String> BOOK_COLUMNS =
+            List.of("title", "author", "category", "available_copies", "book_id");
+    private static final List<String> BORROW_RECORD_COLUMNS =
+            List.of("user_uuid", "status", "borrow_date", "borrow_date");
+    private static final List<String> ALL_COLUMNS = List.of(
+            "title", "author", "category", "available_copies", "book_id", "user_uuid", "status", "borrow_date");
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Test
+    void bookFiltersEmitOnlySuppliedPredicates() {
+        // 每一位对应 BOOK_COLUMNS 中的一个筛选条件
+        for (int mask = 0; mask < 1 << BOOK_COLUMNS.size(); mask++) {
+            Specification<Book> spec = Specification.allOf(
+                    BookSpecifications.titleContains(supplied(mask, 0) ? "java" : null),
+                    BookSpecifications.authorContains(supplied(mask, 1) ? "knuth" : null),
+                    BookSpecifications.categoryEquals(supplied(mask, 2) ? 3 : null),
+                    BookSpecifications.availableOnly(supplied(mask, 3)),
+                    BookSpecifications.bookIdIn(supplied(mask, 4) ? List.of(7) : null));
+
+            STATEMENTS.clear();
+            bookRepository.findAll(spec);
+
+            assertWhereColumns(expectedColumns(BOOK_COLUMNS, mask), "mask " + mask);
+        }
+    }
+
+    @Test
+    void borrowRecordFiltersEmitOnlySuppliedPredicates() {
+        LocalDateTime start = LocalDateTime.of(2024, 9, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 9, 30, 23, 59);
+        // 每一位对应 BORROW_RECORD_COLUMNS 中的一个筛选条件，日期范围的两端分别计算
+        for (int mask = 0; mask < 1 << BORROW_RECORD_COLUMNS.size(); mask++) {
+            Specification<BorrowRecord> spec = Specification.allOf(
+                    BorrowRecordSpecifications.userUuidEquals(supplied(mask, 0) ? "u-01" : null),
+                    BorrowRecordSpecifications.statusEquals(supplied(mask, 1) ? BorrowStatus.Checked_Out : null),
+                    BorrowRecordSpecifications.borrowedFrom(supplied(mask, 2) ? start : null),
+                    BorrowRecordSpecifications.borrowedTo(supplied(mask, 3) ? end : null));
+
+            STATEMENTS.clear();
+            borrowRecordRepository.findAll(spec);
+
+            assertWhereColumns(expectedColumns(BORROW_RECORD_COLUMNS, mask), "mask " + mask);
+        }
+    }
+
+    @Test
+    void dateRangeOnlySearchBoundsBorrowDateAndNothingElse() {
+        STATEMENTS.clear();
+        borrowRecordRepository.findAll(Specification.allOf(
+                BorrowRecordSpecifications.borrowedFrom(LocalDateTime.of(2024, 9, 1, 0, 0)),
+                BorrowRecordSpecifications.borrowedTo(LocalDateTime.of(2024, 9, 30, 23, 59))));
+
+        String where = whereClause();
+        assertEquals(List.of("borrow_date", "borrow_date"), columnsIn(where));
+        assertEquals(2, where.chars().filter(c -> c == '?').count(), where);
+    }
+
+    private static boolean supplied(int mask, int bit) {
+        return (mask & 1 << bit) != 0;
+    }
+
+    private static List<String> expectedColumns(List<String> columns, int mask) {
+        List<String> expected = new ArrayList<>();
+        for (int bit = 0; bit < columns.size(); bit++) {
+            if (supplied(mask, bit)) {
+                expected.add(columns.get(bit));
+            }
+        }
+        return expected;
+    }
+
+    private static void assertWhereColumns(List<String> expected, String combination) {
+        String where = whereClause();
+        assertFalse(where.contains("is null"), combination + ": " + where);
+        assertFalse(where.contains(" or "), combination + ": " + where);
+        assertEquals(sorted(expected), sorted(columnsIn(where)), combination + ": " + where);
+    }
+
+    /**
+     * 最近一条查询语句的 WHERE 子句（小写、去掉标识符引号，没有条件时为空串）
+     */
+    private static String whereClause() {
+        assertEquals(1, STATEMENTS.size(), STATEMENTS::toString);
+        String sql = STATEMENTS.get(0).replace("\"", "").toLowerCase(Locale.ROOT);
+        int where = sql.indexOf(" where ");
+        return where < 0 ? "" : sql.substring(where + " where ".length());
+    }
+
+    /**
+     * WHERE 子句中出现的列（每次出现计一次）
+     */
+    private static List<String> columnsIn(String where) {
+        List<String> found = new ArrayList<>();
+        for (String column : ALL_COLUMNS) {
+            int from = 0;
+            while ((from = where.indexOf("." + column, from)) >= 0) {
+                from += column.length() + 1;
+                if (from >= where.length() || !(Character.isLetterOrDigit(where.charAt(from)) || where.charAt(from) == '_')) {
+                    found.add(column);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static List<String> sorted(List<String> columns) {
+        List<String> copy = new ArrayList<>(columns);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @TestConfiguration
+    static class CaptureStatements {
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package dev.rbq.library_management_system.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserSpecificationsTest {
+
+    @Test
+    void likeWildcardsAreMatchedLiterally() {
+        assertEquals("stu\\_2024\\%", UserSpecifications.escapeLike("stu_2024%"));
+        assertEquals("a\\\\b", UserSpecifications.escapeLike("a\\b"));
+        assertEquals("alice", UserSpecifications.escapeLike("alice"));
+    }
+
+    @Test
+    void missingFiltersAreIgnored() {
+        assertNull(UserSpecifications.usernameOrNameStartsWith(null));
+        assertNull(UserSpecifications.usernameOrNameStartsWith(""));
+        assertNull(UserSpecifications.adminEquals(null));
+    }
+}
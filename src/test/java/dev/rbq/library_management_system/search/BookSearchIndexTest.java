@@ -0,0 +1,136 @@
+package dev.rbq.library_management_system.search;
+
+import dev.rbq.library_management_system.repository.BookRepository;
+import dev.rbq.library_management_system.repository.BookRepository.BookSearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        ReflectionTestUtils.setField(index, "mode", "cjk");
+        index.initTokenizer();
+        index.upsert(document(1, "红楼梦", "曹雪芹", "人民文学出版社", "中国古典长篇小说"));
+        index.upsert(document(2, "西游记", "吴承恩", "人民文学出版社", "神魔小说"));
+        index.upsert(document(3, "楼兰梦影", "佚名", null, null));
+        index.upsert(document(4, "Effective Java", "Joshua Bloch", "Addison-Wesley", null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"红楼梦", "红楼", "hlm", "honglou", "hongloumeng", "hongl", "曹雪芹", "caoxueqin"})
+    void matchesTitleByCharactersAndPinyin(String query) {
+        assertEquals(List.of(1), index.search(query, null, null));
+    }
+
+    @Test
+    void bigramsDoNotMatchScatteredCharacters() {
+        // “楼梦”不是“楼兰梦影”中的相邻字
+        assertEquals(List.of(1), index.search("楼梦", null, null));
+    }
+
+    @Test
+    void prefixExpansionAppliesOnlyToLastTerm() {
+        assertEquals(List.of(4), index.search("effective ja", null, null));
+        assertTrue(index.search("effect java", null, null).isEmpty());
+    }
+
+    @Test
+    void titleSearchIgnoresOtherFields() {
+        // “小说”只出现在简介中，“人民”只出现在出版社中
+        assertEquals(2, index.search("小说", null, null).size());
+        assertTrue(index.searchTitles("小说", null, null).isEmpty());
+        assertTrue(index.searchTitles("人民", null, null).isEmpty());
+        assertTrue(index.searchTitles("曹雪芹", null, null).isEmpty());
+
+        assertEquals(List.of(1), index.searchTitles("红楼", null, null));
+        assertEquals(List.of(1), index.searchTitles("hongl", null, null));
+        assertEquals(List.of(4), index.searchTitles("effective ja", null, null));
+    }
+
+    @Test
+    void filtersByAuthor() {
+        assertEquals(List.of(2), index.search("小说", null, "吴承恩"));
+    }
+
+    @Test
+    void simpleModeKeepsCharacterMatching() {
+        BookSearchIndex simple = new BookSearchIndex();
+        ReflectionTestUtils.setField(simple, "mode", "simple");
+        simple.initTokenizer();
+        simple.upsert(document(1, "红楼梦", "曹雪芹", null, null));
+        simple.upsert(document(3, "楼兰梦影", "佚名", null, null));
+
+        assertEquals(2, simple.search("楼梦", null, null).size());
+        assertTrue(simple.search("hlm", null, null).isEmpty());
+    }
+
+    @Test
+    void loadRetriesFailedChunkUntilReady() throws InterruptedException {
+        BookSearchIndex loading = new BookSearchIndex();
+        ReflectionTestUtils.setField(loading, "mode", "cjk");
+        loading.initTokenizer();
+        BookRepository bookRepository = mock(BookRepository.class);
+        ReflectionTestUtils.setField(loading, "bookRepository", bookRepository);
+        when(bookRepository.findSearchDocumentsAfter(eq(0), any(Pageable.class)))
+                .thenThrow(new DataAccessResourceFailureException("database is starting"))
+                .thenReturn(List.of(document(1, "红楼梦", "曹雪芹", null, null)));
+        when(bookRepository.findSearchDocumentsAfter(eq(1), any(Pageable.class))).thenReturn(List.of());
+
+        loading.load();
+
+        assertTrue(loading.isReady());
+        assertEquals(List.of(1), loading.search("红楼梦", null, null));
+    }
+
+    private static BookSearchDocument document(int bookId, String title, String author, String publisher, String summary) {
+        return new BookSearchDocument() {
+            @Override
+            public Integer getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getAuthor() {
+                return author;
+            }
+
+            @Override
+            public String getPublisher() {
+                return publisher;
+            }
+
+            @Override
+            public String getSummary() {
+                return summary;
+            }
+
+            @Override
+            public Integer getCategory() {
+                return 1;
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package dev.rbq.library_management_system.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void encodesAndMatchesOnWorkerThreads() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 1, 4, Duration.ofSeconds(10));
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("other", hash));
+        encoder.destroy();
+    }
+
+    @Test
+    void bulkEncodingKeepsInputOrder() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 1, 1, Duration.ofSeconds(10));
+
+        List<String> hashes = encoder.encodeAll(List.of("first", "second", "third"));
+
+        assertTrue(encoder.matches("first", hashes.get(0)));
+        assertTrue(encoder.matches("second", hashes.get(1)));
+        assertTrue(encoder.matches("third", hashes.get(2)));
+        encoder.destroy();
+    }
+
+    @Test
+    void bulkPoolStaysSmallerThanInteractivePool() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 4, 4, Duration.ofSeconds(10));
+
+        assertEquals(2, encoder.getBulkThreads());
+        assertEquals(1, BoundedPasswordEncoder.defaultBulkThreads(1));
+        encoder.destroy();
+    }
+
+    @Test
+    void lowerStrengthHashesAreUpgraded() {
+        BoundedPasswordEncoder weak = new BoundedPasswordEncoder(4, 1, 4, Duration.ofSeconds(10));
+        BoundedPasswordEncoder strong = new BoundedPasswordEncoder(5, 1, 4, Duration.ofSeconds(10));
+
+        assertTrue(strong.upgradeEncoding(weak.encode("secret")));
+        assertFalse(weak.upgradeEncoding(strong.encode("secret")));
+        weak.destroy();
+        strong.destroy();
+    }
+
+    @Test
+    void fullQueueRejectsInsteadOfBlocking() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(12, 1, 1, Duration.ofSeconds(30));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<Boolean>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    encoder.encode("secret");
+                    return false;
+                } catch (PasswordHashingUnavailableException e) {
+                    return true;
+                }
+            }, callers));
+        }
+
+        assertTrue(calls.stream().map(CompletableFuture::join).anyMatch(rejected -> rejected));
+        callers.shutdown();
+        encoder.destroy();
+    }
+}
@@ -0,0 +1,82 @@
+package dev.rbq.library_management_system.security;
+
+import dev.rbq.library_management_system.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactSessionSerializerTest {
+
+    private final CompactSessionSerializer serializer = new CompactSessionSerializer(getClass().getClassLoader());
+
+    @Test
+    void securityContextRoundTripsWithPrincipalAndRole() {
+        SessionPrincipal principal = new SessionPrincipal("3f2a7c1e-0000-4000-8000-000000000001", "alice", "爱丽丝", true);
+
+        Object decoded = serializer.deserialize(serializer.serialize(new SecurityContextImpl(principal.toAuthentication())));
+
+        SecurityContext context = assertInstanceOf(SecurityContext.class, decoded);
+        assertEquals(principal, context.getAuthentication().getPrincipal());
+        assertEquals("3f2a7c1e-0000-4000-8000-000000000001", context.getAuthentication().getName());
+        assertTrue(context.getAuthentication().isAuthenticated());
+        assertEquals("ROLE_ADMIN", context.getAuthentication().getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void compactContextIsMuchSmallerThanJdkSerializedEntityContext() {
+        User user = new User("3f2a7c1e-0000-4000-8000-000000000001", "alice", "Alice",
+                "$2a$10$abcdefghijklmnopqrstuuJ0Zl5ZbYp1Xc0sN6hF0pQ3x2GmQnY6a", false);
+        UserDetailsImpl details = new UserDetailsImpl(user);
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(details, null, details.getAuthorities())));
+
+        byte[] compact = serializer.serialize(new SecurityContextImpl(SessionPrincipal.from(user).toAuthentication()));
+
+        assertTrue(compact.length * 10 < legacy.length,
+                "compact=" + compact.length + " legacy=" + legacy.length);
+    }
+
+    @Test
+    void sessionMetadataRoundTrips() {
+        assertEquals(1_700_000_000_000L, serializer.deserialize(serializer.serialize(1_700_000_000_000L)));
+        assertEquals(1800, serializer.deserialize(serializer.serialize(1800)));
+        assertEquals("expires:abc", serializer.deserialize(serializer.serialize("expires:abc")));
+    }
+
+    @Test
+    void valuesWrittenBeforeUpgradeAreStillReadable() {
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(1800);
+
+        assertEquals(1800, serializer.deserialize(legacy));
+    }
+
+    @Test
+    void legacyEntityContextIsConvertedToSessionPrincipal() {
+        User user = new User("3f2a7c1e-0000-4000-8000-000000000001", "alice", "Alice",
+                "$2a$10$abcdefghijklmnopqrstuuJ0Zl5ZbYp1Xc0sN6hF0pQ3x2GmQnY6a", true);
+        UserDetailsImpl details = new UserDetailsImpl(user);
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(new SecurityContextImpl(
+                UsernamePasswordAuthenticationToken.authenticated(details, null, details.getAuthorities())));
+
+        Object decoded = serializer.deserialize(legacy);
+
+        SecurityContext context = assertInstanceOf(CompactSessionSerializer.LegacySecurityContext.class, decoded);
+        assertEquals(SessionPrincipal.from(user), context.getAuthentication().getPrincipal());
+        assertEquals("ROLE_ADMIN", context.getAuthentication().getAuthorities().iterator().next().getAuthority());
+        // 写回时使用紧凑编码，不再包含密码哈希
+        assertEquals(SessionPrincipal.from(user),
+                ((SecurityContext) serializer.deserialize(serializer.serialize(context))).getAuthentication().getPrincipal());
+    }
+
+    @Test
+    void unreadableLegacyValueIsDropped() {
+        assertNull(serializer.deserialize(new byte[]{(byte) 0xAC, (byte) 0xED, 0, 5, 0x73}));
+    }
+}
@@ -0,0 +1,50 @@
+package dev.rbq.library_management_system.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginAttemptThrottleTest {
+
+    private final LoginAttemptThrottle throttle =
+            new LoginAttemptThrottle(3, Duration.ofMinutes(1), 2, Duration.ofMinutes(15));
+
+    @Test
+    void usernameIsBlockedAfterRepeatedFailuresUntilSuccess() {
+        throttle.checkLogin("Alice", "10.0.0.1");
+        throttle.loginFailed("alice", "10.0.0.1");
+        throttle.loginFailed("ALICE ", "10.0.0.1");
+
+        assertThrows(LoginThrottledException.class, () -> throttle.checkLogin("alice", "10.0.0.1"));
+
+        throttle.loginSucceeded("alice", "10.0.0.1");
+        assertDoesNotThrow(() -> throttle.checkLogin("alice", "10.0.0.1"));
+    }
+
+    @Test
+    void failuresFromAnotherAddressDoNotLockOutTheUser() {
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(100, Duration.ofMinutes(1), 2, Duration.ofMinutes(15));
+        // 第三方在自己的地址上反复猜测 admin 的密码
+        for (int i = 0; i < 5; i++) {
+            throttle.loginFailed("admin", "203.0.113.7");
+        }
+
+        assertThrows(LoginThrottledException.class, () -> throttle.checkLogin("admin", "203.0.113.7"));
+        assertDoesNotThrow(() -> throttle.checkLogin("admin", "10.0.0.2"));
+        throttle.loginSucceeded("admin", "10.0.0.2");
+        assertThrows(LoginThrottledException.class, () -> throttle.checkLogin("admin", "203.0.113.7"));
+    }
+
+    @Test
+    void addressIsLimitedAcrossUsernamesAndRegistrations() {
+        throttle.checkLogin("a", "10.0.0.9");
+        throttle.checkLogin("b", "10.0.0.9");
+        throttle.checkRegistration("10.0.0.9");
+
+        assertThrows(LoginThrottledException.class, () -> throttle.checkLogin("c", "10.0.0.9"));
+        assertDoesNotThrow(() -> throttle.checkLogin("c", "10.0.0.10"));
+    }
+}
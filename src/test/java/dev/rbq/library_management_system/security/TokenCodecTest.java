@@ -0,0 +1,49 @@
+package dev.rbq.library_management_system.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenCodecTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final long NOW = 1_700_000_000L;
+
+    private final TokenCodec codec = new TokenCodec(SECRET);
+
+    @Test
+    void accessTokenRoundTripsPrincipal() {
+        UUID tokenId = UUID.randomUUID();
+        String token = codec.encode(new TokenCodec.TokenClaims("user-1", TokenCodec.TYPE_ACCESS, tokenId,
+                NOW * 1000, NOW + 900, "alice", "爱丽丝", true));
+
+        TokenCodec.TokenClaims claims = codec.decode(token, TokenCodec.TYPE_ACCESS, NOW + 1);
+
+        assertEquals(tokenId, claims.getTokenId());
+        assertEquals(new SessionPrincipal("user-1", "alice", "爱丽丝", true), claims.toPrincipal());
+    }
+
+    @Test
+    void tamperedExpiredAndWrongTypeTokensAreRejected() {
+        String token = codec.encode(new TokenCodec.TokenClaims("user-1", TokenCodec.TYPE_REFRESH, UUID.randomUUID(),
+                NOW * 1000, NOW + 60, null, null, false));
+        String otherKey = new TokenCodec(SECRET.replace('0', 'x')).encode(new TokenCodec.TokenClaims("user-1",
+                TokenCodec.TYPE_REFRESH, UUID.randomUUID(), NOW * 1000, NOW + 60, null, null, false));
+
+        assertThrows(BadCredentialsException.class, () -> codec.decode(token, TokenCodec.TYPE_ACCESS, NOW));
+        assertThrows(BadCredentialsException.class, () -> codec.decode(token, TokenCodec.TYPE_REFRESH, NOW + 60));
+        assertThrows(BadCredentialsException.class, () -> codec.decode(otherKey, TokenCodec.TYPE_REFRESH, NOW));
+        assertThrows(BadCredentialsException.class, () -> codec.decode("a.b", TokenCodec.TYPE_REFRESH, NOW));
+        assertTrue(codec.decode(token, TokenCodec.TYPE_REFRESH, NOW).getUsername() == null);
+    }
+
+    @Test
+    void shortSecretsAreRefused() {
+        assertThrows(IllegalStateException.class, () -> new TokenCodec("too-short"));
+    }
+}
@@ -0,0 +1,53 @@
+package dev.rbq.library_management_system.security;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private static final String KEY = "library:token-revocations";
+    private static final long REVOKED_AT = 1_700_000_000_500L;
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class, RETURNS_DEEP_STUBS);
+    private final TokenRevocationList revocationList =
+            new TokenRevocationList(redisTemplate, mock(CacheInvalidationBus.class), KEY, 3600);
+
+    @Test
+    void tokensIssuedLaterInTheSameSecondSurviveUserRevocation() {
+        revocationList.revokeUser("user-1", REVOKED_AT);
+
+        assertTrue(revocationList.isRevoked(claims("user-1", REVOKED_AT - 1)));
+        // 修改密码后立即重新登录：与吊销在同一秒内签发
+        assertFalse(revocationList.isRevoked(claims("user-1", REVOKED_AT)));
+        assertFalse(revocationList.isRevoked(claims("user-1", REVOKED_AT + 400)));
+        assertFalse(revocationList.isRevoked(claims("user-2", REVOKED_AT - 1)));
+    }
+
+    @Test
+    void legacySecondEntriesStillRevokeTheWholeSecond() {
+        when(redisTemplate.opsForZSet().rangeByScore(eq(KEY), anyDouble(), anyDouble()))
+                .thenReturn(Set.of("u:user-1:1700000000"));
+
+        revocationList.load();
+
+        assertTrue(revocationList.isRevoked(claims("user-1", 1_700_000_000_999L)));
+        assertFalse(revocationList.isRevoked(claims("user-1", 1_700_000_001_000L)));
+    }
+
+    private static TokenCodec.TokenClaims claims(String subject, long issuedAtMillis) {
+        return new TokenCodec.TokenClaims(subject, TokenCodec.TYPE_REFRESH, UUID.randomUUID(),
+                issuedAtMillis, issuedAtMillis / 1000 + 3600, null, null, false);
+    }
+}
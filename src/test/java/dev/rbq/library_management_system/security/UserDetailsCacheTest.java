@@ -0,0 +1,92 @@
+package dev.rbq.library_management_system.security;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import dev.rbq.library_management_system.cache.CacheRegistry;
+import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class UserDetailsCacheTest {
+
+    private final CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+    private final UserDetailsCache cache = new UserDetailsCache();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(cache, "missingMaxSize", 100L);
+        ReflectionTestUtils.setField(cache, "missingTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "cacheRegistry", new CacheRegistry());
+        ReflectionTestUtils.setField(cache, "invalidationBus", bus);
+        cache.initCaches();
+    }
+
+    @Test
+    void existingUserIsLoadedOnceAndCopied() {
+        User first = cache.getUser("Alice", this::alice).orElseThrow();
+        User second = cache.getUser("alice", this::alice).orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertEquals("alice", second.getUsername());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void unknownUsernameIsNegativelyCached() {
+        for (int i = 0; i < 5; i++) {
+            assertFalse(cache.getUser("nobody", this::none).isPresent());
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void userChangeInvalidatesBothCachesAndNotifiesPeers() {
+        cache.getUser("alice", this::none);
+        cache.onUserChanged(new UserChangedEvent("uuid-1", UserChangedEvent.ChangeType.CREATE, "Alice"));
+
+        assertTrue(cache.getUser("alice", this::alice).isPresent());
+        assertEquals(2, loads.get());
+        verify(bus).publish(UserDetailsCache.INVALIDATION_REGION, "alice");
+    }
+
+    @Test
+    void importedChunkIsAnnouncedInOneMessage() {
+        cache.getUser("alice", this::none);
+        cache.onUserChanged(new UserChangedEvent(UserChangedEvent.ChangeType.CREATE, List.of("Alice")));
+        cache.onUserChanged(new UserChangedEvent(UserChangedEvent.ChangeType.CREATE, List.of("bob", "carol")));
+
+        assertTrue(cache.getUser("alice", this::alice).isPresent());
+        verify(bus).publish(eq(UserDetailsCache.INVALIDATION_REGION), argThat(key ->
+                Set.of(key.split("\n")).equals(Set.of("bob", "carol"))));
+    }
+
+    private Optional<User> alice() {
+        loads.incrementAndGet();
+        return Optional.of(new User("uuid-1", "alice", "Alice", "hash", false));
+    }
+
+    private Optional<User> none() {
+        loads.incrementAndGet();
+        return Optional.empty();
+    }
+}
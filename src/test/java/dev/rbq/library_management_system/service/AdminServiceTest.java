@@ -0,0 +1,89 @@
+package dev.rbq.library_management_system.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rbq.library_management_system.repository.UserJdbcRepository;
+import dev.rbq.library_management_system.repository.UserJdbcRepository.UserRow;
+import dev.rbq.library_management_system.security.SessionPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class AdminServiceTest {
+
+    @Mock
+    private UserJdbcRepository userJdbcRepository;
+
+    @InjectMocks
+    private AdminService adminService;
+
+    @AfterEach
+    void clearLogin() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void exportWritesStreamedRowsAsJsonArrayInOrder() throws Exception {
+        login(true);
+        ReflectionTestUtils.setField(adminService, "objectMapper", new ObjectMapper());
+        doAnswer(invocation -> {
+            Consumer<UserRow> consumer = invocation.getArgument(2);
+            consumer.accept(new UserRow("u-2", "alice", "同名", false));
+            consumer.accept(new UserRow("u-1", "bob", "同名", true));
+            return null;
+        }).when(userJdbcRepository).streamUsers(eq("a"), isNull(), any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        adminService.exportUsers("a", null).writeTo(out);
+
+        JsonNode users = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(2, users.size());
+        assertEquals("alice", users.get(0).get("username").asText());
+        assertEquals("同名", users.get(0).get("name").asText());
+        assertFalse(users.get(0).get("admin").asBoolean());
+        assertEquals("u-1", users.get(1).get("uuid").asText());
+        assertFalse(users.get(0).has("password"));
+    }
+
+    @Test
+    void exportWithNoRowsIsAnEmptyArray() throws Exception {
+        login(true);
+        ReflectionTestUtils.setField(adminService, "objectMapper", new ObjectMapper());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        adminService.exportUsers(null, null).writeTo(out);
+
+        assertEquals("[]", out.toString());
+    }
+
+    @Test
+    void exportRequiresAdministrator() {
+        login(false);
+
+        assertThrows(SecurityException.class, () -> adminService.exportUsers(null, null));
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    private static void login(boolean admin) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new SessionPrincipal("u-0", "admin", "管理员", admin).toAuthentication());
+    }
+}
@@ -0,0 +1,125 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.cache.CatalogCache;
+import dev.rbq.library_management_system.dto.book.BookResponse;
+import dev.rbq.library_management_system.dto.book.PageResponse;
+import dev.rbq.library_management_system.entity.Book;
+import dev.rbq.library_management_system.repository.BookRepository;
+import dev.rbq.library_management_system.search.BookSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @InjectMocks
+    private BookService bookService;
+
+    @BeforeEach
+    void passThroughCache() {
+        lenient().when(catalogCache.getBookList(anyInt(), anyInt(), any(), any(), any(), anyBoolean(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(8).get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void bookListNeverQueriesCopiesRegardlessOfPageSize(int pageSize) {
+        List<Book> books = new ArrayList<>();
+        for (int i = 1; i <= pageSize; i++) {
+            books.add(book(i, 0, 0));
+        }
+        when(bookRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(books, PageRequest.of(0, pageSize), pageSize));
+
+        PageResponse<BookResponse> page = bookService.getBookList(0, pageSize, null, null, null, false, null, null);
+
+        assertEquals(pageSize, page.getContent().size());
+        verify(bookRepository, times(1)).findAll(any(Pageable.class));
+        verifyNoMoreInteractions(bookRepository);
+    }
+
+    @Test
+    void copyCountsComeFromBookCounters() {
+        when(bookRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(book(1, 5, 3), book(2, 1, 0)), PageRequest.of(0, 10), 2));
+
+        List<BookResponse> content = bookService.getBookList(0, 10, null, null, null, false, null, null).getContent();
+
+        assertEquals(5L, content.get(0).getTotalCopies());
+        assertEquals(3L, content.get(0).getAvailableCopies());
+        assertEquals(1L, content.get(1).getTotalCopies());
+        assertEquals(0L, content.get(1).getAvailableCopies());
+    }
+
+    @Test
+    void availableOnlyUsesCounterIndex() {
+        when(bookRepository.findByAvailableCopiesGreaterThan(eq(0), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(book(1, 2, 1)), PageRequest.of(0, 10), 1));
+
+        List<BookResponse> content = bookService.getBookList(0, 10, null, null, null, true, "availableCopies", "desc").getContent();
+
+        assertEquals(1, content.size());
+        verify(bookRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void titleFilterUsesTitleOnlyIndexSearchUnlessTooManyMatch() {
+        when(bookSearchIndex.isReady()).thenReturn(true);
+        when(bookSearchIndex.searchTitles("红楼", null, null)).thenReturn(List.of(1, 3));
+        assertEquals(List.of(1, 3), bookService.matchTitleWithIndex("红楼", null, null));
+
+        List<Integer> broad = new ArrayList<>();
+        for (int i = 1; i <= BookService.MAX_INDEXED_TITLE_MATCHES + 1; i++) {
+            broad.add(i);
+        }
+        when(bookSearchIndex.searchTitles("a", null, null)).thenReturn(broad);
+        // 超过上限时不截断，改用数据库模糊查询
+        assertNull(bookService.matchTitleWithIndex("a", null, null));
+        verify(bookSearchIndex, never()).search(any(), any(), any());
+    }
+
+    private static Book book(int bookId, int totalCopies, int availableCopies) {
+        Book book = new Book();
+        book.setBookId(bookId);
+        book.setTitle("Book " + bookId);
+        book.setAuthor("Author");
+        book.setTotalCopies(totalCopies);
+        book.setAvailableCopies(availableCopies);
+        return book;
+    }
+}
@@ -0,0 +1,60 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.book.BarcodeRange;
+import dev.rbq.library_management_system.dto.book.BulkBookItemRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkBookItemServiceTest {
+
+    @Test
+    void expandsRangeWithZeroPadding() {
+        assertEquals(List.of("LIB0098", "LIB0099", "LIB0100"),
+                BulkBookItemService.expandRange(new BarcodeRange("LIB", 98L, 100L, 4)));
+        // 未指定宽度时按结束号的位数补零
+        assertEquals(List.of("08", "09", "10"), BulkBookItemService.expandRange(new BarcodeRange(null, 8L, 10L, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> BulkBookItemService.expandRange(new BarcodeRange("LIB", 1L, 1000L, 3)));
+        assertThrows(IllegalArgumentException.class,
+                () -> BulkBookItemService.expandRange(new BarcodeRange("LIB", 0L, 5000L, null)));
+    }
+
+    @Test
+    void requiresExactlyOneOfListAndRange() {
+        BulkBookItemRequest request = new BulkBookItemRequest();
+        request.setBookId(1);
+        assertThrows(IllegalArgumentException.class, () -> BulkBookItemService.resolveBarcodes(request));
+
+        request.setBarcodes(List.of("A1"));
+        request.setBarcodeRange(new BarcodeRange("A", 1L, 2L, null));
+        assertThrows(IllegalArgumentException.class, () -> BulkBookItemService.resolveBarcodes(request));
+    }
+
+    @Test
+    void trimsAndRejectsCaseInsensitiveDuplicates() {
+        BulkBookItemRequest request = new BulkBookItemRequest();
+        request.setBarcodes(List.of(" A1 ", "A2"));
+        assertEquals(List.of("A1", "A2"), BulkBookItemService.resolveBarcodes(request));
+
+        request.setBarcodes(List.of("a1", "A1"));
+        assertThrows(IllegalArgumentException.class, () -> BulkBookItemService.resolveBarcodes(request));
+    }
+
+    @Test
+    void onlyForeignKeyFailuresMeanTheBookIsMissing() {
+        assertTrue(BulkBookItemService.isMissingBook(new DataIntegrityViolationException("insert",
+                new SQLException("Cannot add or update a child row", "23000", 1452))));
+        assertTrue(BulkBookItemService.isMissingBook(new DataIntegrityViolationException("insert",
+                new SQLException("a foreign key constraint fails (CONSTRAINT `fk_book_items_book_id` ...)"))));
+        assertFalse(BulkBookItemService.isMissingBook(new DataIntegrityViolationException("insert",
+                new SQLException("Data too long for column 'location'", "22001", 1406))));
+    }
+}
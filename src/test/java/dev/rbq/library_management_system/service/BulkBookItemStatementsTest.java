@@ -0,0 +1,163 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.book.BarcodeRange;
+import dev.rbq.library_management_system.dto.book.BulkBookItemRequest;
+import dev.rbq.library_management_system.dto.book.BulkBookItemResponse;
+import dev.rbq.library_management_system.entity.Book;
+import dev.rbq.library_management_system.repository.BookRepository;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 批量登记的语句数：每 1000 个条码号一次冲突检查、一次 JDBC 批量插入和一次副本ID读回，
+ * 计数器只更新一次；语句在 JDBC 连接上统计，包括 JdbcTemplate 发出的批量插入
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // user 是 H2 的关键字；批量插入和计数器的 SQL 使用不加引号的小写表名
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.datasource.url=jdbc:h2:mem:bulk-book-items;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BulkBookItemService.class, CopyCounterService.class, InventoryJdbcRepository.class})
+// 副本计数器列不由实体写入，默认值在 database.sql 中定义
+@Sql(statements = {
+        "ALTER TABLE books ALTER COLUMN total_copies SET DEFAULT 0",
+        "ALTER TABLE books ALTER COLUMN available_copies SET DEFAULT 0"
+})
+class BulkBookItemStatementsTest {
+
+    private static final int COPIES = 2500;
+
+    private static final Pattern COLLISION_QUERY = Pattern.compile("^select \\w+\\.barcode from book_items .*");
+    private static final Pattern READ_BACK_QUERY = Pattern.compile("^select \\w+\\.item_id,.* from book_items .*");
+    private static final Pattern BATCH_INSERT = Pattern.compile("^insert into book_items .*");
+    private static final Pattern COUNTER_UPDATE = Pattern.compile("^update books set total_copies .*");
+
+    // 连接上准备的语句（小写、去掉标识符引号）和每次 executeBatch 提交的行数
+    private static final List<String> PREPARED = new CopyOnWriteArrayList<>();
+    private static final List<Integer> BATCH_SIZES = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private BulkBookItemService bulkBookItemService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void registersCopiesWithChunkedBatchesAndOneCollisionQueryPerChunk() {
+        Book book = bookRepository.save(new Book(null, "Title", "Author", null, null, null, null, null));
+        BulkBookItemRequest request = new BulkBookItemRequest();
+        request.setBookId(book.getBookId());
+        request.setBarcodeRange(new BarcodeRange("LIB", 1L, (long) COPIES, 6));
+
+        PREPARED.clear();
+        BATCH_SIZES.clear();
+        BulkBookItemResponse response = bulkBookItemService.addBookItems(request);
+
+        assertEquals(COPIES, response.getItemIds().size());
+        assertEquals(3, count(COLLISION_QUERY), PREPARED::toString);
+        assertEquals(3, count(BATCH_INSERT), PREPARED::toString);
+        assertEquals(List.of(1000, 1000, 500), BATCH_SIZES);
+        assertEquals(3, count(READ_BACK_QUERY), PREPARED::toString);
+        assertEquals(1, count(COUNTER_UPDATE), PREPARED::toString);
+
+        assertEquals(COPIES, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM book_items WHERE book_id = ?", Integer.class, book.getBookId()));
+        assertEquals(COPIES, jdbcTemplate.queryForObject(
+                "SELECT available_copies FROM books WHERE book_id = ?", Integer.class, book.getBookId()));
+    }
+
+    private static long count(Pattern pattern) {
+        return PREPARED.stream().filter(sql -> pattern.matcher(sql).matches()).count();
+    }
+
+    @TestConfiguration
+    static class RecordStatements {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? recording(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static DataSource recording(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, args, result) ->
+                result instanceof Connection connection ? recording(connection) : result);
+    }
+
+    private static Connection recording(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) -> {
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                PREPARED.add(((String) args[0]).replace("\"", "").toLowerCase(Locale.ROOT));
+                return recording(statement);
+            }
+            return result;
+        });
+    }
+
+    private static PreparedStatement recording(PreparedStatement statement) {
+        int[] pending = new int[1];
+        return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+            if (method.getName().equals("addBatch")) {
+                pending[0]++;
+            } else if (method.getName().equals("executeBatch")) {
+                BATCH_SIZES.add(pending[0]);
+                pending[0] = 0;
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 转发全部调用，再用 after 处理（或替换）返回值
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, AfterCall after) {
+        return (T) Proxy.newProxyInstance(
+                BulkBookItemStatementsTest.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return after.apply(method, args, result);
+        });
+    }
+
+    private interface AfterCall {
+        Object apply(Method method, Object[] args, Object result);
+    }
+}
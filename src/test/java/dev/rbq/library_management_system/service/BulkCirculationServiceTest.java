@@ -0,0 +1,142 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.borrow.BulkCheckoutRequest;
+import dev.rbq.library_management_system.dto.borrow.BulkCirculationResponse;
+import dev.rbq.library_management_system.dto.borrow.BulkItemResult;
+import dev.rbq.library_management_system.dto.borrow.BulkReturnRequest;
+import dev.rbq.library_management_system.repository.CirculationJdbcRepository;
+import dev.rbq.library_management_system.repository.CirculationJdbcRepository.ItemRow;
+import dev.rbq.library_management_system.repository.UserRepository;
+import dev.rbq.library_management_system.transaction.RetryingTransactionExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkCirculationServiceTest {
+
+    @Mock
+    private CirculationJdbcRepository circulationJdbcRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CopyCounterService copyCounterService;
+
+    @Mock
+    private RetryingTransactionExecutor retryingTransactionExecutor;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BulkCirculationService bulkCirculationService;
+
+    @BeforeEach
+    void runActionsInline() {
+        lenient().when(retryingTransactionExecutor.execute(any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+    }
+
+    @Test
+    void checkoutReportsEachBarcodeAndBatchesTheRest() {
+        when(userRepository.existsById("u1")).thenReturn(true);
+        when(circulationJdbcRepository.lockItemsByBarcodes(anyCollection())).thenReturn(List.of(
+                new ItemRow(1, 10, "A1", "Available"),
+                new ItemRow(2, 10, "A2", "Available"),
+                new ItemRow(3, 20, "B1", "Checked_Out")
+        ));
+
+        BulkCirculationResponse response = bulkCirculationService.checkout(
+                new BulkCheckoutRequest("u1", List.of("A1", "A2", "B1", "X9", "A1")));
+
+        assertEquals(5, response.getRequested());
+        assertEquals(2, response.getSucceeded());
+        assertEquals(3, response.getFailed());
+        List<BulkItemResult> results = response.getResults();
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("The book copy does not exist.", results.get(3).getMessage());
+        assertEquals("Duplicate barcode in request", results.get(4).getMessage());
+
+        verify(circulationJdbcRepository).batchUpdateItemStatus(List.of(1, 2), "Checked_Out");
+        verify(circulationJdbcRepository).batchInsertBorrowRecords(anyList());
+        verify(copyCounterService).adjustAvailable(Map.of(10, -2));
+    }
+
+    @Test
+    void barcodesMatchIgnoringCase() {
+        when(userRepository.existsById("u1")).thenReturn(true);
+        when(circulationJdbcRepository.lockItemsByBarcodes(anyCollection())).thenReturn(List.of(
+                new ItemRow(1, 10, "A1", "Available")
+        ));
+
+        BulkCirculationResponse response = bulkCirculationService.checkout(
+                new BulkCheckoutRequest("u1", List.of("a1", "A1")));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals("a1", response.getResults().get(0).getBarcode());
+        assertEquals("Duplicate barcode in request", response.getResults().get(1).getMessage());
+        verify(circulationJdbcRepository).batchUpdateItemStatus(List.of(1), "Checked_Out");
+    }
+
+    @Test
+    void checkoutRejectsUnknownPatronBeforeLocking() {
+        when(userRepository.existsById("missing")).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> bulkCirculationService.checkout(
+                new BulkCheckoutRequest("missing", List.of("A1"))));
+        verify(circulationJdbcRepository, never()).lockItemsByBarcodes(anyCollection());
+    }
+
+    @Test
+    void returnOnlyClosesActiveLoans() {
+        when(circulationJdbcRepository.lockItemsByBarcodes(anyCollection())).thenReturn(List.of(
+                new ItemRow(1, 10, "A1", "Checked_Out"),
+                new ItemRow(2, 10, "A2", "Available")
+        ));
+        when(circulationJdbcRepository.lockActiveRecordIdsByItemIds(anyCollection(), eq("Checked_Out")))
+                .thenReturn(Map.of(1, "r1"));
+
+        BulkCirculationResponse response = bulkCirculationService.returnItems(new BulkReturnRequest(List.of("A1", "A2")));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals("r1", response.getResults().get(0).getRecordId());
+        assertEquals("This copy of the book is not checked out", response.getResults().get(1).getMessage());
+        verify(circulationJdbcRepository).batchReturnRecords(eq(List.of("r1")), eq("Returned"), any());
+        verify(circulationJdbcRepository).batchUpdateItemStatus(List.of(1), "Available");
+        verify(copyCounterService).adjustAvailable(Map.of(10, 1));
+    }
+
+    @Test
+    void rejectsOversizedBatch() {
+        List<String> barcodes = Collections.nCopies(BulkCirculationService.MAX_BATCH_SIZE + 1, "A1");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bulkCirculationService.returnItems(new BulkReturnRequest(barcodes)));
+    }
+}
@@ -0,0 +1,114 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.book.BulkStatusChangeRequest;
+import dev.rbq.library_management_system.dto.book.BulkStatusChangeResponse;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository.ItemFilter;
+import dev.rbq.library_management_system.repository.InventoryJdbcRepository.ItemRow;
+import dev.rbq.library_management_system.transaction.RetryingTransactionExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkStatusChangeServiceTest {
+
+    @Mock
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @Mock
+    private CopyCounterService copyCounterService;
+
+    @Mock
+    private RetryingTransactionExecutor retryingTransactionExecutor;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BulkStatusChangeService bulkStatusChangeService;
+
+    @BeforeEach
+    void runActionsInline() {
+        lenient().when(retryingTransactionExecutor.execute(any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+    }
+
+    @Test
+    void withdrawSkipsCheckedOutCopiesAndAdjustsAvailability() {
+        when(inventoryJdbcRepository.lockItemsMatching(any(ItemFilter.class), anyCollection())).thenReturn(List.of(
+                new ItemRow(1, 10, "A1", "A-1", "Available"),
+                new ItemRow(2, 10, "A2", "A-1", "Damaged"),
+                new ItemRow(3, 10, "A3", "A-1", "Checked_Out"),
+                new ItemRow(4, 20, "B1", "A-1", "Withdrawn")
+        ));
+
+        BulkStatusChangeResponse response = bulkStatusChangeService.changeStatus(
+                new BulkStatusChangeRequest("Withdrawn", List.of(1, 2, 3, 4, 5), null, null, null, null, null));
+
+        assertEquals(4, response.getMatched());
+        assertEquals(2, response.getUpdated());
+        assertEquals(1, response.getUnchanged());
+        assertEquals(1, response.getSkippedCheckedOut());
+        verify(inventoryJdbcRepository).updateItemStatus(List.of(1, 2), "Withdrawn");
+        verify(copyCounterService).adjustAvailable(Map.of(10, -1));
+    }
+
+    @Test
+    void filterModeWalksChunksByItemId() {
+        when(inventoryJdbcRepository.findItemIdsMatching(any(ItemFilter.class), eq(0), anyInt()))
+                .thenReturn(List.of(7, 8));
+        when(inventoryJdbcRepository.findItemIdsMatching(any(ItemFilter.class), eq(8), anyInt()))
+                .thenReturn(List.of());
+        when(inventoryJdbcRepository.lockItemsMatching(any(ItemFilter.class), eq(List.of(7, 8)))).thenReturn(List.of(
+                new ItemRow(7, 30, "C1", "B-2-01", "Damaged"),
+                new ItemRow(8, 30, "C2", "B-2-01", "Damaged")
+        ));
+
+        BulkStatusChangeResponse response = bulkStatusChangeService.changeStatus(
+                new BulkStatusChangeRequest("Available", null, null, "B-2", null, null, "Damaged"));
+
+        assertEquals(2, response.getUpdated());
+        verify(inventoryJdbcRepository).updateItemStatus(List.of(7, 8), "Available");
+        verify(copyCounterService).adjustAvailable(Map.of(30, 2));
+    }
+
+    @Test
+    void filterModeRejectsTooManyMatches() {
+        when(inventoryJdbcRepository.countItemsMatching(any(ItemFilter.class)))
+                .thenReturn((long) BulkStatusChangeService.MAX_FILTER_MATCHES + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> bulkStatusChangeService.changeStatus(
+                new BulkStatusChangeRequest("Withdrawn", null, null, "B", null, null, null)));
+        verify(inventoryJdbcRepository, never()).findItemIdsMatching(any(ItemFilter.class), anyInt(), anyInt());
+        verify(inventoryJdbcRepository, never()).updateItemStatus(anyCollection(), any());
+    }
+
+    @Test
+    void rejectsUnscopedOrCirculationStatusChanges() {
+        assertThrows(IllegalArgumentException.class, () -> bulkStatusChangeService.changeStatus(
+                new BulkStatusChangeRequest("Lost", null, null, " ", null, null, "Available")));
+        assertThrows(IllegalArgumentException.class, () -> bulkStatusChangeService.changeStatus(
+                new BulkStatusChangeRequest("Checked Out", List.of(1), null, null, null, null, null)));
+        verify(inventoryJdbcRepository, never()).lockItemsMatching(any(ItemFilter.class), anyCollection());
+    }
+}
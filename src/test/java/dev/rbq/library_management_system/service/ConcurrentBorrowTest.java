@@ -0,0 +1,144 @@
+package dev.rbq.library_management_system.service;
+
+import dev.rbq.library_management_system.dto.borrow.BorrowRequest;
+import dev.rbq.library_management_system.entity.Book;
+import dev.rbq.library_management_system.entity.BookItem;
+import dev.rbq.library_management_system.entity.BookItem.BookItemStatus;
+import dev.rbq.library_management_system.entity.User;
+import dev.rbq.library_management_system.repository.BookItemRepository;
+import dev.rbq.library_management_system.repository.BookRepository;
+import dev.rbq.library_management_system.repository.BorrowRecordRepository;
+import dev.rbq.library_management_system.repository.UserRepository;
+import dev.rbq.library_management_system.transaction.RetryingTransactionExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多个线程同时借阅同一个可借副本：只有一个成功，只写入一条借阅记录，可借副本数只减一次
+ * 每次借阅在自己的事务中提交，测试本身不开启事务
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // user 是 H2 的关键字；计数器的原生 SQL 使用不加引号的小写表名
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "spring.datasource.url=jdbc:h2:mem:concurrent-borrow;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BorrowRecordService.class, CopyCounterService.class, RetryingTransactionExecutor.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+// 副本计数器列不由实体写入，默认值在 database.sql 中定义
+@Sql(statements = {
+        "ALTER TABLE books ALTER COLUMN total_copies SET DEFAULT 0",
+        "ALTER TABLE books ALTER COLUMN available_copies SET DEFAULT 0"
+})
+class ConcurrentBorrowTest {
+
+    private static final int REQUESTS = 200;
+    private static final int THREADS = 50;
+
+    @Autowired
+    private BorrowRecordService borrowRecordService;
+
+    @Autowired
+    private CopyCounterService copyCounterService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookItemRepository bookItemRepository;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    private Integer bookId;
+
+    private Integer itemId;
+
+    @BeforeEach
+    void createOneAvailableCopy() {
+        userRepository.save(new User("u-01", "s01", "alice", "$2a$10$hash", false));
+        Book book = bookRepository.save(new Book(null, "Title", "Author", null, null, null, null, null));
+        BookItem item = bookItemRepository.save(
+                new BookItem(book, "BC-1", null, BookItemStatus.Available, null, null, null));
+        copyCounterService.copyAdded(book.getBookId(), BookItemStatus.Available);
+        bookId = book.getBookId();
+        itemId = item.getItemId();
+    }
+
+    @AfterEach
+    void deleteEverything() {
+        borrowRecordRepository.deleteAll();
+        bookItemRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOneOfManyConcurrentBorrowsGetsTheCopy() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        List<Throwable> refusals = new ArrayList<>();
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    borrowRecordService.borrowBook("u-01", new BorrowRequest(itemId));
+                    succeeded.incrementAndGet();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    refusals.add(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, succeeded.get());
+        assertEquals(REQUESTS - 1, refusals.size());
+        for (Throwable refusal : refusals) {
+            // 副本已借出；重试用尽的锁等待超时同样是拒绝，但不会重复借出
+            assertTrue(refusal instanceof IllegalStateException
+                    || refusal instanceof PessimisticLockingFailureException, refusal::toString);
+        }
+        assertEquals(1, borrowRecordRepository.count());
+        assertEquals(BookItemStatus.Checked_Out, bookItemRepository.findStatusByItemId(itemId).orElseThrow());
+        Book book = bookRepository.findById(bookId).orElseThrow();
+        assertEquals(0, book.getAvailableCopies());
+        assertEquals(1, book.getTotalCopies());
+    }
+}
@@ -0,0 +1,41 @@
+package dev.rbq.library_management_system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserImportServiceTest {
+
+    @Test
+    void parsesPlainAndQuotedCsvFields() {
+        assertEquals(List.of("s2024001", "张三", "pa,ss\"word"),
+                UserImportService.parseCsvLine("s2024001,张三,\"pa,ss\"\"word\""));
+        assertEquals(List.of("a", "", ""), UserImportService.parseCsvLine("a,,"));
+    }
+
+    @Test
+    void nonObjectJsonLinesAreRowErrors() {
+        UserImportService service = new UserImportService();
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+
+        for (String line : List.of("null", "[]", "42", "\"s2024001\"", "{")) {
+            assertNotNull(service.parseJsonRow(1, line).error(), line);
+        }
+        UserImportService.ImportRow row = service.parseJsonRow(2,
+                "{\"username\":\" s2024001 \",\"name\":\"张三\",\"password\":\"secret1\"}");
+        assertNull(row.error());
+        assertEquals("s2024001", row.username());
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> UserImportService.parseCsvLine("a,\"b"));
+    }
+}
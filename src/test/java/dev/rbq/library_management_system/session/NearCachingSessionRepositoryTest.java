@@ -0,0 +1,99 @@
+package dev.rbq.library_management_system.session;
+
+import dev.rbq.library_management_system.cache.CacheInvalidationBus;
+import dev.rbq.library_management_system.cache.NamedCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository.RedisSession;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NearCachingSessionRepositoryTest {
+
+    private static final Instant LOADED_AT = Instant.now().minusSeconds(10);
+
+    @Mock
+    private RedisIndexedSessionRepository delegate;
+
+    @Mock
+    private CacheInvalidationBus invalidationBus;
+
+    @Mock
+    private RedisSession redisSession;
+
+    private NearCachingSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisSession.getId()).thenReturn("s1");
+        lenient().when(redisSession.getCreationTime()).thenReturn(LOADED_AT);
+        lenient().when(redisSession.getLastAccessedTime()).thenReturn(LOADED_AT);
+        lenient().when(redisSession.getMaxInactiveInterval()).thenReturn(Duration.ofMinutes(30));
+        lenient().when(redisSession.getAttributeNames()).thenReturn(Set.of());
+        when(delegate.findById("s1")).thenReturn(redisSession);
+
+        repository = new NearCachingSessionRepository(delegate,
+                new NamedCache<>("session", 100, Duration.ofMinutes(1)), invalidationBus, Duration.ofSeconds(60));
+    }
+
+    @Test
+    void repeatedLookupsAreServedLocally() {
+        repository.findById("s1");
+        repository.findById("s1");
+
+        verify(delegate, times(1)).findById("s1");
+    }
+
+    @Test
+    void lastAccessedTimeWritesAreCoalesced() {
+        NearCachingSessionRepository.NearCachedSession session = repository.findById("s1");
+        session.setLastAccessedTime(LOADED_AT.plusSeconds(5));
+        repository.save(session);
+
+        verify(delegate, never()).save(any());
+
+        session = repository.findById("s1");
+        session.setLastAccessedTime(LOADED_AT.plusSeconds(61));
+        repository.save(session);
+
+        verify(delegate, times(1)).save(redisSession);
+    }
+
+    @Test
+    void attributeChangesAreWrittenAndBroadcast() {
+        NearCachingSessionRepository.NearCachedSession session = repository.findById("s1");
+        session.setAttribute("key", "value");
+        repository.save(session);
+
+        verify(redisSession).setAttribute("key", "value");
+        verify(delegate).save(redisSession);
+        verify(invalidationBus).publish(NearCachingSessionRepository.INVALIDATION_REGION, "s1");
+        assertEquals("value", repository.findById("s1").getAttribute("key"));
+    }
+
+    @Test
+    void deleteEvictsLocallyAndOnPeers() {
+        repository.findById("s1");
+        repository.deleteById("s1");
+        repository.findById("s1");
+
+        verify(delegate).deleteById("s1");
+        verify(invalidationBus).publish(NearCachingSessionRepository.INVALIDATION_REGION, "s1");
+        verify(delegate, times(2)).findById("s1");
+    }
+}
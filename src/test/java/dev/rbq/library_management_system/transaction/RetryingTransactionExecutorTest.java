@@ -0,0 +1,72 @@
+package dev.rbq.library_management_system.transaction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetryingTransactionExecutorTest {
+
+    private PlatformTransactionManager transactionManager;
+    private RetryingTransactionExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        executor = new RetryingTransactionExecutor();
+        ReflectionTestUtils.setField(executor, "transactionTemplate", new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void retriesLockFailuresInFreshTransactions() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(() -> {
+            if (attempts.incrementAndGet() < RetryingTransactionExecutor.MAX_ATTEMPTS) {
+                throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(RetryingTransactionExecutor.MAX_ATTEMPTS, attempts.get());
+        verify(transactionManager, times(RetryingTransactionExecutor.MAX_ATTEMPTS - 1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () -> executor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("Lock wait timeout exceeded");
+        }));
+        assertEquals(RetryingTransactionExecutor.MAX_ATTEMPTS, attempts.get());
+    }
+
+    @Test
+    void doesNotRetryBusinessFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> executor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("This copy of the book is currently unavailable for borrowing");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}